@@ -17,6 +17,7 @@ repositories {
 dependencies {
   implementation("org.jgrapht:jgrapht-core:1.5.1")
   implementation("org.jgrapht:jgrapht-io:1.5.1")
+  implementation(project(":jgrapht-basic"))
 
   implementation(kotlin("stdlib"))
   testImplementation(kotlin("test"))
@@ -42,3 +43,13 @@ tasks.withType<Test> {
 application {
   mainClass.set("io.github.aaronchenwei.learning.jgrapht.HelloJGraphTKt") // The main class of the application
 }
+
+tasks.register<JavaExec>("serve") {
+  group = "application"
+  description = "Serves graph queries on an edge list file, e.g. -PserveArgs=graph.txt,localhost:7878,--directed."
+  classpath = sourceSets["main"].runtimeClasspath
+  mainClass.set("io.github.aaronchenwei.learning.jgrapht.GraphServer")
+  if (project.hasProperty("serveArgs")) {
+    args(project.property("serveArgs").toString().split(","))
+  }
+}
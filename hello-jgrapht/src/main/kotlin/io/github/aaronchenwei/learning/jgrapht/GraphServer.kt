@@ -0,0 +1,56 @@
+@file:JvmName("GraphServer")
+
+package io.github.aaronchenwei.learning.jgrapht
+
+import io.github.aaronchenwei.learning.jgrapht.graph.IntCsrGraph
+import io.github.aaronchenwei.learning.jgrapht.nio.EdgeListLoader
+import io.github.aaronchenwei.learning.jgrapht.server.GraphQueryServer
+import java.io.IOException
+import java.net.InetSocketAddress
+import java.net.SocketAddress
+import java.net.UnixDomainSocketAddress
+import java.nio.file.Path
+
+/**
+ * Loads an edge list once and serves neighbor, path and reachability queries on it until the JVM is stopped.
+ *
+ * Arguments: the edge list file, then optionally the address to listen on, `host:port` or `unix:/path/to/socket`
+ * (default `localhost:7878`), `--directed` and `--binary` (see [EdgeListLoader]).
+ *
+ * @throws IOException if the file cannot be read or the address cannot be bound.
+ */
+@Throws(IOException::class)
+fun main(args: Array<String>) {
+  val flags = args.filter { it.startsWith("--") }.toSet()
+  val positional = args.filterNot { it.startsWith("--") }
+  require(positional.isNotEmpty()) { "usage: GraphServer <edge list> [host:port | unix:path] [--directed] [--binary]" }
+
+  val format = if ("--binary" in flags) EdgeListLoader.Format.BINARY else EdgeListLoader.Format.TEXT
+  val file = Path.of(positional[0])
+  val graph: IntCsrGraph = if ("--directed" in flags) {
+    EdgeListLoader(format).loadDirected(file)
+  } else {
+    EdgeListLoader(format).loadUndirected(file)
+  }
+
+  val server = GraphQueryServer(graph)
+  server.start(parseAddress(positional.getOrElse(1) { "localhost:7878" }))
+  Runtime.getRuntime().addShutdownHook(Thread { server.close() })
+  Thread.currentThread().join()
+}
+
+/**
+ * Parse a listening address.
+ *
+ * @param address `host:port` or `unix:` followed by the path of a socket file
+ *
+ * @return the socket address
+ */
+private fun parseAddress(address: String): SocketAddress {
+  if (address.startsWith("unix:")) {
+    return UnixDomainSocketAddress.of(address.removePrefix("unix:"))
+  }
+  val host = address.substringBeforeLast(':')
+  val port = address.substringAfterLast(':').toInt()
+  return InetSocketAddress(host, port)
+}
@@ -1,26 +1,25 @@
 package io.github.aaronchenwei.learning.jgrapht
 
+import io.github.aaronchenwei.learning.jgrapht.graph.FrozenGraph
+import io.github.aaronchenwei.learning.jgrapht.nio.StreamingDotExporter
+import io.github.aaronchenwei.learning.jgrapht.scoring.ParallelPageRank
+import io.github.aaronchenwei.learning.jgrapht.traverse.IntTraversal
 import org.jgrapht.Graph
 import org.jgrapht.graph.DefaultDirectedGraph
 import org.jgrapht.graph.DefaultEdge
 import org.jgrapht.graph.SimpleGraph
-import org.jgrapht.nio.Attribute
-import org.jgrapht.nio.DefaultAttribute
-import org.jgrapht.nio.dot.DOTExporter
-import org.jgrapht.traverse.DepthFirstIterator
-import java.io.StringWriter
-import java.io.Writer
+import java.io.IOException
 import java.net.URI
 import java.net.URISyntaxException
-import java.rmi.server.ExportException
+import java.nio.channels.Channels
 
 /**
  * The starting point for the demo.
  *
  * @throws URISyntaxException if invalid URI is constructed.
- * @throws ExportException if graph cannot be exported.
+ * @throws IOException if graph cannot be exported.
  */
-@Throws(URISyntaxException::class, ExportException::class)
+@Throws(URISyntaxException::class, IOException::class)
 fun main() {
   val stringGraph: Graph<String, DefaultEdge> = createStringGraph()
 
@@ -46,6 +45,9 @@ fun main() {
   println("-- traverseHrefGraph output")
   traverseHrefGraph(hrefGraph, start)
   println()
+  println("-- rankHrefGraph output")
+  rankHrefGraph(hrefGraph)
+  println()
   println("-- renderHrefGraph output")
   renderHrefGraph(hrefGraph)
   println()
@@ -84,31 +86,40 @@ private fun createHrefGraph(): Graph<URI, DefaultEdge> {
  * @param start the vertex where the traversal should start
  */
 private fun traverseHrefGraph(hrefGraph: Graph<URI, DefaultEdge>, start: URI) {
-  val iterator: Iterator<URI> = DepthFirstIterator(hrefGraph, start)
-  while (iterator.hasNext()) {
-    val uri: URI = iterator.next()
-    println(uri)
+  val frozen: FrozenGraph<URI, DefaultEdge> = FrozenGraph.freeze(hrefGraph)
+  IntTraversal(frozen.vertexCount()).depthFirst(frozen.outgoing(), frozen.vertexId(start)) { v, _ ->
+    println(frozen.vertex(v))
+    true
+  }
+}
+
+/**
+ * Rank the pages of a graph by PageRank and print them, highest first.
+ *
+ * @param hrefGraph a graph based on URI objects
+ */
+private fun rankHrefGraph(hrefGraph: Graph<URI, DefaultEdge>) {
+  val frozen: FrozenGraph<URI, DefaultEdge> = FrozenGraph.freeze(hrefGraph)
+  val scores: Map<URI, Double> = ParallelPageRank(frozen).run().toMap(frozen)
+  scores.entries.sortedByDescending { it.value }.forEach { (uri, score) ->
+    println("%.4f %s".format(score, uri))
   }
 }
 
 /**
- * Render a graph in DOT format.
+ * Render a graph in DOT format, streaming it to standard output.
  *
  * @param hrefGraph a graph based on URI objects
  */
-@Throws(ExportException::class)
+@Throws(IOException::class)
 private fun renderHrefGraph(hrefGraph: Graph<URI, DefaultEdge>) {
-  val exporter: DOTExporter<URI, DefaultEdge> = DOTExporter { v ->
+  val exporter: StreamingDotExporter<URI, DefaultEdge> = StreamingDotExporter { v ->
     v.host.replace('.', '_')
   }
-  exporter.setVertexAttributeProvider { v ->
-    val map: MutableMap<String, Attribute> = LinkedHashMap()
-    map["label"] = DefaultAttribute.createAttribute(v.toString())
-    map
+  exporter.setVertexAttributeWriter { v, attributes ->
+    attributes.put("label", v.toString())
   }
-  val writer: Writer = StringWriter()
-  exporter.exportGraph(hrefGraph, writer)
-  println(writer.toString())
+  exporter.exportGraph(hrefGraph, Channels.newChannel(System.out))
 }
 
 /**
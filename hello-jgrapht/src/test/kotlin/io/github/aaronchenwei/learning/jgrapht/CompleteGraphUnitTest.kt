@@ -1,13 +1,15 @@
 package io.github.aaronchenwei.learning.jgrapht
 
+import io.github.aaronchenwei.learning.jgrapht.graph.FrozenGraph
+import io.github.aaronchenwei.learning.jgrapht.traverse.IntTraversal
 import org.jgrapht.generate.CompleteGraphGenerator
 import org.jgrapht.graph.DefaultEdge
 import org.jgrapht.graph.SimpleGraph
-import org.jgrapht.traverse.DepthFirstIterator
 import org.jgrapht.util.SupplierUtil
 import java.util.function.Supplier
 import kotlin.test.BeforeTest
 import kotlin.test.Test
+import kotlin.test.assertEquals
 
 class CompleteGraphUnitTest {
   private var completeGraph: SimpleGraph<String, DefaultEdge>? = null
@@ -37,12 +39,14 @@ class CompleteGraphUnitTest {
   @Test
   fun givenCompleteGraph_thenTraversalDFS() {
     // Print out the graph to be sure it's really complete
-    val iterator: Iterator<String> = DepthFirstIterator(completeGraph)
-    while (iterator.hasNext()) {
-      val vertex = iterator.next()
+    val frozen: FrozenGraph<String, DefaultEdge> = FrozenGraph.freeze(completeGraph!!)
+    val visited = IntTraversal(frozen.vertexCount()).depthFirst(frozen.outgoing()) { v, _ ->
+      val vertex = frozen.vertex(v)
       println(
         "Vertex " + vertex + " is connected to: " + completeGraph!!.edgesOf(vertex).toString()
       )
+      true
     }
+    assertEquals(size, visited)
   }
 }
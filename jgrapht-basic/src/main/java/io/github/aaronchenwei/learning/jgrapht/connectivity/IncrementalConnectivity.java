@@ -0,0 +1,217 @@
+package io.github.aaronchenwei.learning.jgrapht.connectivity;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import org.jgrapht.Graphs;
+import org.jgrapht.ListenableGraph;
+import org.jgrapht.event.GraphEdgeChangeEvent;
+import org.jgrapht.event.GraphListener;
+import org.jgrapht.event.GraphVertexChangeEvent;
+
+/**
+ * The connected components of a {@link ListenableGraph}, kept up to date as edges and vertices are added and removed.
+ * Directed edges are followed both ways, so a directed graph gets its weakly connected components.
+ *
+ * <p>Every vertex maps to its component, so {@link #connected} is two hash lookups. The tracker also keeps a spanning
+ * forest of the graph:
+ *
+ * <ul>
+ *   <li>an edge between two components becomes a forest edge, and the members of the smaller component move to the
+ *       larger one;</li>
+ *   <li>removing an edge that is not in the forest changes nothing;</li>
+ *   <li>removing a forest edge cuts a tree in two. The two sides are traversed in turns over forest edges until one
+ *       of them is exhausted, and the edges of that smaller side are scanned for a replacement that reconnects it.
+ *       Only if there is none does the component split.</li>
+ * </ul>
+ *
+ * <p>Insertions cost {@code O(log n)} amortized moves per vertex; a removal costs nothing, or a traversal of the
+ * smaller side of the cut tree. Like the graph itself, the tracker is not thread-safe.
+ *
+ * @param <V> the graph vertex type.
+ * @param <E> the graph edge type.
+ */
+public class IncrementalConnectivity<V, E> {
+
+  private final ListenableGraph<V, E> graph;
+  private final Map<V, Component<V>> components = new HashMap<>();
+  private final Set<E> forest = new HashSet<>();
+  private final GraphListener<V, E> listener = new Listener();
+  private int componentCount;
+
+  /**
+   * Computes the components of a graph and starts listening to it.
+   *
+   * @param graph the graph.
+   */
+  public IncrementalConnectivity(ListenableGraph<V, E> graph) {
+    this.graph = Objects.requireNonNull(graph, "graph");
+    for (V v : graph.vertexSet()) {
+      vertexAdded(v);
+    }
+    for (E e : graph.edgeSet()) {
+      edgeAdded(e, graph.getEdgeSource(e), graph.getEdgeTarget(e));
+    }
+    graph.addGraphListener(listener);
+  }
+
+  /**
+   * Stops listening to the graph. The tracker must not be used afterwards.
+   */
+  public void close() {
+    graph.removeGraphListener(listener);
+  }
+
+  /**
+   * Whether there is a path between two vertices.
+   *
+   * @param u a vertex.
+   * @param v a vertex.
+   * @return true if both vertices are in the same component.
+   * @throws IllegalArgumentException if a vertex is not in the graph.
+   */
+  public boolean connected(V u, V v) {
+    return component(u) == component(v);
+  }
+
+  /**
+   * Returns the component of a vertex.
+   *
+   * @param v the vertex.
+   * @return an unmodifiable view of the vertices of the component, which changes with the graph.
+   * @throws IllegalArgumentException if the vertex is not in the graph.
+   */
+  public Set<V> componentOf(V v) {
+    return Collections.unmodifiableSet(component(v).members);
+  }
+
+  public int componentCount() {
+    return componentCount;
+  }
+
+  private Component<V> component(V v) {
+    var component = components.get(v);
+    if (component == null) {
+      throw new IllegalArgumentException("graph must contain the vertex: " + v);
+    }
+    return component;
+  }
+
+  private void vertexAdded(V v) {
+    var component = new Component<V>();
+    component.members.add(v);
+    components.put(v, component);
+    componentCount++;
+  }
+
+  private void vertexRemoved(V v) {
+    // the listenable graph removes the edges of a vertex first, so the vertex is alone by now
+    var component = components.remove(v);
+    component.members.remove(v);
+    if (component.members.isEmpty()) {
+      componentCount--;
+    }
+  }
+
+  private void edgeAdded(E e, V u, V v) {
+    var cu = components.get(u);
+    var cv = components.get(v);
+    if (cu == cv) {
+      return;
+    }
+    forest.add(e);
+    var small = cu.members.size() < cv.members.size() ? cu : cv;
+    var large = small == cu ? cv : cu;
+    for (V w : small.members) {
+      components.put(w, large);
+    }
+    large.members.addAll(small.members);
+    componentCount--;
+  }
+
+  private void edgeRemoved(E e, V u, V v) {
+    if (!forest.remove(e)) {
+      return;
+    }
+    var side = smallerSide(u, v);
+    for (V x : side) {
+      for (E f : graph.edgesOf(x)) {
+        if (!side.contains(Graphs.getOppositeVertex(graph, f, x))) {
+          forest.add(f);
+          return;
+        }
+      }
+    }
+    var component = components.get(u);
+    var split = new Component<V>();
+    for (V x : side) {
+      components.put(x, split);
+    }
+    split.members.addAll(side);
+    component.members.removeAll(side);
+    componentCount++;
+  }
+
+  /**
+   * Traverses the forest from both ends of a removed forest edge in turns, and returns the vertices of the side
+   * that is exhausted first.
+   */
+  private Set<V> smallerSide(V u, V v) {
+    var first = new Side(u);
+    var second = new Side(v);
+    for (var side = first; ; side = side == first ? second : first) {
+      if (side.queue.isEmpty()) {
+        return side.visited;
+      }
+      V x = side.queue.poll();
+      for (E f : graph.edgesOf(x)) {
+        if (forest.contains(f)) {
+          V y = Graphs.getOppositeVertex(graph, f, x);
+          if (side.visited.add(y)) {
+            side.queue.add(y);
+          }
+        }
+      }
+    }
+  }
+
+  private final class Side {
+    final Set<V> visited = new HashSet<>();
+    final ArrayDeque<V> queue = new ArrayDeque<>();
+
+    Side(V start) {
+      visited.add(start);
+      queue.add(start);
+    }
+  }
+
+  private static final class Component<V> {
+    final Set<V> members = new HashSet<>();
+  }
+
+  private class Listener implements GraphListener<V, E> {
+    @Override
+    public void edgeAdded(GraphEdgeChangeEvent<V, E> e) {
+      IncrementalConnectivity.this.edgeAdded(e.getEdge(), e.getEdgeSource(), e.getEdgeTarget());
+    }
+
+    @Override
+    public void edgeRemoved(GraphEdgeChangeEvent<V, E> e) {
+      IncrementalConnectivity.this.edgeRemoved(e.getEdge(), e.getEdgeSource(), e.getEdgeTarget());
+    }
+
+    @Override
+    public void vertexAdded(GraphVertexChangeEvent<V> e) {
+      IncrementalConnectivity.this.vertexAdded(e.getVertex());
+    }
+
+    @Override
+    public void vertexRemoved(GraphVertexChangeEvent<V> e) {
+      IncrementalConnectivity.this.vertexRemoved(e.getVertex());
+    }
+  }
+}
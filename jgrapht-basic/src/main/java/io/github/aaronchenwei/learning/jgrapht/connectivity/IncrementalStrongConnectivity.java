@@ -0,0 +1,393 @@
+package io.github.aaronchenwei.learning.jgrapht.connectivity;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import org.jgrapht.ListenableGraph;
+import org.jgrapht.event.GraphEdgeChangeEvent;
+import org.jgrapht.event.GraphListener;
+import org.jgrapht.event.GraphVertexChangeEvent;
+
+/**
+ * The strongly connected components of a directed {@link ListenableGraph}, kept up to date as edges and vertices are
+ * added and removed.
+ *
+ * <p>Every vertex maps to its component, so {@link #stronglyConnected} is two hash lookups. The components are also
+ * kept in a topological order of the condensation (every edge between two components goes from a lower to a higher
+ * position):
+ *
+ * <ul>
+ *   <li>an edge that agrees with the order changes nothing. An edge {@code (u, v)} against it is handled as in the
+ *       dynamic topological sort of Pearce and Kelly: a forward search from {@code v} and a backward search from
+ *       {@code u}, both limited to the components between the two positions, find the affected region. If the
+ *       searches meet, the components on the new cycles are merged; the region is then reordered within the
+ *       positions it already used;</li>
+ *   <li>removing an edge between two components changes nothing, and removing an edge inside a component re-runs
+ *       Tarjan's algorithm on that component alone, which may split it.</li>
+ * </ul>
+ *
+ * <p>Positions are {@code long} values with gaps between them, so that the parts of a split component fit where the
+ * component was; the gaps are renumbered in the rare case that one is too small. Like the graph itself, the tracker
+ * is not thread-safe.
+ *
+ * @param <V> the graph vertex type.
+ * @param <E> the graph edge type.
+ */
+public class IncrementalStrongConnectivity<V, E> {
+
+  private static final long GAP = 1L << 20;
+
+  private final ListenableGraph<V, E> graph;
+  private final Map<V, Component<V>> components = new HashMap<>();
+  private final TreeMap<Long, Component<V>> order = new TreeMap<>();
+  private final GraphListener<V, E> listener = new Listener();
+
+  /**
+   * Computes the strongly connected components of a graph and starts listening to it.
+   *
+   * @param graph the graph; it must be directed.
+   */
+  public IncrementalStrongConnectivity(ListenableGraph<V, E> graph) {
+    this.graph = Objects.requireNonNull(graph, "graph");
+    if (!graph.getType().isDirected()) {
+      throw new IllegalArgumentException("graph must be directed");
+    }
+    var parts = tarjan(graph.vertexSet(), null);
+    long position = 0;
+    for (int i = parts.size() - 1; i >= 0; i--) {
+      position += GAP;
+      place(parts.get(i), position);
+    }
+    graph.addGraphListener(listener);
+  }
+
+  /**
+   * Stops listening to the graph. The tracker must not be used afterwards.
+   */
+  public void close() {
+    graph.removeGraphListener(listener);
+  }
+
+  /**
+   * Whether two vertices can reach each other.
+   *
+   * @param u a vertex.
+   * @param v a vertex.
+   * @return true if both vertices are in the same strongly connected component.
+   * @throws IllegalArgumentException if a vertex is not in the graph.
+   */
+  public boolean stronglyConnected(V u, V v) {
+    return component(u) == component(v);
+  }
+
+  /**
+   * Returns the strongly connected component of a vertex.
+   *
+   * @param v the vertex.
+   * @return an unmodifiable view of the vertices of the component, which changes with the graph.
+   * @throws IllegalArgumentException if the vertex is not in the graph.
+   */
+  public Set<V> componentOf(V v) {
+    return Collections.unmodifiableSet(component(v).members);
+  }
+
+  public int componentCount() {
+    return order.size();
+  }
+
+  /**
+   * Returns the components in a topological order of the condensation: a vertex can only reach the vertices of its
+   * own and of later components.
+   *
+   * @return a new list of unmodifiable views of the components.
+   */
+  public List<Set<V>> components() {
+    var result = new ArrayList<Set<V>>(order.size());
+    for (var component : order.values()) {
+      result.add(Collections.unmodifiableSet(component.members));
+    }
+    return result;
+  }
+
+  private Component<V> component(V v) {
+    var component = components.get(v);
+    if (component == null) {
+      throw new IllegalArgumentException("graph must contain the vertex: " + v);
+    }
+    return component;
+  }
+
+  private void place(Set<V> members, long position) {
+    var component = new Component<>(members, position);
+    for (V v : members) {
+      components.put(v, component);
+    }
+    order.put(position, component);
+  }
+
+  private void vertexAdded(V v) {
+    var members = new HashSet<V>();
+    members.add(v);
+    place(members, order.isEmpty() ? GAP : order.lastKey() + GAP);
+  }
+
+  private void vertexRemoved(V v) {
+    // the listenable graph removes the edges of a vertex first, so the vertex is alone by now
+    var component = components.remove(v);
+    component.members.remove(v);
+    if (component.members.isEmpty()) {
+      order.remove(component.position);
+    }
+  }
+
+  private void edgeAdded(V u, V v) {
+    var cu = components.get(u);
+    var cv = components.get(v);
+    if (cu == cv || cu.position < cv.position) {
+      return;
+    }
+    long lower = cv.position;
+    long upper = cu.position;
+
+    // the components reachable from v, and the components that reach u, between the two positions
+    var forward = new HashSet<Component<V>>();
+    boolean cycle = false;
+    var stack = new ArrayDeque<Component<V>>();
+    forward.add(cv);
+    stack.push(cv);
+    while (!stack.isEmpty()) {
+      var c = stack.pop();
+      for (V x : c.members) {
+        for (E e : graph.outgoingEdgesOf(x)) {
+          var w = components.get(graph.getEdgeTarget(e));
+          if (w.position <= upper && forward.add(w)) {
+            cycle |= w == cu;
+            stack.push(w);
+          }
+        }
+      }
+    }
+    var backward = new HashSet<Component<V>>();
+    backward.add(cu);
+    stack.push(cu);
+    while (!stack.isEmpty()) {
+      var c = stack.pop();
+      for (V x : c.members) {
+        for (E e : graph.incomingEdgesOf(x)) {
+          var w = components.get(graph.getEdgeSource(e));
+          if (w.position >= lower && backward.add(w)) {
+            stack.push(w);
+          }
+        }
+      }
+    }
+
+    var positions = new ArrayList<Long>();
+    for (var c : forward) {
+      positions.add(c.position);
+      order.remove(c.position);
+    }
+    for (var c : backward) {
+      if (!forward.contains(c)) {
+        positions.add(c.position);
+        order.remove(c.position);
+      }
+    }
+    Collections.sort(positions);
+
+    Component<V> merged = null;
+    if (cycle) {
+      // the components both reachable from v and reaching u are now one
+      var cycles = new ArrayList<Component<V>>();
+      for (var c : forward) {
+        if (backward.contains(c)) {
+          cycles.add(c);
+        }
+      }
+      forward.removeAll(cycles);
+      backward.removeAll(cycles);
+      merged = Collections.max(cycles, Comparator.comparingInt(c -> c.members.size()));
+      for (var c : cycles) {
+        if (c != merged) {
+          for (V x : c.members) {
+            components.put(x, merged);
+          }
+          merged.members.addAll(c.members);
+        }
+      }
+    }
+
+    // what reaches u first, then the merged component, then what v reaches, each in their old relative order
+    var before = sorted(backward);
+    var after = sorted(forward);
+    int next = 0;
+    for (var c : before) {
+      reposition(c, positions.get(next++));
+    }
+    if (merged != null) {
+      reposition(merged, positions.get(next));
+    }
+    next = positions.size() - after.size();
+    for (var c : after) {
+      reposition(c, positions.get(next++));
+    }
+  }
+
+  private void edgeRemoved(V u, V v) {
+    var component = components.get(u);
+    if (component != components.get(v) || u.equals(v) || graph.containsEdge(u, v)) {
+      return;
+    }
+    var parts = tarjan(component.members, component);
+    if (parts.size() == 1) {
+      return;
+    }
+    var lowerKey = order.lowerKey(component.position);
+    var higherKey = order.higherKey(component.position);
+    long lower = lowerKey == null ? component.position - GAP : lowerKey;
+    long higher = higherKey == null ? component.position + GAP : higherKey;
+    if (higher - lower <= parts.size()) {
+      renumber(Math.max(GAP, parts.size() + 1L));
+      lowerKey = order.lowerKey(component.position);
+      lower = lowerKey == null ? 0 : lowerKey;
+      higher = component.position;
+    }
+    order.remove(component.position);
+    // Tarjan lists the parts sinks first
+    long step = (higher - lower) / (parts.size() + 1);
+    for (int i = 0; i < parts.size(); i++) {
+      place(parts.get(parts.size() - 1 - i), lower + step * (i + 1));
+    }
+  }
+
+  /**
+   * Spreads the positions evenly again, keeping their order.
+   */
+  private void renumber(long spacing) {
+    var ordered = new ArrayList<>(order.values());
+    order.clear();
+    long position = 0;
+    for (var c : ordered) {
+      position += spacing;
+      reposition(c, position);
+    }
+  }
+
+  private void reposition(Component<V> component, long position) {
+    component.position = position;
+    order.put(position, component);
+  }
+
+  private List<Component<V>> sorted(Collection<Component<V>> region) {
+    var list = new ArrayList<>(region);
+    list.sort(Comparator.comparingLong(c -> c.position));
+    return list;
+  }
+
+  /**
+   * Tarjan's algorithm, iterative, over a set of vertices. When {@code within} is not null only the vertices of that
+   * component are visited.
+   *
+   * @return the components, sinks first.
+   */
+  private List<Set<V>> tarjan(Collection<V> vertices, Component<V> within) {
+    var index = new HashMap<V, Integer>();
+    var low = new HashMap<V, Integer>();
+    var onStack = new HashSet<V>();
+    var stack = new ArrayDeque<V>();
+    var callStack = new ArrayDeque<V>();
+    var iterators = new ArrayDeque<Iterator<E>>();
+    var result = new ArrayList<Set<V>>();
+    for (V root : vertices) {
+      if (index.containsKey(root)) {
+        continue;
+      }
+      index.put(root, index.size());
+      low.put(root, index.get(root));
+      stack.push(root);
+      onStack.add(root);
+      callStack.push(root);
+      iterators.push(graph.outgoingEdgesOf(root).iterator());
+      while (!callStack.isEmpty()) {
+        V x = callStack.peek();
+        var edges = iterators.peek();
+        if (edges.hasNext()) {
+          V y = graph.getEdgeTarget(edges.next());
+          if (within != null && components.get(y) != within) {
+            continue;
+          }
+          if (!index.containsKey(y)) {
+            index.put(y, index.size());
+            low.put(y, index.get(y));
+            stack.push(y);
+            onStack.add(y);
+            callStack.push(y);
+            iterators.push(graph.outgoingEdgesOf(y).iterator());
+          } else if (onStack.contains(y)) {
+            low.put(x, Math.min(low.get(x), index.get(y)));
+          }
+          continue;
+        }
+        callStack.pop();
+        iterators.pop();
+        if (!callStack.isEmpty()) {
+          V parent = callStack.peek();
+          low.put(parent, Math.min(low.get(parent), low.get(x)));
+        }
+        if (low.get(x).equals(index.get(x))) {
+          var members = new HashSet<V>();
+          V y;
+          do {
+            y = stack.pop();
+            onStack.remove(y);
+            members.add(y);
+          } while (!y.equals(x));
+          result.add(members);
+        }
+      }
+    }
+    return result;
+  }
+
+  private static final class Component<V> {
+    final Set<V> members;
+    long position;
+
+    Component(Set<V> members, long position) {
+      this.members = members;
+      this.position = position;
+    }
+  }
+
+  private class Listener implements GraphListener<V, E> {
+    @Override
+    public void edgeAdded(GraphEdgeChangeEvent<V, E> e) {
+      IncrementalStrongConnectivity.this.edgeAdded(e.getEdgeSource(), e.getEdgeTarget());
+    }
+
+    @Override
+    public void edgeRemoved(GraphEdgeChangeEvent<V, E> e) {
+      IncrementalStrongConnectivity.this.edgeRemoved(e.getEdgeSource(), e.getEdgeTarget());
+    }
+
+    @Override
+    public void vertexAdded(GraphVertexChangeEvent<V> e) {
+      IncrementalStrongConnectivity.this.vertexAdded(e.getVertex());
+    }
+
+    @Override
+    public void vertexRemoved(GraphVertexChangeEvent<V> e) {
+      IncrementalStrongConnectivity.this.vertexRemoved(e.getVertex());
+    }
+  }
+}
@@ -0,0 +1,71 @@
+package io.github.aaronchenwei.learning.jgrapht.generate;
+
+import io.github.aaronchenwei.learning.jgrapht.graph.IntArrayGraph;
+import io.github.aaronchenwei.learning.jgrapht.graph.IntCsrGraph;
+import java.util.concurrent.ForkJoinPool;
+import org.jgrapht.GraphType;
+
+/**
+ * A graph made by {@link ParallelGenerators}, held as primitive edge columns over the vertices {@code 0..n-1}.
+ *
+ * <p>The columns are exactly as long as the edge count and are never modified, so {@link #toCsrGraph()} hands them
+ * to the {@link IntCsrGraph} without a copy.
+ */
+public final class GeneratedGraph {
+
+  private final int vertexCount;
+  private final int[] sources;
+  private final int[] targets;
+  private final ForkJoinPool pool;
+
+  GeneratedGraph(int vertexCount, int[] sources, int[] targets, ForkJoinPool pool) {
+    this.vertexCount = vertexCount;
+    this.sources = sources;
+    this.targets = targets;
+    this.pool = pool;
+  }
+
+  public int vertexCount() {
+    return vertexCount;
+  }
+
+  public int edgeCount() {
+    return sources.length;
+  }
+
+  public int edgeSource(int edge) {
+    return sources[edge];
+  }
+
+  public int edgeTarget(int edge) {
+    return targets[edge];
+  }
+
+  /**
+   * Builds an undirected {@link IntCsrGraph} on the generator's pool, sharing the edge columns.
+   *
+   * @return the graph.
+   */
+  public IntCsrGraph toCsrGraph() {
+    return IntCsrGraph.undirected(pool, vertexCount, sources, targets, null);
+  }
+
+  /**
+   * Builds an {@link IntArrayGraph} of the given type with one batch of vertices and one batch of edges. Edges that
+   * the type rejects as multiple edges are skipped.
+   *
+   * @param type the graph type.
+   * @return the graph.
+   * @throws IllegalArgumentException if the graph has a self-loop and the type does not allow them.
+   */
+  public IntArrayGraph toIntArrayGraph(GraphType type) {
+    var graph = new IntArrayGraph(type, vertexCount, sources.length);
+    var vertices = new int[vertexCount];
+    for (int v = 0; v < vertexCount; v++) {
+      vertices[v] = v;
+    }
+    graph.addVertices(vertices);
+    graph.addEdges(sources, targets, null);
+    return graph;
+  }
+}
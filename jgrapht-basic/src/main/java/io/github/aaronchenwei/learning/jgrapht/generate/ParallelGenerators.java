@@ -0,0 +1,311 @@
+package io.github.aaronchenwei.learning.jgrapht.generate;
+
+import io.github.aaronchenwei.learning.jgrapht.util.ParallelRange;
+import java.util.Objects;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Parallel counterparts of the jgrapht {@code CompleteGraphGenerator}, {@code GnpRandomGraphGenerator} and
+ * {@code BarabasiAlbertGraphGenerator}, plus an R-MAT generator, writing primitive edge columns instead of calling
+ * {@code addEdge} once per edge.
+ *
+ * <p>The output depends only on the arguments and the seed, never on the pool: the work is cut into blocks whose
+ * bounds do not depend on the parallelism, each block draws from its own {@link SplittableRandom} seeded from
+ * {@code (seed, block)}, and every block writes a fixed range of the result. The columns are allocated once at
+ * their final length; G(n,p) finds the length by running each block twice, counting and then writing, rather than
+ * buffering the edges.
+ */
+public final class ParallelGenerators {
+
+  private static final int BLOCK = 1 << 16;
+  private static final int MAX_BLOCKS = 1 << 12;
+  private static final long MAX_EDGES = Integer.MAX_VALUE - 8;
+  private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+  private ParallelGenerators() {
+  }
+
+  /**
+   * Generates the complete graph on {@code n} vertices: one edge {@code (v, u)} for every {@code v < u}, ordered by
+   * {@code u} and then {@code v}.
+   *
+   * @param pool the pool to run in.
+   * @param n the number of vertices.
+   * @return the graph.
+   * @throws IllegalArgumentException if {@code n} is negative or the graph has too many edges for an array.
+   */
+  public static GeneratedGraph complete(ForkJoinPool pool, int n) {
+    Objects.requireNonNull(pool, "pool");
+    if (n < 0) {
+      throw new IllegalArgumentException("negative vertex count: " + n);
+    }
+    int m = edgeCount((long) n * (n - 1) / 2);
+    var sources = new int[m];
+    var targets = new int[m];
+    int blocks = blockCount(m, BLOCK);
+    ParallelRange.forEach(pool, 0, blocks, 1, (from, to) -> {
+      for (int b = from; b < to; b++) {
+        int start = b * BLOCK;
+        int end = (int) Math.min((long) start + BLOCK, m);
+        int u = triangleRow(start);
+        int v = (int) (start - triangle(u));
+        for (int e = start; e < end; e++) {
+          sources[e] = v;
+          targets[e] = u;
+          if (++v == u) {
+            u++;
+            v = 0;
+          }
+        }
+      }
+    });
+    return new GeneratedGraph(n, sources, targets, pool);
+  }
+
+  /**
+   * Generates an Erdos-Renyi G(n,p) graph: every pair {@code v < u} is an edge {@code (v, u)} with probability
+   * {@code p}, independently. Pairs are visited by geometric skipping (Batagelj and Brandes), so the time is
+   * proportional to the number of edges rather than of pairs.
+   *
+   * @param pool the pool to run in.
+   * @param n the number of vertices.
+   * @param p the edge probability.
+   * @param seed the random seed.
+   * @return the graph, without self-loops or multiple edges.
+   * @throws IllegalArgumentException if an argument is out of range or the graph has too many edges for an array.
+   */
+  public static GeneratedGraph gnp(ForkJoinPool pool, int n, double p, long seed) {
+    Objects.requireNonNull(pool, "pool");
+    if (n < 0) {
+      throw new IllegalArgumentException("negative vertex count: " + n);
+    }
+    if (!(p >= 0.0 && p <= 1.0)) {
+      throw new IllegalArgumentException("probability out of range: " + p);
+    }
+    long pairs = (long) n * (n - 1) / 2;
+    if (p == 0.0 || pairs == 0) {
+      return new GeneratedGraph(n, new int[0], new int[0], pool);
+    }
+    // a fixed number of blocks for large graphs, so that the counts below stay small
+    long blockSize = Math.max(BLOCK, (pairs + MAX_BLOCKS - 1) / MAX_BLOCKS);
+    int blocks = (int) ((pairs + blockSize - 1) / blockSize);
+    double logq = Math.log1p(-p);
+    var counts = new long[blocks + 1];
+    ParallelRange.forEach(pool, 0, blocks, 1, (from, to) -> {
+      for (int b = from; b < to; b++) {
+        counts[b + 1] = gnpBlock(seed, b, b * blockSize, Math.min((b + 1) * blockSize, pairs), logq, null, null, 0);
+      }
+    });
+    for (int b = 0; b < blocks; b++) {
+      counts[b + 1] += counts[b];
+    }
+    int m = edgeCount(counts[blocks]);
+    var sources = new int[m];
+    var targets = new int[m];
+    ParallelRange.forEach(pool, 0, blocks, 1, (from, to) -> {
+      for (int b = from; b < to; b++) {
+        gnpBlock(seed, b, b * blockSize, Math.min((b + 1) * blockSize, pairs), logq, sources, targets,
+          (int) counts[b]);
+      }
+    });
+    return new GeneratedGraph(n, sources, targets, pool);
+  }
+
+  /**
+   * Visits the pairs {@code [start, end)} of one G(n,p) block, writing the edges from {@code offset} on when the
+   * columns are given.
+   *
+   * @return the number of edges in the block.
+   */
+  private static long gnpBlock(long seed, int block, long start, long end, double logq, int[] sources,
+    int[] targets, int offset) {
+    var random = random(seed, block);
+    long count = 0;
+    long pair = start - 1;
+    while (true) {
+      // the number of pairs skipped before the next edge is geometric with parameter p
+      double skip = Math.floor(Math.log(1.0 - random.nextDouble()) / logq);
+      if (skip >= end - pair - 1) {
+        return count;
+      }
+      pair += 1 + (long) skip;
+      if (sources != null) {
+        int u = triangleRow(pair);
+        sources[offset] = (int) (pair - triangle(u));
+        targets[offset] = u;
+        offset++;
+      }
+      count++;
+    }
+  }
+
+  /**
+   * Generates a Barabasi-Albert preferential-attachment graph. Vertex 0 is the seed; every later vertex {@code u}
+   * adds {@code d} edges {@code (u, t)} to earlier vertices, each picking {@code t} with probability proportional to
+   * its degree among the edges of the vertices before {@code u}.
+   *
+   * <p>The edges are chosen independently with the copy model of Sanders and Schulz: edge {@code e} draws one
+   * position among the endpoints of the earlier vertices' edges and copies the vertex there, following the draws of
+   * earlier edges when the position is a target. As each draw depends only on {@code (seed, e)}, every edge is
+   * computed on its own. Two edges of one vertex may pick the same target, so the graph can have multiple edges
+   * (but no self-loops).
+   *
+   * @param pool the pool to run in.
+   * @param n the number of vertices.
+   * @param d the number of edges added by each vertex after the first.
+   * @param seed the random seed.
+   * @return the graph, with {@code (n - 1) * d} edges.
+   * @throws IllegalArgumentException if an argument is out of range or the graph has too many edges for an array.
+   */
+  public static GeneratedGraph barabasiAlbert(ForkJoinPool pool, int n, int d, long seed) {
+    Objects.requireNonNull(pool, "pool");
+    if (n < 1) {
+      throw new IllegalArgumentException("at least one vertex is required: " + n);
+    }
+    if (d < 1) {
+      throw new IllegalArgumentException("at least one edge per vertex is required: " + d);
+    }
+    int m = edgeCount((long) (n - 1) * d);
+    var sources = new int[m];
+    var targets = new int[m];
+    int blocks = blockCount(m, BLOCK);
+    ParallelRange.forEach(pool, 0, blocks, 1, (from, to) -> {
+      for (int b = from; b < to; b++) {
+        int end = (int) Math.min((long) (b + 1) * BLOCK, m);
+        for (int e = b * BLOCK; e < end; e++) {
+          sources[e] = e / d + 1;
+          targets[e] = attachmentTarget(seed, e, d);
+        }
+      }
+    });
+    return new GeneratedGraph(n, sources, targets, pool);
+  }
+
+  /**
+   * Resolves the target of a Barabasi-Albert edge.
+   */
+  private static int attachmentTarget(long seed, int edge, int d) {
+    int e = edge;
+    while (true) {
+      int source = e / d + 1;
+      if (source == 1) {
+        return 0;
+      }
+      // positions 2i and 2i+1 are the source and the target of edge i, over the edges of vertices 1..source-1
+      long positions = 2L * (source - 1) * d;
+      long position = (long) ((mix64(seed + GOLDEN_GAMMA * (e + 1L)) >>> 11) * 0x1.0p-53 * positions);
+      e = (int) (position >>> 1);
+      if ((position & 1) == 0) {
+        return e / d + 1;
+      }
+    }
+  }
+
+  /**
+   * Generates an R-MAT graph (Chakrabarti, Zhan and Faloutsos) on {@code 2^scale} vertices: each edge descends
+   * {@code scale} times into one quadrant of the adjacency matrix, top-left with probability {@code a}, top-right
+   * with {@code b}, bottom-left with {@code c} and bottom-right with the rest.
+   *
+   * @param pool the pool to run in.
+   * @param scale the base-2 logarithm of the number of vertices, from 1 to 30.
+   * @param edgeCount the number of edges.
+   * @param a the top-left probability.
+   * @param b the top-right probability.
+   * @param c the bottom-left probability.
+   * @param seed the random seed.
+   * @return the graph, which can have self-loops and multiple edges.
+   * @throws IllegalArgumentException if an argument is out of range.
+   */
+  public static GeneratedGraph rmat(ForkJoinPool pool, int scale, int edgeCount, double a, double b, double c,
+    long seed) {
+    Objects.requireNonNull(pool, "pool");
+    if (scale < 1 || scale > 30) {
+      throw new IllegalArgumentException("scale out of range: " + scale);
+    }
+    if (edgeCount < 0 || edgeCount > MAX_EDGES) {
+      throw new IllegalArgumentException("edge count out of range: " + edgeCount);
+    }
+    if (!(a >= 0.0 && b >= 0.0 && c >= 0.0 && a + b + c <= 1.0)) {
+      throw new IllegalArgumentException("quadrant probabilities out of range: " + a + ", " + b + ", " + c);
+    }
+    double ab = a + b;
+    double abc = a + b + c;
+    var sources = new int[edgeCount];
+    var targets = new int[edgeCount];
+    int blocks = blockCount(edgeCount, BLOCK);
+    ParallelRange.forEach(pool, 0, blocks, 1, (from, to) -> {
+      for (int block = from; block < to; block++) {
+        var random = random(seed, block);
+        int end = (int) Math.min((long) (block + 1) * BLOCK, edgeCount);
+        for (int e = block * BLOCK; e < end; e++) {
+          int u = 0;
+          int v = 0;
+          for (int bit = 1 << (scale - 1); bit != 0; bit >>>= 1) {
+            double r = random.nextDouble();
+            if (r >= abc) {
+              u |= bit;
+              v |= bit;
+            } else if (r >= ab) {
+              u |= bit;
+            } else if (r >= a) {
+              v |= bit;
+            }
+          }
+          sources[e] = u;
+          targets[e] = v;
+        }
+      }
+    });
+    return new GeneratedGraph(1 << scale, sources, targets, pool);
+  }
+
+  /**
+   * The random source of one block.
+   */
+  private static SplittableRandom random(long seed, int block) {
+    return new SplittableRandom(mix64(seed + GOLDEN_GAMMA * (block + 1L)));
+  }
+
+  /**
+   * The SplitMix64 finalizer, as used by {@link SplittableRandom}.
+   */
+  private static long mix64(long z) {
+    z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+    z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+    return z ^ (z >>> 31);
+  }
+
+  /**
+   * The number of pairs {@code (v, u)} with {@code v < u} before row {@code u}.
+   */
+  private static long triangle(int u) {
+    return (long) u * (u - 1) / 2;
+  }
+
+  /**
+   * The row {@code u} of the pair with the given index, that is the largest {@code u} with
+   * {@code triangle(u) <= pair}.
+   */
+  private static int triangleRow(long pair) {
+    int u = (int) ((1.0 + Math.sqrt(1.0 + 8.0 * pair)) / 2.0);
+    while (triangle(u) > pair) {
+      u--;
+    }
+    while (triangle(u + 1) <= pair) {
+      u++;
+    }
+    return u;
+  }
+
+  private static int blockCount(long size, long blockSize) {
+    return (int) ((size + blockSize - 1) / blockSize);
+  }
+
+  private static int edgeCount(long m) {
+    if (m > MAX_EDGES) {
+      throw new IllegalArgumentException("too many edges for an array: " + m);
+    }
+    return (int) m;
+  }
+}
@@ -0,0 +1,132 @@
+package io.github.aaronchenwei.learning.jgrapht.graph;
+
+import java.util.ArrayList;
+import java.util.Objects;
+import java.util.function.Supplier;
+import org.jgrapht.Graph;
+import org.jgrapht.GraphType;
+
+/**
+ * Batch counterparts of {@link org.jgrapht.Graphs#addAllVertices} and repeated {@code addEdge} calls, taking arrays
+ * of vertices and of edge endpoints with optional weights, and {@link #build} for a whole graph at once.
+ *
+ * <p>A batch is all or nothing: a missing endpoint, or a self-loop in a graph type that forbids them (such as
+ * {@code SimpleWeightedGraph}), rejects the whole batch. Edges that the graph rejects as multiple edges are skipped,
+ * as {@code addEdge} would skip them.
+ *
+ * <p>An {@link IntArrayGraph} is handed the whole batch ({@link IntArrayGraph#addEdges(int[], int[], double[])}),
+ * which validates it in one array pass, finds duplicates without hashing and grows its arrays once. Other graphs keep
+ * their maps private, so they get one {@code addEdge} call per edge, which does the endpoint and self-loop checks
+ * itself; when it throws, the edges added before are removed again. What makes a large jgrapht build faster is
+ * sizing its maps up front, which is what {@link #build} does with a {@link PresizedGraph}.
+ */
+public final class BulkGraphs {
+
+  private BulkGraphs() {
+  }
+
+  /**
+   * Adds a batch of vertices.
+   *
+   * @param graph the graph.
+   * @param vertices the vertices.
+   * @param <V> the vertex type.
+   * @return the number of vertices added; vertices already in the graph are skipped.
+   */
+  public static <V> int addAllVertices(Graph<V, ?> graph, V[] vertices) {
+    Objects.requireNonNull(vertices, "vertices");
+    if (graph instanceof IntArrayGraph) {
+      return ((IntArrayGraph) graph).addVertices(unbox(vertices));
+    }
+    int added = 0;
+    for (V v : vertices) {
+      if (graph.addVertex(v)) {
+        added++;
+      }
+    }
+    return added;
+  }
+
+  /**
+   * Adds a batch of edges, with the same result as calling {@code addEdge(sources[i], targets[i])} and then
+   * {@code setEdgeWeight} for each index in order.
+   *
+   * @param graph the graph.
+   * @param sources the source of each edge.
+   * @param targets the target of each edge.
+   * @param weights the weight of each edge, or null for the default weight.
+   * @param <V> the vertex type.
+   * @param <E> the edge type.
+   * @return the number of edges added.
+   * @throws IllegalArgumentException if the arrays differ in length, an endpoint is not in the graph, or the batch
+   *     has a self-loop and the graph type does not allow them; the graph is then left as it was, although the edge
+   *     supplier of a jgrapht graph may have been called.
+   * @throws UnsupportedOperationException if weights are given and the graph is not weighted.
+   */
+  public static <V, E> int addAllEdges(Graph<V, E> graph, V[] sources, V[] targets, double[] weights) {
+    Objects.requireNonNull(sources, "sources");
+    Objects.requireNonNull(targets, "targets");
+    int m = sources.length;
+    if (targets.length != m || (weights != null && weights.length != m)) {
+      throw new IllegalArgumentException("the batch arrays differ in length");
+    }
+    if (weights != null && !graph.getType().isWeighted()) {
+      throw new UnsupportedOperationException("the graph is not weighted");
+    }
+    if (graph instanceof IntArrayGraph) {
+      return ((IntArrayGraph) graph).addEdges(unbox(sources), unbox(targets), weights);
+    }
+    var added = new ArrayList<E>(m);
+    try {
+      for (int i = 0; i < m; i++) {
+        E e = graph.addEdge(sources[i], targets[i]);
+        if (e != null) {
+          added.add(e);
+          if (weights != null) {
+            graph.setEdgeWeight(e, weights[i]);
+          }
+        }
+      }
+    } catch (IllegalArgumentException | NullPointerException ex) {
+      for (int i = added.size() - 1; i >= 0; i--) {
+        graph.removeEdge(added.get(i));
+      }
+      throw ex;
+    }
+    return added.size();
+  }
+
+  /**
+   * Builds a graph from arrays, in a {@link PresizedGraph} sized for them.
+   *
+   * @param type the graph type; it must be either directed or undirected.
+   * @param edgeSupplier creates the edges, such as {@code DefaultWeightedEdge::new}.
+   * @param vertices the vertices.
+   * @param sources the source of each edge.
+   * @param targets the target of each edge.
+   * @param weights the weight of each edge, or null for the default weight.
+   * @param <V> the vertex type.
+   * @param <E> the edge type.
+   * @return the graph.
+   * @throws IllegalArgumentException as {@link #addAllEdges} does.
+   * @throws UnsupportedOperationException if weights are given and the type is not weighted.
+   */
+  public static <V, E> PresizedGraph<V, E> build(GraphType type, Supplier<E> edgeSupplier, V[] vertices,
+    V[] sources, V[] targets, double[] weights) {
+    Objects.requireNonNull(edgeSupplier, "edgeSupplier");
+    Objects.requireNonNull(vertices, "vertices");
+    Objects.requireNonNull(sources, "sources");
+    var graph = new PresizedGraph<V, E>(type, null, edgeSupplier, vertices.length, sources.length);
+    addAllVertices(graph, vertices);
+    addAllEdges(graph, sources, targets, weights);
+    return graph;
+  }
+
+  private static int[] unbox(Object[] vertices) {
+    var result = new int[vertices.length];
+    for (int i = 0; i < vertices.length; i++) {
+      result[i] = (Integer) Objects.requireNonNull(vertices[i], "vertex");
+    }
+    return result;
+  }
+}
@@ -0,0 +1,1015 @@
+package io.github.aaronchenwei.learning.jgrapht.graph;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Supplier;
+import org.jgrapht.Graph;
+import org.jgrapht.GraphType;
+import org.jgrapht.graph.AbstractGraph;
+import org.jgrapht.graph.DefaultGraphType;
+
+/**
+ * An immutable directed graph over the vertices {@code 0..n-1} whose successor lists are compressed in the style of
+ * WebGraph's BV format, for graphs too large for the 4 bytes per endpoint of {@link IntCsrGraph}.
+ *
+ * <p>Each successor list is sorted and written to one bit stream, one list after another, in instantaneous codes:
+ * Elias gamma for the counts and lengths, and zeta<sub>3</sub>, which suits the power-law distribution of gaps in
+ * web graphs, for the residual gaps. A list consists of
+ * <ul>
+ *   <li>the out-degree;</li>
+ *   <li>with reference compression, the distance {@code r} to a reference list among the previous {@code window}
+ *       vertices ({@code 0} for none), followed by the lengths of blocks over the reference list that alternately
+ *       say which successors are copied and which are skipped;</li>
+ *   <li>the intervals: every run of at least {@code minIntervalLength} consecutive successors that are not copied,
+ *       as its distance from the previous interval and its length;</li>
+ *   <li>the residuals, the remaining successors, the first as a signed gap from the vertex itself and every further
+ *       one as the gap from the previous one, minus one.</li>
+ * </ul>
+ * Web and social graphs have strong locality (successors close to the vertex and to each other) and similarity
+ * (consecutive vertices share many successors), so most successors are copied for a few bits per block, fall in an
+ * interval, or take a gap of a few bits.
+ *
+ * <p>Random access starts at the nearest sampled vertex: the bit position and first edge of every
+ * {@code sampleInterval}-th list are kept, and the lists in between are skipped. A reference is decoded recursively
+ * (from where the skip passed it, if it is in the same block), so the compressor bounds the length of reference
+ * chains. {@link #cursor()} reads all lists in order instead and keeps the last {@code window} lists, so it never
+ * decodes a list twice; it is the fast way to scan the graph.
+ *
+ * <p>Edges are numbered by source, then target, so an edge is its source's first edge plus its position in the
+ * sorted successor list; they are not the edge indices of the input. Multiple edges are merged. Vertex and edge sets
+ * are views, never materialized.
+ *
+ * <p>Incoming edges come from the transpose, a second compressed graph that the {@link Compressor} builds unless
+ * {@link Compressor#transpose(boolean) told not to}. Without it the graph takes about half the memory, but
+ * {@link #inDegreeOf(Integer)}, {@link #incomingEdgesOf(Integer)}, {@link #degreeOf(Integer)} and
+ * {@link #edgesOf(Integer)} throw {@link IllegalStateException}, and only the successor side of the graph, such as
+ * {@link #cursor()} and {@link #outgoingEdgesOf(Integer)}, is usable.
+ */
+public final class CompressedIntGraph extends AbstractGraph<Integer, Integer> {
+
+  private static final GraphType TYPE = new DefaultGraphType.Builder()
+    .directed()
+    .allowMultipleEdges(false)
+    .allowSelfLoops(true)
+    .allowCycles(true)
+    .weighted(false)
+    .modifiable(false)
+    .build();
+  private static final int[] EMPTY = new int[0];
+  private static final int ZETA_K = 3;
+
+  private final int vertexCount;
+  private final int edgeCount;
+  private final int window;
+  private final int minIntervalLength;
+  private final int sampleShift;
+  private final long[] data;
+  private final long[] bitSamples;
+  private final int[] edgeSamples;
+  private final CompressedIntGraph transpose;
+
+  private final Set<Integer> vertexSetView;
+  private final Set<Integer> edgeSetView;
+
+  private CompressedIntGraph(int vertexCount, int edgeCount, int window, int minIntervalLength, int sampleShift,
+    long[] data, long[] bitSamples, int[] edgeSamples, CompressedIntGraph transpose) {
+    this.vertexCount = vertexCount;
+    this.edgeCount = edgeCount;
+    this.window = window;
+    this.minIntervalLength = minIntervalLength;
+    this.sampleShift = sampleShift;
+    this.data = data;
+    this.bitSamples = bitSamples;
+    this.edgeSamples = edgeSamples;
+    this.transpose = transpose;
+    this.vertexSetView = new RangeSet(0, vertexCount);
+    this.edgeSetView = new RangeSet(0, edgeCount);
+  }
+
+  public int vertexCount() {
+    return vertexCount;
+  }
+
+  public int edgeCount() {
+    return edgeCount;
+  }
+
+  /**
+   * Returns the memory taken by the compressed lists and the samples, without the transpose.
+   *
+   * @return the size in bytes.
+   */
+  public long sizeInBytes() {
+    return 8L * data.length + 8L * bitSamples.length + 4L * edgeSamples.length;
+  }
+
+  /**
+   * Returns the {@link #sizeInBytes() size} per edge.
+   *
+   * @return the bits per edge.
+   */
+  public double bitsPerEdge() {
+    return edgeCount == 0 ? 0 : 8.0 * sizeInBytes() / edgeCount;
+  }
+
+  /**
+   * Returns the transpose, whose successor lists are the predecessor lists of this graph.
+   *
+   * @return the transpose, or null if it was not built.
+   */
+  public CompressedIntGraph transpose() {
+    return transpose;
+  }
+
+  public int outDegree(int vertex) {
+    return seek(vertex).readGamma();
+  }
+
+  /**
+   * Returns the identifier of the first outgoing edge of a vertex; the others follow it.
+   *
+   * @param vertex the vertex.
+   * @return the first edge.
+   */
+  public int firstEdge(int vertex) {
+    return seek(vertex).edge;
+  }
+
+  /**
+   * Decodes the successors of a vertex.
+   *
+   * @param vertex the vertex.
+   * @return the successors in ascending order, in a new array.
+   */
+  public int[] successors(int vertex) {
+    var positions = window > 0 ? new long[1 << sampleShift] : null;
+    return decode(vertex, seek(vertex, positions), positions);
+  }
+
+  /**
+   * Creates a cursor over all successor lists in vertex order.
+   *
+   * @return the cursor.
+   */
+  public Cursor cursor() {
+    return new Cursor();
+  }
+
+  private Reader seek(int vertex) {
+    return seek(vertex, null);
+  }
+
+  /**
+   * Positions a reader at the list of a vertex, recording where the lists skipped on the way start.
+   */
+  private Reader seek(int vertex, long[] positions) {
+    if (vertex < 0 || vertex >= vertexCount) {
+      throw new IllegalArgumentException("no such vertex in graph: " + vertex);
+    }
+    int block = vertex >>> sampleShift;
+    var reader = new Reader(bitSamples[block], edgeSamples[block]);
+    for (int u = block << sampleShift; u < vertex; u++) {
+      if (positions != null) {
+        positions[u & ((1 << sampleShift) - 1)] = reader.position;
+      }
+      reader.skipList();
+    }
+    return reader;
+  }
+
+  /**
+   * Decodes the list at the reader. A reference to a list the seek went past is read from its recorded position,
+   * any other by random access.
+   */
+  private int[] decode(int vertex, Reader reader, long[] positions) {
+    int degree = reader.readGamma();
+    if (degree == 0) {
+      return EMPTY;
+    }
+    int reference = window > 0 ? reader.readGamma() : 0;
+    int[] base = EMPTY;
+    if (reference > 0) {
+      int u = vertex - reference;
+      base = positions != null && u >>> sampleShift == vertex >>> sampleShift
+        ? decode(u, new Reader(positions[u & ((1 << sampleShift) - 1)], 0), positions)
+        : successors(u);
+    }
+    var successors = new int[degree];
+    reader.readList(vertex, degree, reference, base, base.length, successors);
+    return successors;
+  }
+
+  /**
+   * Reads the bit stream, most significant bit of every word first. Not thread-safe; every query creates its own.
+   */
+  private final class Reader {
+    private final long[] words = data;
+    private long position;
+    private int edge;
+    private int[] copied = EMPTY;
+    private int[] spans = EMPTY;
+    private int[] residuals = EMPTY;
+    private int[] extras = EMPTY;
+
+    Reader(long position, int edge) {
+      this.position = position;
+      this.edge = edge;
+    }
+
+    /**
+     * Returns the next 64 bits without consuming them; the stream ends with a word of padding. Every value written
+     * is below 2^32, so every code fits in them.
+     */
+    private long peek() {
+      int index = (int) (position >>> 6);
+      int offset = (int) position & 63;
+      long word = words[index] << offset;
+      return offset == 0 ? word : word | words[index + 1] >>> (64 - offset);
+    }
+
+    long readLongGamma() {
+      long bits = peek();
+      int length = Long.numberOfLeadingZeros(bits);
+      position += 2 * length + 1;
+      return (bits >>> (63 - 2 * length)) - 1;
+    }
+
+    int readGamma() {
+      return (int) readLongGamma();
+    }
+
+    /**
+     * Reads a zeta code; see {@link Bits#zeta}.
+     */
+    long readZeta() {
+      long bits = peek();
+      int h = Long.numberOfLeadingZeros(bits);
+      int width = (h + 1) * ZETA_K;
+      long left = 1L << (h * ZETA_K);
+      long value = bits << (h + 1) >>> (64 - width);
+      if (value >>> 1 < left) {
+        position += h + width;
+        return left + (value >>> 1) - 1;
+      }
+      position += h + 1 + width;
+      return value - 1;
+    }
+
+    /**
+     * Skips a list and counts its edges.
+     *
+     * @return the degree.
+     */
+    int skipList() {
+      int degree = readGamma();
+      edge += degree;
+      if (degree == 0) {
+        return 0;
+      }
+      int copies = 0;
+      if (window > 0 && readGamma() > 0) {
+        int blocks = readGamma();
+        for (int i = 0; i < blocks; i++) {
+          int length = readGamma() + (i > 0 ? 1 : 0);
+          if ((i & 1) == 0) {
+            copies += length;
+          }
+        }
+      }
+      int residualCount = degree - copies;
+      if (minIntervalLength > 0 && residualCount > 0) {
+        int intervals = readGamma();
+        for (int i = 0; i < intervals; i++) {
+          readLongGamma();
+          residualCount -= readGamma() + minIntervalLength;
+        }
+      }
+      for (int i = 0; i < residualCount; i++) {
+        readZeta();
+      }
+      return degree;
+    }
+
+    /**
+     * Reads the rest of a list after its degree and reference, merging the copied, interval and residual
+     * successors.
+     */
+    void readList(int vertex, int degree, int reference, int[] base, int baseLength, int[] into) {
+      int copies = 0;
+      if (reference > 0) {
+        if (copied.length < degree) {
+          copied = new int[degree];
+        }
+        int blocks = readGamma();
+        int slot = 0;
+        for (int i = 0; i < blocks; i++) {
+          int length = readGamma() + (i > 0 ? 1 : 0);
+          if (slot + length > baseLength || ((i & 1) == 0 && copies + length > degree)) {
+            throw new IllegalStateException("corrupt reference of vertex " + vertex);
+          }
+          if ((i & 1) == 0) {
+            System.arraycopy(base, slot, copied, copies, length);
+            copies += length;
+          }
+          slot += length;
+        }
+      }
+      int extraCount = degree - copies;
+      if (extras.length < extraCount) {
+        spans = new int[extraCount];
+        residuals = new int[extraCount];
+        extras = new int[extraCount];
+      }
+      int spanned = 0;
+      if (minIntervalLength > 0 && extraCount > 0) {
+        int intervals = readGamma();
+        long end = vertex;
+        for (int i = 0; i < intervals; i++) {
+          long code = readLongGamma();
+          long left = i == 0 ? vertex + ((code >>> 1) ^ -(code & 1)) : end + code + 1;
+          int length = readGamma() + minIntervalLength;
+          for (int j = 0; j < length; j++) {
+            spans[spanned++] = (int) (left + j);
+          }
+          end = left + length;
+        }
+      }
+      // decode straight into the result where there is nothing to merge with
+      int[] merged = copies == 0 ? into : extras;
+      int[] decoded = spanned == 0 ? merged : residuals;
+      int residualCount = extraCount - spanned;
+      long previous = 0;
+      for (int i = 0; i < residualCount; i++) {
+        long code = readZeta();
+        previous = i == 0 ? vertex + ((code >>> 1) ^ -(code & 1)) : previous + code + 1;
+        decoded[i] = (int) previous;
+      }
+      if (spanned > 0) {
+        merge(spans, spanned, residuals, residualCount, merged);
+      }
+      if (copies > 0) {
+        merge(copied, copies, extras, extraCount, into);
+      }
+    }
+  }
+
+  /**
+   * Merges two sorted, disjoint sequences.
+   */
+  private static void merge(int[] first, int firstLength, int[] second, int secondLength, int[] into) {
+    int i = 0;
+    int j = 0;
+    int k = 0;
+    while (i < firstLength && j < secondLength) {
+      into[k++] = first[i] < second[j] ? first[i++] : second[j++];
+    }
+    System.arraycopy(first, i, into, k, firstLength - i);
+    System.arraycopy(second, j, into, k + firstLength - i, secondLength - j);
+  }
+  /**
+   * Reads every successor list in vertex order, keeping the lists a reference may point to.
+   */
+  public final class Cursor {
+    private final Reader reader = new Reader(0, 0);
+    private final int[][] recent = new int[window + 1][];
+    private final int[] recentDegrees = new int[window + 1];
+    private int vertex = -1;
+    private int degree;
+    private int[] successors = EMPTY;
+
+    Cursor() {
+      Arrays.fill(recent, EMPTY);
+    }
+
+    /**
+     * Moves to the next vertex.
+     *
+     * @return false if there are no more vertices.
+     */
+    public boolean next() {
+      if (vertex + 1 >= vertexCount) {
+        return false;
+      }
+      vertex++;
+      int slot = vertex % recent.length;
+      degree = reader.readGamma();
+      if (degree > 0) {
+        int reference = window > 0 ? reader.readGamma() : 0;
+        if (recent[slot].length < degree) {
+          recent[slot] = new int[Math.max(degree, 2 * recent[slot].length)];
+        }
+        int baseSlot = (vertex - reference) % recent.length;
+        reader.readList(vertex, degree, reference, recent[baseSlot], recentDegrees[baseSlot], recent[slot]);
+      }
+      recentDegrees[slot] = degree;
+      successors = recent[slot];
+      return true;
+    }
+
+    public int vertex() {
+      return vertex;
+    }
+
+    public int degree() {
+      return degree;
+    }
+
+    /**
+     * Returns the successors of the current vertex in the first {@link #degree()} elements of an array that the
+     * cursor reuses. The array must not be modified.
+     *
+     * @return the successors.
+     */
+    public int[] successors() {
+      return successors;
+    }
+  }
+
+
+  @Override
+  public Set<Integer> getAllEdges(Integer sourceVertex, Integer targetVertex) {
+    if (!containsVertex(sourceVertex) || !containsVertex(targetVertex)) {
+      return null;
+    }
+    Set<Integer> result = new LinkedHashSet<>();
+    var edge = getEdge(sourceVertex, targetVertex);
+    if (edge != null) {
+      result.add(edge);
+    }
+    return result;
+  }
+
+  @Override
+  public Integer getEdge(Integer sourceVertex, Integer targetVertex) {
+    if (!containsVertex(sourceVertex) || !containsVertex(targetVertex)) {
+      return null;
+    }
+    int edge = edgeTo(sourceVertex, targetVertex);
+    return edge < 0 ? null : edge;
+  }
+
+  private int edgeTo(int source, int target) {
+    var positions = window > 0 ? new long[1 << sampleShift] : null;
+    var reader = seek(source, positions);
+    int first = reader.edge;
+    int index = Arrays.binarySearch(decode(source, reader, positions), target);
+    return index < 0 ? -1 : first + index;
+  }
+
+  @Override
+  public Supplier<Integer> getVertexSupplier() {
+    return null;
+  }
+
+  @Override
+  public Supplier<Integer> getEdgeSupplier() {
+    return null;
+  }
+
+  @Override
+  public Integer addEdge(Integer sourceVertex, Integer targetVertex) {
+    throw new UnsupportedOperationException("immutable graph");
+  }
+
+  @Override
+  public boolean addEdge(Integer sourceVertex, Integer targetVertex, Integer e) {
+    throw new UnsupportedOperationException("immutable graph");
+  }
+
+  @Override
+  public Integer addVertex() {
+    throw new UnsupportedOperationException("immutable graph");
+  }
+
+  @Override
+  public boolean addVertex(Integer v) {
+    throw new UnsupportedOperationException("immutable graph");
+  }
+
+  @Override
+  public boolean containsEdge(Integer e) {
+    return e != null && e >= 0 && e < edgeCount;
+  }
+
+  @Override
+  public boolean containsVertex(Integer v) {
+    return v != null && v >= 0 && v < vertexCount;
+  }
+
+  @Override
+  public Set<Integer> edgeSet() {
+    return edgeSetView;
+  }
+
+  @Override
+  public int degreeOf(Integer vertex) {
+    return inDegreeOf(vertex) + outDegreeOf(vertex);
+  }
+
+  @Override
+  public Set<Integer> edgesOf(Integer vertex) {
+    Set<Integer> edges = new LinkedHashSet<>(outgoingEdgesOf(vertex));
+    // a self-loop is both outgoing and incoming, and the set keeps it once
+    edges.addAll(incomingEdgesOf(vertex));
+    return edges;
+  }
+
+  @Override
+  public int inDegreeOf(Integer vertex) {
+    assertVertexExist(vertex);
+    return requireTranspose().outDegree(vertex);
+  }
+
+  @Override
+  public Set<Integer> incomingEdgesOf(Integer vertex) {
+    assertVertexExist(vertex);
+    Set<Integer> edges = new LinkedHashSet<>();
+    for (int u : requireTranspose().successors(vertex)) {
+      edges.add(edgeTo(u, vertex));
+    }
+    return edges;
+  }
+
+  private CompressedIntGraph requireTranspose() {
+    if (transpose == null) {
+      throw new IllegalStateException("incoming edges need a graph compressed with its transpose");
+    }
+    return transpose;
+  }
+
+  @Override
+  public int outDegreeOf(Integer vertex) {
+    assertVertexExist(vertex);
+    return outDegree(vertex);
+  }
+
+  @Override
+  public Set<Integer> outgoingEdgesOf(Integer vertex) {
+    assertVertexExist(vertex);
+    var reader = seek(vertex);
+    int first = reader.edge;
+    return new RangeSet(first, first + reader.readGamma());
+  }
+
+  @Override
+  public Integer removeEdge(Integer sourceVertex, Integer targetVertex) {
+    throw new UnsupportedOperationException("immutable graph");
+  }
+
+  @Override
+  public boolean removeEdge(Integer e) {
+    throw new UnsupportedOperationException("immutable graph");
+  }
+
+  @Override
+  public boolean removeVertex(Integer v) {
+    throw new UnsupportedOperationException("immutable graph");
+  }
+
+  @Override
+  public Set<Integer> vertexSet() {
+    return vertexSetView;
+  }
+
+  @Override
+  public Integer getEdgeSource(Integer e) {
+    assertEdgeExist(e);
+    int edge = e;
+    // the last sample at or before the edge
+    int low = 0;
+    int high = edgeSamples.length - 1;
+    while (low < high) {
+      int mid = (low + high + 1) >>> 1;
+      if (edgeSamples[mid] <= edge) {
+        low = mid;
+      } else {
+        high = mid - 1;
+      }
+    }
+    var reader = new Reader(bitSamples[low], edgeSamples[low]);
+    for (int u = low << sampleShift; ; u++) {
+      reader.skipList();
+      if (reader.edge > edge) {
+        return u;
+      }
+    }
+  }
+
+  @Override
+  public Integer getEdgeTarget(Integer e) {
+    int source = getEdgeSource(e);
+    var positions = window > 0 ? new long[1 << sampleShift] : null;
+    var reader = seek(source, positions);
+    int first = reader.edge;
+    return decode(source, reader, positions)[e - first];
+  }
+
+  @Override
+  public GraphType getType() {
+    return TYPE;
+  }
+
+  @Override
+  public double getEdgeWeight(Integer e) {
+    assertEdgeExist(e);
+    return Graph.DEFAULT_EDGE_WEIGHT;
+  }
+
+  @Override
+  public void setEdgeWeight(Integer e, double weight) {
+    throw new UnsupportedOperationException("immutable graph");
+  }
+
+  private void assertEdgeExist(Integer e) {
+    Objects.requireNonNull(e, "edge");
+    if (!containsEdge(e)) {
+      throw new IllegalArgumentException("no such edge in graph: " + e);
+    }
+  }
+
+  /**
+   * Compresses edge lists into {@link CompressedIntGraph}s.
+   */
+  public static final class Compressor {
+    private int window = 7;
+    private int maxReferenceChain = 3;
+    private int minIntervalLength = 4;
+    private int sampleInterval = 32;
+    private boolean transpose = true;
+
+    /**
+     * Sets how many previous lists are tried as a reference; 0 turns reference compression off. Defaults to 7.
+     *
+     * @param window the window.
+     * @return this compressor.
+     */
+    public Compressor window(int window) {
+      if (window < 0) {
+        throw new IllegalArgumentException("window must be non-negative");
+      }
+      this.window = window;
+      return this;
+    }
+
+    /**
+     * Sets the longest chain of references a list may be at the end of, which bounds the number of lists that
+     * random access decodes. Defaults to 3.
+     *
+     * @param maxReferenceChain the maximum chain length.
+     * @return this compressor.
+     */
+    public Compressor maxReferenceChain(int maxReferenceChain) {
+      if (maxReferenceChain < 0) {
+        throw new IllegalArgumentException("reference chain must be non-negative");
+      }
+      this.maxReferenceChain = maxReferenceChain;
+      return this;
+    }
+
+    /**
+     * Sets the shortest run of consecutive successors that is written as an interval; 0 turns intervals off.
+     * Defaults to 4.
+     *
+     * @param minIntervalLength the minimum interval length.
+     * @return this compressor.
+     */
+    public Compressor minIntervalLength(int minIntervalLength) {
+      if (minIntervalLength < 0 || minIntervalLength == 1) {
+        throw new IllegalArgumentException("minimum interval length must be 0 or at least 2");
+      }
+      this.minIntervalLength = minIntervalLength;
+      return this;
+    }
+
+    /**
+     * Sets every how many vertices the position of a list is sampled; it is rounded up to a power of two. Random
+     * access skips up to this many lists, and the samples take 12 bytes each. Defaults to 32.
+     *
+     * @param sampleInterval the sample interval.
+     * @return this compressor.
+     */
+    public Compressor sampleInterval(int sampleInterval) {
+      if (sampleInterval <= 0) {
+        throw new IllegalArgumentException("sample interval must be positive");
+      }
+      this.sampleInterval = sampleInterval;
+      return this;
+    }
+
+    /**
+     * Sets whether the transpose is compressed as well, for incoming edges. Defaults to true. Without the transpose,
+     * which takes about as much memory as the graph, the incoming-edge and degree methods of the graph, including
+     * {@code edgesOf}, throw {@link IllegalStateException}.
+     *
+     * @param transpose whether to build the transpose.
+     * @return this compressor.
+     */
+    public Compressor transpose(boolean transpose) {
+      this.transpose = transpose;
+      return this;
+    }
+
+    /**
+     * Compresses the directed graph with the given edges. The columns are not modified.
+     *
+     * @param vertexCount the number of vertices.
+     * @param sources the source of each edge.
+     * @param targets the target of each edge, same length as {@code sources}.
+     * @return the graph.
+     */
+    public CompressedIntGraph compress(int vertexCount, int[] sources, int[] targets) {
+      if (sources.length != targets.length) {
+        throw new IllegalArgumentException("edge columns must have the same length");
+      }
+      for (int e = 0; e < sources.length; e++) {
+        if (sources[e] < 0 || sources[e] >= vertexCount || targets[e] < 0 || targets[e] >= vertexCount) {
+          throw new IllegalArgumentException("edge " + e + " (" + sources[e] + ", " + targets[e] + ") is out of range");
+        }
+      }
+      var reversed = transpose ? encode(vertexCount, targets, sources, null) : null;
+      return encode(vertexCount, sources, targets, reversed);
+    }
+
+    private CompressedIntGraph encode(int vertexCount, int[] sources, int[] targets, CompressedIntGraph reversed) {
+      // sorted, duplicate-free successor lists
+      var csr = IntCsr.of(vertexCount, sources, targets, sources.length, false);
+      var offsets = new int[vertexCount + 1];
+      var lists = csr.neighbors().clone();
+      for (int v = 0; v < vertexCount; v++) {
+        int from = csr.start(v);
+        int to = csr.end(v);
+        Arrays.sort(lists, from, to);
+        int length = 0;
+        for (int i = from; i < to; i++) {
+          if (length == 0 || lists[offsets[v] + length - 1] != lists[i]) {
+            lists[offsets[v] + length++] = lists[i];
+          }
+        }
+        offsets[v + 1] = offsets[v] + length;
+      }
+
+      int shift = 32 - Integer.numberOfLeadingZeros(sampleInterval - 1);
+      int samples = (vertexCount + (1 << shift) - 1) >>> shift;
+      var bitSamples = new long[Math.max(1, samples)];
+      var edgeSamples = new int[Math.max(1, samples)];
+      var chains = new int[vertexCount];
+      var runs = new int[16];
+      var extras = new int[16];
+      var out = new Bits();
+      for (int v = 0; v < vertexCount; v++) {
+        if ((v & ((1 << shift) - 1)) == 0) {
+          bitSamples[v >>> shift] = out.size();
+          edgeSamples[v >>> shift] = offsets[v];
+        }
+        int degree = offsets[v + 1] - offsets[v];
+        Bits.gamma(out, degree);
+        if (degree == 0) {
+          continue;
+        }
+        if (runs.length < 2 * degree + 2) {
+          runs = new int[4 * degree + 2];
+          extras = new int[2 * degree];
+        }
+        int best = 0;
+        if (window > 0) {
+          long bestCost = encodeList(null, v, 0, lists, offsets, runs, extras);
+          for (int r = 1; r <= Math.min(window, v); r++) {
+            if (chains[v - r] >= maxReferenceChain || offsets[v - r + 1] == offsets[v - r]) {
+              continue;
+            }
+            long cost = encodeList(null, v, r, lists, offsets, runs, extras);
+            if (cost < bestCost) {
+              bestCost = cost;
+              best = r;
+            }
+          }
+          chains[v] = best > 0 ? chains[v - best] + 1 : 0;
+        }
+        encodeList(out, v, best, lists, offsets, runs, extras);
+      }
+      return new CompressedIntGraph(vertexCount, offsets[vertexCount], window, minIntervalLength, shift, out.trim(),
+        bitSamples, edgeSamples, reversed);
+    }
+
+    /**
+     * Writes a list after its degree, or only counts its bits if {@code out} is null.
+     *
+     * @return the number of bits.
+     */
+    private long encodeList(Bits out, int v, int reference, int[] lists, int[] offsets, int[] runs, int[] extras) {
+      long bits = 0;
+      if (window > 0) {
+        bits += Bits.gamma(out, reference);
+      }
+      int from = offsets[v];
+      int to = offsets[v + 1];
+      if (reference > 0) {
+        // alternating copy and skip blocks over the reference list, starting with a copy block and ending with one
+        int runCount = 0;
+        boolean copying = true;
+        int length = 0;
+        int i = from;
+        for (int slot = offsets[v - reference]; slot < offsets[v - reference + 1]; slot++) {
+          int successor = lists[slot];
+          while (i < to && lists[i] < successor) {
+            i++;
+          }
+          boolean shared = i < to && lists[i] == successor;
+          if (shared == copying) {
+            length++;
+          } else {
+            runs[runCount++] = length;
+            copying = shared;
+            length = 1;
+          }
+        }
+        if (copying) {
+          runs[runCount++] = length;
+        }
+        bits += Bits.gamma(out, runCount);
+        for (int run = 0; run < runCount; run++) {
+          bits += Bits.gamma(out, run == 0 ? runs[run] : runs[run] - 1);
+        }
+      }
+      // the successors that are not in the reference list
+      int extraCount = 0;
+      int slot = reference > 0 ? offsets[v - reference] : 0;
+      int end = reference > 0 ? offsets[v - reference + 1] : 0;
+      for (int i = from; i < to; i++) {
+        int successor = lists[i];
+        while (slot < end && lists[slot] < successor) {
+          slot++;
+        }
+        if (slot >= end || lists[slot] != successor) {
+          extras[extraCount++] = successor;
+        }
+      }
+      // the maximal runs of consecutive successors among them, where long enough, as intervals
+      int intervals = 0;
+      if (minIntervalLength > 0 && extraCount > 0) {
+        for (int i = 0, j; i < extraCount; i = j) {
+          j = i + 1;
+          while (j < extraCount && extras[j] == extras[j - 1] + 1) {
+            j++;
+          }
+          if (j - i >= minIntervalLength) {
+            runs[2 * intervals] = i;
+            runs[2 * intervals + 1] = j - i;
+            intervals++;
+          }
+        }
+        bits += Bits.gamma(out, intervals);
+        long previousEnd = v;
+        for (int k = 0; k < intervals; k++) {
+          long left = extras[runs[2 * k]];
+          bits += Bits.gamma(out, k == 0 ? zigzag(left - v) : left - previousEnd - 1);
+          bits += Bits.gamma(out, runs[2 * k + 1] - minIntervalLength);
+          previousEnd = left + runs[2 * k + 1];
+        }
+      }
+      // and the residuals between the intervals
+      long previous = -1;
+      for (int i = 0, k = 0; i < extraCount; i++) {
+        if (k < intervals && i == runs[2 * k]) {
+          i += runs[2 * k++ + 1] - 1;
+          continue;
+        }
+        int successor = extras[i];
+        bits += Bits.zeta(out, previous < 0 ? zigzag((long) successor - v) : successor - previous - 1);
+        previous = successor;
+      }
+      return bits;
+    }
+
+    private static long zigzag(long value) {
+      return (value << 1) ^ (value >> 63);
+    }
+  }
+
+  /**
+   * A growable bit stream, filled from the most significant bit of every word; a {@code long[]} addresses 16 GB.
+   */
+  private static final class Bits {
+    private long[] words = new long[64];
+    private long size;
+
+    long size() {
+      return size;
+    }
+
+    /**
+     * Writes the low {@code length} bits of a value, at most 64.
+     */
+    void write(long value, int length) {
+      long end = size + length;
+      if ((end + 63) >>> 6 > words.length) {
+        long capacity = Math.max(2L * words.length, (end + 63) >>> 6);
+        words = Arrays.copyOf(words, Math.toIntExact(Math.min(capacity, Integer.MAX_VALUE - 8)));
+      }
+      if (length > 0) {
+        int index = (int) (size >>> 6);
+        int free = 64 - ((int) size & 63);
+        if (length <= free) {
+          words[index] |= value << (free - length);
+        } else {
+          words[index] |= value >>> (length - free);
+          words[index + 1] |= value << (64 - length + free);
+        }
+      }
+      size = end;
+    }
+
+    /**
+     * Writes the Elias gamma code of a non-negative value, or only counts its bits if {@code out} is null.
+     *
+     * @return the number of bits.
+     */
+    static int gamma(Bits out, long value) {
+      long code = value + 1;
+      int length = 63 - Long.numberOfLeadingZeros(code);
+      if (out != null) {
+        out.write(0, length);
+        out.write(code, length + 1);
+      }
+      return 2 * length + 1;
+    }
+
+    /**
+     * Writes the zeta code of a non-negative value with the shrinking factor {@code k} = {@link #ZETA_K}, or only
+     * counts its bits if {@code out} is null. The code is the bucket {@code h} of {@code value + 1}, the {@code h}
+     * with {@code 2^hk <= value + 1 < 2^(h+1)k}, in unary, then the offset in the bucket in minimal binary: for an
+     * interval of {@code 2^(h+1)k - 2^hk} offsets that is {@code (h + 1) k - 1} bits for an offset below
+     * {@code 2^hk}, and {@code (h + 1) k} bits, shifted up by {@code 2^hk}, for the others.
+     *
+     * @return the number of bits.
+     */
+    static int zeta(Bits out, long value) {
+      long code = value + 1;
+      int h = (63 - Long.numberOfLeadingZeros(code)) / ZETA_K;
+      int width = (h + 1) * ZETA_K;
+      long left = 1L << (h * ZETA_K);
+      long offset = code - left;
+      int length = offset < left ? width - 1 : width;
+      if (out != null) {
+        out.write(1, h + 1);
+        out.write(offset < left ? offset : offset + left, length);
+      }
+      return h + 1 + length;
+    }
+
+    /**
+     * Returns the words of the stream and one word of padding, for reads that look ahead.
+     */
+    long[] trim() {
+      return Arrays.copyOf(words, (int) ((size + 63) >>> 6) + 1);
+    }
+  }
+
+  /**
+   * The identifiers {@code from..to-1}.
+   */
+  private static final class RangeSet extends AbstractSet<Integer> {
+    private final int from;
+    private final int to;
+
+    RangeSet(int from, int to) {
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override
+    public Iterator<Integer> iterator() {
+      return new Iterator<>() {
+        private int next = from;
+
+        @Override
+        public boolean hasNext() {
+          return next < to;
+        }
+
+        @Override
+        public Integer next() {
+          if (next >= to) {
+            throw new NoSuchElementException();
+          }
+          return next++;
+        }
+      };
+    }
+
+    @Override
+    public boolean contains(Object o) {
+      return o instanceof Integer && (Integer) o >= from && (Integer) o < to;
+    }
+
+    @Override
+    public int size() {
+      return to - from;
+    }
+  }
+}
@@ -0,0 +1,521 @@
+package io.github.aaronchenwei.learning.jgrapht.graph;
+
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+import org.jgrapht.Graph;
+import org.jgrapht.GraphType;
+import org.jgrapht.graph.AbstractGraph;
+import org.jgrapht.graph.DefaultGraphType;
+
+/**
+ * A mutable graph that many threads can modify and read at the same time.
+ *
+ * <p>The graphs of {@code org.jgrapht.graph} are unsynchronized, so concurrent writers have to share one external
+ * lock. This graph keeps vertices and edges in {@link ConcurrentHashMap}s and guards the adjacency of each vertex with
+ * one of a fixed number of lock stripes, chosen by the vertex hash code:
+ * <ul>
+ *   <li>{@link #addVertex(Object)} and all queries take no lock;</li>
+ *   <li>{@link #addEdge(Object, Object, Object)} and {@link #removeEdge(Object)} lock the stripes of the two
+ *   endpoints, so writers only contend when they touch vertices on the same stripe;</li>
+ *   <li>{@link #removeVertex(Object)} locks the stripes of the vertex and of all its neighbors.</li>
+ * </ul>
+ * Stripes are always locked in index order, so writers cannot deadlock.
+ *
+ * <p>Every operation is atomic: the check against multiple edges in {@link #addEdge(Object, Object, Object)} and the
+ * insertion happen under the same locks, so two threads adding the same pair to a simple graph get one edge and one
+ * {@code null}, and a vertex removal never leaves an edge behind. An edge is registered before it enters the
+ * adjacency sets and leaves them before it is unregistered, so an edge seen in {@link #edgesOf(Object)} always has
+ * a source and target. The vertex, edge and incident edge sets are live views that are weakly consistent, like
+ * those of {@link ConcurrentHashMap}: they never throw {@link java.util.ConcurrentModificationException} and reflect
+ * some of the changes made while they are iterated. Unlike the jgrapht graphs, iteration order is not insertion
+ * order.
+ *
+ * <p>The self-loop, multiple-edge and weight semantics follow the supplied {@link GraphType}, as in
+ * {@link IntArrayGraph}. The vertex and edge suppliers must be thread-safe.
+ *
+ * @param <V> the vertex type.
+ * @param <E> the edge type.
+ */
+public class ConcurrentGraph<V, E> extends AbstractGraph<V, E> {
+
+  private static final int DEFAULT_STRIPES = 1024;
+
+  private final GraphType type;
+  private final boolean directed;
+  private final Supplier<V> vertexSupplier;
+  private final Supplier<E> edgeSupplier;
+
+  private final ConcurrentHashMap<V, Node<E>> vertices = new ConcurrentHashMap<>();
+  private final ConcurrentHashMap<E, Link<V>> edges = new ConcurrentHashMap<>();
+  private final ReentrantLock[] stripes;
+
+  private final Set<V> vertexSetView = Collections.unmodifiableSet(vertices.keySet());
+  private final Set<E> edgeSetView = Collections.unmodifiableSet(edges.keySet());
+
+  /**
+   * Creates an empty graph with 1024 lock stripes.
+   *
+   * @param type the graph type; it must be either directed or undirected.
+   * @param vertexSupplier creates the vertices of {@link #addVertex()}, or null.
+   * @param edgeSupplier creates the edges of {@link #addEdge(Object, Object)}, or null.
+   */
+  public ConcurrentGraph(GraphType type, Supplier<V> vertexSupplier, Supplier<E> edgeSupplier) {
+    this(type, vertexSupplier, edgeSupplier, DEFAULT_STRIPES);
+  }
+
+  /**
+   * Creates an empty graph.
+   *
+   * @param type the graph type; it must be either directed or undirected.
+   * @param vertexSupplier creates the vertices of {@link #addVertex()}, or null.
+   * @param edgeSupplier creates the edges of {@link #addEdge(Object, Object)}, or null.
+   * @param stripeCount the number of lock stripes; it is rounded up to a power of two.
+   */
+  public ConcurrentGraph(GraphType type, Supplier<V> vertexSupplier, Supplier<E> edgeSupplier, int stripeCount) {
+    Objects.requireNonNull(type, "type");
+    if (type.isMixed()) {
+      throw new IllegalArgumentException("mixed graphs are not supported");
+    }
+    if (stripeCount <= 0 || stripeCount > 1 << 16) {
+      throw new IllegalArgumentException("the stripe count must be in 1..65536: " + stripeCount);
+    }
+    this.type = new DefaultGraphType.Builder(type).modifiable(true).build();
+    this.directed = type.isDirected();
+    this.vertexSupplier = vertexSupplier;
+    this.edgeSupplier = edgeSupplier;
+    int n = 1;
+    while (n < stripeCount) {
+      n <<= 1;
+    }
+    this.stripes = new ReentrantLock[n];
+    for (int i = 0; i < stripes.length; i++) {
+      stripes[i] = new ReentrantLock();
+    }
+  }
+
+  @Override
+  public Set<E> getAllEdges(V sourceVertex, V targetVertex) {
+    var u = vertices.get(sourceVertex);
+    var v = vertices.get(targetVertex);
+    if (u == null || v == null) {
+      return null;
+    }
+    Set<E> result = new LinkedHashSet<>();
+    for (E e : scanSet(u, v)) {
+      var link = edges.get(e);
+      if (link != null && link.connects(sourceVertex, targetVertex, directed)) {
+        result.add(e);
+      }
+    }
+    return result;
+  }
+
+  @Override
+  public E getEdge(V sourceVertex, V targetVertex) {
+    var u = vertices.get(sourceVertex);
+    var v = vertices.get(targetVertex);
+    if (u == null || v == null) {
+      return null;
+    }
+    return findEdge(u, v, sourceVertex, targetVertex);
+  }
+
+  @Override
+  public Supplier<V> getVertexSupplier() {
+    return vertexSupplier;
+  }
+
+  @Override
+  public Supplier<E> getEdgeSupplier() {
+    return edgeSupplier;
+  }
+
+  @Override
+  public E addEdge(V sourceVertex, V targetVertex) {
+    if (edgeSupplier == null) {
+      throw new UnsupportedOperationException("the graph contains no edge supplier");
+    }
+    E e = edgeSupplier.get();
+    return addEdge(sourceVertex, targetVertex, e) ? e : null;
+  }
+
+  @Override
+  public boolean addEdge(V sourceVertex, V targetVertex, E e) {
+    Objects.requireNonNull(e, "edge");
+    assertVertexExist(sourceVertex);
+    assertVertexExist(targetVertex);
+    boolean loop = sourceVertex.equals(targetVertex);
+    if (loop && !type.isAllowingSelfLoops()) {
+      throw new IllegalArgumentException("loops not allowed");
+    }
+    if (edges.containsKey(e)) {
+      return false;
+    }
+    int first = stripe(sourceVertex);
+    int second = stripe(targetVertex);
+    lock(first, second);
+    try {
+      var u = vertices.get(sourceVertex);
+      var v = vertices.get(targetVertex);
+      if (u == null || v == null) {
+        throw new IllegalArgumentException("no such vertex in graph: " + (u == null ? sourceVertex : targetVertex));
+      }
+      if (!type.isAllowingMultipleEdges() && findEdge(u, v, sourceVertex, targetVertex) != null) {
+        return false;
+      }
+      var link = new Link<>(sourceVertex, targetVertex);
+      if (edges.putIfAbsent(e, link) != null) {
+        return false;
+      }
+      u.out.add(e);
+      if (directed) {
+        v.in.add(e);
+      } else if (loop) {
+        u.loops++;
+      } else {
+        v.out.add(e);
+      }
+      return true;
+    } finally {
+      unlock(first, second);
+    }
+  }
+
+  @Override
+  public V addVertex() {
+    if (vertexSupplier == null) {
+      throw new UnsupportedOperationException("the graph contains no vertex supplier");
+    }
+    V v = vertexSupplier.get();
+    if (!addVertex(v)) {
+      throw new IllegalArgumentException("the vertex supplier returned an existing vertex: " + v);
+    }
+    return v;
+  }
+
+  @Override
+  public boolean addVertex(V v) {
+    Objects.requireNonNull(v, "vertex");
+    return vertices.putIfAbsent(v, new Node<>(directed)) == null;
+  }
+
+  @Override
+  public boolean containsEdge(E e) {
+    return e != null && edges.containsKey(e);
+  }
+
+  @Override
+  public boolean containsVertex(V v) {
+    return v != null && vertices.containsKey(v);
+  }
+
+  @Override
+  public Set<E> edgeSet() {
+    return edgeSetView;
+  }
+
+  @Override
+  public int degreeOf(V vertex) {
+    var node = node(vertex);
+    if (directed) {
+      return node.out.size() + node.in.size();
+    }
+    return node.out.size() + node.loops;
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * <p>For directed graphs this is a snapshot rather than a live view.
+   */
+  @Override
+  public Set<E> edgesOf(V vertex) {
+    var node = node(vertex);
+    if (!directed) {
+      return Collections.unmodifiableSet(node.out);
+    }
+    Set<E> result = new LinkedHashSet<>(node.out);
+    result.addAll(node.in);
+    return result;
+  }
+
+  @Override
+  public int inDegreeOf(V vertex) {
+    return directed ? node(vertex).in.size() : degreeOf(vertex);
+  }
+
+  @Override
+  public Set<E> incomingEdgesOf(V vertex) {
+    var node = node(vertex);
+    return Collections.unmodifiableSet(directed ? node.in : node.out);
+  }
+
+  @Override
+  public int outDegreeOf(V vertex) {
+    return directed ? node(vertex).out.size() : degreeOf(vertex);
+  }
+
+  @Override
+  public Set<E> outgoingEdgesOf(V vertex) {
+    return Collections.unmodifiableSet(node(vertex).out);
+  }
+
+  @Override
+  public E removeEdge(V sourceVertex, V targetVertex) {
+    while (true) {
+      E e = getEdge(sourceVertex, targetVertex);
+      if (e == null || removeEdge(e)) {
+        return e;
+      }
+    }
+  }
+
+  @Override
+  public boolean removeEdge(E e) {
+    if (e == null) {
+      return false;
+    }
+    while (true) {
+      var link = edges.get(e);
+      if (link == null) {
+        return false;
+      }
+      int first = stripe(link.source);
+      int second = stripe(link.target);
+      lock(first, second);
+      try {
+        // the edge may have been removed, and its identifier reused, before the locks were taken
+        if (edges.get(e) == link) {
+          unlink(e, link);
+          return true;
+        }
+      } finally {
+        unlock(first, second);
+      }
+    }
+  }
+
+  @Override
+  public boolean removeVertex(V v) {
+    if (v == null) {
+      return false;
+    }
+    while (true) {
+      var node = vertices.get(v);
+      if (node == null) {
+        return false;
+      }
+      var locked = neighborStripes(v, node);
+      lockAll(locked);
+      try {
+        // with the stripe of v held no edge can be added to it, so the neighbors can only have shrunk
+        if (vertices.get(v) == node && covers(locked, neighborStripes(v, node))) {
+          unlinkAll(node.out);
+          if (directed) {
+            unlinkAll(node.in);
+          }
+          vertices.remove(v, node);
+          return true;
+        }
+      } finally {
+        unlockAll(locked);
+      }
+    }
+  }
+
+  @Override
+  public Set<V> vertexSet() {
+    return vertexSetView;
+  }
+
+  @Override
+  public V getEdgeSource(E e) {
+    return link(e).source;
+  }
+
+  @Override
+  public V getEdgeTarget(E e) {
+    return link(e).target;
+  }
+
+  @Override
+  public GraphType getType() {
+    return type;
+  }
+
+  @Override
+  public double getEdgeWeight(E e) {
+    Objects.requireNonNull(e, "edge");
+    if (!type.isWeighted()) {
+      return Graph.DEFAULT_EDGE_WEIGHT;
+    }
+    return link(e).weight;
+  }
+
+  @Override
+  public void setEdgeWeight(E e, double weight) {
+    if (!type.isWeighted()) {
+      throw new UnsupportedOperationException("the graph is not weighted");
+    }
+    link(e).weight = weight;
+  }
+
+  private Node<E> node(V vertex) {
+    Objects.requireNonNull(vertex, "vertex");
+    var node = vertices.get(vertex);
+    if (node == null) {
+      throw new IllegalArgumentException("no such vertex in graph: " + vertex);
+    }
+    return node;
+  }
+
+  private Link<V> link(E e) {
+    Objects.requireNonNull(e, "edge");
+    var link = edges.get(e);
+    if (link == null) {
+      throw new IllegalArgumentException("no such edge in graph: " + e);
+    }
+    return link;
+  }
+
+  /**
+   * Removes an edge from the adjacency sets, then from the edge map. The caller holds the stripes of both endpoints.
+   */
+  private void unlink(E e, Link<V> link) {
+    var u = vertices.get(link.source);
+    var v = vertices.get(link.target);
+    u.out.remove(e);
+    if (directed) {
+      v.in.remove(e);
+    } else if (u == v) {
+      u.loops--;
+    } else {
+      v.out.remove(e);
+    }
+    edges.remove(e);
+  }
+
+  private void unlinkAll(Set<E> incident) {
+    for (E e : incident) {
+      var link = edges.get(e);
+      // a directed self-loop is in both sets and is gone by the time the in-set is visited
+      if (link != null) {
+        unlink(e, link);
+      }
+    }
+  }
+
+  /**
+   * Returns the smaller of the two adjacency sets that can hold an edge between {@code u} and {@code v}.
+   */
+  private Set<E> scanSet(Node<E> u, Node<E> v) {
+    if (directed) {
+      return u.out.size() <= v.in.size() ? u.out : v.in;
+    }
+    return u.out.size() <= v.out.size() ? u.out : v.out;
+  }
+
+  private E findEdge(Node<E> u, Node<E> v, V sourceVertex, V targetVertex) {
+    for (E e : scanSet(u, v)) {
+      var link = edges.get(e);
+      if (link != null && link.connects(sourceVertex, targetVertex, directed)) {
+        return e;
+      }
+    }
+    return null;
+  }
+
+  private int stripe(V vertex) {
+    int h = vertex.hashCode();
+    return (h ^ (h >>> 16)) & (stripes.length - 1);
+  }
+
+  private BitSet neighborStripes(V vertex, Node<E> node) {
+    var result = new BitSet(stripes.length);
+    result.set(stripe(vertex));
+    addOppositeStripes(result, vertex, node.out);
+    if (directed) {
+      addOppositeStripes(result, vertex, node.in);
+    }
+    return result;
+  }
+
+  private void addOppositeStripes(BitSet result, V vertex, Set<E> incident) {
+    for (E e : incident) {
+      var link = edges.get(e);
+      if (link != null) {
+        result.set(stripe(link.source.equals(vertex) ? link.target : link.source));
+      }
+    }
+  }
+
+  private static boolean covers(BitSet locked, BitSet needed) {
+    needed.andNot(locked);
+    return needed.isEmpty();
+  }
+
+  private void lock(int first, int second) {
+    stripes[Math.min(first, second)].lock();
+    if (first != second) {
+      stripes[Math.max(first, second)].lock();
+    }
+  }
+
+  private void unlock(int first, int second) {
+    if (first != second) {
+      stripes[Math.max(first, second)].unlock();
+    }
+    stripes[Math.min(first, second)].unlock();
+  }
+
+  private void lockAll(BitSet indices) {
+    for (int i = indices.nextSetBit(0); i >= 0; i = indices.nextSetBit(i + 1)) {
+      stripes[i].lock();
+    }
+  }
+
+  private void unlockAll(BitSet indices) {
+    for (int i = indices.nextSetBit(0); i >= 0; i = indices.nextSetBit(i + 1)) {
+      stripes[i].unlock();
+    }
+  }
+
+  /**
+   * The adjacency of a vertex. Writes happen under the vertex stripe; the sets are concurrent so that readers need no
+   * lock. An undirected vertex keeps all its edges in {@code out}, a self-loop once, and counts its loops so that
+   * they add two to the degree.
+   */
+  private static final class Node<E> {
+    final Set<E> out = ConcurrentHashMap.newKeySet(4);
+    final Set<E> in;
+    volatile int loops;
+
+    Node(boolean directed) {
+      this.in = directed ? ConcurrentHashMap.newKeySet(4) : null;
+    }
+  }
+
+  private static final class Link<V> {
+    final V source;
+    final V target;
+    volatile double weight = Graph.DEFAULT_EDGE_WEIGHT;
+
+    Link(V source, V target) {
+      this.source = source;
+      this.target = target;
+    }
+
+    boolean connects(V u, V v, boolean directed) {
+      if (directed) {
+        return source.equals(u) && target.equals(v);
+      }
+      return (source.equals(u) && target.equals(v)) || (source.equals(v) && target.equals(u));
+    }
+  }
+}
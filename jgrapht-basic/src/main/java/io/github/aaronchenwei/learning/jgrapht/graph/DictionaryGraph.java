@@ -0,0 +1,308 @@
+package io.github.aaronchenwei.learning.jgrapht.graph;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Supplier;
+import org.jgrapht.Graph;
+import org.jgrapht.GraphType;
+import org.jgrapht.graph.AbstractGraph;
+import org.jgrapht.graph.AsUnmodifiableGraph;
+
+/**
+ * A dictionary-encoded graph: vertices of any type (such as {@code String} or {@code URI}) are numbered once, when
+ * added, and the structure is an {@link IntArrayGraph} over the numbers.
+ *
+ * <p>Each vertex object is referenced only by the dictionary, as a key of its map and a slot of its array, instead of
+ * from every adjacency map entry as in the jgrapht default graphs, and it is hashed once per call that takes a vertex
+ * argument. Everything else (adjacency scans, {@link #getEdgeSource}, iteration over edges) only touches
+ * {@code int} arrays. Edges are the {@code Integer} identifiers of the underlying graph, and {@link #encoded()}
+ * exposes that graph read-only for algorithms that work on the numbers.
+ *
+ * <p>Identifiers of removed vertices are reused by later vertices, so the numbering stays dense.
+ *
+ * @param <V> the graph vertex type.
+ */
+public class DictionaryGraph<V> extends AbstractGraph<V, Integer> {
+
+  private static final int DEFAULT_CAPACITY = 16;
+
+  private final IntArrayGraph encoded;
+  private final Supplier<V> vertexSupplier;
+  private final Map<V, Integer> ids;
+  private Object[] vertices;
+  private int[] freeIds = new int[0];
+  private int freeCount;
+  private int nextId;
+
+  private final Set<V> vertexSetView = new VertexSet();
+
+  /**
+   * Creates an empty graph.
+   *
+   * @param type the graph type; it must be either directed or undirected.
+   * @param vertexSupplier the vertex supplier, or null if vertices are always added explicitly.
+   */
+  public DictionaryGraph(GraphType type, Supplier<V> vertexSupplier) {
+    this(type, vertexSupplier, DEFAULT_CAPACITY, DEFAULT_CAPACITY);
+  }
+
+  /**
+   * Creates an empty graph with a pre-sized dictionary and arrays.
+   *
+   * @param type the graph type; it must be either directed or undirected.
+   * @param vertexSupplier the vertex supplier, or null if vertices are always added explicitly.
+   * @param expectedVertices the expected number of vertices.
+   * @param expectedEdges the expected number of edges.
+   */
+  public DictionaryGraph(GraphType type, Supplier<V> vertexSupplier, int expectedVertices, int expectedEdges) {
+    this.encoded = new IntArrayGraph(type, expectedVertices, expectedEdges);
+    this.vertexSupplier = vertexSupplier;
+    this.ids = new HashMap<>((int) Math.min(Integer.MAX_VALUE, (long) expectedVertices * 4 / 3 + 1));
+    this.vertices = new Object[Math.max(expectedVertices, 1)];
+  }
+
+  /**
+   * Returns the identifier of a vertex.
+   *
+   * @param v the vertex.
+   * @return the identifier, or -1 if the vertex is not in the graph.
+   */
+  public int vertexId(V v) {
+    Integer id = ids.get(v);
+    return id == null ? -1 : id;
+  }
+
+  @SuppressWarnings("unchecked")
+  public V vertex(int id) {
+    return (V) vertices[id];
+  }
+
+  /**
+   * Returns the underlying graph over the vertex identifiers, as an unmodifiable view.
+   *
+   * @return the encoded graph.
+   */
+  public Graph<Integer, Integer> encoded() {
+    return new AsUnmodifiableGraph<>(encoded);
+  }
+
+  @Override
+  public Set<Integer> getAllEdges(V sourceVertex, V targetVertex) {
+    int u = vertexId(sourceVertex);
+    int v = vertexId(targetVertex);
+    if (u < 0 || v < 0) {
+      return null;
+    }
+    return encoded.getAllEdges(u, v);
+  }
+
+  @Override
+  public Integer getEdge(V sourceVertex, V targetVertex) {
+    int u = vertexId(sourceVertex);
+    int v = vertexId(targetVertex);
+    if (u < 0 || v < 0) {
+      return null;
+    }
+    return encoded.getEdge(u, v);
+  }
+
+  @Override
+  public Supplier<V> getVertexSupplier() {
+    return vertexSupplier;
+  }
+
+  @Override
+  public Supplier<Integer> getEdgeSupplier() {
+    return encoded.getEdgeSupplier();
+  }
+
+  @Override
+  public Integer addEdge(V sourceVertex, V targetVertex) {
+    return encoded.addEdge(idOf(sourceVertex), idOf(targetVertex));
+  }
+
+  @Override
+  public boolean addEdge(V sourceVertex, V targetVertex, Integer e) {
+    return encoded.addEdge(idOf(sourceVertex), idOf(targetVertex), e);
+  }
+
+  @Override
+  public V addVertex() {
+    if (vertexSupplier == null) {
+      throw new UnsupportedOperationException("The graph contains no vertex supplier");
+    }
+    V v = vertexSupplier.get();
+    if (!addVertex(v)) {
+      throw new IllegalArgumentException("the vertex supplier returned a vertex already in the graph: " + v);
+    }
+    return v;
+  }
+
+  @Override
+  public boolean addVertex(V v) {
+    Objects.requireNonNull(v, "vertex");
+    if (ids.containsKey(v)) {
+      return false;
+    }
+    int id = freeCount > 0 ? freeIds[--freeCount] : nextId++;
+    if (id >= vertices.length) {
+      vertices = Arrays.copyOf(vertices, Math.max(id + 1, vertices.length + (vertices.length >> 1)));
+    }
+    vertices[id] = v;
+    ids.put(v, id);
+    encoded.addVertex(id);
+    return true;
+  }
+
+  @Override
+  public boolean containsEdge(Integer e) {
+    return encoded.containsEdge(e);
+  }
+
+  @Override
+  public boolean containsVertex(V v) {
+    return ids.containsKey(v);
+  }
+
+  @Override
+  public Set<Integer> edgeSet() {
+    return encoded.edgeSet();
+  }
+
+  @Override
+  public int degreeOf(V vertex) {
+    return encoded.degreeOf(idOf(vertex));
+  }
+
+  @Override
+  public Set<Integer> edgesOf(V vertex) {
+    return encoded.edgesOf(idOf(vertex));
+  }
+
+  @Override
+  public int inDegreeOf(V vertex) {
+    return encoded.inDegreeOf(idOf(vertex));
+  }
+
+  @Override
+  public Set<Integer> incomingEdgesOf(V vertex) {
+    return encoded.incomingEdgesOf(idOf(vertex));
+  }
+
+  @Override
+  public int outDegreeOf(V vertex) {
+    return encoded.outDegreeOf(idOf(vertex));
+  }
+
+  @Override
+  public Set<Integer> outgoingEdgesOf(V vertex) {
+    return encoded.outgoingEdgesOf(idOf(vertex));
+  }
+
+  @Override
+  public Integer removeEdge(V sourceVertex, V targetVertex) {
+    int u = vertexId(sourceVertex);
+    int v = vertexId(targetVertex);
+    if (u < 0 || v < 0) {
+      return null;
+    }
+    return encoded.removeEdge(u, v);
+  }
+
+  @Override
+  public boolean removeEdge(Integer e) {
+    return encoded.removeEdge(e);
+  }
+
+  @Override
+  public boolean removeVertex(V v) {
+    Integer id = ids.remove(v);
+    if (id == null) {
+      return false;
+    }
+    encoded.removeVertex(id);
+    vertices[id] = null;
+    if (freeCount == freeIds.length) {
+      freeIds = Arrays.copyOf(freeIds, Math.max(DEFAULT_CAPACITY, freeCount * 2));
+    }
+    freeIds[freeCount++] = id;
+    return true;
+  }
+
+  @Override
+  public Set<V> vertexSet() {
+    return vertexSetView;
+  }
+
+  @Override
+  public V getEdgeSource(Integer e) {
+    return vertex(encoded.getEdgeSource(e));
+  }
+
+  @Override
+  public V getEdgeTarget(Integer e) {
+    return vertex(encoded.getEdgeTarget(e));
+  }
+
+  @Override
+  public GraphType getType() {
+    return encoded.getType();
+  }
+
+  @Override
+  public double getEdgeWeight(Integer e) {
+    return encoded.getEdgeWeight(e);
+  }
+
+  @Override
+  public void setEdgeWeight(Integer e, double weight) {
+    encoded.setEdgeWeight(e, weight);
+  }
+
+  /**
+   * Returns the identifier of a vertex that must be in the graph.
+   */
+  private int idOf(V v) {
+    Integer id = ids.get(Objects.requireNonNull(v, "vertex"));
+    if (id == null) {
+      throw new IllegalArgumentException("no such vertex in graph: " + v);
+    }
+    return id;
+  }
+
+  /**
+   * The vertices, in the order of their identifiers.
+   */
+  private class VertexSet extends AbstractSet<V> {
+    @Override
+    public Iterator<V> iterator() {
+      var it = encoded.vertexSet().iterator();
+      return new Iterator<>() {
+        @Override
+        public boolean hasNext() {
+          return it.hasNext();
+        }
+
+        @Override
+        public V next() {
+          return vertex(it.next());
+        }
+      };
+    }
+
+    @Override
+    public boolean contains(Object o) {
+      return ids.containsKey(o);
+    }
+
+    @Override
+    public int size() {
+      return ids.size();
+    }
+  }
+}
@@ -0,0 +1,508 @@
+package io.github.aaronchenwei.learning.jgrapht.graph;
+
+import java.util.AbstractSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Supplier;
+import org.jgrapht.Graph;
+import org.jgrapht.GraphType;
+import org.jgrapht.graph.AbstractGraph;
+
+/**
+ * An immutable compressed-sparse-row snapshot of another graph.
+ *
+ * <p>{@link #freeze(Graph)} numbers the vertices {@code 0..n-1} and the edges {@code 0..m-1} in the iteration order
+ * of the source graph, and lays out the adjacency in an {@link IntCsr}: the outgoing one and, for directed graphs, a
+ * second one for the incoming edges. Directed, undirected, weighted and multigraph variants are all preserved.
+ *
+ * <p>The snapshot implements the read-only part of {@link Graph}, so existing algorithms keep working, but the point
+ * is the int-level API ({@link #vertexId}, {@link #vertex}, {@link #outgoing()}, {@link #incoming()},
+ * {@link #edgeSource(int)}, ...): once a start vertex has been translated, traversals and shortest paths only touch
+ * contiguous arrays and never hash a vertex again.
+ *
+ * @param <V> the graph vertex type.
+ * @param <E> the graph edge type.
+ */
+public class FrozenGraph<V, E> extends AbstractGraph<V, E> {
+
+  private final GraphType type;
+  private final Object[] vertices;
+  private final Map<V, Integer> vertexIds;
+  private final Object[] edges;
+  private final Map<E, Integer> edgeIds;
+  private final int[] sources;
+  private final int[] targets;
+  private final double[] weights;
+  private final int[] loops;
+  private final IntCsr outgoing;
+  private final IntCsr incoming;
+
+  private final Set<V> vertexSetView = new VertexSet();
+  private final Set<E> edgeSetView = new EdgeSet();
+
+  private FrozenGraph(GraphType type, Object[] vertices, Map<V, Integer> vertexIds, Object[] edges,
+    Map<E, Integer> edgeIds, int[] sources, int[] targets, double[] weights, int[] loops) {
+    this.type = type.asUnmodifiable();
+    this.vertices = vertices;
+    this.vertexIds = vertexIds;
+    this.edges = edges;
+    this.edgeIds = edgeIds;
+    this.sources = sources;
+    this.targets = targets;
+    this.weights = weights;
+    this.loops = loops;
+    boolean directed = type.isDirected();
+    this.outgoing = IntCsr.of(vertices.length, sources, targets, edges.length, !directed);
+    this.incoming = directed ? IntCsr.of(vertices.length, targets, sources, edges.length, false) : outgoing;
+  }
+
+  /**
+   * Takes an immutable snapshot of a graph.
+   *
+   * @param graph the graph; it must be either directed or undirected.
+   * @param <V> the graph vertex type.
+   * @param <E> the graph edge type.
+   * @return the snapshot.
+   */
+  public static <V, E> FrozenGraph<V, E> freeze(Graph<V, E> graph) {
+    Objects.requireNonNull(graph, "graph");
+    GraphType type = graph.getType();
+    if (type.isMixed()) {
+      throw new IllegalArgumentException("mixed graphs are not supported");
+    }
+
+    int n = graph.vertexSet().size();
+    var vertices = new Object[n];
+    var vertexIds = new HashMap<V, Integer>(capacity(n));
+    for (V v : graph.vertexSet()) {
+      vertices[vertexIds.size()] = v;
+      vertexIds.put(v, vertexIds.size());
+    }
+
+    int m = graph.edgeSet().size();
+    var edges = new Object[m];
+    var edgeIds = new HashMap<E, Integer>(capacity(m));
+    var sources = new int[m];
+    var targets = new int[m];
+    var weights = type.isWeighted() ? new double[m] : null;
+    int[] loops = null;
+    for (E e : graph.edgeSet()) {
+      int id = edgeIds.size();
+      edges[id] = e;
+      edgeIds.put(e, id);
+      sources[id] = vertexIds.get(graph.getEdgeSource(e));
+      targets[id] = vertexIds.get(graph.getEdgeTarget(e));
+      if (weights != null) {
+        weights[id] = graph.getEdgeWeight(e);
+      }
+      if (sources[id] == targets[id]) {
+        if (loops == null) {
+          loops = new int[n];
+        }
+        loops[sources[id]]++;
+      }
+    }
+    return new FrozenGraph<>(type, vertices, vertexIds, edges, edgeIds, sources, targets, weights, loops);
+  }
+
+  private static int capacity(int size) {
+    return (int) Math.min(Integer.MAX_VALUE, (long) size * 4 / 3 + 1);
+  }
+
+  public int vertexCount() {
+    return vertices.length;
+  }
+
+  public int edgeCount() {
+    return edges.length;
+  }
+
+  /**
+   * Returns the dense identifier of a vertex.
+   *
+   * @param v the vertex.
+   * @return the identifier, or -1 if the vertex is not in the graph.
+   */
+  public int vertexId(V v) {
+    Integer id = vertexIds.get(v);
+    return id == null ? -1 : id;
+  }
+
+  @SuppressWarnings("unchecked")
+  public V vertex(int id) {
+    return (V) vertices[id];
+  }
+
+  /**
+   * Returns the dense identifier of an edge.
+   *
+   * @param e the edge.
+   * @return the identifier, or -1 if the edge is not in the graph.
+   */
+  public int edgeId(E e) {
+    Integer id = edgeIds.get(e);
+    return id == null ? -1 : id;
+  }
+
+  @SuppressWarnings("unchecked")
+  public E edge(int id) {
+    return (E) edges[id];
+  }
+
+  public int edgeSource(int edge) {
+    return sources[edge];
+  }
+
+  public int edgeTarget(int edge) {
+    return targets[edge];
+  }
+
+  public double weight(int edge) {
+    return weights == null ? Graph.DEFAULT_EDGE_WEIGHT : weights[edge];
+  }
+
+  /**
+   * Returns the outgoing adjacency; for undirected graphs every edge is listed under both endpoints.
+   *
+   * @return the outgoing adjacency.
+   */
+  public IntCsr outgoing() {
+    return outgoing;
+  }
+
+  /**
+   * Returns the incoming adjacency; for undirected graphs this is the same object as {@link #outgoing()}.
+   *
+   * @return the incoming adjacency.
+   */
+  public IntCsr incoming() {
+    return incoming;
+  }
+
+  @Override
+  public Set<E> getAllEdges(V sourceVertex, V targetVertex) {
+    int u = vertexId(sourceVertex);
+    int v = vertexId(targetVertex);
+    if (u < 0 || v < 0) {
+      return null;
+    }
+    Set<E> result = new LinkedHashSet<>();
+    for (int i = outgoing.start(u); i < outgoing.end(u); i++) {
+      if (outgoing.neighbor(i) == v) {
+        result.add(edge(outgoing.edge(i)));
+      }
+    }
+    return result;
+  }
+
+  @Override
+  public E getEdge(V sourceVertex, V targetVertex) {
+    int u = vertexId(sourceVertex);
+    int v = vertexId(targetVertex);
+    if (u < 0 || v < 0) {
+      return null;
+    }
+    for (int i = outgoing.start(u); i < outgoing.end(u); i++) {
+      if (outgoing.neighbor(i) == v) {
+        return edge(outgoing.edge(i));
+      }
+    }
+    return null;
+  }
+
+  @Override
+  public Supplier<V> getVertexSupplier() {
+    return null;
+  }
+
+  @Override
+  public Supplier<E> getEdgeSupplier() {
+    return null;
+  }
+
+  @Override
+  public E addEdge(V sourceVertex, V targetVertex) {
+    throw new UnsupportedOperationException("frozen graph");
+  }
+
+  @Override
+  public boolean addEdge(V sourceVertex, V targetVertex, E e) {
+    throw new UnsupportedOperationException("frozen graph");
+  }
+
+  @Override
+  public V addVertex() {
+    throw new UnsupportedOperationException("frozen graph");
+  }
+
+  @Override
+  public boolean addVertex(V v) {
+    throw new UnsupportedOperationException("frozen graph");
+  }
+
+  @Override
+  public boolean containsEdge(E e) {
+    return edgeIds.containsKey(e);
+  }
+
+  @Override
+  public boolean containsVertex(V v) {
+    return vertexIds.containsKey(v);
+  }
+
+  @Override
+  public Set<E> edgeSet() {
+    return edgeSetView;
+  }
+
+  @Override
+  public int degreeOf(V vertex) {
+    int v = id(vertex);
+    if (type.isDirected()) {
+      return outgoing.degree(v) + incoming.degree(v);
+    }
+    return outgoing.degree(v) + loopsAt(v);
+  }
+
+  @Override
+  public Set<E> edgesOf(V vertex) {
+    int v = id(vertex);
+    return type.isDirected() ? new IncidentEdges(v, true, true) : new IncidentEdges(v, true, false);
+  }
+
+  @Override
+  public int inDegreeOf(V vertex) {
+    return type.isDirected() ? incoming.degree(id(vertex)) : degreeOf(vertex);
+  }
+
+  @Override
+  public Set<E> incomingEdgesOf(V vertex) {
+    int v = id(vertex);
+    return type.isDirected() ? new IncidentEdges(v, false, true) : new IncidentEdges(v, true, false);
+  }
+
+  @Override
+  public int outDegreeOf(V vertex) {
+    return type.isDirected() ? outgoing.degree(id(vertex)) : degreeOf(vertex);
+  }
+
+  @Override
+  public Set<E> outgoingEdgesOf(V vertex) {
+    return new IncidentEdges(id(vertex), true, false);
+  }
+
+  @Override
+  public E removeEdge(V sourceVertex, V targetVertex) {
+    throw new UnsupportedOperationException("frozen graph");
+  }
+
+  @Override
+  public boolean removeEdge(E e) {
+    throw new UnsupportedOperationException("frozen graph");
+  }
+
+  @Override
+  public boolean removeVertex(V v) {
+    throw new UnsupportedOperationException("frozen graph");
+  }
+
+  @Override
+  public Set<V> vertexSet() {
+    return vertexSetView;
+  }
+
+  @Override
+  public V getEdgeSource(E e) {
+    return vertex(sources[edgeIdOrThrow(e)]);
+  }
+
+  @Override
+  public V getEdgeTarget(E e) {
+    return vertex(targets[edgeIdOrThrow(e)]);
+  }
+
+  @Override
+  public GraphType getType() {
+    return type;
+  }
+
+  @Override
+  public double getEdgeWeight(E e) {
+    Objects.requireNonNull(e, "edge");
+    return weights == null ? Graph.DEFAULT_EDGE_WEIGHT : weights[edgeIdOrThrow(e)];
+  }
+
+  @Override
+  public void setEdgeWeight(E e, double weight) {
+    throw new UnsupportedOperationException("frozen graph");
+  }
+
+  private int id(V vertex) {
+    assertVertexExist(vertex);
+    return vertexIds.get(vertex);
+  }
+
+  private int edgeIdOrThrow(E e) {
+    Objects.requireNonNull(e, "edge");
+    Integer id = edgeIds.get(e);
+    if (id == null) {
+      throw new IllegalArgumentException("no such edge in graph: " + e);
+    }
+    return id;
+  }
+
+  private int loopsAt(int v) {
+    return loops == null ? 0 : loops[v];
+  }
+
+  private class VertexSet extends AbstractSet<V> {
+    @Override
+    public Iterator<V> iterator() {
+      return new ArrayIterator<>(vertices);
+    }
+
+    @Override
+    public boolean contains(Object o) {
+      return vertexIds.containsKey(o);
+    }
+
+    @Override
+    public int size() {
+      return vertices.length;
+    }
+  }
+
+  private class EdgeSet extends AbstractSet<E> {
+    @Override
+    public Iterator<E> iterator() {
+      return new ArrayIterator<>(edges);
+    }
+
+    @Override
+    public boolean contains(Object o) {
+      return edgeIds.containsKey(o);
+    }
+
+    @Override
+    public int size() {
+      return edges.length;
+    }
+  }
+
+  private static final class ArrayIterator<T> implements Iterator<T> {
+    private final Object[] array;
+    private int next;
+
+    ArrayIterator(Object[] array) {
+      this.array = array;
+    }
+
+    @Override
+    public boolean hasNext() {
+      return next < array.length;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T next() {
+      if (next >= array.length) {
+        throw new NoSuchElementException();
+      }
+      return (T) array[next++];
+    }
+  }
+
+  /**
+   * The edges in the outgoing and/or incoming slots of a vertex; with both, a directed self-loop is reported once.
+   */
+  private class IncidentEdges extends AbstractSet<E> {
+    private final int vertex;
+    private final boolean withOut;
+    private final boolean withIn;
+
+    IncidentEdges(int vertex, boolean withOut, boolean withIn) {
+      this.vertex = vertex;
+      this.withOut = withOut;
+      this.withIn = withIn;
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+      return new Iterator<>() {
+        private boolean inPart = !withOut;
+        private int slot = (withOut ? outgoing : incoming).start(vertex) - 1;
+        private int next = advance();
+
+        private int advance() {
+          while (true) {
+            slot++;
+            if (!inPart) {
+              if (slot < outgoing.end(vertex)) {
+                return outgoing.edge(slot);
+              }
+              if (!withIn) {
+                return -1;
+              }
+              inPart = true;
+              slot = incoming.start(vertex);
+            }
+            if (slot >= incoming.end(vertex)) {
+              return -1;
+            }
+            int e = incoming.edge(slot);
+            if (!withOut || sources[e] != targets[e]) {
+              return e;
+            }
+          }
+        }
+
+        @Override
+        public boolean hasNext() {
+          return next >= 0;
+        }
+
+        @Override
+        public E next() {
+          if (next < 0) {
+            throw new NoSuchElementException();
+          }
+          int e = next;
+          next = advance();
+          return edge(e);
+        }
+      };
+    }
+
+    @Override
+    public boolean contains(Object o) {
+      Integer id = edgeIds.get(o);
+      if (id == null) {
+        return false;
+      }
+      if (!type.isDirected()) {
+        return sources[id] == vertex || targets[id] == vertex;
+      }
+      return (withOut && sources[id] == vertex) || (withIn && targets[id] == vertex);
+    }
+
+    @Override
+    public int size() {
+      int size = 0;
+      if (withOut) {
+        size += outgoing.degree(vertex);
+      }
+      if (withIn) {
+        size += incoming.degree(vertex);
+        if (withOut) {
+          size -= loopsAt(vertex);
+        }
+      }
+      return size;
+    }
+  }
+}
@@ -0,0 +1,1011 @@
+package io.github.aaronchenwei.learning.jgrapht.graph;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.DoubleUnaryOperator;
+import java.util.function.Supplier;
+import org.jgrapht.Graph;
+import org.jgrapht.GraphType;
+import org.jgrapht.graph.AbstractGraph;
+import org.jgrapht.graph.DefaultGraphType;
+
+/**
+ * A mutable graph whose vertices and edges are non-negative {@code int} identifiers, backed by primitive arrays.
+ *
+ * <p>Unlike {@link org.jgrapht.graph.SimpleGraph SimpleGraph&lt;Integer, DefaultEdge&gt;}, which keeps a boxed key, a
+ * {@code DefaultEdge} object and several hash map entries per edge, this graph stores an edge as two {@code int}
+ * endpoints plus one {@code int} slot in the adjacency array of each endpoint (the out- and in-array for directed
+ * graphs). That is 16 bytes per edge plus array slack, and 8 more for the weight column of weighted graphs, which
+ * can be kept off the heap ({@link WeightColumn.Storage#OFF_HEAP}) and reweighted in bulk
+ * ({@link #setEdgeWeights}, {@link #scaleEdgeWeights}, {@link #transformEdgeWeights}).
+ *
+ * <p>Unlike {@link org.jgrapht.opt.graph.sparse.SparseIntUndirectedGraph SparseIntUndirectedGraph} the graph can be
+ * grown one {@link #addEdge(Integer, Integer)} at a time. Edge identifiers are assigned in increasing order and are
+ * never reused after a removal. Both kinds of identifier index arrays, so they must be below {@code 2^31 - 9}.
+ * {@link #getEdge(Integer, Integer)} scans the shorter adjacency array of the two endpoints, which is what makes the
+ * rejection of multiple edges in simple graphs cost O(degree).
+ *
+ * <p>The self-loop, multiple-edge and weight semantics follow the supplied {@link GraphType}, so the same class covers
+ * every structure listed in the jgrapht-basic README. The graph is not thread-safe.
+ */
+public class IntArrayGraph extends AbstractGraph<Integer, Integer> {
+
+  private static final int[] EMPTY = new int[0];
+  private static final int DEFAULT_CAPACITY = 16;
+  private static final int MAX_CAPACITY = Integer.MAX_VALUE - 8;
+
+  private final GraphType type;
+  private final boolean directed;
+
+  private final BitSet vertices = new BitSet();
+  private int vertexCount;
+  private int nextVertex;
+  private int reservedVertices;
+
+  private int[][] out;
+  private int[] outSize;
+  private int[][] in;
+  private int[] inSize;
+  private int[] loops;
+
+  private int[] source;
+  private int[] target;
+  private WeightColumn weights;
+  private int edgeCount;
+  private int nextEdge;
+  private int reservedEdges;
+
+  private final Set<Integer> vertexSetView = new VertexSet();
+  private final Set<Integer> edgeSetView = new EdgeSet();
+
+  /**
+   * Creates an empty graph.
+   *
+   * @param type the graph type; it must be either directed or undirected.
+   */
+  public IntArrayGraph(GraphType type) {
+    this(type, DEFAULT_CAPACITY, DEFAULT_CAPACITY);
+  }
+
+  /**
+   * Creates an empty graph with pre-sized arrays.
+   *
+   * @param type the graph type; it must be either directed or undirected.
+   * @param expectedVertices the expected number of vertices.
+   * @param expectedEdges the expected number of edges.
+   */
+  public IntArrayGraph(GraphType type, int expectedVertices, int expectedEdges) {
+    this(type, expectedVertices, expectedEdges, WeightColumn.Storage.HEAP);
+  }
+
+  /**
+   * Creates an empty graph with pre-sized arrays and a choice of weight storage.
+   *
+   * @param type the graph type; it must be either directed or undirected.
+   * @param expectedVertices the expected number of vertices.
+   * @param expectedEdges the expected number of edges.
+   * @param weightStorage where the weight column of a weighted graph is kept.
+   */
+  public IntArrayGraph(GraphType type, int expectedVertices, int expectedEdges, WeightColumn.Storage weightStorage) {
+    Objects.requireNonNull(type, "type");
+    if (type.isMixed()) {
+      throw new IllegalArgumentException("mixed graphs are not supported");
+    }
+    this.type = new DefaultGraphType.Builder(type).modifiable(true).build();
+    this.directed = type.isDirected();
+
+    int n = Math.max(expectedVertices, 1);
+    this.out = new int[n][];
+    this.outSize = new int[n];
+    Arrays.fill(out, EMPTY);
+    if (directed) {
+      this.in = new int[n][];
+      this.inSize = new int[n];
+      Arrays.fill(in, EMPTY);
+    } else if (type.isAllowingSelfLoops()) {
+      this.loops = new int[n];
+    }
+
+    int m = Math.max(expectedEdges, 1);
+    this.source = new int[m];
+    this.target = new int[m];
+    Arrays.fill(source, -1);
+    Arrays.fill(target, -1);
+    if (type.isWeighted()) {
+      this.weights = WeightColumn.allocate(weightStorage, m);
+    }
+  }
+
+  @Override
+  public Set<Integer> getAllEdges(Integer sourceVertex, Integer targetVertex) {
+    if (!containsVertex(sourceVertex) || !containsVertex(targetVertex)) {
+      return null;
+    }
+    Set<Integer> result = new LinkedHashSet<>();
+    int u = sourceVertex;
+    int v = targetVertex;
+    int[] list = scanList(u, v);
+    int size = scanSize(u, v);
+    for (int i = 0; i < size; i++) {
+      int e = list[i];
+      if (connects(e, u, v)) {
+        result.add(e);
+      }
+    }
+    return result;
+  }
+
+  @Override
+  public Integer getEdge(Integer sourceVertex, Integer targetVertex) {
+    if (!containsVertex(sourceVertex) || !containsVertex(targetVertex)) {
+      return null;
+    }
+    int e = findEdge(sourceVertex, targetVertex);
+    return e < 0 ? null : e;
+  }
+
+  /**
+   * Returns a supplier of fresh vertex identifiers. Each call reserves the identifier it returns, so that neither a
+   * later call nor {@link #addVertex()} hands it out again.
+   */
+  @Override
+  public Supplier<Integer> getVertexSupplier() {
+    return () -> {
+      int v = freshVertex();
+      reservedVertices = v + 1;
+      return v;
+    };
+  }
+
+  /**
+   * Returns a supplier of fresh edge identifiers. Each call reserves the identifier it returns, so that neither a
+   * later call nor {@link #addEdge(Integer, Integer)} hands it out again.
+   */
+  @Override
+  public Supplier<Integer> getEdgeSupplier() {
+    return () -> {
+      int e = freshEdge();
+      reservedEdges = e + 1;
+      return e;
+    };
+  }
+
+  @Override
+  public Integer addEdge(Integer sourceVertex, Integer targetVertex) {
+    int e = freshEdge();
+    return addEdge(sourceVertex, targetVertex, e) ? e : null;
+  }
+
+  @Override
+  public boolean addEdge(Integer sourceVertex, Integer targetVertex, Integer e) {
+    Objects.requireNonNull(e, "edge");
+    assertVertexExist(sourceVertex);
+    assertVertexExist(targetVertex);
+    if (e < 0 || e >= MAX_CAPACITY) {
+      throw new IllegalArgumentException("edge identifier out of range: " + e);
+    }
+    int u = sourceVertex;
+    int v = targetVertex;
+    if (u == v && !type.isAllowingSelfLoops()) {
+      throw new IllegalArgumentException("loops not allowed");
+    }
+    if (containsEdge(e)) {
+      return false;
+    }
+    if (!type.isAllowingMultipleEdges() && findEdge(u, v) >= 0) {
+      return false;
+    }
+
+    ensureEdgeCapacity(e + 1);
+    source[e] = u;
+    target[e] = v;
+    if (weights != null) {
+      weights.set(e, Graph.DEFAULT_EDGE_WEIGHT);
+    }
+    nextEdge = Math.max(nextEdge, e + 1);
+    edgeCount++;
+
+    if (directed) {
+      appendOut(u, e);
+      appendIn(v, e);
+    } else if (u == v) {
+      appendOut(u, e);
+      loops[u]++;
+    } else {
+      appendOut(u, e);
+      appendOut(v, e);
+    }
+    return true;
+  }
+
+  @Override
+  public Integer addVertex() {
+    int v = freshVertex();
+    addVertex(v);
+    return v;
+  }
+
+  @Override
+  public boolean addVertex(Integer v) {
+    Objects.requireNonNull(v, "vertex");
+    if (v < 0 || v >= MAX_CAPACITY) {
+      throw new IllegalArgumentException("vertex identifier out of range: " + v);
+    }
+    if (vertices.get(v)) {
+      return false;
+    }
+    ensureVertexCapacity(v + 1);
+    vertices.set(v);
+    vertexCount++;
+    nextVertex = Math.max(nextVertex, v + 1);
+    return true;
+  }
+
+  /**
+   * Adds a batch of vertices. The vertex arrays are grown once, for the largest identifier of the batch.
+   *
+   * @param batch the vertex identifiers.
+   * @return the number of vertices added; identifiers already in the graph are skipped.
+   * @throws IllegalArgumentException if an identifier is negative or too large; nothing is added then.
+   */
+  public int addVertices(int[] batch) {
+    Objects.requireNonNull(batch, "vertices");
+    int max = -1;
+    for (int v : batch) {
+      if (v < 0 || v >= MAX_CAPACITY) {
+        throw new IllegalArgumentException("vertex identifier out of range: " + v);
+      }
+      max = Math.max(max, v);
+    }
+    ensureVertexCapacity(max + 1);
+    int added = 0;
+    for (int v : batch) {
+      if (!vertices.get(v)) {
+        vertices.set(v);
+        added++;
+      }
+    }
+    vertexCount += added;
+    nextVertex = Math.max(nextVertex, max + 1);
+    return added;
+  }
+
+  /**
+   * Adds a batch of edges, with the same result as calling {@link #addEdge(Integer, Integer)} and then
+   * {@link #setEdgeWeight(Integer, double)} for each index in order: new edges get consecutive identifiers, and in a
+   * graph without multiple edges a pair that is already connected, in the graph or earlier in the batch, is skipped.
+   *
+   * <p>The batch is handled in a few passes instead of edge by edge. The first pass validates every edge, so an
+   * invalid batch changes nothing. In a graph without multiple edges, a large batch (at least an eighth of the vertex
+   * count) is grouped by source (undirected: by smaller endpoint) with a counting sort, and each group is checked
+   * against the existing adjacency of its vertex and against itself with one array of vertex stamps; a small batch
+   * goes through a hash set of its pairs instead, and only pairs whose endpoints both had edges before the batch are
+   * looked up in the graph.
+   * The edge columns, and for large batches every touched adjacency array, are then grown once to their final size.
+   *
+   * @param sources the source of each edge.
+   * @param targets the target of each edge.
+   * @param edgeWeights the weight of each edge, or null for the default weight.
+   * @return the number of edges added.
+   * @throws IllegalArgumentException if the arrays differ in length, an endpoint is not in the graph, the batch has a
+   *     self-loop and the graph type does not allow them, or the new edge identifiers would reach {@code 2^31 - 9}.
+   * @throws UnsupportedOperationException if weights are given and the graph is not weighted.
+   */
+  public int addEdges(int[] sources, int[] targets, double[] edgeWeights) {
+    Objects.requireNonNull(sources, "sources");
+    Objects.requireNonNull(targets, "targets");
+    int m = sources.length;
+    if (targets.length != m || (edgeWeights != null && edgeWeights.length != m)) {
+      throw new IllegalArgumentException("the batch arrays differ in length");
+    }
+    if (edgeWeights != null && weights == null) {
+      throw new UnsupportedOperationException("the graph is not weighted");
+    }
+    for (int i = 0; i < m; i++) {
+      assertBatchVertex(sources[i]);
+      assertBatchVertex(targets[i]);
+      if (sources[i] == targets[i] && !type.isAllowingSelfLoops()) {
+        throw new IllegalArgumentException("loops not allowed");
+      }
+    }
+
+    boolean large = m >= nextVertex >>> 3;
+    int[] kept = null;
+    if (!type.isAllowingMultipleEdges()) {
+      kept = large ? groupedDistinctPairs(sources, targets) : distinctPairs(sources, targets);
+    }
+    int count = kept == null ? m : kept.length;
+    int first = freshEdge();
+    if (count > MAX_CAPACITY - first) {
+      throw new IllegalArgumentException("edge identifiers out of range: " + count + " edges after " + first);
+    }
+    if (count == 0) {
+      return 0;
+    }
+    if (large) {
+      presizeAdjacency(sources, targets, kept, count);
+    }
+    ensureEdgeCapacity(first + count);
+    nextEdge = first;
+
+    for (int k = 0; k < count; k++) {
+      int i = kept == null ? k : kept[k];
+      int u = sources[i];
+      int v = targets[i];
+      int e = nextEdge++;
+      source[e] = u;
+      target[e] = v;
+      if (weights != null) {
+        weights.set(e, edgeWeights == null ? Graph.DEFAULT_EDGE_WEIGHT : edgeWeights[i]);
+      }
+      if (directed) {
+        appendOut(u, e);
+        appendIn(v, e);
+      } else if (u == v) {
+        appendOut(u, e);
+        loops[u]++;
+      } else {
+        appendOut(u, e);
+        appendOut(v, e);
+      }
+    }
+    edgeCount += count;
+    return count;
+  }
+
+  /**
+   * Grows the adjacency arrays touched by a batch to their final size. This costs two arrays over all vertices, so
+   * small batches leave the growth to {@link #appendOut(int, int)} instead.
+   */
+  private void presizeAdjacency(int[] sources, int[] targets, int[] kept, int count) {
+    var outAdded = new int[nextVertex];
+    var inAdded = directed ? new int[nextVertex] : null;
+    for (int k = 0; k < count; k++) {
+      int i = kept == null ? k : kept[k];
+      outAdded[sources[i]]++;
+      if (directed) {
+        inAdded[targets[i]]++;
+      } else if (sources[i] != targets[i]) {
+        outAdded[targets[i]]++;
+      }
+    }
+    for (int v = 0; v < nextVertex; v++) {
+      if (outSize[v] + outAdded[v] > out[v].length) {
+        out[v] = Arrays.copyOf(out[v], outSize[v] + outAdded[v]);
+      }
+      if (directed && inSize[v] + inAdded[v] > in[v].length) {
+        in[v] = Arrays.copyOf(in[v], inSize[v] + inAdded[v]);
+      }
+    }
+  }
+
+  /**
+   * Returns the indices of the batch edges that connect a pair not connected before, neither in the graph nor earlier
+   * in the batch. Pairs are packed into a {@code long}, with undirected pairs ordered, and kept in an open-addressing
+   * set of twice the batch size. This is only used for batches under an eighth of the vertex count, so the set has at
+   * most 2^29 slots.
+   */
+  private int[] distinctPairs(int[] sources, int[] targets) {
+    int m = sources.length;
+    var table = new long[(int) Math.max(4L, Long.highestOneBit(2L * m - 1) << 1)];
+    Arrays.fill(table, -1L);
+    int mask = table.length - 1;
+    int shift = 32 - Integer.numberOfTrailingZeros(table.length);
+    var kept = new int[m];
+    int count = 0;
+    for (int i = 0; i < m; i++) {
+      int u = sources[i];
+      int v = targets[i];
+      long key = directed || u <= v ? (long) u << 32 | v : (long) v << 32 | u;
+      int slot = ((int) (key ^ (key >>> 32)) * 0x9E3779B9) >>> shift;
+      while (table[slot] >= 0 && table[slot] != key) {
+        slot = (slot + 1) & mask;
+      }
+      if (table[slot] == key) {
+        continue;
+      }
+      table[slot] = key;
+      if (outSize[u] > 0 && (directed ? inSize[v] : outSize[v]) > 0 && findEdge(u, v) >= 0) {
+        continue;
+      }
+      kept[count++] = i;
+    }
+    return Arrays.copyOf(kept, count);
+  }
+
+  /**
+   * The result of {@link #distinctPairs(int[], int[])} for large batches, without hashing: the batch is grouped by
+   * its source (undirected: its smaller endpoint) with a stable counting sort, and for each group the other endpoints
+   * of the existing edges of that vertex, then those of the group in batch order, are stamped in an array over all
+   * vertices; an edge whose other endpoint is already stamped is a duplicate.
+   */
+  private int[] groupedDistinctPairs(int[] sources, int[] targets) {
+    int m = sources.length;
+    var start = new int[nextVertex + 1];
+    for (int i = 0; i < m; i++) {
+      start[key(sources[i], targets[i]) + 1]++;
+    }
+    for (int v = 0; v < nextVertex; v++) {
+      start[v + 1] += start[v];
+    }
+    // the other endpoint is sorted along with the index, so that the groups are read sequentially
+    var order = new int[m];
+    var others = new int[m];
+    var cursor = Arrays.copyOf(start, nextVertex);
+    for (int i = 0; i < m; i++) {
+      int u = sources[i];
+      int v = targets[i];
+      int k = cursor[key(u, v)]++;
+      order[k] = i;
+      others[k] = directed || u <= v ? v : u;
+    }
+
+    var stamp = new int[nextVertex];
+    var keep = new boolean[m];
+    int count = 0;
+    for (int u = 0; u < nextVertex; u++) {
+      if (start[u] == start[u + 1]) {
+        continue;
+      }
+      int mark = u + 1;
+      int[] list = out[u];
+      for (int k = 0; k < outSize[u]; k++) {
+        int e = list[k];
+        stamp[target[e] == u ? source[e] : target[e]] = mark;
+      }
+      for (int k = start[u]; k < start[u + 1]; k++) {
+        int v = others[k];
+        if (stamp[v] != mark) {
+          stamp[v] = mark;
+          keep[order[k]] = true;
+          count++;
+        }
+      }
+    }
+
+    var kept = new int[count];
+    for (int i = 0, k = 0; k < count; i++) {
+      if (keep[i]) {
+        kept[k++] = i;
+      }
+    }
+    return kept;
+  }
+
+  /**
+   * The vertex a batch edge is grouped by in {@link #groupedDistinctPairs(int[], int[])}.
+   */
+  private int key(int u, int v) {
+    return directed ? u : Math.min(u, v);
+  }
+
+  @Override
+  public boolean containsEdge(Integer e) {
+    return e != null && e >= 0 && e < nextEdge && source[e] >= 0;
+  }
+
+  @Override
+  public boolean containsVertex(Integer v) {
+    return v != null && v >= 0 && vertices.get(v);
+  }
+
+  @Override
+  public Set<Integer> edgeSet() {
+    return edgeSetView;
+  }
+
+  @Override
+  public int degreeOf(Integer vertex) {
+    assertVertexExist(vertex);
+    int v = vertex;
+    if (directed) {
+      return outSize[v] + inSize[v];
+    }
+    return outSize[v] + (loops == null ? 0 : loops[v]);
+  }
+
+  @Override
+  public Set<Integer> edgesOf(Integer vertex) {
+    assertVertexExist(vertex);
+    return new IncidentEdges(vertex, true, true);
+  }
+
+  @Override
+  public int inDegreeOf(Integer vertex) {
+    assertVertexExist(vertex);
+    return directed ? inSize[vertex] : degreeOf(vertex);
+  }
+
+  @Override
+  public Set<Integer> incomingEdgesOf(Integer vertex) {
+    assertVertexExist(vertex);
+    return directed ? new IncidentEdges(vertex, false, true) : new IncidentEdges(vertex, true, false);
+  }
+
+  @Override
+  public int outDegreeOf(Integer vertex) {
+    if (!directed) {
+      return degreeOf(vertex);
+    }
+    assertVertexExist(vertex);
+    return outSize[vertex];
+  }
+
+  @Override
+  public Set<Integer> outgoingEdgesOf(Integer vertex) {
+    assertVertexExist(vertex);
+    return new IncidentEdges(vertex, true, false);
+  }
+
+  @Override
+  public Integer removeEdge(Integer sourceVertex, Integer targetVertex) {
+    Integer e = getEdge(sourceVertex, targetVertex);
+    if (e != null) {
+      removeEdge(e);
+    }
+    return e;
+  }
+
+  @Override
+  public boolean removeEdge(Integer e) {
+    if (!containsEdge(e)) {
+      return false;
+    }
+    int u = source[e];
+    int v = target[e];
+    if (directed) {
+      outSize[u] = removeSlot(out[u], outSize[u], e);
+      inSize[v] = removeSlot(in[v], inSize[v], e);
+    } else if (u == v) {
+      outSize[u] = removeSlot(out[u], outSize[u], e);
+      loops[u]--;
+    } else {
+      outSize[u] = removeSlot(out[u], outSize[u], e);
+      outSize[v] = removeSlot(out[v], outSize[v], e);
+    }
+    source[e] = -1;
+    target[e] = -1;
+    edgeCount--;
+    return true;
+  }
+
+  @Override
+  public boolean removeVertex(Integer v) {
+    if (!containsVertex(v)) {
+      return false;
+    }
+    while (outSize[v] > 0) {
+      removeEdge(out[v][outSize[v] - 1]);
+    }
+    if (directed) {
+      while (inSize[v] > 0) {
+        removeEdge(in[v][inSize[v] - 1]);
+      }
+      in[v] = EMPTY;
+    }
+    out[v] = EMPTY;
+    vertices.clear(v);
+    vertexCount--;
+    return true;
+  }
+
+  @Override
+  public Set<Integer> vertexSet() {
+    return vertexSetView;
+  }
+
+  @Override
+  public Integer getEdgeSource(Integer e) {
+    assertEdgeExist(e);
+    return source[e];
+  }
+
+  @Override
+  public Integer getEdgeTarget(Integer e) {
+    assertEdgeExist(e);
+    return target[e];
+  }
+
+  @Override
+  public GraphType getType() {
+    return type;
+  }
+
+  @Override
+  public double getEdgeWeight(Integer e) {
+    Objects.requireNonNull(e, "edge");
+    if (weights == null) {
+      return Graph.DEFAULT_EDGE_WEIGHT;
+    }
+    assertEdgeExist(e);
+    return weights.get(e);
+  }
+
+  @Override
+  public void setEdgeWeight(Integer e, double weight) {
+    if (weights == null) {
+      throw new UnsupportedOperationException("the graph is not weighted");
+    }
+    assertEdgeExist(e);
+    weights.set(e, weight);
+  }
+
+  /**
+   * Returns the weight column, indexed by edge identifier, for scans that the graph does not offer. Slots of
+   * identifiers that are not edges (never added, or removed) are ignored by the graph and hold unspecified values.
+   *
+   * @return the weight column.
+   * @throws UnsupportedOperationException if the graph is not weighted.
+   */
+  public WeightColumn weightColumn() {
+    if (weights == null) {
+      throw new UnsupportedOperationException("the graph is not weighted");
+    }
+    return weights;
+  }
+
+  /**
+   * Sets the weights of a batch of edges.
+   *
+   * @param edges the edges.
+   * @param edgeWeights the weight of each edge, same length as {@code edges}.
+   * @throws IllegalArgumentException if the arrays differ in length or an edge is not in the graph; no weight is
+   *     changed then.
+   * @throws UnsupportedOperationException if the graph is not weighted.
+   */
+  public void setEdgeWeights(int[] edges, double[] edgeWeights) {
+    var column = weightColumn();
+    if (edges.length != edgeWeights.length) {
+      throw new IllegalArgumentException("the batch arrays differ in length");
+    }
+    for (int e : edges) {
+      if (e < 0 || e >= nextEdge || source[e] < 0) {
+        throw new IllegalArgumentException("no such edge in graph: " + e);
+      }
+    }
+    column.set(edges, edgeWeights);
+  }
+
+  /**
+   * Multiplies every edge weight by a factor, in one pass over the weight column.
+   *
+   * @param factor the factor.
+   * @throws UnsupportedOperationException if the graph is not weighted.
+   */
+  public void scaleEdgeWeights(double factor) {
+    weightColumn().scale(0, nextEdge, factor);
+  }
+
+  /**
+   * Replaces every edge weight with the result of an operator, in one pass over the weight column. The operator
+   * may also be applied to the slots of identifiers that are not edges.
+   *
+   * @param operator the operator.
+   * @throws UnsupportedOperationException if the graph is not weighted.
+   */
+  public void transformEdgeWeights(DoubleUnaryOperator operator) {
+    Objects.requireNonNull(operator, "operator");
+    weightColumn().transform(0, nextEdge, operator);
+  }
+
+  /**
+   * The primitive {@code assertVertexExist}, which does not box the vertex of every batch edge. While no vertex below
+   * {@code nextVertex} is missing, a range check is enough and the bit set is not read.
+   */
+  private void assertBatchVertex(int v) {
+    if (v < 0 || v >= nextVertex || vertexCount != nextVertex && !vertices.get(v)) {
+      throw new IllegalArgumentException("no such vertex in graph: " + v);
+    }
+  }
+
+  private void assertEdgeExist(Integer e) {
+    Objects.requireNonNull(e, "edge");
+    if (!containsEdge(e)) {
+      throw new IllegalArgumentException("no such edge in graph: " + e);
+    }
+  }
+
+  private boolean connects(int e, int u, int v) {
+    if (directed) {
+      return source[e] == u && target[e] == v;
+    }
+    return (source[e] == u && target[e] == v) || (source[e] == v && target[e] == u);
+  }
+
+  /**
+   * Returns the shorter of the two adjacency arrays that can hold an edge between {@code u} and {@code v}.
+   */
+  private int[] scanList(int u, int v) {
+    if (directed) {
+      return outSize[u] <= inSize[v] ? out[u] : in[v];
+    }
+    return outSize[u] <= outSize[v] ? out[u] : out[v];
+  }
+
+  private int scanSize(int u, int v) {
+    if (directed) {
+      return Math.min(outSize[u], inSize[v]);
+    }
+    return Math.min(outSize[u], outSize[v]);
+  }
+
+  private int findEdge(int u, int v) {
+    int[] list = scanList(u, v);
+    int size = scanSize(u, v);
+    for (int i = 0; i < size; i++) {
+      if (connects(list[i], u, v)) {
+        return list[i];
+      }
+    }
+    return -1;
+  }
+
+  private void appendOut(int v, int e) {
+    int size = outSize[v];
+    if (size == out[v].length) {
+      out[v] = Arrays.copyOf(out[v], grow(size));
+    }
+    out[v][size] = e;
+    outSize[v] = size + 1;
+  }
+
+  private void appendIn(int v, int e) {
+    int size = inSize[v];
+    if (size == in[v].length) {
+      in[v] = Arrays.copyOf(in[v], grow(size));
+    }
+    in[v][size] = e;
+    inSize[v] = size + 1;
+  }
+
+  /**
+   * Removes {@code e} from the first {@code size} slots by moving the last slot into its place.
+   *
+   * @return the new size.
+   */
+  private static int removeSlot(int[] list, int size, int e) {
+    for (int i = 0; i < size; i++) {
+      if (list[i] == e) {
+        list[i] = list[size - 1];
+        return size - 1;
+      }
+    }
+    return size;
+  }
+
+  /**
+   * The lowest vertex identifier above every vertex added and every identifier reserved by the supplier.
+   */
+  private int freshVertex() {
+    return Math.max(nextVertex, reservedVertices);
+  }
+
+  /**
+   * The lowest edge identifier above every edge added and every identifier reserved by the supplier.
+   */
+  private int freshEdge() {
+    return Math.max(nextEdge, reservedEdges);
+  }
+
+  private static int grow(int size) {
+    return size < 4 ? 4 : size + (size >> 1);
+  }
+
+  private void ensureVertexCapacity(int capacity) {
+    if (capacity <= out.length) {
+      return;
+    }
+    int n = Math.max(capacity, grow(out.length));
+    int old = out.length;
+    out = Arrays.copyOf(out, n);
+    Arrays.fill(out, old, n, EMPTY);
+    outSize = Arrays.copyOf(outSize, n);
+    if (directed) {
+      in = Arrays.copyOf(in, n);
+      Arrays.fill(in, old, n, EMPTY);
+      inSize = Arrays.copyOf(inSize, n);
+    } else if (loops != null) {
+      loops = Arrays.copyOf(loops, n);
+    }
+  }
+
+  /**
+   * Grows the edge columns; unused slots hold -1 so that identifiers skipped by {@code addEdge(u, v, e)} do not look
+   * like live edges.
+   */
+  private void ensureEdgeCapacity(int capacity) {
+    if (capacity <= source.length) {
+      return;
+    }
+    int m = Math.max(capacity, grow(source.length));
+    int old = source.length;
+    source = Arrays.copyOf(source, m);
+    target = Arrays.copyOf(target, m);
+    Arrays.fill(source, old, m, -1);
+    Arrays.fill(target, old, m, -1);
+    if (weights != null) {
+      weights.ensureCapacity(m);
+    }
+  }
+
+  private class VertexSet extends AbstractSet<Integer> {
+    @Override
+    public Iterator<Integer> iterator() {
+      return new Iterator<>() {
+        private int next = vertices.nextSetBit(0);
+
+        @Override
+        public boolean hasNext() {
+          return next >= 0;
+        }
+
+        @Override
+        public Integer next() {
+          if (next < 0) {
+            throw new NoSuchElementException();
+          }
+          int v = next;
+          next = vertices.nextSetBit(v + 1);
+          return v;
+        }
+      };
+    }
+
+    @Override
+    public boolean contains(Object o) {
+      return o instanceof Integer && containsVertex((Integer) o);
+    }
+
+    @Override
+    public int size() {
+      return vertexCount;
+    }
+  }
+
+  private class EdgeSet extends AbstractSet<Integer> {
+    @Override
+    public Iterator<Integer> iterator() {
+      return new Iterator<>() {
+        private int next = advance(0);
+
+        private int advance(int from) {
+          int e = from;
+          while (e < nextEdge && source[e] < 0) {
+            e++;
+          }
+          return e;
+        }
+
+        @Override
+        public boolean hasNext() {
+          return next < nextEdge;
+        }
+
+        @Override
+        public Integer next() {
+          if (next >= nextEdge) {
+            throw new NoSuchElementException();
+          }
+          int e = next;
+          next = advance(e + 1);
+          return e;
+        }
+      };
+    }
+
+    @Override
+    public boolean contains(Object o) {
+      return o instanceof Integer && containsEdge((Integer) o);
+    }
+
+    @Override
+    public int size() {
+      return edgeCount;
+    }
+  }
+
+  /**
+   * A live, read-only view of the out- and/or in-array of a vertex.
+   *
+   * <p>For a directed vertex with both arrays a self-loop is listed in each of them; the in-part skips it so that
+   * the loop is reported once.
+   */
+  private class IncidentEdges extends AbstractSet<Integer> {
+    private final int vertex;
+    private final boolean withOut;
+    private final boolean withIn;
+
+    IncidentEdges(int vertex, boolean withOut, boolean withIn) {
+      this.vertex = vertex;
+      this.withOut = withOut;
+      this.withIn = withIn && directed;
+    }
+
+    @Override
+    public Iterator<Integer> iterator() {
+      return new Iterator<>() {
+        private boolean inPart = !withOut;
+        private int index = -1;
+        private int next = advance();
+
+        private int advance() {
+          while (true) {
+            index++;
+            if (!inPart) {
+              if (index < outSize[vertex]) {
+                return out[vertex][index];
+              }
+              if (!withIn) {
+                return -1;
+              }
+              inPart = true;
+              index = 0;
+            }
+            if (index >= inSize[vertex]) {
+              return -1;
+            }
+            int e = in[vertex][index];
+            if (!withOut || source[e] != vertex) {
+              return e;
+            }
+          }
+        }
+
+        @Override
+        public boolean hasNext() {
+          return next >= 0;
+        }
+
+        @Override
+        public Integer next() {
+          if (next < 0) {
+            throw new NoSuchElementException();
+          }
+          int e = next;
+          next = advance();
+          return e;
+        }
+      };
+    }
+
+    @Override
+    public boolean contains(Object o) {
+      if (!(o instanceof Integer) || !containsEdge((Integer) o)) {
+        return false;
+      }
+      int e = (Integer) o;
+      if (!directed) {
+        return source[e] == vertex || target[e] == vertex;
+      }
+      return (withOut && source[e] == vertex) || (withIn && target[e] == vertex);
+    }
+
+    @Override
+    public int size() {
+      if (!directed) {
+        return outSize[vertex];
+      }
+      int size = 0;
+      if (withOut) {
+        size += outSize[vertex];
+      }
+      if (withIn) {
+        size += inSize[vertex];
+        if (withOut) {
+          for (int i = 0; i < inSize[vertex]; i++) {
+            if (source[in[vertex][i]] == vertex) {
+              size--;
+            }
+          }
+        }
+      }
+      return size;
+    }
+  }
+}
@@ -0,0 +1,174 @@
+package io.github.aaronchenwei.learning.jgrapht.graph;
+
+import io.github.aaronchenwei.learning.jgrapht.util.ParallelRange;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * An immutable compressed-sparse-row adjacency structure over the vertices {@code 0..n-1}.
+ *
+ * <p>The slots of vertex {@code v} are {@code offsets[v]} (inclusive) to {@code offsets[v + 1]} (exclusive); slot
+ * {@code i} holds the neighbor {@code neighbors[i]} reached through the edge {@code edges[i]}. Within a vertex the
+ * slots are ordered by edge identifier.
+ *
+ * <p>The raw arrays are exposed for hot loops and must not be modified.
+ */
+public final class IntCsr {
+
+  private static final VarHandle INTS = MethodHandles.arrayElementVarHandle(int[].class);
+  private static final int GRAIN = 1 << 14;
+
+  private final int[] offsets;
+  private final int[] neighbors;
+  private final int[] edges;
+
+  IntCsr(int[] offsets, int[] neighbors, int[] edges) {
+    this.offsets = offsets;
+    this.neighbors = neighbors;
+    this.edges = edges;
+  }
+
+  /**
+   * Builds the adjacency of an edge list by counting sort.
+   *
+   * @param vertexCount the number of vertices.
+   * @param sources the source of each edge, indexed by edge identifier.
+   * @param targets the target of each edge, indexed by edge identifier.
+   * @param edgeCount the number of edges, a prefix of {@code sources} and {@code targets}.
+   * @param symmetric whether a non-loop edge is listed under both endpoints (undirected adjacency) or only under
+   *     its source (outgoing adjacency). A self-loop is listed once in both cases.
+   * @return the adjacency.
+   */
+  public static IntCsr of(int vertexCount, int[] sources, int[] targets, int edgeCount, boolean symmetric) {
+    var offsets = new int[vertexCount + 1];
+    for (int e = 0; e < edgeCount; e++) {
+      offsets[sources[e] + 1]++;
+      if (symmetric && sources[e] != targets[e]) {
+        offsets[targets[e] + 1]++;
+      }
+    }
+    for (int v = 0; v < vertexCount; v++) {
+      offsets[v + 1] += offsets[v];
+    }
+
+    var cursor = Arrays.copyOf(offsets, vertexCount);
+    var neighbors = new int[offsets[vertexCount]];
+    var edges = new int[offsets[vertexCount]];
+    for (int e = 0; e < edgeCount; e++) {
+      int u = sources[e];
+      int v = targets[e];
+      int slot = cursor[u]++;
+      neighbors[slot] = v;
+      edges[slot] = e;
+      if (symmetric && u != v) {
+        slot = cursor[v]++;
+        neighbors[slot] = u;
+        edges[slot] = e;
+      }
+    }
+    return new IntCsr(offsets, neighbors, edges);
+  }
+
+  /**
+   * Builds the same adjacency as {@link #of(int, int[], int[], int, boolean)} on a fork-join pool.
+   *
+   * <p>Degrees are counted and edges scattered in parallel with atomic increments on plain {@code int} arrays, and
+   * each vertex's slots are then sorted by edge identifier, so the result does not depend on the scheduling.
+   *
+   * @param pool the pool to run in.
+   * @param vertexCount the number of vertices.
+   * @param sources the source of each edge, indexed by edge identifier.
+   * @param targets the target of each edge, indexed by edge identifier.
+   * @param edgeCount the number of edges, a prefix of {@code sources} and {@code targets}.
+   * @param symmetric whether a non-loop edge is listed under both endpoints.
+   * @return the adjacency.
+   */
+  public static IntCsr of(ForkJoinPool pool, int vertexCount, int[] sources, int[] targets, int edgeCount,
+    boolean symmetric) {
+    var offsets = new int[vertexCount + 1];
+    int edgeGrain = ParallelRange.grain(pool, edgeCount, GRAIN);
+    ParallelRange.forEach(pool, 0, edgeCount, edgeGrain, (from, to) -> {
+      for (int e = from; e < to; e++) {
+        INTS.getAndAdd(offsets, sources[e] + 1, 1);
+        if (symmetric && sources[e] != targets[e]) {
+          INTS.getAndAdd(offsets, targets[e] + 1, 1);
+        }
+      }
+    });
+    pool.invoke(ForkJoinTask.adapt(() -> Arrays.parallelPrefix(offsets, Integer::sum)));
+
+    var cursor = Arrays.copyOf(offsets, vertexCount);
+    var neighbors = new int[offsets[vertexCount]];
+    var edges = new int[offsets[vertexCount]];
+    ParallelRange.forEach(pool, 0, edgeCount, edgeGrain, (from, to) -> {
+      for (int e = from; e < to; e++) {
+        int u = sources[e];
+        int v = targets[e];
+        edges[(int) INTS.getAndAdd(cursor, u, 1)] = e;
+        if (symmetric && u != v) {
+          edges[(int) INTS.getAndAdd(cursor, v, 1)] = e;
+        }
+      }
+    });
+
+    int vertexGrain = ParallelRange.grain(pool, vertexCount, GRAIN);
+    ParallelRange.forEach(pool, 0, vertexCount, vertexGrain, (from, to) -> {
+      for (int v = from; v < to; v++) {
+        Arrays.sort(edges, offsets[v], offsets[v + 1]);
+        for (int i = offsets[v]; i < offsets[v + 1]; i++) {
+          int e = edges[i];
+          neighbors[i] = sources[e] == v ? targets[e] : sources[e];
+        }
+      }
+    });
+    return new IntCsr(offsets, neighbors, edges);
+  }
+
+  public int vertexCount() {
+    return offsets.length - 1;
+  }
+
+  /**
+   * Returns the total number of slots, which is the number of edges for outgoing adjacency.
+   *
+   * @return the number of slots.
+   */
+  public int slotCount() {
+    return neighbors.length;
+  }
+
+  public int degree(int v) {
+    return offsets[v + 1] - offsets[v];
+  }
+
+  public int start(int v) {
+    return offsets[v];
+  }
+
+  public int end(int v) {
+    return offsets[v + 1];
+  }
+
+  public int neighbor(int slot) {
+    return neighbors[slot];
+  }
+
+  public int edge(int slot) {
+    return edges[slot];
+  }
+
+  public int[] offsets() {
+    return offsets;
+  }
+
+  public int[] neighbors() {
+    return neighbors;
+  }
+
+  public int[] edges() {
+    return edges;
+  }
+}
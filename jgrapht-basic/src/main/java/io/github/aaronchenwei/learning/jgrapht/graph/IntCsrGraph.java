@@ -0,0 +1,572 @@
+package io.github.aaronchenwei.learning.jgrapht.graph;
+
+import io.github.aaronchenwei.learning.jgrapht.util.ParallelRange;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Supplier;
+import org.jgrapht.Graph;
+import org.jgrapht.GraphType;
+import org.jgrapht.graph.AbstractGraph;
+import org.jgrapht.graph.DefaultGraphType;
+
+/**
+ * An immutable graph over the vertices {@code 0..n-1} and edges {@code 0..m-1}, stored as primitive endpoint columns
+ * and an {@link IntCsr} adjacency.
+ *
+ * <p>This is the same layout as {@link org.jgrapht.opt.graph.sparse.SparseIntUndirectedGraph} and
+ * {@link org.jgrapht.opt.graph.sparse.SparseIntUndirectedWeightedGraph}, but it is built from {@code int} and
+ * {@code double} arrays instead of a list of boxed {@code Pair}/{@code Triple} objects. The arrays passed to the
+ * factories are owned by the graph afterwards and must not be modified.
+ *
+ * <p>An undirected graph keeps one adjacency that lists every edge under both endpoints. A directed graph keeps the
+ * outgoing adjacency (CSR) and the incoming adjacency (CSC) side by side, like
+ * {@link org.jgrapht.opt.graph.sparse.SparseIntDirectedGraph}, so {@link #outgoingEdgesOf} and
+ * {@link #incomingEdgesOf} are both a slice of one array. Either way every edge occupies two slots, so the directed
+ * layout only adds a second offsets array.
+ *
+ * <p>Self-loops and multiple edges are allowed. Vertex and edge sets are views, never materialized.
+ */
+public class IntCsrGraph extends AbstractGraph<Integer, Integer> {
+
+  private static final int GRAIN = 1 << 14;
+
+  private final GraphType type;
+  private final int vertexCount;
+  private final int[] sources;
+  private final int[] targets;
+  private final double[] weights;
+  private final IntCsr adjacency;
+  private final IntCsr incoming;
+  private final boolean hasLoops;
+
+  private final Set<Integer> vertexSetView;
+  private final Set<Integer> edgeSetView;
+
+  private IntCsrGraph(int vertexCount, int[] sources, int[] targets, double[] weights, IntCsr adjacency,
+    IntCsr incoming, boolean hasLoops) {
+    var builder = new DefaultGraphType.Builder();
+    this.type = (incoming != null ? builder.directed() : builder.undirected())
+      .allowMultipleEdges(true)
+      .allowSelfLoops(true)
+      .allowCycles(true)
+      .weighted(weights != null)
+      .modifiable(false)
+      .build();
+    this.vertexCount = vertexCount;
+    this.sources = sources;
+    this.targets = targets;
+    this.weights = weights;
+    this.adjacency = adjacency;
+    this.incoming = incoming;
+    this.hasLoops = hasLoops;
+    this.vertexSetView = new RangeSet(vertexCount);
+    this.edgeSetView = new RangeSet(sources.length);
+  }
+
+  /**
+   * Creates an undirected graph.
+   *
+   * @param vertexCount the number of vertices.
+   * @param sources the first endpoint of each edge.
+   * @param targets the second endpoint of each edge, same length as {@code sources}.
+   * @param weights the weight of each edge, or null for an unweighted graph.
+   * @return the graph.
+   */
+  public static IntCsrGraph undirected(int vertexCount, int[] sources, int[] targets, double[] weights) {
+    boolean hasLoops = validate(vertexCount, sources, targets, weights, 0, sources.length);
+    var adjacency = IntCsr.of(vertexCount, sources, targets, sources.length, true);
+    return new IntCsrGraph(vertexCount, sources, targets, weights, adjacency, null, hasLoops);
+  }
+
+  /**
+   * Creates an undirected graph, validating the edges and building the adjacency on a fork-join pool.
+   *
+   * @param pool the pool to run in.
+   * @param vertexCount the number of vertices.
+   * @param sources the first endpoint of each edge.
+   * @param targets the second endpoint of each edge, same length as {@code sources}.
+   * @param weights the weight of each edge, or null for an unweighted graph.
+   * @return the graph.
+   */
+  public static IntCsrGraph undirected(ForkJoinPool pool, int vertexCount, int[] sources, int[] targets,
+    double[] weights) {
+    boolean hasLoops = validate(pool, vertexCount, sources, targets, weights);
+    var adjacency = IntCsr.of(pool, vertexCount, sources, targets, sources.length, true);
+    return new IntCsrGraph(vertexCount, sources, targets, weights, adjacency, null, hasLoops);
+  }
+
+  /**
+   * Creates a directed graph with outgoing and incoming adjacencies.
+   *
+   * @param vertexCount the number of vertices.
+   * @param sources the source of each edge.
+   * @param targets the target of each edge, same length as {@code sources}.
+   * @param weights the weight of each edge, or null for an unweighted graph.
+   * @return the graph.
+   */
+  public static IntCsrGraph directed(int vertexCount, int[] sources, int[] targets, double[] weights) {
+    boolean hasLoops = validate(vertexCount, sources, targets, weights, 0, sources.length);
+    var outgoing = IntCsr.of(vertexCount, sources, targets, sources.length, false);
+    var incoming = IntCsr.of(vertexCount, targets, sources, sources.length, false);
+    return new IntCsrGraph(vertexCount, sources, targets, weights, outgoing, incoming, hasLoops);
+  }
+
+  /**
+   * Creates a directed graph, validating the edges and building both adjacencies on a fork-join pool.
+   *
+   * @param pool the pool to run in.
+   * @param vertexCount the number of vertices.
+   * @param sources the source of each edge.
+   * @param targets the target of each edge, same length as {@code sources}.
+   * @param weights the weight of each edge, or null for an unweighted graph.
+   * @return the graph.
+   */
+  public static IntCsrGraph directed(ForkJoinPool pool, int vertexCount, int[] sources, int[] targets,
+    double[] weights) {
+    boolean hasLoops = validate(pool, vertexCount, sources, targets, weights);
+    var outgoing = IntCsr.of(pool, vertexCount, sources, targets, sources.length, false);
+    var incoming = IntCsr.of(pool, vertexCount, targets, sources, sources.length, false);
+    return new IntCsrGraph(vertexCount, sources, targets, weights, outgoing, incoming, hasLoops);
+  }
+
+  private static boolean validate(ForkJoinPool pool, int vertexCount, int[] sources, int[] targets,
+    double[] weights) {
+    checkLengths(sources, targets, weights);
+    var loops = new boolean[1];
+    ParallelRange.forEach(pool, 0, sources.length, ParallelRange.grain(pool, sources.length, GRAIN),
+      (from, to) -> {
+        if (validate(vertexCount, sources, targets, weights, from, to)) {
+          loops[0] = true;
+        }
+      });
+    return loops[0];
+  }
+
+  /**
+   * Checks the endpoints of the edges {@code [from, to)}.
+   *
+   * @return whether the range contains a self-loop.
+   */
+  private static boolean validate(int vertexCount, int[] sources, int[] targets, double[] weights, int from,
+    int to) {
+    checkLengths(sources, targets, weights);
+    boolean loops = false;
+    for (int e = from; e < to; e++) {
+      int u = sources[e];
+      int v = targets[e];
+      if (u < 0 || u >= vertexCount || v < 0 || v >= vertexCount) {
+        throw new IllegalArgumentException("edge " + e + " (" + u + ", " + v + ") is out of range");
+      }
+      loops |= u == v;
+    }
+    return loops;
+  }
+
+  private static void checkLengths(int[] sources, int[] targets, double[] weights) {
+    if (sources.length != targets.length || (weights != null && weights.length != sources.length)) {
+      throw new IllegalArgumentException("edge columns must have the same length");
+    }
+  }
+
+  public int vertexCount() {
+    return vertexCount;
+  }
+
+  public int edgeCount() {
+    return sources.length;
+  }
+
+  public int edgeSource(int edge) {
+    return sources[edge];
+  }
+
+  public int edgeTarget(int edge) {
+    return targets[edge];
+  }
+
+  public double weight(int edge) {
+    return weights == null ? Graph.DEFAULT_EDGE_WEIGHT : weights[edge];
+  }
+
+  /**
+   * Returns the adjacency. In an undirected graph every edge is listed under both endpoints, a self-loop once; in a
+   * directed graph every edge is listed under its source.
+   *
+   * @return the adjacency.
+   */
+  public IntCsr adjacency() {
+    return adjacency;
+  }
+
+  /**
+   * Returns the incoming adjacency, which lists every edge under its target and the source as its neighbor. In an
+   * undirected graph this is the {@link #adjacency()}.
+   *
+   * @return the incoming adjacency.
+   */
+  public IntCsr incoming() {
+    return incoming != null ? incoming : adjacency;
+  }
+
+  @Override
+  public Set<Integer> getAllEdges(Integer sourceVertex, Integer targetVertex) {
+    if (!containsVertex(sourceVertex) || !containsVertex(targetVertex)) {
+      return null;
+    }
+    Set<Integer> result = new LinkedHashSet<>();
+    int v = targetVertex;
+    for (int i = adjacency.start(sourceVertex); i < adjacency.end(sourceVertex); i++) {
+      if (adjacency.neighbor(i) == v) {
+        result.add(adjacency.edge(i));
+      }
+    }
+    return result;
+  }
+
+  @Override
+  public Integer getEdge(Integer sourceVertex, Integer targetVertex) {
+    if (!containsVertex(sourceVertex) || !containsVertex(targetVertex)) {
+      return null;
+    }
+    int v = targetVertex;
+    for (int i = adjacency.start(sourceVertex); i < adjacency.end(sourceVertex); i++) {
+      if (adjacency.neighbor(i) == v) {
+        return adjacency.edge(i);
+      }
+    }
+    return null;
+  }
+
+  @Override
+  public Supplier<Integer> getVertexSupplier() {
+    return null;
+  }
+
+  @Override
+  public Supplier<Integer> getEdgeSupplier() {
+    return null;
+  }
+
+  @Override
+  public Integer addEdge(Integer sourceVertex, Integer targetVertex) {
+    throw new UnsupportedOperationException("immutable graph");
+  }
+
+  @Override
+  public boolean addEdge(Integer sourceVertex, Integer targetVertex, Integer e) {
+    throw new UnsupportedOperationException("immutable graph");
+  }
+
+  @Override
+  public Integer addVertex() {
+    throw new UnsupportedOperationException("immutable graph");
+  }
+
+  @Override
+  public boolean addVertex(Integer v) {
+    throw new UnsupportedOperationException("immutable graph");
+  }
+
+  @Override
+  public boolean containsEdge(Integer e) {
+    return e != null && e >= 0 && e < sources.length;
+  }
+
+  @Override
+  public boolean containsVertex(Integer v) {
+    return v != null && v >= 0 && v < vertexCount;
+  }
+
+  @Override
+  public Set<Integer> edgeSet() {
+    return edgeSetView;
+  }
+
+  @Override
+  public int degreeOf(Integer vertex) {
+    assertVertexExist(vertex);
+    int v = vertex;
+    if (incoming != null) {
+      return adjacency.degree(v) + incoming.degree(v);
+    }
+    int degree = adjacency.degree(v);
+    if (hasLoops) {
+      // a self-loop occupies one slot but counts twice
+      for (int i = adjacency.start(v); i < adjacency.end(v); i++) {
+        if (adjacency.neighbor(i) == v) {
+          degree++;
+        }
+      }
+    }
+    return degree;
+  }
+
+  @Override
+  public Set<Integer> edgesOf(Integer vertex) {
+    assertVertexExist(vertex);
+    return incoming != null ? new TouchingSet(vertex) : new SlotSet(adjacency, vertex);
+  }
+
+  @Override
+  public int inDegreeOf(Integer vertex) {
+    if (incoming == null) {
+      return degreeOf(vertex);
+    }
+    assertVertexExist(vertex);
+    return incoming.degree(vertex);
+  }
+
+  @Override
+  public Set<Integer> incomingEdgesOf(Integer vertex) {
+    if (incoming == null) {
+      return edgesOf(vertex);
+    }
+    assertVertexExist(vertex);
+    return new SlotSet(incoming, vertex);
+  }
+
+  @Override
+  public int outDegreeOf(Integer vertex) {
+    if (incoming == null) {
+      return degreeOf(vertex);
+    }
+    assertVertexExist(vertex);
+    return adjacency.degree(vertex);
+  }
+
+  @Override
+  public Set<Integer> outgoingEdgesOf(Integer vertex) {
+    if (incoming == null) {
+      return edgesOf(vertex);
+    }
+    assertVertexExist(vertex);
+    return new SlotSet(adjacency, vertex);
+  }
+
+  @Override
+  public Integer removeEdge(Integer sourceVertex, Integer targetVertex) {
+    throw new UnsupportedOperationException("immutable graph");
+  }
+
+  @Override
+  public boolean removeEdge(Integer e) {
+    throw new UnsupportedOperationException("immutable graph");
+  }
+
+  @Override
+  public boolean removeVertex(Integer v) {
+    throw new UnsupportedOperationException("immutable graph");
+  }
+
+  @Override
+  public Set<Integer> vertexSet() {
+    return vertexSetView;
+  }
+
+  @Override
+  public Integer getEdgeSource(Integer e) {
+    assertEdgeExist(e);
+    return sources[e];
+  }
+
+  @Override
+  public Integer getEdgeTarget(Integer e) {
+    assertEdgeExist(e);
+    return targets[e];
+  }
+
+  @Override
+  public GraphType getType() {
+    return type;
+  }
+
+  @Override
+  public double getEdgeWeight(Integer e) {
+    Objects.requireNonNull(e, "edge");
+    if (weights == null) {
+      return Graph.DEFAULT_EDGE_WEIGHT;
+    }
+    assertEdgeExist(e);
+    return weights[e];
+  }
+
+  @Override
+  public void setEdgeWeight(Integer e, double weight) {
+    throw new UnsupportedOperationException("immutable graph");
+  }
+
+  private void assertEdgeExist(Integer e) {
+    Objects.requireNonNull(e, "edge");
+    if (!containsEdge(e)) {
+      throw new IllegalArgumentException("no such edge in graph: " + e);
+    }
+  }
+
+  /**
+   * The identifiers {@code 0..size-1}.
+   */
+  private static final class RangeSet extends AbstractSet<Integer> {
+    private final int size;
+
+    RangeSet(int size) {
+      this.size = size;
+    }
+
+    @Override
+    public Iterator<Integer> iterator() {
+      return new Iterator<>() {
+        private int next;
+
+        @Override
+        public boolean hasNext() {
+          return next < size;
+        }
+
+        @Override
+        public Integer next() {
+          if (next >= size) {
+            throw new NoSuchElementException();
+          }
+          return next++;
+        }
+      };
+    }
+
+    @Override
+    public boolean contains(Object o) {
+      return o instanceof Integer && (Integer) o >= 0 && (Integer) o < size;
+    }
+
+    @Override
+    public int size() {
+      return size;
+    }
+  }
+
+  /**
+   * The edges in the slots of one vertex: the edges touching it when undirected, its outgoing or incoming edges
+   * when directed.
+   */
+  private final class SlotSet extends AbstractSet<Integer> {
+    private final IntCsr csr;
+    private final int vertex;
+
+    SlotSet(IntCsr csr, int vertex) {
+      this.csr = csr;
+      this.vertex = vertex;
+    }
+
+    @Override
+    public Iterator<Integer> iterator() {
+      return new Iterator<>() {
+        private int slot = csr.start(vertex);
+
+        @Override
+        public boolean hasNext() {
+          return slot < csr.end(vertex);
+        }
+
+        @Override
+        public Integer next() {
+          if (slot >= csr.end(vertex)) {
+            throw new NoSuchElementException();
+          }
+          return csr.edge(slot++);
+        }
+      };
+    }
+
+    @Override
+    public boolean contains(Object o) {
+      if (!(o instanceof Integer) || !containsEdge((Integer) o)) {
+        return false;
+      }
+      int e = (Integer) o;
+      if (incoming == null) {
+        return sources[e] == vertex || targets[e] == vertex;
+      }
+      return (csr == incoming ? targets[e] : sources[e]) == vertex;
+    }
+
+    @Override
+    public int size() {
+      return csr.degree(vertex);
+    }
+  }
+
+  /**
+   * The outgoing and then the incoming edges of a vertex in a directed graph, with each self-loop listed once.
+   */
+  private final class TouchingSet extends AbstractSet<Integer> {
+    private final int vertex;
+
+    TouchingSet(int vertex) {
+      this.vertex = vertex;
+    }
+
+    @Override
+    public Iterator<Integer> iterator() {
+      return new Iterator<>() {
+        private int slot = adjacency.start(vertex);
+        private boolean incomingSlots;
+
+        {
+          advance();
+        }
+
+        private void advance() {
+          if (!incomingSlots && slot == adjacency.end(vertex)) {
+            incomingSlots = true;
+            slot = incoming.start(vertex);
+          }
+          // the self-loops were listed with the outgoing edges
+          while (incomingSlots && slot < incoming.end(vertex) && incoming.neighbor(slot) == vertex) {
+            slot++;
+          }
+        }
+
+        @Override
+        public boolean hasNext() {
+          return !incomingSlots || slot < incoming.end(vertex);
+        }
+
+        @Override
+        public Integer next() {
+          if (!hasNext()) {
+            throw new NoSuchElementException();
+          }
+          int e = incomingSlots ? incoming.edge(slot++) : adjacency.edge(slot++);
+          advance();
+          return e;
+        }
+      };
+    }
+
+    @Override
+    public boolean contains(Object o) {
+      if (!(o instanceof Integer) || !containsEdge((Integer) o)) {
+        return false;
+      }
+      int e = (Integer) o;
+      return sources[e] == vertex || targets[e] == vertex;
+    }
+
+    @Override
+    public int size() {
+      int size = adjacency.degree(vertex) + incoming.degree(vertex);
+      if (hasLoops) {
+        for (int i = adjacency.start(vertex); i < adjacency.end(vertex); i++) {
+          if (adjacency.neighbor(i) == vertex) {
+            size--;
+          }
+        }
+      }
+      return size;
+    }
+  }
+}
@@ -0,0 +1,384 @@
+package io.github.aaronchenwei.learning.jgrapht.graph;
+
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * An immutable hash map that shares structure between versions: a hash array mapped trie of 32-way nodes, in which
+ * an update copies only the O(log32 n) nodes on the path to its key.
+ *
+ * <p>Updates made with an edit token mutate in place the nodes that were created under the same token, and copy the
+ * others. A writer that uses one fresh token for a batch of updates therefore copies each path once per batch
+ * instead of once per update. The intermediate maps of such a batch share mutable nodes and must be discarded; only
+ * the last one is a proper persistent map, and only once the token is never used again.
+ *
+ * <p>Keys must not be null.
+ *
+ * @param <K> the key type.
+ * @param <V> the value type.
+ */
+final class PersistentMap<K, V> {
+
+  private static final PersistentMap<?, ?> EMPTY = new PersistentMap<>(null, 0);
+
+  private final Node root;
+  private final int size;
+
+  private PersistentMap(Node root, int size) {
+    this.root = root;
+    this.size = size;
+  }
+
+  @SuppressWarnings("unchecked")
+  static <K, V> PersistentMap<K, V> empty() {
+    return (PersistentMap<K, V>) EMPTY;
+  }
+
+  int size() {
+    return size;
+  }
+
+  boolean isEmpty() {
+    return size == 0;
+  }
+
+  @SuppressWarnings("unchecked")
+  V get(Object key) {
+    return root == null ? null : (V) root.get(0, hash(key), key);
+  }
+
+  boolean containsKey(Object key) {
+    return get(key) != null;
+  }
+
+  PersistentMap<K, V> put(K key, V value) {
+    return put(null, key, value);
+  }
+
+  PersistentMap<K, V> remove(Object key) {
+    return remove(null, key);
+  }
+
+  /**
+   * Maps a key to a non-null value.
+   *
+   * @param edit the edit token, or null for a purely persistent update.
+   * @param key the key.
+   * @param value the value.
+   * @return the updated map, this map if nothing changed.
+   */
+  PersistentMap<K, V> put(Object edit, K key, V value) {
+    Objects.requireNonNull(key, "key");
+    Objects.requireNonNull(value, "value");
+    var added = new boolean[1];
+    Node node = root == null ? new Node(edit, 0, new Object[0]) : root;
+    Node result = node.put(edit, 0, hash(key), key, value, added);
+    // a node owned by the token is changed in place, so an unchanged root does not mean an unchanged map
+    if (result == root && !added[0]) {
+      return this;
+    }
+    return new PersistentMap<>(result, added[0] ? size + 1 : size);
+  }
+
+  /**
+   * Removes a key.
+   *
+   * @param edit the edit token, or null for a purely persistent update.
+   * @param key the key.
+   * @return the updated map, this map if the key was absent.
+   */
+  PersistentMap<K, V> remove(Object edit, Object key) {
+    if (root == null) {
+      return this;
+    }
+    var removed = new boolean[1];
+    Node result = root.remove(edit, 0, hash(key), key, removed);
+    if (!removed[0]) {
+      return this;
+    }
+    return result == null ? empty() : new PersistentMap<>(result, size - 1);
+  }
+
+  /**
+   * Returns a read-only view of the keys.
+   *
+   * @return the keys.
+   */
+  Set<K> keySet() {
+    return new AbstractSet<>() {
+      @Override
+      public Iterator<K> iterator() {
+        return new KeyIterator<>(root);
+      }
+
+      @Override
+      public boolean contains(Object o) {
+        return o != null && containsKey(o);
+      }
+
+      @Override
+      public int size() {
+        return size;
+      }
+    };
+  }
+
+  /**
+   * Returns the values in key iteration order.
+   *
+   * @return the values.
+   */
+  Iterable<V> values() {
+    return () -> new Iterator<>() {
+      private final KeyIterator<K> keys = new KeyIterator<>(root);
+
+      @Override
+      public boolean hasNext() {
+        return keys.hasNext();
+      }
+
+      @Override
+      @SuppressWarnings("unchecked")
+      public V next() {
+        keys.next();
+        return (V) keys.value();
+      }
+    };
+  }
+
+  private static int hash(Object key) {
+    int h = key.hashCode();
+    return h ^ (h >>> 16);
+  }
+
+  /**
+   * A trie node: {@code array} holds key-value pairs, where a null key marks a child node in the value slot. A node
+   * with a non-zero bitmap is indexed by 5 hash bits per level; a node below the last level holds keys with equal
+   * hashes in a plain list, with a zero bitmap.
+   */
+  private static final class Node {
+    private final Object edit;
+    private int bitmap;
+    private Object[] array;
+
+    Node(Object edit, int bitmap, Object[] array) {
+      this.edit = edit;
+      this.bitmap = bitmap;
+      this.array = array;
+    }
+
+    Object get(int shift, int hash, Object key) {
+      if (shift >= 32) {
+        for (int i = 0; i < array.length; i += 2) {
+          if (key.equals(array[i])) {
+            return array[i + 1];
+          }
+        }
+        return null;
+      }
+      int bit = bit(hash, shift);
+      if ((bitmap & bit) == 0) {
+        return null;
+      }
+      int i = index(bit) << 1;
+      Object k = array[i];
+      if (k == null) {
+        return ((Node) array[i + 1]).get(shift + 5, hash, key);
+      }
+      return key.equals(k) ? array[i + 1] : null;
+    }
+
+    Node put(Object edit, int shift, int hash, Object key, Object value, boolean[] added) {
+      if (shift >= 32) {
+        for (int i = 0; i < array.length; i += 2) {
+          if (key.equals(array[i])) {
+            return array[i + 1] == value ? this : set(edit, i + 1, value);
+          }
+        }
+        added[0] = true;
+        return insert(edit, array.length, 0, key, value);
+      }
+      int bit = bit(hash, shift);
+      int i = index(bit) << 1;
+      if ((bitmap & bit) == 0) {
+        added[0] = true;
+        return insert(edit, i, bit, key, value);
+      }
+      Object k = array[i];
+      Object v = array[i + 1];
+      if (k == null) {
+        var child = ((Node) v).put(edit, shift + 5, hash, key, value, added);
+        return child == v ? this : set(edit, i + 1, child);
+      }
+      if (key.equals(k)) {
+        return v == value ? this : set(edit, i + 1, value);
+      }
+      added[0] = true;
+      var child = new Node(edit, 0, new Object[0])
+        .put(edit, shift + 5, hash(k), k, v, new boolean[1])
+        .put(edit, shift + 5, hash, key, value, new boolean[1]);
+      Node result = set(edit, i, null);
+      result.array[i + 1] = child;
+      return result;
+    }
+
+    Node remove(Object edit, int shift, int hash, Object key, boolean[] removed) {
+      if (shift >= 32) {
+        for (int i = 0; i < array.length; i += 2) {
+          if (key.equals(array[i])) {
+            removed[0] = true;
+            return array.length == 2 ? null : delete(edit, i, 0);
+          }
+        }
+        return this;
+      }
+      int bit = bit(hash, shift);
+      if ((bitmap & bit) == 0) {
+        return this;
+      }
+      int i = index(bit) << 1;
+      Object k = array[i];
+      if (k == null) {
+        var child = (Node) array[i + 1];
+        var result = child.remove(edit, shift + 5, hash, key, removed);
+        if (!removed[0] || result == child) {
+          return this;
+        }
+        if (result != null) {
+          return set(edit, i + 1, result);
+        }
+      } else if (!key.equals(k)) {
+        return this;
+      } else {
+        removed[0] = true;
+      }
+      return bitmap == bit ? null : delete(edit, i, bit);
+    }
+
+    private static int bit(int hash, int shift) {
+      return 1 << ((hash >>> shift) & 31);
+    }
+
+    private int index(int bit) {
+      return Integer.bitCount(bitmap & (bit - 1));
+    }
+
+    private boolean owned(Object edit) {
+      return edit != null && this.edit == edit;
+    }
+
+    private Node set(Object edit, int i, Object x) {
+      if (owned(edit)) {
+        array[i] = x;
+        return this;
+      }
+      var copy = array.clone();
+      copy[i] = x;
+      return new Node(edit, bitmap, copy);
+    }
+
+    private Node insert(Object edit, int i, int bit, Object key, Object value) {
+      var copy = new Object[array.length + 2];
+      System.arraycopy(array, 0, copy, 0, i);
+      copy[i] = key;
+      copy[i + 1] = value;
+      System.arraycopy(array, i, copy, i + 2, array.length - i);
+      if (owned(edit)) {
+        array = copy;
+        bitmap |= bit;
+        return this;
+      }
+      return new Node(edit, bitmap | bit, copy);
+    }
+
+    private Node delete(Object edit, int i, int bit) {
+      var copy = new Object[array.length - 2];
+      System.arraycopy(array, 0, copy, 0, i);
+      System.arraycopy(array, i + 2, copy, i, array.length - i - 2);
+      if (owned(edit)) {
+        array = copy;
+        bitmap &= ~bit;
+        return this;
+      }
+      return new Node(edit, bitmap & ~bit, copy);
+    }
+  }
+
+  /**
+   * A depth-first walk over the trie with an explicit stack of nodes and positions.
+   */
+  private static final class KeyIterator<K> implements Iterator<K> {
+    private final Object[][] arrays = new Object[8][];
+    private final int[] positions = new int[8];
+    private int depth = -1;
+    private Object value;
+
+    KeyIterator(Node root) {
+      if (root != null) {
+        push(root.array);
+      }
+    }
+
+    private void push(Object[] array) {
+      depth++;
+      arrays[depth] = array;
+      positions[depth] = 0;
+    }
+
+    /**
+     * Moves to the next key-value pair, descending into children and popping exhausted nodes.
+     */
+    private boolean advance() {
+      while (depth >= 0) {
+        Object[] array = arrays[depth];
+        int i = positions[depth];
+        if (i == array.length) {
+          arrays[depth--] = null;
+          continue;
+        }
+        if (array[i] == null) {
+          positions[depth] = i + 2;
+          push(((Node) array[i + 1]).array);
+          continue;
+        }
+        return true;
+      }
+      return false;
+    }
+
+    @Override
+    public boolean hasNext() {
+      return advance();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public K next() {
+      if (!advance()) {
+        throw new NoSuchElementException();
+      }
+      Object[] array = arrays[depth];
+      int i = positions[depth];
+      positions[depth] = i + 2;
+      value = array[i + 1];
+      return (K) array[i];
+    }
+
+    Object value() {
+      return value;
+    }
+  }
+
+  @Override
+  public String toString() {
+    var builder = new StringBuilder("{");
+    var keys = new KeyIterator<K>(root);
+    while (keys.hasNext()) {
+      builder.append(builder.length() > 1 ? ", " : "").append(keys.next()).append('=').append(keys.value());
+    }
+    return builder.append('}').toString();
+  }
+}
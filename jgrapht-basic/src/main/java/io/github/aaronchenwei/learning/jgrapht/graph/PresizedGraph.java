@@ -0,0 +1,113 @@
+package io.github.aaronchenwei.learning.jgrapht.graph;
+
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import org.jgrapht.Graph;
+import org.jgrapht.GraphType;
+import org.jgrapht.alg.util.Pair;
+import org.jgrapht.graph.AbstractBaseGraph;
+import org.jgrapht.graph.FastLookupGraphSpecificsStrategy;
+import org.jgrapht.graph.IntrusiveEdgesSpecifics;
+import org.jgrapht.graph.UniformIntrusiveEdgesSpecifics;
+import org.jgrapht.graph.WeightedIntrusiveEdgesSpecifics;
+import org.jgrapht.graph.specifics.DirectedEdgeContainer;
+import org.jgrapht.graph.specifics.FastLookupDirectedSpecifics;
+import org.jgrapht.graph.specifics.FastLookupUndirectedSpecifics;
+import org.jgrapht.graph.specifics.Specifics;
+import org.jgrapht.graph.specifics.UndirectedEdgeContainer;
+
+/**
+ * A jgrapht graph of any {@link GraphType} whose internal maps are created at the size of the graph it is going to
+ * hold.
+ *
+ * <p>The graphs of {@code org.jgrapht.graph} start with default-sized hash maps: one entry per vertex, one per edge
+ * and one per connected pair. Building a graph of millions of edges rehashes each of them about twenty times, and
+ * every rehash touches every entry again. This graph uses the default {@link FastLookupGraphSpecificsStrategy} with
+ * the vertex map, the pair map and the edge map allocated up front for the expected counts, so that a build of that
+ * size never rehashes them; the per-vertex edge sets still start small and grow with the degree. It is
+ * otherwise the same as, for example, a {@code SimpleWeightedGraph} for the type
+ * {@code DefaultGraphType.simple().asWeighted()}. {@link BulkGraphs#build} creates one from edge arrays.
+ *
+ * <p>The expected counts are only a hint: the graph grows past them like any other, and a count that is too large
+ * costs its empty map slots.
+ *
+ * @param <V> the vertex type.
+ * @param <E> the edge type.
+ */
+public class PresizedGraph<V, E> extends AbstractBaseGraph<V, E> {
+
+  private static final long serialVersionUID = -764771040905094660L;
+
+  /**
+   * Creates an empty graph.
+   *
+   * @param type the graph type; it must be either directed or undirected.
+   * @param vertexSupplier creates the vertices of {@link #addVertex()}, or null.
+   * @param edgeSupplier creates the edges of {@link #addEdge(Object, Object)}, or null.
+   * @param expectedVertices the number of vertices the graph will hold.
+   * @param expectedEdges the number of edges the graph will hold.
+   * @throws IllegalArgumentException if a count is negative.
+   */
+  public PresizedGraph(GraphType type, Supplier<V> vertexSupplier, Supplier<E> edgeSupplier, int expectedVertices,
+    int expectedEdges) {
+    super(vertexSupplier, edgeSupplier, type, new PresizedStrategy<>(expectedVertices, expectedEdges));
+  }
+
+  /**
+   * The hash map capacity that holds a number of entries without a rehash at the default load factor.
+   */
+  static int capacity(int expected) {
+    if (expected < 0) {
+      throw new IllegalArgumentException("negative expected size: " + expected);
+    }
+    return (int) Math.min(1 << 30, (long) Math.ceil(expected / 0.75));
+  }
+
+  /**
+   * The default strategy with sized maps: the vertex map for the vertices, and the pair map and the edge map, which
+   * holds the endpoints and weight of each edge, for the edges.
+   */
+  private static final class PresizedStrategy<V, E> extends FastLookupGraphSpecificsStrategy<V, E> {
+    private static final long serialVersionUID = -2175839790302574559L;
+
+    private final int vertexCapacity;
+    private final int edgeCapacity;
+
+    PresizedStrategy(int expectedVertices, int expectedEdges) {
+      this.vertexCapacity = capacity(expectedVertices);
+      this.edgeCapacity = capacity(expectedEdges);
+    }
+
+    @Override
+    public BiFunction<Graph<V, E>, GraphType, Specifics<V, E>> getSpecificsFactory() {
+      int vertices = vertexCapacity;
+      int edges = edgeCapacity;
+      return (BiFunction<Graph<V, E>, GraphType, Specifics<V, E>> & Serializable) (graph, type) -> {
+        Map<Pair<V, V>, Set<E>> pairs = new HashMap<>(edges);
+        if (type.isDirected()) {
+          Map<V, DirectedEdgeContainer<V, E>> map = new LinkedHashMap<>(vertices);
+          return new FastLookupDirectedSpecifics<>(graph, map, pairs, getEdgeSetFactory());
+        }
+        Map<V, UndirectedEdgeContainer<V, E>> map = new LinkedHashMap<>(vertices);
+        return new FastLookupUndirectedSpecifics<>(graph, map, pairs, getEdgeSetFactory());
+      };
+    }
+
+    @Override
+    public Function<GraphType, IntrusiveEdgesSpecifics<V, E>> getIntrusiveEdgesSpecificsFactory() {
+      int edges = edgeCapacity;
+      return (Function<GraphType, IntrusiveEdgesSpecifics<V, E>> & Serializable) type -> {
+        if (type.isWeighted()) {
+          return new WeightedIntrusiveEdgesSpecifics<>(new LinkedHashMap<>(edges));
+        }
+        return new UniformIntrusiveEdgesSpecifics<>(new LinkedHashMap<>(edges));
+      };
+    }
+  }
+}
@@ -0,0 +1,853 @@
+package io.github.aaronchenwei.learning.jgrapht.graph;
+
+import java.time.Duration;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Supplier;
+import org.jgrapht.Graph;
+import org.jgrapht.GraphType;
+import org.jgrapht.graph.AbstractGraph;
+import org.jgrapht.graph.DefaultGraphType;
+
+/**
+ * A directed graph of timestamped edge events that only holds the edges seen within a sliding time window, in place
+ * of a {@code DefaultDirectedGraph<V, DefaultEdge>} that a stream of link events is written into.
+ *
+ * <p>Edges come in through {@link #ingest(Object, Object, long)} with a timestamp in milliseconds, and time moves
+ * with the largest timestamp seen (or {@link #advanceTo}). An edge lives from its last event until the window has
+ * passed over it; a vertex lives while it has edges, so the graph is exactly the edges of the last
+ * {@code window} and their endpoints. Seeing an edge again renews it, as in a simple graph: there are no multiple
+ * edges.
+ *
+ * <p>Expiry works on whole time buckets of {@code bucket} width. Every bucket keeps the identifiers of the edges
+ * last seen in it, and when the end of the oldest bucket falls out of the window, all of its edges are dropped in one
+ * pass. An edge is unlinked from both adjacency arrays in constant time (each edge knows its slot in them), without
+ * the hash lookups and per-edge container updates of {@code removeEdge}; an edge renewed into a newer bucket leaves
+ * a stale entry behind that the pass skips. An edge is therefore kept for at least {@code window} and less than
+ * {@code window + bucket}. Events older than that are dropped and {@link #lateEventCount() counted}.
+ *
+ * <p>In- and out-degrees are counters updated with every change. A {@link DegreeListener} hears about the degrees of
+ * the endpoints of every new edge, and about every vertex touched by an expiry pass once per pass, which is how
+ * aggregates such as degree histograms or top-k hubs can be kept up to date incrementally.
+ *
+ * <p>The graph can only be changed through {@code ingest} and {@code advanceTo}; the {@link Graph} mutators throw.
+ * Edges are {@code Integer} identifiers, reused after expiry. The graph is not thread-safe.
+ *
+ * @param <V> the graph vertex type.
+ */
+public class SlidingWindowGraph<V> extends AbstractGraph<V, Integer> {
+
+  private static final GraphType TYPE = new DefaultGraphType.Builder()
+    .directed()
+    .allowMultipleEdges(false)
+    .allowSelfLoops(true)
+    .allowCycles(true)
+    .weighted(false)
+    .modifiable(false)
+    .build();
+  private static final int[] EMPTY = new int[0];
+  private static final int DEFAULT_CAPACITY = 16;
+  private static final int RETAINED_ADJACENCY = 256;
+  private static final int RETAINED_BUCKET = 1 << 16;
+
+  /**
+   * Receives the degrees of the vertices whose edges changed.
+   *
+   * @param <V> the graph vertex type.
+   */
+  @FunctionalInterface
+  public interface DegreeListener<V> {
+    /**
+     * Called after a vertex gained or lost edges. Both degrees are 0 when the vertex has left the window; it is
+     * removed after this call.
+     *
+     * @param vertex the vertex.
+     * @param inDegree its new in-degree.
+     * @param outDegree its new out-degree.
+     */
+    void degreeChanged(V vertex, int inDegree, int outDegree);
+  }
+
+  private final long windowMillis;
+  private final long bucketMillis;
+  private DegreeListener<? super V> degreeListener;
+
+  private final Map<V, Integer> ids = new HashMap<>();
+  private Object[] vertices = new Object[DEFAULT_CAPACITY];
+  private int[][] out = new int[DEFAULT_CAPACITY][];
+  private int[][] in = new int[DEFAULT_CAPACITY][];
+  private int[] outDegree = new int[DEFAULT_CAPACITY];
+  private int[] inDegree = new int[DEFAULT_CAPACITY];
+  private int[] touchedPass = new int[DEFAULT_CAPACITY];
+  private int[] touched = new int[DEFAULT_CAPACITY];
+  private int[] freeVertices = new int[DEFAULT_CAPACITY];
+  private int freeVertexCount;
+  private int nextVertex;
+
+  private int[] source = new int[DEFAULT_CAPACITY];
+  private int[] target = new int[DEFAULT_CAPACITY];
+  private int[] outSlot = new int[DEFAULT_CAPACITY];
+  private int[] inSlot = new int[DEFAULT_CAPACITY];
+  private long[] timestamps = new long[DEFAULT_CAPACITY];
+  private long[] edgeBuckets = new long[DEFAULT_CAPACITY];
+  private int[] freeEdges = new int[DEFAULT_CAPACITY];
+  private int freeEdgeCount;
+  private int nextEdge;
+  private int edgeCount;
+  private final PairIndex pairs = new PairIndex();
+
+  // ring of the live buckets, indexed by bucket number modulo its length
+  private final long[] bucketNumbers;
+  private final int[][] bucketEdges;
+  private final int[] bucketSizes;
+  private long oldestBucket = Long.MAX_VALUE;
+  private long newestBucket = Long.MIN_VALUE;
+  private long now = Long.MIN_VALUE;
+  private int pass;
+
+  private long lateEventCount;
+  private long expiredEdgeCount;
+
+  private final Set<V> vertexSetView = new VertexSet();
+  private final Set<Integer> edgeSetView = new EdgeSet();
+
+  /**
+   * Creates an empty graph.
+   *
+   * @param window how long an edge is kept after its last event.
+   * @param bucket the expiry granularity; at most {@code window}.
+   */
+  public SlidingWindowGraph(Duration window, Duration bucket) {
+    this.windowMillis = window.toMillis();
+    this.bucketMillis = bucket.toMillis();
+    if (bucketMillis <= 0 || windowMillis < bucketMillis) {
+      throw new IllegalArgumentException("need 0 < bucket <= window, got " + bucket + " and " + window);
+    }
+    if (windowMillis / bucketMillis > 1 << 24) {
+      throw new IllegalArgumentException("too many buckets in the window: " + windowMillis / bucketMillis);
+    }
+    // live buckets end after now - window and start at or before now
+    int ringLength = (int) (windowMillis / bucketMillis) + 2;
+    this.bucketNumbers = new long[ringLength];
+    this.bucketEdges = new int[ringLength][];
+    this.bucketSizes = new int[ringLength];
+    Arrays.fill(bucketNumbers, Long.MIN_VALUE);
+    Arrays.fill(bucketEdges, EMPTY);
+  }
+
+  /**
+   * Sets the listener that hears about degree changes. Defaults to none.
+   *
+   * @param degreeListener the listener, or null.
+   * @return this graph.
+   */
+  public SlidingWindowGraph<V> degreeListener(DegreeListener<? super V> degreeListener) {
+    this.degreeListener = degreeListener;
+    return this;
+  }
+
+  /**
+   * Records an edge event. The endpoints are added if they are not in the graph; if the edge is, it is renewed.
+   * Time advances to the timestamp if it is later than the current time, which may expire edges first.
+   *
+   * @param sourceVertex the source.
+   * @param targetVertex the target.
+   * @param timestampMillis the event time in milliseconds.
+   * @return the edge, or -1 if the event is too old for the window and was dropped.
+   */
+  public int ingest(V sourceVertex, V targetVertex, long timestampMillis) {
+    Objects.requireNonNull(sourceVertex, "source vertex");
+    Objects.requireNonNull(targetVertex, "target vertex");
+    long bucket = Math.floorDiv(timestampMillis, bucketMillis);
+    if (expired(bucket)) {
+      lateEventCount++;
+      return -1;
+    }
+    advanceTo(timestampMillis);
+    int s = vertexIdOrAdd(sourceVertex);
+    int t = vertexIdOrAdd(targetVertex);
+    int e = pairs.get(s, t);
+    if (e >= 0) {
+      if (timestampMillis > timestamps[e]) {
+        timestamps[e] = timestampMillis;
+        if (bucket != edgeBuckets[e]) {
+          // the entry in the old bucket goes stale
+          edgeBuckets[e] = bucket;
+          addToBucket(bucket, e);
+        }
+      }
+      return e;
+    }
+
+    e = freeEdgeCount > 0 ? freeEdges[--freeEdgeCount] : newEdge();
+    source[e] = s;
+    target[e] = t;
+    timestamps[e] = timestampMillis;
+    edgeBuckets[e] = bucket;
+    outSlot[e] = append(out, outDegree, s, e);
+    inSlot[e] = append(in, inDegree, t, e);
+    pairs.put(s, t, e);
+    addToBucket(bucket, e);
+    edgeCount++;
+    if (degreeListener != null) {
+      degreeListener.degreeChanged(vertex(s), inDegree[s], outDegree[s]);
+      if (t != s) {
+        degreeListener.degreeChanged(vertex(t), inDegree[t], outDegree[t]);
+      }
+    }
+    return e;
+  }
+
+  /**
+   * Moves time forward and expires the buckets that have fallen out of the window. Earlier times are ignored.
+   *
+   * @param timeMillis the new time in milliseconds.
+   * @return the number of edges expired.
+   */
+  public int advanceTo(long timeMillis) {
+    if (timeMillis <= now) {
+      return 0;
+    }
+    now = timeMillis;
+    int expired = 0;
+    while (oldestBucket != Long.MAX_VALUE && expired(oldestBucket)) {
+      expired += expireBucket(oldestBucket);
+      oldestBucket = nextLiveBucket(oldestBucket);
+    }
+    return expired;
+  }
+
+  /**
+   * Returns the current time, the latest timestamp or {@link #advanceTo} time seen.
+   *
+   * @return the time in milliseconds, or {@link Long#MIN_VALUE} before the first event.
+   */
+  public long now() {
+    return now;
+  }
+
+  /**
+   * Returns the time of the last event of an edge.
+   *
+   * @param e the edge.
+   * @return the timestamp in milliseconds.
+   */
+  public long timestamp(Integer e) {
+    assertEdgeExist(e);
+    return timestamps[e];
+  }
+
+  /**
+   * Returns the number of events dropped because they were older than the window.
+   *
+   * @return the late event count.
+   */
+  public long lateEventCount() {
+    return lateEventCount;
+  }
+
+  /**
+   * Returns the number of edges that have expired so far.
+   *
+   * @return the expired edge count.
+   */
+  public long expiredEdgeCount() {
+    return expiredEdgeCount;
+  }
+
+  /**
+   * Whether a bucket ends at or before the start of the window.
+   */
+  private boolean expired(long bucket) {
+    return now != Long.MIN_VALUE && (bucket + 1) * bucketMillis <= now - windowMillis;
+  }
+
+  private void addToBucket(long bucket, int e) {
+    int slot = (int) Math.floorMod(bucket, (long) bucketNumbers.length);
+    if (bucketNumbers[slot] != bucket) {
+      bucketNumbers[slot] = bucket;
+      bucketSizes[slot] = 0;
+      oldestBucket = Math.min(oldestBucket, bucket);
+      newestBucket = Math.max(newestBucket, bucket);
+    }
+    if (bucketSizes[slot] == bucketEdges[slot].length) {
+      bucketEdges[slot] = Arrays.copyOf(bucketEdges[slot], Math.max(DEFAULT_CAPACITY, 2 * bucketSizes[slot]));
+    }
+    bucketEdges[slot][bucketSizes[slot]++] = e;
+  }
+
+  /**
+   * Returns the oldest live bucket after one, searching at most the length of the ring.
+   */
+  private long nextLiveBucket(long bucket) {
+    for (long b = Math.max(bucket + 1, newestBucket - bucketNumbers.length + 1); b <= newestBucket; b++) {
+      if (bucketNumbers[(int) Math.floorMod(b, (long) bucketNumbers.length)] == b) {
+        return b;
+      }
+    }
+    newestBucket = Long.MIN_VALUE;
+    return Long.MAX_VALUE;
+  }
+
+  /**
+   * Drops the edges last seen in a bucket, then reports and removes the vertices they touched.
+   */
+  private int expireBucket(long bucket) {
+    int slot = (int) Math.floorMod(bucket, (long) bucketNumbers.length);
+    int[] edges = bucketEdges[slot];
+    int size = bucketSizes[slot];
+    int touchedCount = 0;
+    int expired = 0;
+    pass++;
+    for (int i = 0; i < size; i++) {
+      int e = edges[i];
+      if (edgeBuckets[e] != bucket) {
+        // renewed into a later bucket, or already expired
+        continue;
+      }
+      int s = source[e];
+      int t = target[e];
+      int last = out[s][--outDegree[s]];
+      out[s][outSlot[e]] = last;
+      outSlot[last] = outSlot[e];
+      last = in[t][--inDegree[t]];
+      in[t][inSlot[e]] = last;
+      inSlot[last] = inSlot[e];
+      pairs.remove(s, t);
+      edgeBuckets[e] = Long.MIN_VALUE;
+      freeEdges[freeEdgeCount++] = e;
+      expired++;
+      if (touchedPass[s] != pass) {
+        touchedPass[s] = pass;
+        touched[touchedCount++] = s;
+      }
+      if (touchedPass[t] != pass) {
+        touchedPass[t] = pass;
+        touched[touchedCount++] = t;
+      }
+    }
+    for (int i = 0; i < touchedCount; i++) {
+      int v = touched[i];
+      if (degreeListener != null) {
+        degreeListener.degreeChanged(vertex(v), inDegree[v], outDegree[v]);
+      }
+      if (inDegree[v] == 0 && outDegree[v] == 0) {
+        removeVertexId(v);
+      }
+    }
+    bucketNumbers[slot] = Long.MIN_VALUE;
+    bucketSizes[slot] = 0;
+    if (edges.length > RETAINED_BUCKET) {
+      bucketEdges[slot] = EMPTY;
+    }
+    edgeCount -= expired;
+    expiredEdgeCount += expired;
+    return expired;
+  }
+
+  private int vertexIdOrAdd(V v) {
+    Integer id = ids.get(v);
+    if (id != null) {
+      return id;
+    }
+    int newId;
+    if (freeVertexCount > 0) {
+      newId = freeVertices[--freeVertexCount];
+    } else {
+      newId = nextVertex++;
+      if (newId == vertices.length) {
+        int capacity = 2 * vertices.length;
+        vertices = Arrays.copyOf(vertices, capacity);
+        out = Arrays.copyOf(out, capacity);
+        in = Arrays.copyOf(in, capacity);
+        outDegree = Arrays.copyOf(outDegree, capacity);
+        inDegree = Arrays.copyOf(inDegree, capacity);
+        touchedPass = Arrays.copyOf(touchedPass, capacity);
+        touched = Arrays.copyOf(touched, capacity);
+        freeVertices = Arrays.copyOf(freeVertices, capacity);
+      }
+      out[newId] = EMPTY;
+      in[newId] = EMPTY;
+    }
+    vertices[newId] = v;
+    ids.put(v, newId);
+    return newId;
+  }
+
+  private void removeVertexId(int v) {
+    ids.remove(vertices[v]);
+    vertices[v] = null;
+    // keep the arrays of ordinary vertices for the next one, but not those of hubs
+    if (out[v].length > RETAINED_ADJACENCY) {
+      out[v] = EMPTY;
+    }
+    if (in[v].length > RETAINED_ADJACENCY) {
+      in[v] = EMPTY;
+    }
+    freeVertices[freeVertexCount++] = v;
+  }
+
+  private int newEdge() {
+    int e = nextEdge++;
+    if (e == source.length) {
+      int capacity = 2 * source.length;
+      source = Arrays.copyOf(source, capacity);
+      target = Arrays.copyOf(target, capacity);
+      outSlot = Arrays.copyOf(outSlot, capacity);
+      inSlot = Arrays.copyOf(inSlot, capacity);
+      timestamps = Arrays.copyOf(timestamps, capacity);
+      edgeBuckets = Arrays.copyOf(edgeBuckets, capacity);
+      freeEdges = Arrays.copyOf(freeEdges, capacity);
+    }
+    return e;
+  }
+
+  /**
+   * Appends an edge to the adjacency array of a vertex.
+   *
+   * @return the slot of the edge.
+   */
+  private static int append(int[][] adjacency, int[] degrees, int v, int e) {
+    int slot = degrees[v]++;
+    if (slot == adjacency[v].length) {
+      adjacency[v] = Arrays.copyOf(adjacency[v], Math.max(4, 2 * slot));
+    }
+    adjacency[v][slot] = e;
+    return slot;
+  }
+
+  @SuppressWarnings("unchecked")
+  private V vertex(int id) {
+    return (V) vertices[id];
+  }
+
+  private int id(Object v) {
+    Integer id = ids.get(v);
+    if (id == null) {
+      throw new IllegalArgumentException("no such vertex in graph: " + v);
+    }
+    return id;
+  }
+
+  private void assertEdgeExist(Integer e) {
+    if (!containsEdge(e)) {
+      throw new IllegalArgumentException("no such edge in graph: " + e);
+    }
+  }
+
+  @Override
+  public Set<Integer> getAllEdges(V sourceVertex, V targetVertex) {
+    if (!containsVertex(sourceVertex) || !containsVertex(targetVertex)) {
+      return null;
+    }
+    Set<Integer> edges = new LinkedHashSet<>();
+    var e = getEdge(sourceVertex, targetVertex);
+    if (e != null) {
+      edges.add(e);
+    }
+    return edges;
+  }
+
+  @Override
+  public Integer getEdge(V sourceVertex, V targetVertex) {
+    Integer s = sourceVertex == null ? null : ids.get(sourceVertex);
+    Integer t = targetVertex == null ? null : ids.get(targetVertex);
+    if (s == null || t == null) {
+      return null;
+    }
+    int e = pairs.get(s, t);
+    return e < 0 ? null : e;
+  }
+
+  @Override
+  public Supplier<V> getVertexSupplier() {
+    return null;
+  }
+
+  @Override
+  public Supplier<Integer> getEdgeSupplier() {
+    return null;
+  }
+
+  @Override
+  public Integer addEdge(V sourceVertex, V targetVertex) {
+    throw new UnsupportedOperationException("edges are added by ingest()");
+  }
+
+  @Override
+  public boolean addEdge(V sourceVertex, V targetVertex, Integer e) {
+    throw new UnsupportedOperationException("edges are added by ingest()");
+  }
+
+  @Override
+  public V addVertex() {
+    throw new UnsupportedOperationException("vertices are added by ingest()");
+  }
+
+  @Override
+  public boolean addVertex(V v) {
+    throw new UnsupportedOperationException("vertices are added by ingest()");
+  }
+
+  @Override
+  public boolean containsEdge(Integer e) {
+    return e != null && e >= 0 && e < nextEdge && edgeBuckets[e] != Long.MIN_VALUE;
+  }
+
+  @Override
+  public boolean containsVertex(V v) {
+    return v != null && ids.containsKey(v);
+  }
+
+  @Override
+  public Set<Integer> edgeSet() {
+    return edgeSetView;
+  }
+
+  @Override
+  public int degreeOf(V vertex) {
+    int v = id(vertex);
+    return inDegree[v] + outDegree[v];
+  }
+
+  @Override
+  public Set<Integer> edgesOf(V vertex) {
+    return new IncidentEdges(id(vertex), true, true);
+  }
+
+  @Override
+  public int inDegreeOf(V vertex) {
+    return inDegree[id(vertex)];
+  }
+
+  @Override
+  public Set<Integer> incomingEdgesOf(V vertex) {
+    return new IncidentEdges(id(vertex), false, true);
+  }
+
+  @Override
+  public int outDegreeOf(V vertex) {
+    return outDegree[id(vertex)];
+  }
+
+  @Override
+  public Set<Integer> outgoingEdgesOf(V vertex) {
+    return new IncidentEdges(id(vertex), true, false);
+  }
+
+  @Override
+  public Integer removeEdge(V sourceVertex, V targetVertex) {
+    throw new UnsupportedOperationException("edges expire");
+  }
+
+  @Override
+  public boolean removeEdge(Integer e) {
+    throw new UnsupportedOperationException("edges expire");
+  }
+
+  @Override
+  public boolean removeVertex(V v) {
+    throw new UnsupportedOperationException("vertices expire");
+  }
+
+  @Override
+  public Set<V> vertexSet() {
+    return vertexSetView;
+  }
+
+  @Override
+  public V getEdgeSource(Integer e) {
+    assertEdgeExist(e);
+    return vertex(source[e]);
+  }
+
+  @Override
+  public V getEdgeTarget(Integer e) {
+    assertEdgeExist(e);
+    return vertex(target[e]);
+  }
+
+  @Override
+  public GraphType getType() {
+    return TYPE;
+  }
+
+  @Override
+  public double getEdgeWeight(Integer e) {
+    assertEdgeExist(e);
+    return Graph.DEFAULT_EDGE_WEIGHT;
+  }
+
+  @Override
+  public void setEdgeWeight(Integer e, double weight) {
+    throw new UnsupportedOperationException("unweighted graph");
+  }
+
+  /**
+   * The edge identifiers of the vertex pairs, in an open-addressing table with linear probing. Removal shifts the
+   * following entries back instead of leaving tombstones, so a table under constant churn does not degrade.
+   */
+  private static final class PairIndex {
+    private static final long FREE = -1;
+
+    private long[] keys = new long[DEFAULT_CAPACITY];
+    private int[] values = new int[DEFAULT_CAPACITY];
+    private int size;
+
+    PairIndex() {
+      Arrays.fill(keys, FREE);
+    }
+
+    private static long key(int s, int t) {
+      return (long) s << 32 | t;
+    }
+
+    private static int home(long key, int mask) {
+      long h = key * 0x9E3779B97F4A7C15L;
+      return (int) (h ^ h >>> 32) & mask;
+    }
+
+    int get(int s, int t) {
+      long key = key(s, t);
+      int mask = keys.length - 1;
+      for (int i = home(key, mask); ; i = (i + 1) & mask) {
+        if (keys[i] == key) {
+          return values[i];
+        }
+        if (keys[i] == FREE) {
+          return -1;
+        }
+      }
+    }
+
+    void put(int s, int t, int value) {
+      if (2 * (size + 1) > keys.length) {
+        resize(2 * keys.length);
+      }
+      long key = key(s, t);
+      int mask = keys.length - 1;
+      int i = home(key, mask);
+      while (keys[i] != FREE) {
+        i = (i + 1) & mask;
+      }
+      keys[i] = key;
+      values[i] = value;
+      size++;
+    }
+
+    void remove(int s, int t) {
+      long key = key(s, t);
+      int mask = keys.length - 1;
+      int i = home(key, mask);
+      while (keys[i] != key) {
+        i = (i + 1) & mask;
+      }
+      // shift back every following entry whose home is not between the hole and itself
+      for (int j = (i + 1) & mask; keys[j] != FREE; j = (j + 1) & mask) {
+        int h = home(keys[j], mask);
+        if (((j - h) & mask) >= ((j - i) & mask)) {
+          keys[i] = keys[j];
+          values[i] = values[j];
+          i = j;
+        }
+      }
+      keys[i] = FREE;
+      size--;
+    }
+
+    private void resize(int capacity) {
+      var oldKeys = keys;
+      var oldValues = values;
+      keys = new long[capacity];
+      values = new int[capacity];
+      Arrays.fill(keys, FREE);
+      int mask = capacity - 1;
+      for (int k = 0; k < oldKeys.length; k++) {
+        if (oldKeys[k] != FREE) {
+          int i = home(oldKeys[k], mask);
+          while (keys[i] != FREE) {
+            i = (i + 1) & mask;
+          }
+          keys[i] = oldKeys[k];
+          values[i] = oldValues[k];
+        }
+      }
+    }
+  }
+
+  private class VertexSet extends AbstractSet<V> {
+    @Override
+    public Iterator<V> iterator() {
+      return new Iterator<>() {
+        private int next = advance(0);
+
+        private int advance(int from) {
+          int v = from;
+          while (v < nextVertex && vertices[v] == null) {
+            v++;
+          }
+          return v;
+        }
+
+        @Override
+        public boolean hasNext() {
+          return next < nextVertex;
+        }
+
+        @Override
+        public V next() {
+          if (next >= nextVertex) {
+            throw new NoSuchElementException();
+          }
+          int v = next;
+          next = advance(v + 1);
+          return vertex(v);
+        }
+      };
+    }
+
+    @Override
+    public boolean contains(Object o) {
+      return o != null && ids.containsKey(o);
+    }
+
+    @Override
+    public int size() {
+      return ids.size();
+    }
+  }
+
+  private class EdgeSet extends AbstractSet<Integer> {
+    @Override
+    public Iterator<Integer> iterator() {
+      return new Iterator<>() {
+        private int next = advance(0);
+
+        private int advance(int from) {
+          int e = from;
+          while (e < nextEdge && edgeBuckets[e] == Long.MIN_VALUE) {
+            e++;
+          }
+          return e;
+        }
+
+        @Override
+        public boolean hasNext() {
+          return next < nextEdge;
+        }
+
+        @Override
+        public Integer next() {
+          if (next >= nextEdge) {
+            throw new NoSuchElementException();
+          }
+          int e = next;
+          next = advance(e + 1);
+          return e;
+        }
+      };
+    }
+
+    @Override
+    public boolean contains(Object o) {
+      return o instanceof Integer && containsEdge((Integer) o);
+    }
+
+    @Override
+    public int size() {
+      return edgeCount;
+    }
+  }
+
+  /**
+   * A live, read-only view of the out- and/or in-array of a vertex. A self-loop is in both; the in-part skips it so
+   * that it is reported once.
+   */
+  private class IncidentEdges extends AbstractSet<Integer> {
+    private final int vertex;
+    private final boolean withOut;
+    private final boolean withIn;
+
+    IncidentEdges(int vertex, boolean withOut, boolean withIn) {
+      this.vertex = vertex;
+      this.withOut = withOut;
+      this.withIn = withIn;
+    }
+
+    @Override
+    public Iterator<Integer> iterator() {
+      return new Iterator<>() {
+        private boolean inPart = !withOut;
+        private int index = -1;
+        private int next = advance();
+
+        private int advance() {
+          while (true) {
+            index++;
+            if (!inPart) {
+              if (index < outDegree[vertex]) {
+                return out[vertex][index];
+              }
+              if (!withIn) {
+                return -1;
+              }
+              inPart = true;
+              index = 0;
+            }
+            if (index >= inDegree[vertex]) {
+              return -1;
+            }
+            int e = in[vertex][index];
+            if (!withOut || source[e] != vertex) {
+              return e;
+            }
+          }
+        }
+
+        @Override
+        public boolean hasNext() {
+          return next >= 0;
+        }
+
+        @Override
+        public Integer next() {
+          if (next < 0) {
+            throw new NoSuchElementException();
+          }
+          int e = next;
+          next = advance();
+          return e;
+        }
+      };
+    }
+
+    @Override
+    public boolean contains(Object o) {
+      if (!(o instanceof Integer) || !containsEdge((Integer) o)) {
+        return false;
+      }
+      int e = (Integer) o;
+      return (withOut && source[e] == vertex) || (withIn && target[e] == vertex);
+    }
+
+    @Override
+    public int size() {
+      int size = (withOut ? outDegree[vertex] : 0) + (withIn ? inDegree[vertex] : 0);
+      if (withOut && withIn) {
+        for (int i = 0; i < outDegree[vertex]; i++) {
+          if (target[out[vertex][i]] == vertex) {
+            size--;
+          }
+        }
+      }
+      return size;
+    }
+  }
+}
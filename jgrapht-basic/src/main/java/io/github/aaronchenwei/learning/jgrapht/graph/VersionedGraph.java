@@ -0,0 +1,538 @@
+package io.github.aaronchenwei.learning.jgrapht.graph;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import org.jgrapht.Graph;
+import org.jgrapht.GraphType;
+import org.jgrapht.graph.AbstractGraph;
+import org.jgrapht.graph.DefaultGraphType;
+
+/**
+ * A graph that is read through immutable snapshots while writers keep changing it.
+ *
+ * <p>Iterating one of the {@code org.jgrapht.graph} graphs while another thread mutates it fails with a
+ * {@link java.util.ConcurrentModificationException} or worse, unless every reader and writer takes one global lock.
+ * Here readers call {@link #snapshot()} instead: a {@link Snapshot} is a read-only {@link Graph} of one commit epoch
+ * that never changes, so a {@code DepthFirstIterator} or any other algorithm can run over it without locks while new
+ * epochs are committed.
+ *
+ * <p>Writers batch their mutations in {@link #update(Consumer)}, which applies them to a private draft of the latest
+ * snapshot and publishes the result as the next epoch with one volatile write. Updates are serialized, and a batch
+ * that throws publishes nothing. Snapshots share structure: vertices, edges and adjacency sets are persistent hash
+ * tries, so a commit copies only the trie paths of the vertices and edges it touches, once per batch, and an old
+ * snapshot costs only the nodes that were replaced since.
+ *
+ * <p>The self-loop, multiple-edge and weight semantics follow the supplied {@link GraphType}, as in
+ * {@link IntArrayGraph}. Iteration order is hash order, not insertion order.
+ *
+ * @param <V> the vertex type.
+ * @param <E> the edge type.
+ */
+public class VersionedGraph<V, E> {
+
+  private final GraphType type;
+  private final Supplier<V> vertexSupplier;
+  private final Supplier<E> edgeSupplier;
+  private final ReentrantLock writeLock = new ReentrantLock();
+  private volatile Snapshot<V, E> current;
+
+  /**
+   * Creates an empty graph, at epoch 0.
+   *
+   * @param type the graph type; it must be either directed or undirected.
+   * @param vertexSupplier creates the vertices of {@code addVertex()} in updates, or null.
+   * @param edgeSupplier creates the edges of {@code addEdge(u, v)} in updates, or null.
+   */
+  public VersionedGraph(GraphType type, Supplier<V> vertexSupplier, Supplier<E> edgeSupplier) {
+    Objects.requireNonNull(type, "type");
+    if (type.isMixed()) {
+      throw new IllegalArgumentException("mixed graphs are not supported");
+    }
+    this.type = type;
+    this.vertexSupplier = vertexSupplier;
+    this.edgeSupplier = edgeSupplier;
+    this.current = new Snapshot<>(new DefaultGraphType.Builder(type).modifiable(false).build(), vertexSupplier,
+      edgeSupplier, PersistentMap.empty(), PersistentMap.empty(), 0);
+  }
+
+  /**
+   * Returns the latest committed snapshot. This takes no lock.
+   *
+   * @return the snapshot.
+   */
+  public Snapshot<V, E> snapshot() {
+    return current;
+  }
+
+  /**
+   * Returns the epoch of the latest committed snapshot.
+   *
+   * @return the epoch.
+   */
+  public long epoch() {
+    return current.epoch;
+  }
+
+  /**
+   * Applies a batch of mutations and publishes the result as a new epoch. The graph passed to {@code mutations}
+   * supports every {@link Graph} operation and is only valid during the call; it reads its own writes. If
+   * {@code mutations} throws, no epoch is published.
+   *
+   * @param mutations the mutations.
+   * @return the new snapshot.
+   */
+  public Snapshot<V, E> update(Consumer<? super Graph<V, E>> mutations) {
+    Objects.requireNonNull(mutations, "mutations");
+    writeLock.lock();
+    try {
+      var draft = new Draft<>(current, type, vertexSupplier, edgeSupplier);
+      mutations.accept(draft);
+      var next = draft.commit();
+      current = next;
+      return next;
+    } finally {
+      writeLock.unlock();
+    }
+  }
+
+  /**
+   * The incident edges of a vertex. A directed vertex keeps its out- and in-edges apart, a self-loop in both; an
+   * undirected vertex keeps all its edges in {@code out}, a self-loop once, and counts its loops so that they add two
+   * to the degree.
+   */
+  static final class Adjacency<E> {
+    static final Adjacency<?> EMPTY = new Adjacency<>(PersistentMap.empty(), PersistentMap.empty(), 0);
+
+    final PersistentMap<E, Boolean> out;
+    final PersistentMap<E, Boolean> in;
+    final int loops;
+
+    Adjacency(PersistentMap<E, Boolean> out, PersistentMap<E, Boolean> in, int loops) {
+      this.out = out;
+      this.in = in;
+      this.loops = loops;
+    }
+  }
+
+  static final class Link<V> {
+    final V source;
+    final V target;
+    final double weight;
+
+    Link(V source, V target, double weight) {
+      this.source = source;
+      this.target = target;
+      this.weight = weight;
+    }
+
+    boolean connects(V u, V v, boolean directed) {
+      if (directed) {
+        return source.equals(u) && target.equals(v);
+      }
+      return (source.equals(u) && target.equals(v)) || (source.equals(v) && target.equals(u));
+    }
+  }
+
+  /**
+   * The read operations shared by snapshots and drafts.
+   */
+  abstract static class View<V, E> extends AbstractGraph<V, E> {
+    final GraphType type;
+    final boolean directed;
+    final Supplier<V> vertexSupplier;
+    final Supplier<E> edgeSupplier;
+    PersistentMap<V, Adjacency<E>> vertices;
+    PersistentMap<E, Link<V>> edges;
+
+    View(GraphType type, Supplier<V> vertexSupplier, Supplier<E> edgeSupplier,
+      PersistentMap<V, Adjacency<E>> vertices, PersistentMap<E, Link<V>> edges) {
+      this.type = type;
+      this.directed = type.isDirected();
+      this.vertexSupplier = vertexSupplier;
+      this.edgeSupplier = edgeSupplier;
+      this.vertices = vertices;
+      this.edges = edges;
+    }
+
+    @Override
+    public Set<E> getAllEdges(V sourceVertex, V targetVertex) {
+      if (!containsVertex(sourceVertex) || !containsVertex(targetVertex)) {
+        return null;
+      }
+      Set<E> result = new LinkedHashSet<>();
+      for (E e : scanSet(sourceVertex, targetVertex).keySet()) {
+        if (edges.get(e).connects(sourceVertex, targetVertex, directed)) {
+          result.add(e);
+        }
+      }
+      return result;
+    }
+
+    @Override
+    public E getEdge(V sourceVertex, V targetVertex) {
+      if (!containsVertex(sourceVertex) || !containsVertex(targetVertex)) {
+        return null;
+      }
+      for (E e : scanSet(sourceVertex, targetVertex).keySet()) {
+        if (edges.get(e).connects(sourceVertex, targetVertex, directed)) {
+          return e;
+        }
+      }
+      return null;
+    }
+
+    @Override
+    public Supplier<V> getVertexSupplier() {
+      return vertexSupplier;
+    }
+
+    @Override
+    public Supplier<E> getEdgeSupplier() {
+      return edgeSupplier;
+    }
+
+    @Override
+    public boolean containsEdge(E e) {
+      return e != null && edges.containsKey(e);
+    }
+
+    @Override
+    public boolean containsVertex(V v) {
+      return v != null && vertices.containsKey(v);
+    }
+
+    @Override
+    public Set<E> edgeSet() {
+      return edges.keySet();
+    }
+
+    @Override
+    public int degreeOf(V vertex) {
+      var adjacency = adjacency(vertex);
+      if (directed) {
+        return adjacency.out.size() + adjacency.in.size();
+      }
+      return adjacency.out.size() + adjacency.loops;
+    }
+
+    @Override
+    public Set<E> edgesOf(V vertex) {
+      var adjacency = adjacency(vertex);
+      if (!directed) {
+        return adjacency.out.keySet();
+      }
+      Set<E> result = new LinkedHashSet<>(adjacency.out.keySet());
+      result.addAll(adjacency.in.keySet());
+      return Collections.unmodifiableSet(result);
+    }
+
+    @Override
+    public int inDegreeOf(V vertex) {
+      return directed ? adjacency(vertex).in.size() : degreeOf(vertex);
+    }
+
+    @Override
+    public Set<E> incomingEdgesOf(V vertex) {
+      var adjacency = adjacency(vertex);
+      return directed ? adjacency.in.keySet() : adjacency.out.keySet();
+    }
+
+    @Override
+    public int outDegreeOf(V vertex) {
+      return directed ? adjacency(vertex).out.size() : degreeOf(vertex);
+    }
+
+    @Override
+    public Set<E> outgoingEdgesOf(V vertex) {
+      return adjacency(vertex).out.keySet();
+    }
+
+    @Override
+    public Set<V> vertexSet() {
+      return vertices.keySet();
+    }
+
+    @Override
+    public V getEdgeSource(E e) {
+      return link(e).source;
+    }
+
+    @Override
+    public V getEdgeTarget(E e) {
+      return link(e).target;
+    }
+
+    @Override
+    public GraphType getType() {
+      return type;
+    }
+
+    @Override
+    public double getEdgeWeight(E e) {
+      Objects.requireNonNull(e, "edge");
+      if (!type.isWeighted()) {
+        return Graph.DEFAULT_EDGE_WEIGHT;
+      }
+      return link(e).weight;
+    }
+
+    Adjacency<E> adjacency(V vertex) {
+      Objects.requireNonNull(vertex, "vertex");
+      var adjacency = vertices.get(vertex);
+      if (adjacency == null) {
+        throw new IllegalArgumentException("no such vertex in graph: " + vertex);
+      }
+      return adjacency;
+    }
+
+    Link<V> link(E e) {
+      Objects.requireNonNull(e, "edge");
+      var link = edges.get(e);
+      if (link == null) {
+        throw new IllegalArgumentException("no such edge in graph: " + e);
+      }
+      return link;
+    }
+
+    /**
+     * Returns the smaller of the two adjacency sets that can hold an edge between {@code u} and {@code v}.
+     */
+    private PersistentMap<E, Boolean> scanSet(V u, V v) {
+      var a = vertices.get(u);
+      var b = vertices.get(v);
+      if (directed) {
+        return a.out.size() <= b.in.size() ? a.out : b.in;
+      }
+      return a.out.size() <= b.out.size() ? a.out : b.out;
+    }
+  }
+
+  /**
+   * An immutable graph: the state of a {@link VersionedGraph} at one commit epoch. Every mutator throws
+   * {@link UnsupportedOperationException}; the sets it returns are unmodifiable and never change.
+   *
+   * @param <V> the vertex type.
+   * @param <E> the edge type.
+   */
+  public static final class Snapshot<V, E> extends View<V, E> {
+    private final long epoch;
+
+    Snapshot(GraphType type, Supplier<V> vertexSupplier, Supplier<E> edgeSupplier,
+      PersistentMap<V, Adjacency<E>> vertices, PersistentMap<E, Link<V>> edges, long epoch) {
+      super(type, vertexSupplier, edgeSupplier, vertices, edges);
+      this.epoch = epoch;
+    }
+
+    /**
+     * Returns the commit epoch of this snapshot: 0 for the empty graph, then one more per update.
+     *
+     * @return the epoch.
+     */
+    public long epoch() {
+      return epoch;
+    }
+
+    @Override
+    public E addEdge(V sourceVertex, V targetVertex) {
+      throw readOnly();
+    }
+
+    @Override
+    public boolean addEdge(V sourceVertex, V targetVertex, E e) {
+      throw readOnly();
+    }
+
+    @Override
+    public V addVertex() {
+      throw readOnly();
+    }
+
+    @Override
+    public boolean addVertex(V v) {
+      throw readOnly();
+    }
+
+    @Override
+    public E removeEdge(V sourceVertex, V targetVertex) {
+      throw readOnly();
+    }
+
+    @Override
+    public boolean removeEdge(E e) {
+      throw readOnly();
+    }
+
+    @Override
+    public boolean removeVertex(V v) {
+      throw readOnly();
+    }
+
+    @Override
+    public void setEdgeWeight(E e, double weight) {
+      throw readOnly();
+    }
+
+    private static UnsupportedOperationException readOnly() {
+      return new UnsupportedOperationException("snapshots are read-only");
+    }
+  }
+
+  /**
+   * The mutable copy of a snapshot that one update works on. Its changes go through a fresh edit token, so trie nodes
+   * created by the update are changed in place by its later mutations, and the committed snapshot shares every node
+   * the update did not touch with the previous one.
+   */
+  private static final class Draft<V, E> extends View<V, E> {
+    private final Object edit = new Object();
+    private final Snapshot<V, E> base;
+    private boolean committed;
+
+    Draft(Snapshot<V, E> base, GraphType type, Supplier<V> vertexSupplier, Supplier<E> edgeSupplier) {
+      super(new DefaultGraphType.Builder(type).modifiable(true).build(), vertexSupplier, edgeSupplier, base.vertices,
+        base.edges);
+      this.base = base;
+    }
+
+    Snapshot<V, E> commit() {
+      committed = true;
+      return new Snapshot<>(base.type, vertexSupplier, edgeSupplier, vertices, edges, base.epoch + 1);
+    }
+
+    @Override
+    public E addEdge(V sourceVertex, V targetVertex) {
+      if (edgeSupplier == null) {
+        throw new UnsupportedOperationException("the graph contains no edge supplier");
+      }
+      E e = edgeSupplier.get();
+      return addEdge(sourceVertex, targetVertex, e) ? e : null;
+    }
+
+    @Override
+    public boolean addEdge(V sourceVertex, V targetVertex, E e) {
+      assertOpen();
+      Objects.requireNonNull(e, "edge");
+      assertVertexExist(sourceVertex);
+      assertVertexExist(targetVertex);
+      boolean loop = sourceVertex.equals(targetVertex);
+      if (loop && !type.isAllowingSelfLoops()) {
+        throw new IllegalArgumentException("loops not allowed");
+      }
+      if (containsEdge(e)) {
+        return false;
+      }
+      if (!type.isAllowingMultipleEdges() && getEdge(sourceVertex, targetVertex) != null) {
+        return false;
+      }
+      edges = edges.put(edit, e, new Link<>(sourceVertex, targetVertex, Graph.DEFAULT_EDGE_WEIGHT));
+      var u = vertices.get(sourceVertex);
+      if (directed) {
+        vertices = vertices.put(edit, sourceVertex, new Adjacency<>(u.out.put(edit, e, Boolean.TRUE), u.in, u.loops));
+        var v = vertices.get(targetVertex);
+        vertices = vertices.put(edit, targetVertex, new Adjacency<>(v.out, v.in.put(edit, e, Boolean.TRUE), v.loops));
+      } else if (loop) {
+        vertices = vertices.put(edit, sourceVertex, new Adjacency<>(u.out.put(edit, e, Boolean.TRUE), u.in,
+          u.loops + 1));
+      } else {
+        vertices = vertices.put(edit, sourceVertex, new Adjacency<>(u.out.put(edit, e, Boolean.TRUE), u.in, u.loops));
+        var v = vertices.get(targetVertex);
+        vertices = vertices.put(edit, targetVertex, new Adjacency<>(v.out.put(edit, e, Boolean.TRUE), v.in, v.loops));
+      }
+      return true;
+    }
+
+    @Override
+    public V addVertex() {
+      if (vertexSupplier == null) {
+        throw new UnsupportedOperationException("the graph contains no vertex supplier");
+      }
+      V v = vertexSupplier.get();
+      if (!addVertex(v)) {
+        throw new IllegalArgumentException("the vertex supplier returned an existing vertex: " + v);
+      }
+      return v;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean addVertex(V v) {
+      assertOpen();
+      Objects.requireNonNull(v, "vertex");
+      if (vertices.containsKey(v)) {
+        return false;
+      }
+      vertices = vertices.put(edit, v, (Adjacency<E>) Adjacency.EMPTY);
+      return true;
+    }
+
+    @Override
+    public E removeEdge(V sourceVertex, V targetVertex) {
+      E e = getEdge(sourceVertex, targetVertex);
+      if (e != null) {
+        removeEdge(e);
+      }
+      return e;
+    }
+
+    @Override
+    public boolean removeEdge(E e) {
+      assertOpen();
+      if (!containsEdge(e)) {
+        return false;
+      }
+      var link = edges.get(e);
+      var u = vertices.get(link.source);
+      if (directed) {
+        vertices = vertices.put(edit, link.source, new Adjacency<>(u.out.remove(edit, e), u.in, u.loops));
+        var v = vertices.get(link.target);
+        vertices = vertices.put(edit, link.target, new Adjacency<>(v.out, v.in.remove(edit, e), v.loops));
+      } else if (link.source.equals(link.target)) {
+        vertices = vertices.put(edit, link.source, new Adjacency<>(u.out.remove(edit, e), u.in, u.loops - 1));
+      } else {
+        vertices = vertices.put(edit, link.source, new Adjacency<>(u.out.remove(edit, e), u.in, u.loops));
+        var v = vertices.get(link.target);
+        vertices = vertices.put(edit, link.target, new Adjacency<>(v.out.remove(edit, e), v.in, v.loops));
+      }
+      edges = edges.remove(edit, e);
+      return true;
+    }
+
+    @Override
+    public boolean removeVertex(V v) {
+      assertOpen();
+      if (!containsVertex(v)) {
+        return false;
+      }
+      // removeEdge may change trie nodes of this update in place, so the incident edges are copied first
+      var adjacency = vertices.get(v);
+      var incident = new ArrayList<>(adjacency.out.keySet());
+      incident.addAll(adjacency.in.keySet());
+      for (E e : incident) {
+        removeEdge(e);
+      }
+      vertices = vertices.remove(edit, v);
+      return true;
+    }
+
+    @Override
+    public void setEdgeWeight(E e, double weight) {
+      assertOpen();
+      if (!type.isWeighted()) {
+        throw new UnsupportedOperationException("the graph is not weighted");
+      }
+      var link = link(e);
+      edges = edges.put(edit, e, new Link<>(link.source, link.target, weight));
+    }
+
+    private void assertOpen() {
+      if (committed) {
+        throw new IllegalStateException("the update has been committed");
+      }
+    }
+  }
+}
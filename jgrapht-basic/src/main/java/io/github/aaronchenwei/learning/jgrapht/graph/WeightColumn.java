@@ -0,0 +1,334 @@
+package io.github.aaronchenwei.learning.jgrapht.graph;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * A growable, contiguous column of {@code double} edge weights indexed by edge identifier, either in a heap array or
+ * in a direct (off-heap) buffer.
+ *
+ * <p>The bulk operations ({@link #fill}, {@link #scale}, {@link #transform}, {@link #sum}, ...) are single passes
+ * over a range of the column. On the heap they are plain counted loops over a {@code double[]}, which the JIT
+ * compiles to SIMD code; off the heap they read and write the buffer in place, trading that speed for keeping the
+ * weights out of the garbage-collected heap. A direct column holds at most {@code 2^28 - 1} weights.
+ *
+ * <p>New slots, including the ones added by {@link #ensureCapacity}, hold 0.0. A column is not thread-safe.
+ */
+public abstract class WeightColumn {
+
+  /**
+   * Where the weights are stored.
+   */
+  public enum Storage {
+    /** A {@code double[]}. */
+    HEAP,
+    /** A native-order {@code DoubleBuffer} over a direct {@code ByteBuffer}. */
+    OFF_HEAP
+  }
+
+  private static final int MAX_DIRECT_CAPACITY = Integer.MAX_VALUE / Double.BYTES;
+
+  private WeightColumn() {
+  }
+
+  /**
+   * Allocates a column.
+   *
+   * @param storage where the weights are stored.
+   * @param capacity the initial number of slots.
+   * @return the column.
+   */
+  public static WeightColumn allocate(Storage storage, int capacity) {
+    Objects.requireNonNull(storage, "storage");
+    if (capacity < 0) {
+      throw new IllegalArgumentException("negative capacity: " + capacity);
+    }
+    return storage == Storage.HEAP ? new Heap(capacity) : new Direct(capacity);
+  }
+
+  public abstract Storage storage();
+
+  public abstract int capacity();
+
+  public abstract double get(int index);
+
+  public abstract void set(int index, double weight);
+
+  /**
+   * Grows the column to at least {@code capacity} slots, keeping its contents.
+   *
+   * @param capacity the smallest number of slots.
+   * @throws IllegalArgumentException if the column is direct and {@code capacity} is above {@code 2^28 - 1}.
+   */
+  public abstract void ensureCapacity(int capacity);
+
+  /**
+   * Sets the slots {@code [from, to)} to one weight.
+   *
+   * @param from the first slot, inclusive.
+   * @param to the last slot, exclusive.
+   * @param weight the weight.
+   */
+  public abstract void fill(int from, int to, double weight);
+
+  /**
+   * Copies an array into the slots {@code [from, from + weights.length)}.
+   *
+   * @param from the first slot.
+   * @param weights the weights.
+   */
+  public abstract void put(int from, double[] weights);
+
+  /**
+   * Copies the slots {@code [from, to)} into a new array.
+   *
+   * @param from the first slot, inclusive.
+   * @param to the last slot, exclusive.
+   * @return the weights.
+   */
+  public abstract double[] toArray(int from, int to);
+
+  /**
+   * Multiplies the slots {@code [from, to)} by a factor.
+   *
+   * @param from the first slot, inclusive.
+   * @param to the last slot, exclusive.
+   * @param factor the factor.
+   */
+  public abstract void scale(int from, int to, double factor);
+
+  /**
+   * Replaces each of the slots {@code [from, to)} with the result of an operator.
+   *
+   * @param from the first slot, inclusive.
+   * @param to the last slot, exclusive.
+   * @param operator the operator.
+   */
+  public abstract void transform(int from, int to, DoubleUnaryOperator operator);
+
+  /**
+   * Sums the slots {@code [from, to)}. Four partial sums are kept so that the additions do not wait on each other,
+   * so the result can differ from a left-to-right sum in the last bits.
+   *
+   * @param from the first slot, inclusive.
+   * @param to the last slot, exclusive.
+   * @return the sum.
+   */
+  public abstract double sum(int from, int to);
+
+  /**
+   * Sets the slots named by an index array, in order.
+   *
+   * @param indices the slots.
+   * @param weights the weight of each slot, same length as {@code indices}.
+   */
+  public void set(int[] indices, double[] weights) {
+    if (indices.length != weights.length) {
+      throw new IllegalArgumentException("indices and weights differ in length");
+    }
+    for (int i = 0; i < indices.length; i++) {
+      set(indices[i], weights[i]);
+    }
+  }
+
+  private static final class Heap extends WeightColumn {
+    private double[] weights;
+
+    Heap(int capacity) {
+      this.weights = new double[capacity];
+    }
+
+    @Override
+    public Storage storage() {
+      return Storage.HEAP;
+    }
+
+    @Override
+    public int capacity() {
+      return weights.length;
+    }
+
+    @Override
+    public double get(int index) {
+      return weights[index];
+    }
+
+    @Override
+    public void set(int index, double weight) {
+      weights[index] = weight;
+    }
+
+    @Override
+    public void ensureCapacity(int capacity) {
+      if (capacity > weights.length) {
+        weights = Arrays.copyOf(weights, capacity);
+      }
+    }
+
+    @Override
+    public void fill(int from, int to, double weight) {
+      Arrays.fill(weights, from, to, weight);
+    }
+
+    @Override
+    public void put(int from, double[] source) {
+      System.arraycopy(source, 0, weights, from, source.length);
+    }
+
+    @Override
+    public double[] toArray(int from, int to) {
+      return Arrays.copyOfRange(weights, from, to);
+    }
+
+    @Override
+    public void scale(int from, int to, double factor) {
+      Objects.checkFromToIndex(from, to, weights.length);
+      var w = weights;
+      for (int i = from; i < to; i++) {
+        w[i] *= factor;
+      }
+    }
+
+    @Override
+    public void transform(int from, int to, DoubleUnaryOperator operator) {
+      Objects.checkFromToIndex(from, to, weights.length);
+      var w = weights;
+      for (int i = from; i < to; i++) {
+        w[i] = operator.applyAsDouble(w[i]);
+      }
+    }
+
+    @Override
+    public double sum(int from, int to) {
+      Objects.checkFromToIndex(from, to, weights.length);
+      var w = weights;
+      double s0 = 0.0;
+      double s1 = 0.0;
+      double s2 = 0.0;
+      double s3 = 0.0;
+      int i = from;
+      for (; i + 3 < to; i += 4) {
+        s0 += w[i];
+        s1 += w[i + 1];
+        s2 += w[i + 2];
+        s3 += w[i + 3];
+      }
+      for (; i < to; i++) {
+        s0 += w[i];
+      }
+      return (s0 + s1) + (s2 + s3);
+    }
+  }
+
+  private static final class Direct extends WeightColumn {
+    private DoubleBuffer weights;
+
+    Direct(int capacity) {
+      this.weights = allocateDirect(capacity);
+    }
+
+    private static DoubleBuffer allocateDirect(int capacity) {
+      if (capacity > MAX_DIRECT_CAPACITY) {
+        throw new IllegalArgumentException("too many weights for a direct buffer: " + capacity);
+      }
+      return ByteBuffer.allocateDirect(capacity * Double.BYTES).order(ByteOrder.nativeOrder()).asDoubleBuffer();
+    }
+
+    @Override
+    public Storage storage() {
+      return Storage.OFF_HEAP;
+    }
+
+    @Override
+    public int capacity() {
+      return weights.capacity();
+    }
+
+    @Override
+    public double get(int index) {
+      return weights.get(index);
+    }
+
+    @Override
+    public void set(int index, double weight) {
+      weights.put(index, weight);
+    }
+
+    @Override
+    public void ensureCapacity(int capacity) {
+      if (capacity > weights.capacity()) {
+        if (capacity > MAX_DIRECT_CAPACITY) {
+          throw new IllegalArgumentException("too many weights for a direct buffer: " + capacity);
+        }
+        var grown = allocateDirect(Math.min(MAX_DIRECT_CAPACITY, Math.max(capacity, weights.capacity() * 2)));
+        grown.put(weights.clear());
+        weights = grown.clear();
+      }
+    }
+
+    @Override
+    public void fill(int from, int to, double weight) {
+      Objects.checkFromToIndex(from, to, weights.capacity());
+      var w = weights;
+      for (int i = from; i < to; i++) {
+        w.put(i, weight);
+      }
+    }
+
+    @Override
+    public void put(int from, double[] source) {
+      weights.put(from, source);
+    }
+
+    @Override
+    public double[] toArray(int from, int to) {
+      Objects.checkFromToIndex(from, to, weights.capacity());
+      var result = new double[to - from];
+      weights.get(from, result);
+      return result;
+    }
+
+    @Override
+    public void scale(int from, int to, double factor) {
+      Objects.checkFromToIndex(from, to, weights.capacity());
+      var w = weights;
+      for (int i = from; i < to; i++) {
+        w.put(i, w.get(i) * factor);
+      }
+    }
+
+    @Override
+    public void transform(int from, int to, DoubleUnaryOperator operator) {
+      Objects.checkFromToIndex(from, to, weights.capacity());
+      var w = weights;
+      for (int i = from; i < to; i++) {
+        w.put(i, operator.applyAsDouble(w.get(i)));
+      }
+    }
+
+    @Override
+    public double sum(int from, int to) {
+      Objects.checkFromToIndex(from, to, weights.capacity());
+      var w = weights;
+      double s0 = 0.0;
+      double s1 = 0.0;
+      double s2 = 0.0;
+      double s3 = 0.0;
+      int i = from;
+      for (; i + 3 < to; i += 4) {
+        s0 += w.get(i);
+        s1 += w.get(i + 1);
+        s2 += w.get(i + 2);
+        s3 += w.get(i + 3);
+      }
+      for (; i < to; i++) {
+        s0 += w.get(i);
+      }
+      return (s0 + s1) + (s2 + s3);
+    }
+  }
+}
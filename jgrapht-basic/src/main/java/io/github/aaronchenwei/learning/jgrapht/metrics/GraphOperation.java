@@ -0,0 +1,19 @@
+package io.github.aaronchenwei.learning.jgrapht.metrics;
+
+/**
+ * The graph operations that an {@link InstrumentedGraph} measures.
+ */
+public enum GraphOperation {
+  /** {@code addVertex()} and {@code addVertex(V)}. */
+  ADD_VERTEX,
+  /** {@code addEdge(V, V)} and {@code addEdge(V, V, E)}. */
+  ADD_EDGE,
+  /** {@code edgesOf(V)}. */
+  EDGES_OF,
+  /** {@code getEdge(V, V)}. */
+  GET_EDGE,
+  /** {@code containsEdge(E)} and {@code containsEdge(V, V)}. */
+  CONTAINS_EDGE,
+  /** {@code iterator()} on the vertex and edge sets. */
+  ITERATOR
+}
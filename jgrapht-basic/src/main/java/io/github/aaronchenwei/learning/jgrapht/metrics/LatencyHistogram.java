@@ -0,0 +1,203 @@
+package io.github.aaronchenwei.learning.jgrapht.metrics;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * A concurrent call counter and latency histogram, built for recording on hot paths.
+ *
+ * <p>The buckets are log-linear, as in HdrHistogram: values below 64 have a bucket each, and every further power of
+ * two up to 2^36 is split into 64 buckets, so a recorded value is known to within 1/64 (about 1.6%) of itself. Values
+ * from 2^37 nanoseconds (about 137 seconds) up share the last bucket, the top sub-bucket of 2^36, so a quantile that
+ * falls there reads at most 2^37 - 1 nanoseconds however long the calls took; only the maximum keeps the exact value.
+ *
+ * <p>The counters are striped: each thread records into one of a power-of-two number of stripes, chosen by its
+ * thread id, with an atomic add on a plain {@code long} array. Threads on different stripes never touch the same
+ * cache line, so recording costs an uncontended atomic add. A {@link #snapshot()} sums the stripes without stopping
+ * the recorders, so it may miss the values recorded while it runs.
+ */
+public final class LatencyHistogram {
+
+  private static final VarHandle LONGS = MethodHandles.arrayElementVarHandle(long[].class);
+
+  private static final int SUB_BUCKET_BITS = 6;
+  private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+  private static final int MAX_EXPONENT = 36;
+  static final int BUCKETS = (MAX_EXPONENT - SUB_BUCKET_BITS + 2) * SUB_BUCKETS;
+
+  // per stripe: the buckets, then the call count, the sampled total and the sampled maximum, then padding
+  private static final int CALLS = BUCKETS;
+  private static final int TOTAL = BUCKETS + 1;
+  private static final int MAX = BUCKETS + 2;
+  private static final int STRIDE = BUCKETS + 3 + 8;
+
+  private final long[] cells;
+  private final int stripeMask;
+
+  /**
+   * Creates a histogram with one stripe per available processor, rounded up to a power of two and at most 64.
+   */
+  public LatencyHistogram() {
+    this(Runtime.getRuntime().availableProcessors());
+  }
+
+  /**
+   * Creates a histogram.
+   *
+   * @param stripes the number of stripes; it is rounded up to a power of two, at most 64.
+   */
+  public LatencyHistogram(int stripes) {
+    if (stripes <= 0) {
+      throw new IllegalArgumentException("stripes must be positive");
+    }
+    int n = Integer.highestOneBit(Math.min(64, stripes));
+    if (n < stripes && n < 64) {
+      n <<= 1;
+    }
+    this.cells = new long[n * STRIDE];
+    this.stripeMask = n - 1;
+  }
+
+  private int stripe() {
+    int h = (int) Thread.currentThread().getId();
+    return ((h ^ (h >>> 16)) & stripeMask) * STRIDE;
+  }
+
+  /**
+   * Counts a call.
+   *
+   * @return the number of calls counted on this thread's stripe before this one, for sampling decisions.
+   */
+  public long countCall() {
+    return (long) LONGS.getAndAdd(cells, stripe() + CALLS, 1L);
+  }
+
+  /**
+   * Records the latency of a call, which must have been counted with {@link #countCall()} first.
+   *
+   * @param nanos the latency in nanoseconds; negative values count as zero.
+   */
+  public void recordLatency(long nanos) {
+    long value = Math.max(0, nanos);
+    int base = stripe();
+    LONGS.getAndAdd(cells, base + bucket(value), 1L);
+    LONGS.getAndAdd(cells, base + TOTAL, value);
+    long max = (long) LONGS.getOpaque(cells, base + MAX);
+    while (value > max && !LONGS.compareAndSet(cells, base + MAX, max, value)) {
+      max = (long) LONGS.getOpaque(cells, base + MAX);
+    }
+  }
+
+  /**
+   * Sums the stripes.
+   *
+   * @return a snapshot of the counts so far.
+   */
+  public Snapshot snapshot() {
+    var buckets = new long[BUCKETS];
+    long calls = 0;
+    long total = 0;
+    long max = 0;
+    for (int base = 0; base < cells.length; base += STRIDE) {
+      for (int i = 0; i < BUCKETS; i++) {
+        buckets[i] += (long) LONGS.getOpaque(cells, base + i);
+      }
+      calls += (long) LONGS.getOpaque(cells, base + CALLS);
+      total += (long) LONGS.getOpaque(cells, base + TOTAL);
+      max = Math.max(max, (long) LONGS.getOpaque(cells, base + MAX));
+    }
+    return new Snapshot(calls, buckets, total, max);
+  }
+
+  static int bucket(long value) {
+    if (value < SUB_BUCKETS) {
+      return (int) value;
+    }
+    int exponent = 63 - Long.numberOfLeadingZeros(value);
+    if (exponent > MAX_EXPONENT) {
+      return BUCKETS - 1;
+    }
+    int shift = exponent - SUB_BUCKET_BITS;
+    return (shift + 1) * SUB_BUCKETS + (int) (value >>> shift) - SUB_BUCKETS;
+  }
+
+  /**
+   * Returns the largest value that falls into a bucket.
+   */
+  static long highestValue(int bucket) {
+    if (bucket < SUB_BUCKETS) {
+      return bucket;
+    }
+    int shift = bucket / SUB_BUCKETS - 1;
+    long mantissa = bucket % SUB_BUCKETS + SUB_BUCKETS;
+    return ((mantissa + 1) << shift) - 1;
+  }
+
+  /**
+   * The counts of a histogram at some point in time.
+   */
+  public static final class Snapshot {
+    private final long callCount;
+    private final long[] buckets;
+    private final long sampleCount;
+    private final long totalNanos;
+    private final long maxNanos;
+
+    Snapshot(long callCount, long[] buckets, long totalNanos, long maxNanos) {
+      this.callCount = callCount;
+      this.buckets = buckets;
+      long samples = 0;
+      for (long count : buckets) {
+        samples += count;
+      }
+      this.sampleCount = samples;
+      this.totalNanos = totalNanos;
+      this.maxNanos = maxNanos;
+    }
+
+    public long callCount() {
+      return callCount;
+    }
+
+    /**
+     * Returns the number of latencies recorded, which is less than the call count when only some calls are timed.
+     *
+     * @return the number of samples.
+     */
+    public long sampleCount() {
+      return sampleCount;
+    }
+
+    public long maxNanos() {
+      return maxNanos;
+    }
+
+    public double meanNanos() {
+      return sampleCount == 0 ? 0 : (double) totalNanos / sampleCount;
+    }
+
+    /**
+     * Returns a latency that the given fraction of the samples do not exceed, rounded up to the end of its bucket.
+     *
+     * @param quantile the fraction, in {@code [0, 1]}.
+     * @return the latency in nanoseconds, or 0 without samples.
+     */
+    public long quantileNanos(double quantile) {
+      if (!(quantile >= 0 && quantile <= 1)) {
+        throw new IllegalArgumentException("quantile must be in [0, 1]");
+      }
+      if (sampleCount == 0) {
+        return 0;
+      }
+      long rank = Math.max(1, (long) Math.ceil(quantile * sampleCount));
+      long seen = 0;
+      for (int i = 0; i < buckets.length; i++) {
+        seen += buckets[i];
+        if (seen >= rank) {
+          return Math.min(highestValue(i), maxNanos);
+        }
+      }
+      return maxNanos;
+    }
+  }
+}
@@ -0,0 +1,34 @@
+package io.github.aaronchenwei.learning.jgrapht.metrics;
+
+import java.util.Map;
+import java.util.ServiceLoader;
+
+/**
+ * Receives the metrics of an {@link InstrumentedGraph} when they are published.
+ *
+ * <p>This is a service provider interface: {@link #load()} returns the first implementation registered in a
+ * {@code META-INF/services/io.github.aaronchenwei.learning.jgrapht.metrics.MetricsSink} file on the class path, so
+ * that a Micrometer or Prometheus bridge can be dropped in without code changes, and falls back to
+ * {@link Slf4jMetricsSink}.
+ */
+@FunctionalInterface
+public interface MetricsSink {
+
+  /**
+   * Publishes the metrics of a graph. The snapshots are cumulative since the graph was wrapped; a sink that wants
+   * rates keeps the previous ones.
+   *
+   * @param graphName the name the graph was instrumented with.
+   * @param metrics a snapshot per operation, in {@link GraphOperation} order.
+   */
+  void publish(String graphName, Map<GraphOperation, LatencyHistogram.Snapshot> metrics);
+
+  /**
+   * Returns the sink registered with the {@link ServiceLoader}, or an {@link Slf4jMetricsSink}.
+   *
+   * @return the sink.
+   */
+  static MetricsSink load() {
+    return ServiceLoader.load(MetricsSink.class).findFirst().orElseGet(Slf4jMetricsSink::new);
+  }
+}
@@ -0,0 +1,92 @@
+package io.github.aaronchenwei.learning.jgrapht.nio;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Parses CSV edge lists: one edge per line, {@code source,target} or {@code source,target,weight}.
+ *
+ * <p>Fields may be quoted with {@code "}, with {@code ""} standing for a quote inside a quoted field; a quoted field
+ * cannot contain a line break. Blank lines are skipped.
+ */
+final class CsvChunkParser extends ImportChunkParser {
+
+  private final byte separator;
+  private final StringBuilder field = new StringBuilder();
+
+  CsvChunkParser(ByteBuffer buffer, long base, char separator) {
+    super(buffer, base);
+    this.separator = (byte) separator;
+  }
+
+  @Override
+  void parse() {
+    while (position < limit) {
+      int lineStart = position;
+      if (atLineEnd()) {
+        skipLine();
+        continue;
+      }
+      String source = field();
+      if (atLineEnd()) {
+        throw malformed(lineStart, "expected a target vertex");
+      }
+      position++;
+      String target = field();
+      double weight = Double.NaN;
+      if (!atLineEnd()) {
+        position++;
+        int weightStart = position;
+        weight = parseWeight(field(), weightStart);
+        if (!atLineEnd()) {
+          throw malformed(position, "too many fields");
+        }
+      }
+      skipLine();
+      edge(source, target, weight);
+    }
+  }
+
+  private boolean atLineEnd() {
+    if (position >= limit) {
+      return true;
+    }
+    byte b = peek();
+    return b == '\n' || (b == '\r' && (position + 1 >= limit || buffer.get(position + 1) == '\n'));
+  }
+
+  /**
+   * Reads one field, leaving the cursor on the separator or line end that follows it.
+   */
+  private String field() {
+    if (position >= limit || peek() != '"') {
+      int start = position;
+      while (position < limit && peek() != separator && !atLineEnd()) {
+        position++;
+      }
+      return string(start, position);
+    }
+    int start = position++;
+    field.setLength(0);
+    while (true) {
+      int from = position;
+      while (position < limit && peek() != '"' && peek() != '\n') {
+        position++;
+      }
+      field.append(string(from, position));
+      if (position >= limit || peek() == '\n') {
+        throw malformed(start, "unterminated quoted field");
+      }
+      position++;
+      if (position < limit && peek() == '"') {
+        field.append('"');
+        position++;
+      } else {
+        break;
+      }
+    }
+    if (position < limit && peek() != separator && !atLineEnd()) {
+      throw malformed(position, "unexpected character after quoted field");
+    }
+    return field.toString();
+  }
+}
@@ -0,0 +1,329 @@
+package io.github.aaronchenwei.learning.jgrapht.nio;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Parses DOT graphs: node statements, edge statements (including chains such as {@code a -> b -> c}) and the graph
+ * header, which tells whether the graph is directed.
+ *
+ * <p>Ids may be plain identifiers, numerals, quoted strings or HTML strings, optionally followed by a port, which is
+ * ignored. The attribute named by the weight attribute becomes the edge weight; all other attributes, as well as
+ * graph, node and edge default statements and {@code id = id} assignments, are skipped. Subgraphs are not supported.
+ *
+ * <p>Chunks are cut at line starts, so a statement, string or comment must not span lines; one that does is
+ * rejected wherever it lies, so that the outcome does not depend on where the chunks are cut.
+ */
+final class DotChunkParser extends ImportChunkParser {
+
+  private static final int EOF = 0;
+  private static final int ID = 1;
+  private static final int EDGE_OP = 2;
+  private static final int PUNCTUATION = 3;
+
+  private final String weightAttribute;
+  private final List<String> chain = new ArrayList<>();
+
+  private int token;
+  private int tokenStart;
+  private String text;
+  private boolean quoted;
+  private byte symbol;
+  private boolean pushedBack;
+  private boolean lineBreak;
+
+  DotChunkParser(ByteBuffer buffer, long base, String weightAttribute) {
+    super(buffer, base);
+    this.weightAttribute = weightAttribute;
+  }
+
+  @Override
+  void parse() {
+    while (next() != EOF) {
+      if (token == PUNCTUATION && (symbol == '{' || symbol == '}' || symbol == ';')) {
+        // they carry no information at this level
+        continue;
+      }
+      if (token != ID && lineBreak) {
+        // the rest of a statement that began on an earlier line, possibly in the previous chunk
+        throw malformed(tokenStart, "a statement must not span lines");
+      }
+      if (token == PUNCTUATION) {
+        throw malformed(tokenStart, symbol == '[' ? "attribute list without a statement"
+          : "unexpected '" + (char) symbol + "'");
+      }
+      if (token == EDGE_OP) {
+        throw malformed(tokenStart, "edge without a source");
+      }
+      if (!quoted && isKeyword("strict")) {
+        continue;
+      }
+      if (!quoted && (isKeyword("graph") || isKeyword("digraph"))) {
+        boolean digraph = isKeyword("digraph");
+        if (nextOnLine() == PUNCTUATION && symbol == '[') {
+          attributes();
+        } else {
+          // the header: an optional graph id, then '{'
+          if (token == ID) {
+            nextOnLine();
+          }
+          if (token != PUNCTUATION || symbol != '{') {
+            throw malformed(tokenStart, "expected '{'");
+          }
+          directed(digraph);
+        }
+        continue;
+      }
+      if (!quoted && (isKeyword("node") || isKeyword("edge"))) {
+        if (nextOnLine() != PUNCTUATION || symbol != '[') {
+          throw malformed(tokenStart, "expected '['");
+        }
+        attributes();
+        continue;
+      }
+      if (!quoted && isKeyword("subgraph")) {
+        throw malformed(tokenStart, "subgraphs are not supported");
+      }
+      statement(text);
+    }
+  }
+
+  private void statement(String first) {
+    skipPort();
+    next();
+    if (token == EDGE_OP || (token == PUNCTUATION && (symbol == '=' || symbol == '['))) {
+      requireSameLine();
+    }
+    if (token == PUNCTUATION && symbol == '=') {
+      if (nextOnLine() != ID) {
+        throw malformed(tokenStart, "expected an id after '='");
+      }
+      return;
+    }
+    if (token != EDGE_OP) {
+      if (token == PUNCTUATION && symbol == '[') {
+        attributes();
+      } else {
+        pushedBack = true;
+      }
+      vertex(first);
+      return;
+    }
+    chain.clear();
+    chain.add(first);
+    while (token == EDGE_OP) {
+      if (nextOnLine() != ID) {
+        throw malformed(tokenStart, "expected an id after an edge operator");
+      }
+      chain.add(text);
+      skipPort();
+      next();
+      if (token == EDGE_OP || (token == PUNCTUATION && symbol == '[')) {
+        requireSameLine();
+      }
+    }
+    double weight = Double.NaN;
+    if (token == PUNCTUATION && symbol == '[') {
+      weight = attributes();
+    } else {
+      pushedBack = true;
+    }
+    for (int i = 1; i < chain.size(); i++) {
+      edge(chain.get(i - 1), chain.get(i), weight);
+    }
+  }
+
+  private void skipPort() {
+    int mark = position;
+    if (next() == PUNCTUATION && symbol == ':') {
+      requireSameLine();
+      nextOnLine();
+      mark = position;
+      if (next() == PUNCTUATION && symbol == ':') {
+        requireSameLine();
+        nextOnLine();
+        return;
+      }
+    }
+    position = mark;
+    pushedBack = false;
+  }
+
+  /**
+   * Reads attribute lists, the cursor being just after the first '['.
+   *
+   * @return the weight attribute, or NaN.
+   */
+  private double attributes() {
+    double weight = Double.NaN;
+    do {
+      while (nextOnLine() != PUNCTUATION || symbol != ']') {
+        if (token == PUNCTUATION && (symbol == ',' || symbol == ';')) {
+          continue;
+        }
+        if (token != ID) {
+          throw malformed(tokenStart, "expected an attribute name");
+        }
+        String key = text;
+        if (nextOnLine() != PUNCTUATION || symbol != '=') {
+          throw malformed(tokenStart, "expected '='");
+        }
+        if (nextOnLine() != ID) {
+          throw malformed(tokenStart, "expected an attribute value");
+        }
+        if (key.equals(weightAttribute)) {
+          weight = parseWeight(text, tokenStart);
+        }
+      }
+      if (next() == PUNCTUATION && symbol == '[') {
+        requireSameLine();
+      }
+    } while (token == PUNCTUATION && symbol == '[');
+    pushedBack = true;
+    return weight;
+  }
+
+  private boolean isKeyword(String keyword) {
+    return text.equalsIgnoreCase(keyword);
+  }
+
+  /**
+   * Reads the next token of a statement, which must be on the line of the previous one.
+   */
+  private int nextOnLine() {
+    next();
+    requireSameLine();
+    return token;
+  }
+
+  private void requireSameLine() {
+    if (lineBreak && token != EOF) {
+      throw malformed(tokenStart, "a statement must not span lines");
+    }
+  }
+
+  /**
+   * Reads the next token.
+   */
+  private int next() {
+    if (pushedBack) {
+      pushedBack = false;
+      return token;
+    }
+    lineBreak = position == 0;
+    skipBlanksAndComments();
+    tokenStart = position;
+    quoted = false;
+    if (position >= limit) {
+      return token = EOF;
+    }
+    byte b = peek();
+    if (b == '-' && position + 1 < limit && (buffer.get(position + 1) == '>' || buffer.get(position + 1) == '-')) {
+      position += 2;
+      return token = EDGE_OP;
+    }
+    if (b == '"') {
+      text = quotedString();
+      quoted = true;
+      return token = ID;
+    }
+    if (b == '<') {
+      text = htmlString();
+      quoted = true;
+      return token = ID;
+    }
+    if (isIdByte(b) || b == '-' || b == '.') {
+      while (position < limit && (isIdByte(peek()) || peek() == '.' || (position == tokenStart && peek() == '-'))) {
+        position++;
+      }
+      text = string(tokenStart, position);
+      return token = ID;
+    }
+    if (b == '{' || b == '}' || b == '[' || b == ']' || b == ';' || b == ',' || b == '=' || b == ':') {
+      symbol = b;
+      position++;
+      return token = PUNCTUATION;
+    }
+    throw malformed(position, "unexpected character '" + (char) b + "'");
+  }
+
+  private void skipBlanksAndComments() {
+    while (position < limit) {
+      byte b = peek();
+      if (isBlank(b)) {
+        lineBreak |= b == '\n';
+        position++;
+      } else if ((b == '#' && (position == 0 || buffer.get(position - 1) == '\n')) || startsWith("//")) {
+        skipLine();
+        lineBreak = true;
+      } else if (startsWith("/*")) {
+        int start = position;
+        position += 2;
+        while (!startsWith("*/")) {
+          if (position >= limit) {
+            throw malformed(start, "unterminated comment");
+          }
+          if (peek() == '\n') {
+            throw malformed(start, "a comment must not span lines");
+          }
+          position++;
+        }
+        position += 2;
+      } else {
+        return;
+      }
+    }
+  }
+
+  private String quotedString() {
+    int start = position++;
+    var value = new StringBuilder();
+    int from = position;
+    while (true) {
+      if (position >= limit) {
+        throw malformed(start, "unterminated string");
+      }
+      byte b = peek();
+      if (b == '"') {
+        value.append(string(from, position));
+        position++;
+        return value.toString();
+      }
+      if (b == '\n') {
+        throw malformed(start, "a string must not span lines");
+      }
+      if (b == '\\' && position + 1 < limit && buffer.get(position + 1) == '"') {
+        value.append(string(from, position)).append('"');
+        position += 2;
+        from = position;
+        continue;
+      }
+      position++;
+    }
+  }
+
+  private String htmlString() {
+    int start = position;
+    int depth = 0;
+    do {
+      if (position >= limit) {
+        throw malformed(start, "unterminated HTML string");
+      }
+      byte b = buffer.get(position++);
+      if (b == '\n') {
+        throw malformed(start, "a string must not span lines");
+      }
+      if (b == '<') {
+        depth++;
+      } else if (b == '>') {
+        depth--;
+      }
+    } while (depth > 0);
+    return string(start + 1, position - 1);
+  }
+
+  private static boolean isIdByte(byte b) {
+    return (b >= 'a' && b <= 'z') || (b >= 'A' && b <= 'Z') || (b >= '0' && b <= '9') || b == '_' || b < 0;
+  }
+}
@@ -0,0 +1,480 @@
+package io.github.aaronchenwei.learning.jgrapht.nio;
+
+import io.github.aaronchenwei.learning.jgrapht.graph.IntCsrGraph;
+import io.github.aaronchenwei.learning.jgrapht.util.ParallelRange;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Loads an edge list file straight into the primitive columns of an {@link IntCsrGraph}.
+ *
+ * <p>Two formats are supported:
+ * <ul>
+ *   <li>{@link Format#TEXT}: one edge per line, {@code source target} or {@code source target weight}, separated by
+ *   spaces, tabs or commas. Blank lines and lines starting with {@code #} or {@code %} are skipped.</li>
+ *   <li>{@link Format#BINARY}: fixed-size little-endian records, {@code int32 source, int32 target} followed by a
+ *   {@code float64 weight} when weighted. {@link #writeBinary} produces this format.</li>
+ * </ul>
+ *
+ * <p>The file is memory-mapped in chunks and every stage runs on a fork-join pool: the chunks are parsed in parallel
+ * directly into {@code int[]}/{@code double[]} edge columns (text files are parsed twice, once to count the edges of
+ * each chunk and once to fill the columns at the chunk's offset), and the adjacency is then built with
+ * {@link io.github.aaronchenwei.learning.jgrapht.graph.IntCsr#of(ForkJoinPool, int, int[], int[], int, boolean)
+ * parallel degree counting and scattering}. No per-edge object is ever allocated.
+ *
+ * <p>Edges and slots are addressed by {@code int}, so an undirected graph holds at most about 10^9 edges and a
+ * directed graph about 2 * 10^9.
+ */
+public final class EdgeListLoader {
+
+  /**
+   * The edge list file formats.
+   */
+  public enum Format {
+    TEXT,
+    BINARY
+  }
+
+  private static final int MAX_UNDIRECTED_EDGES = (Integer.MAX_VALUE - 8) / 2;
+  private static final int MAX_DIRECTED_EDGES = Integer.MAX_VALUE - 8;
+  private static final long MAX_MAPPING = 1L << 30;
+  private static final int RECORD_GRAIN = 1 << 16;
+  private static final int TEXT_CHUNK = 1 << 20;
+
+  private final Format format;
+  private boolean weighted;
+  private int vertexCount = -1;
+  private ForkJoinPool pool = ForkJoinPool.commonPool();
+
+  /**
+   * Creates a loader.
+   *
+   * @param format the file format.
+   */
+  public EdgeListLoader(Format format) {
+    this.format = Objects.requireNonNull(format, "format");
+  }
+
+  /**
+   * Sets whether the edges carry a weight. Defaults to false.
+   *
+   * @param weighted whether the edges carry a weight.
+   * @return this loader.
+   */
+  public EdgeListLoader weighted(boolean weighted) {
+    this.weighted = weighted;
+    return this;
+  }
+
+  /**
+   * Sets the number of vertices. By default it is one more than the largest vertex in the file.
+   *
+   * @param vertexCount the number of vertices, or -1 for the default.
+   * @return this loader.
+   * @throws IllegalArgumentException if the count is negative and not -1.
+   */
+  public EdgeListLoader vertexCount(int vertexCount) {
+    if (vertexCount < -1) {
+      throw new IllegalArgumentException("negative vertex count: " + vertexCount);
+    }
+    this.vertexCount = vertexCount;
+    return this;
+  }
+
+  /**
+   * Sets the pool to run in. Defaults to the common pool.
+   *
+   * @param pool the pool.
+   * @return this loader.
+   */
+  public EdgeListLoader pool(ForkJoinPool pool) {
+    this.pool = Objects.requireNonNull(pool, "pool");
+    return this;
+  }
+
+  /**
+   * Loads an undirected graph.
+   *
+   * @param path the edge list file.
+   * @return the graph.
+   * @throws IOException if the file cannot be read or is malformed.
+   */
+  public IntCsrGraph loadUndirected(Path path) throws IOException {
+    var columns = read(path, MAX_UNDIRECTED_EDGES);
+    int n = vertexCount(columns);
+    return IntCsrGraph.undirected(pool, n, columns.sources, columns.targets, columns.weights);
+  }
+
+  /**
+   * Loads a directed graph, with outgoing and incoming adjacencies.
+   *
+   * @param path the edge list file.
+   * @return the graph.
+   * @throws IOException if the file cannot be read or is malformed.
+   */
+  public IntCsrGraph loadDirected(Path path) throws IOException {
+    var columns = read(path, MAX_DIRECTED_EDGES);
+    int n = vertexCount(columns);
+    return IntCsrGraph.directed(pool, n, columns.sources, columns.targets, columns.weights);
+  }
+
+  /**
+   * Writes edge columns in the {@link Format#BINARY binary} format.
+   *
+   * @param path the file to create or overwrite.
+   * @param sources the source of each edge.
+   * @param targets the target of each edge.
+   * @param weights the weight of each edge, or null to write unweighted records.
+   * @throws IOException if the file cannot be written.
+   */
+  public static void writeBinary(Path path, int[] sources, int[] targets, double[] weights) throws IOException {
+    var buffer = ByteBuffer.allocateDirect(1 << 20).order(ByteOrder.LITTLE_ENDIAN);
+    try (var channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+      StandardOpenOption.TRUNCATE_EXISTING)) {
+      for (int e = 0; e < sources.length; e++) {
+        if (buffer.remaining() < 16) {
+          drain(channel, buffer);
+        }
+        buffer.putInt(sources[e]).putInt(targets[e]);
+        if (weights != null) {
+          buffer.putDouble(weights[e]);
+        }
+      }
+      drain(channel, buffer);
+    }
+  }
+
+  private static void drain(FileChannel channel, ByteBuffer buffer) throws IOException {
+    buffer.flip();
+    while (buffer.hasRemaining()) {
+      channel.write(buffer);
+    }
+    buffer.clear();
+  }
+
+  private Columns read(Path path, int maxEdges) throws IOException {
+    try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      return format == Format.BINARY ? readBinary(channel, maxEdges) : readText(channel, maxEdges);
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    }
+  }
+
+  /**
+   * Returns the vertex count of the graph, checking that it covers every vertex of the file.
+   */
+  private int vertexCount(Columns columns) throws IOException {
+    if (vertexCount < 0) {
+      if (columns.maxVertex == Integer.MAX_VALUE) {
+        throw new IOException("vertex " + columns.maxVertex + " is out of range");
+      }
+      return columns.maxVertex + 1;
+    }
+    if (columns.maxVertex >= vertexCount) {
+      throw new IOException("vertex " + columns.maxVertex + " is out of range for " + vertexCount + " vertices");
+    }
+    return vertexCount;
+  }
+
+  private Columns readBinary(FileChannel channel, int maxEdges) throws IOException {
+    int record = weighted ? 16 : 8;
+    long size = channel.size();
+    if (size % record != 0) {
+      throw new IOException("file size " + size + " is not a multiple of the record size " + record);
+    }
+    if (size / record > maxEdges) {
+      throw new IOException("too many edges: " + size / record);
+    }
+    int m = (int) (size / record);
+    var columns = new Columns(m, weighted);
+    var maxVertex = new AtomicInteger(-1);
+    int grain = (int) Math.min(MAX_MAPPING / record, ParallelRange.grain(pool, m, RECORD_GRAIN));
+
+    ParallelRange.forEach(pool, 0, m, grain, (from, to) -> {
+      MappedByteBuffer buffer = map(channel, (long) from * record, (long) (to - from) * record);
+      buffer.order(ByteOrder.LITTLE_ENDIAN);
+      int max = -1;
+      for (int e = from, p = 0; e < to; e++, p += record) {
+        int u = buffer.getInt(p);
+        int v = buffer.getInt(p + 4);
+        if (u < 0 || v < 0) {
+          throw new UncheckedIOException(new IOException("negative vertex in record " + e));
+        }
+        columns.sources[e] = u;
+        columns.targets[e] = v;
+        if (columns.weights != null) {
+          columns.weights[e] = buffer.getDouble(p + 8);
+        }
+        max = Math.max(max, Math.max(u, v));
+      }
+      maxVertex.accumulateAndGet(max, Math::max);
+    });
+    columns.maxVertex = maxVertex.get();
+    return columns;
+  }
+
+  private Columns readText(FileChannel channel, int maxEdges) throws IOException {
+    long size = channel.size();
+    int chunks = (int) Math.max(1, Math.min(pool.getParallelism() * 4L, size / TEXT_CHUNK));
+    chunks = (int) Math.max(chunks, (size + MAX_MAPPING - 1) / MAX_MAPPING);
+    var bounds = new long[chunks + 1];
+    bounds[chunks] = size;
+    for (int i = 1; i < chunks; i++) {
+      bounds[i] = Math.max(bounds[i - 1], lineStart(channel, size * i / chunks));
+    }
+
+    // pass 1: count the edges of each chunk so that every chunk knows where its edges go
+    var counts = new long[chunks + 1];
+    ParallelRange.forEach(pool, 0, chunks, 1, (from, to) -> {
+      for (int i = from; i < to; i++) {
+        var parser = new TextParser(map(channel, bounds[i], bounds[i + 1] - bounds[i]), bounds[i]);
+        long count = 0;
+        while (parser.nextDataLine()) {
+          parser.skipLine();
+          count++;
+        }
+        counts[i + 1] = count;
+      }
+    });
+    for (int i = 0; i < chunks; i++) {
+      counts[i + 1] += counts[i];
+    }
+    if (counts[chunks] > maxEdges) {
+      throw new IOException("too many edges: " + counts[chunks]);
+    }
+
+    // pass 2: parse every chunk into its slice of the columns
+    var columns = new Columns((int) counts[chunks], weighted);
+    var maxVertex = new AtomicInteger(-1);
+    ParallelRange.forEach(pool, 0, chunks, 1, (from, to) -> {
+      for (int i = from; i < to; i++) {
+        var parser = new TextParser(map(channel, bounds[i], bounds[i + 1] - bounds[i]), bounds[i]);
+        int e = (int) counts[i];
+        int max = -1;
+        while (parser.nextDataLine()) {
+          int u = parser.parseInt();
+          int v = parser.parseInt();
+          columns.sources[e] = u;
+          columns.targets[e] = v;
+          if (columns.weights != null) {
+            columns.weights[e] = parser.parseDouble();
+          }
+          parser.skipLine();
+          max = Math.max(max, Math.max(u, v));
+          e++;
+        }
+        maxVertex.accumulateAndGet(max, Math::max);
+      }
+    });
+    columns.maxVertex = maxVertex.get();
+    return columns;
+  }
+
+  /**
+   * Returns the offset of the first line that starts at or after {@code position}.
+   */
+  private static long lineStart(FileChannel channel, long position) throws IOException {
+    if (position == 0) {
+      return 0;
+    }
+    var buffer = ByteBuffer.allocate(4096);
+    long offset = position - 1;
+    while (true) {
+      buffer.clear();
+      int read = channel.read(buffer, offset);
+      if (read <= 0) {
+        return channel.size();
+      }
+      for (int i = 0; i < read; i++) {
+        if (buffer.get(i) == '\n') {
+          return offset + i + 1;
+        }
+      }
+      offset += read;
+    }
+  }
+
+  private static MappedByteBuffer map(FileChannel channel, long position, long size) {
+    try {
+      return channel.map(FileChannel.MapMode.READ_ONLY, position, size);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private static final class Columns {
+    final int[] sources;
+    final int[] targets;
+    final double[] weights;
+    int maxVertex;
+
+    Columns(int edgeCount, boolean weighted) {
+      this.sources = new int[edgeCount];
+      this.targets = new int[edgeCount];
+      this.weights = weighted ? new double[edgeCount] : null;
+    }
+  }
+
+  /**
+   * A cursor over the whole lines of one mapped chunk.
+   */
+  private static final class TextParser {
+    private static final double[] POWERS_OF_TEN = {
+      1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+      1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private final ByteBuffer buffer;
+    private final long base;
+    private final int limit;
+    private int position;
+
+    TextParser(ByteBuffer buffer, long base) {
+      this.buffer = buffer;
+      this.base = base;
+      this.limit = buffer.limit();
+    }
+
+    /**
+     * Moves to the first field of the next line that holds an edge.
+     *
+     * @return false at the end of the chunk.
+     */
+    boolean nextDataLine() {
+      while (position < limit) {
+        skipBlanks();
+        if (position >= limit) {
+          return false;
+        }
+        byte b = buffer.get(position);
+        if (b == '\n' || b == '\r') {
+          position++;
+        } else if (b == '#' || b == '%') {
+          skipLine();
+        } else {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    void skipLine() {
+      while (position < limit && buffer.get(position++) != '\n') {
+        // consume the rest of the line
+      }
+    }
+
+    int parseInt() {
+      skipBlanks();
+      int start = position;
+      long value = 0;
+      while (position < limit && isDigit(buffer.get(position))) {
+        value = value * 10 + (buffer.get(position++) - '0');
+        if (value > Integer.MAX_VALUE) {
+          throw malformed(start, "vertex out of range");
+        }
+      }
+      if (position == start) {
+        throw malformed(start, "expected a vertex");
+      }
+      return (int) value;
+    }
+
+    /**
+     * Parses a decimal number. Numbers with at most 15 significant digits and a decimal exponent within 22 of
+     * zero are converted exactly; anything else falls back to {@link Double#parseDouble}.
+     */
+    double parseDouble() {
+      skipBlanks();
+      int start = position;
+      boolean negative = false;
+      if (position < limit && (buffer.get(position) == '-' || buffer.get(position) == '+')) {
+        negative = buffer.get(position++) == '-';
+      }
+      long mantissa = 0;
+      int digits = 0;
+      int exponent = 0;
+      boolean fraction = false;
+      boolean any = false;
+      while (position < limit) {
+        byte b = buffer.get(position);
+        if (isDigit(b)) {
+          any = true;
+          if (mantissa != 0 || b != '0') {
+            digits++;
+          }
+          if (digits <= 18) {
+            mantissa = mantissa * 10 + (b - '0');
+            if (fraction) {
+              exponent--;
+            }
+          } else if (!fraction) {
+            exponent++;
+          }
+        } else if (b == '.' && !fraction) {
+          fraction = true;
+        } else {
+          break;
+        }
+        position++;
+      }
+      if (!any) {
+        throw malformed(start, "expected a weight");
+      }
+      if (position < limit && (buffer.get(position) == 'e' || buffer.get(position) == 'E')) {
+        position++;
+        boolean negativeExponent = false;
+        if (position < limit && (buffer.get(position) == '-' || buffer.get(position) == '+')) {
+          negativeExponent = buffer.get(position++) == '-';
+        }
+        int e = 0;
+        int exponentStart = position;
+        while (position < limit && isDigit(buffer.get(position))) {
+          e = Math.min(e * 10 + (buffer.get(position++) - '0'), 100_000);
+        }
+        if (position == exponentStart) {
+          throw malformed(start, "malformed exponent");
+        }
+        exponent += negativeExponent ? -e : e;
+      }
+
+      double value;
+      if (digits <= 15 && exponent >= -22 && exponent <= 22) {
+        // both the mantissa and the power of ten are exact doubles, so one operation rounds correctly
+        value = exponent >= 0 ? mantissa * POWERS_OF_TEN[exponent] : mantissa / POWERS_OF_TEN[-exponent];
+        return negative ? -value : value;
+      }
+      var bytes = new byte[position - start];
+      buffer.get(start, bytes);
+      return Double.parseDouble(new String(bytes, StandardCharsets.US_ASCII));
+    }
+
+    private void skipBlanks() {
+      while (position < limit) {
+        byte b = buffer.get(position);
+        if (b != ' ' && b != '\t' && b != ',') {
+          return;
+        }
+        position++;
+      }
+    }
+
+    private static boolean isDigit(byte b) {
+      return b >= '0' && b <= '9';
+    }
+
+    private UncheckedIOException malformed(int at, String message) {
+      return new UncheckedIOException(new IOException(message + " at byte " + (base + at)));
+    }
+  }
+}
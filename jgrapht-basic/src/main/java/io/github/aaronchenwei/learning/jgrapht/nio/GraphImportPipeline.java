@@ -0,0 +1,367 @@
+package io.github.aaronchenwei.learning.jgrapht.nio;
+
+import io.github.aaronchenwei.learning.jgrapht.util.ParallelRange;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Imports CSV, DOT and GraphML files on all cores of a fork-join pool.
+ *
+ * <p>The file is memory-mapped and cut into chunks at record boundaries (line starts for CSV and DOT, {@code <node}
+ * and {@code <edge} tags for GraphML), and then goes through these stages:
+ * <ol>
+ *   <li>{@code parse}: every chunk is parsed in parallel into edge columns over chunk-local vertex ids, so that each
+ *   chunk keeps each distinct label only once.</li>
+ *   <li>{@code intern}: the chunks intern their labels concurrently into one {@link ConcurrentHashMap}, which gives
+ *   every vertex a provisional id.</li>
+ *   <li>{@code number}: vertices are renumbered by first occurrence in the file, which makes the result independent
+ *   of thread scheduling.</li>
+ *   <li>{@code columns}: the chunks write their edges, translated to the final ids, into the global columns.</li>
+ * </ol>
+ * The result is an {@link ImportedGraph}, which builds an {@code IntCsrGraph} or inserts into any graph. Each stage
+ * is timed in the {@link ImportStatistics} of the result.
+ *
+ * <p>The formats are the ones written by jgrapht-io, with these restrictions:
+ * <ul>
+ *   <li>{@link Format#CSV}: an edge list, {@code source,target} or {@code source,target,weight} per line.</li>
+ *   <li>{@link Format#DOT}: a statement, including its attribute list, must not span lines, and neither may a
+ *   string or a comment; DOTExporter and {@link StreamingDotExporter} write one statement per line unless an id or
+ *   value contains a line break. Subgraphs are not supported.</li>
+ *   <li>{@link Format#GRAPHML}: the weight is the edge {@code <data>} whose {@code <key>} has the
+ *   {@link #weightAttribute(String) weight attribute} as {@code attr.name}. Nested graphs and hyperedges are not
+ *   supported, and comments, CDATA sections and processing instructions must not contain {@code <node} or
+ *   {@code <edge}.</li>
+ * </ul>
+ * These restrictions are what make the cuts safe. The chunk parsers reject input that breaks them wherever it lies,
+ * so a file either imports the same way at every {@link #chunkSize(int) chunk size} or fails with the offset of the
+ * offending statement.
+ */
+public final class GraphImportPipeline {
+
+  /**
+   * The supported file formats.
+   */
+  public enum Format {
+    CSV,
+    DOT,
+    GRAPHML
+  }
+
+  private static final VarHandle LONGS = MethodHandles.arrayElementVarHandle(long[].class);
+  private static final int MAX_EDGES = Integer.MAX_VALUE - 8;
+  private static final long MAX_MAPPING = 1L << 30;
+  private static final int CHUNK = 1 << 20;
+  private static final int GRAIN = 1 << 14;
+
+  private final Format format;
+  private ForkJoinPool pool = ForkJoinPool.commonPool();
+  private String weightAttribute = "weight";
+  private char separator = ',';
+  private int chunkSize = CHUNK;
+
+  /**
+   * Creates a pipeline.
+   *
+   * @param format the file format.
+   */
+  public GraphImportPipeline(Format format) {
+    this.format = Objects.requireNonNull(format, "format");
+  }
+
+  /**
+   * Sets the pool to run in. Defaults to the common pool.
+   *
+   * @param pool the pool.
+   * @return this pipeline.
+   */
+  public GraphImportPipeline pool(ForkJoinPool pool) {
+    this.pool = Objects.requireNonNull(pool, "pool");
+    return this;
+  }
+
+  /**
+   * Sets the DOT attribute or GraphML key name that holds the edge weight. Defaults to {@code weight}.
+   *
+   * @param weightAttribute the attribute name.
+   * @return this pipeline.
+   */
+  public GraphImportPipeline weightAttribute(String weightAttribute) {
+    this.weightAttribute = Objects.requireNonNull(weightAttribute, "weightAttribute");
+    return this;
+  }
+
+  /**
+   * Sets the CSV field separator. Defaults to a comma.
+   *
+   * @param separator the separator.
+   * @return this pipeline.
+   */
+  public GraphImportPipeline separator(char separator) {
+    if (separator == '"' || separator == '\n' || separator == '\r' || separator > 0x7f) {
+      throw new IllegalArgumentException("invalid separator '" + separator + "'");
+    }
+    this.separator = separator;
+    return this;
+  }
+
+  /**
+   * Sets the smallest chunk handed to one task. Defaults to 1 MiB; files are cut into a few chunks per worker.
+   *
+   * @param chunkSize the chunk size in bytes.
+   * @return this pipeline.
+   */
+  public GraphImportPipeline chunkSize(int chunkSize) {
+    if (chunkSize <= 0) {
+      throw new IllegalArgumentException("chunkSize must be positive");
+    }
+    this.chunkSize = chunkSize;
+    return this;
+  }
+
+  /**
+   * Imports a file.
+   *
+   * @param path the file.
+   * @return the imported graph.
+   * @throws IOException if the file cannot be read or is malformed.
+   */
+  public ImportedGraph read(Path path) throws IOException {
+    try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      return read(channel);
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    }
+  }
+
+  private ImportedGraph read(FileChannel channel) throws IOException {
+    var statistics = new ImportStatistics();
+
+    // parse
+    long start = System.nanoTime();
+    long size = channel.size();
+    long headerEnd = 0;
+    GraphMlChunkParser header = null;
+    if (format == Format.GRAPHML) {
+      headerEnd = boundary(channel, 0);
+      header = new GraphMlChunkParser(map(channel, 0, headerEnd), 0, weightAttribute);
+      header.parseHeader();
+    }
+    var bounds = chunkBounds(channel, headerEnd, size);
+    int chunkCount = bounds.length - 1;
+    var chunks = new ImportChunkParser[chunkCount];
+    var graphMlHeader = header;
+    ParallelRange.forEach(pool, 0, chunkCount, 1, (from, to) -> {
+      for (int i = from; i < to; i++) {
+        var buffer = map(channel, bounds[i], bounds[i + 1] - bounds[i]);
+        var chunk = switch (format) {
+          case CSV -> new CsvChunkParser(buffer, bounds[i], separator);
+          case DOT -> new DotChunkParser(buffer, bounds[i], weightAttribute);
+          case GRAPHML -> new GraphMlChunkParser(buffer, bounds[i], graphMlHeader);
+        };
+        chunk.parse();
+        chunks[i] = chunk;
+      }
+    });
+    long[] occurrenceBase = new long[chunkCount + 1];
+    long edges = 0;
+    boolean directed = header != null && header.isDirected();
+    boolean weighted = false;
+    for (int i = 0; i < chunkCount; i++) {
+      occurrenceBase[i + 1] = occurrenceBase[i] + chunks[i].occurrenceCount();
+      edges += chunks[i].edgeCount();
+      directed |= chunks[i].isDirected();
+      weighted |= chunks[i].isWeighted();
+    }
+    if (edges > MAX_EDGES) {
+      throw new IOException("too many edges: " + edges);
+    }
+    if (occurrenceBase[chunkCount] >= 1L << 32) {
+      throw new IOException("too many vertex occurrences: " + occurrenceBase[chunkCount]);
+    }
+    statistics.record("parse", start, edges);
+
+    // intern
+    start = System.nanoTime();
+    var ids = new ConcurrentHashMap<String, Integer>();
+    var nextId = new AtomicInteger();
+    ParallelRange.forEach(pool, 0, chunkCount, 1, (from, to) -> {
+      for (int i = from; i < to; i++) {
+        var chunk = chunks[i];
+        chunk.globalIds = new int[chunk.labelCount()];
+        for (int local = 0; local < chunk.labelCount(); local++) {
+          chunk.globalIds[local] = ids.computeIfAbsent(chunk.label(local), label -> nextId.getAndIncrement());
+        }
+      }
+    });
+    int vertexCount = nextId.get();
+    statistics.record("intern", start, edges);
+
+    // number: find the first occurrence of every vertex, then sort the vertices by it
+    start = System.nanoTime();
+    var firstOccurrences = new long[vertexCount];
+    Arrays.fill(firstOccurrences, Long.MAX_VALUE);
+    ParallelRange.forEach(pool, 0, chunkCount, 1, (from, to) -> {
+      for (int i = from; i < to; i++) {
+        var chunk = chunks[i];
+        for (int local = 0; local < chunk.labelCount(); local++) {
+          long occurrence = occurrenceBase[i] + chunk.firstOccurrence(local);
+          int id = chunk.globalIds[local];
+          long current = (long) LONGS.getVolatile(firstOccurrences, id);
+          while (occurrence < current && !LONGS.compareAndSet(firstOccurrences, id, current, occurrence)) {
+            current = (long) LONGS.getVolatile(firstOccurrences, id);
+          }
+        }
+      }
+    });
+    var order = new long[vertexCount];
+    ParallelRange.forEach(pool, 0, vertexCount, GRAIN, (from, to) -> {
+      for (int id = from; id < to; id++) {
+        order[id] = firstOccurrences[id] << 31 | id;
+      }
+    });
+    Arrays.parallelSort(order);
+    var finalIds = new int[vertexCount];
+    var labels = new String[vertexCount];
+    ParallelRange.forEach(pool, 0, vertexCount, GRAIN, (from, to) -> {
+      for (int v = from; v < to; v++) {
+        finalIds[(int) (order[v] & Integer.MAX_VALUE)] = v;
+      }
+    });
+    ParallelRange.forEach(pool, 0, chunkCount, 1, (from, to) -> {
+      for (int i = from; i < to; i++) {
+        var chunk = chunks[i];
+        for (int local = 0; local < chunk.labelCount(); local++) {
+          int id = chunk.globalIds[local];
+          if (firstOccurrences[id] == occurrenceBase[i] + chunk.firstOccurrence(local)) {
+            labels[finalIds[id]] = chunk.label(local);
+          }
+          chunk.globalIds[local] = finalIds[id];
+        }
+        chunk.releaseLabels();
+      }
+    });
+    statistics.record("number", start, edges);
+
+    // columns
+    start = System.nanoTime();
+    int m = (int) edges;
+    var sources = new int[m];
+    var targets = new int[m];
+    var weights = weighted ? new double[m] : null;
+    var edgeBase = new int[chunkCount + 1];
+    for (int i = 0; i < chunkCount; i++) {
+      edgeBase[i + 1] = edgeBase[i] + chunks[i].edgeCount();
+    }
+    ParallelRange.forEach(pool, 0, chunkCount, 1, (from, to) -> {
+      for (int i = from; i < to; i++) {
+        var chunk = chunks[i];
+        for (int e = 0, g = edgeBase[i]; e < chunk.edgeCount(); e++, g++) {
+          sources[g] = chunk.globalIds[chunk.endpoint(2 * e)];
+          targets[g] = chunk.globalIds[chunk.endpoint(2 * e + 1)];
+          if (weights != null) {
+            weights[g] = chunk.weight(e);
+          }
+        }
+        chunks[i] = null;
+      }
+    });
+    statistics.record("columns", start, edges);
+
+    return new ImportedGraph(labels, sources, targets, weights, directed, pool, statistics);
+  }
+
+  /**
+   * Cuts {@code [from, size)} into a few chunks per worker, each starting at a record boundary.
+   */
+  private long[] chunkBounds(FileChannel channel, long from, long size) throws IOException {
+    long length = size - from;
+    int chunks = (int) Math.max(1, Math.min(pool.getParallelism() * 4L, length / chunkSize));
+    chunks = (int) Math.max(chunks, (length + MAX_MAPPING - 1) / MAX_MAPPING);
+    var bounds = new long[chunks + 1];
+    bounds[0] = from;
+    bounds[chunks] = size;
+    for (int i = 1; i < chunks; i++) {
+      bounds[i] = Math.max(bounds[i - 1], boundary(channel, from + length * i / chunks));
+    }
+    return bounds;
+  }
+
+  /**
+   * Returns the offset of the first record that starts at or after {@code position}: a line start for CSV and
+   * DOT, a {@code <node} or {@code <edge} tag for GraphML.
+   */
+  private long boundary(FileChannel channel, long position) throws IOException {
+    if (format != Format.GRAPHML) {
+      return lineStart(channel, position);
+    }
+    var buffer = ByteBuffer.allocate(1 << 16);
+    long size = channel.size();
+    long offset = position;
+    while (true) {
+      buffer.clear();
+      int read = channel.read(buffer, offset);
+      if (read <= 0) {
+        return size;
+      }
+      long next = offset + read;
+      for (int i = 0; i < read; i++) {
+        if (buffer.get(i) != '<') {
+          continue;
+        }
+        if (i + 6 > read && offset + read < size) {
+          // the tag is cut off by the end of the window; read it again at the start of the next one
+          next = offset + i;
+          break;
+        }
+        if (GraphMlChunkParser.isElementStart(buffer, i, read)) {
+          return offset + i;
+        }
+      }
+      offset = next;
+    }
+  }
+
+  /**
+   * Returns the offset of the first line that starts at or after {@code position}.
+   */
+  private static long lineStart(FileChannel channel, long position) throws IOException {
+    if (position == 0) {
+      return 0;
+    }
+    var buffer = ByteBuffer.allocate(4096);
+    long offset = position - 1;
+    while (true) {
+      buffer.clear();
+      int read = channel.read(buffer, offset);
+      if (read <= 0) {
+        return channel.size();
+      }
+      for (int i = 0; i < read; i++) {
+        if (buffer.get(i) == '\n') {
+          return offset + i + 1;
+        }
+      }
+      offset += read;
+    }
+  }
+
+  private static MappedByteBuffer map(FileChannel channel, long position, long size) {
+    try {
+      return channel.map(FileChannel.MapMode.READ_ONLY, position, size);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+}
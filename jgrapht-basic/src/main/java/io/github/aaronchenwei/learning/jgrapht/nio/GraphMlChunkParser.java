@@ -0,0 +1,291 @@
+package io.github.aaronchenwei.learning.jgrapht.nio;
+
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Parses GraphML {@code <node>} and {@code <edge>} elements.
+ *
+ * <p>A chunk other than the header starts at a {@code <node} or {@code <edge} tag, so no element crosses a chunk
+ * boundary. The search for that tag does not parse the file, so a comment, CDATA section or processing instruction
+ * that contains one is rejected wherever it lies, rather than only where a chunk happens to be cut. The header,
+ * everything before the first node or edge, is parsed on its own first with {@link #parseHeader()}: it declares the
+ * {@code <key>} that holds edge weights and the default edge direction. The {@code <data>} of that key inside an
+ * edge becomes the edge weight; all other data is skipped, and so are comments, processing instructions and nested
+ * graphs.
+ */
+final class GraphMlChunkParser extends ImportChunkParser {
+
+  private final String weightKey;
+  private final Map<String, String> attributes = new HashMap<>();
+
+  private String weightKeyId;
+  private boolean directedByDefault;
+
+  /**
+   * Creates a parser for the header.
+   */
+  GraphMlChunkParser(ByteBuffer buffer, long base, String weightKey) {
+    super(buffer, base);
+    this.weightKey = weightKey;
+  }
+
+  /**
+   * Creates a parser for a chunk after the header.
+   */
+  GraphMlChunkParser(ByteBuffer buffer, long base, GraphMlChunkParser header) {
+    super(buffer, base);
+    this.weightKey = header.weightKey;
+    this.weightKeyId = header.weightKeyId;
+    this.directedByDefault = header.directedByDefault;
+  }
+
+  /**
+   * Reads the {@code <key>} declarations and the {@code <graph>} tag of the header.
+   */
+  void parseHeader() {
+    while (nextTag()) {
+      String name = tagName();
+      boolean empty = readAttributes();
+      if (name.equals("key") && weightKey.equals(attributes.get("attr.name"))
+        && !"node".equals(attributes.get("for")) && !"graph".equals(attributes.get("for"))) {
+        weightKeyId = attributes.get("id");
+      } else if (name.equals("graph")) {
+        directedByDefault = "directed".equals(attributes.get("edgedefault"));
+      }
+      if (empty || !name.equals("key")) {
+        continue;
+      }
+      skipTo("</key");
+    }
+    directed(directedByDefault);
+  }
+
+  @Override
+  void parse() {
+    directed(directedByDefault);
+    while (nextTag()) {
+      int start = position;
+      String name = tagName();
+      boolean empty = readAttributes();
+      if (name.equals("node")) {
+        vertex(required("id", start));
+      } else if (name.equals("edge")) {
+        String source = required("source", start);
+        String target = required("target", start);
+        edge(source, target, empty ? Double.NaN : edgeData());
+      }
+    }
+  }
+
+  /**
+   * Reads the children of an edge up to {@code </edge>}.
+   *
+   * @return the weight, or NaN.
+   */
+  private double edgeData() {
+    double weight = Double.NaN;
+    while (nextTag()) {
+      if (startsWith("</edge")) {
+        skipTo(">");
+        return weight;
+      }
+      String name = tagName();
+      boolean empty = readAttributes();
+      if (name.equals("data") && !empty && weightKeyId != null && weightKeyId.equals(attributes.get("key"))) {
+        int from = position;
+        skipTo("</data");
+        weight = parseWeight(unescape(string(from, position - "</data".length())), from);
+      }
+    }
+    throw malformed(position, "unterminated edge");
+  }
+
+  /**
+   * Moves to the start of the next element tag ({@code <name} or {@code </name}), skipping comments, processing
+   * instructions, declarations and text.
+   *
+   * @return false at the end of the chunk.
+   */
+  private boolean nextTag() {
+    while (position < limit) {
+      if (peek() != '<') {
+        position++;
+      } else if (startsWith("<!--")) {
+        skipSection("<!--", "-->", "comment");
+      } else if (startsWith("<![CDATA[")) {
+        skipSection("<![CDATA[", "]]>", "CDATA section");
+      } else if (startsWith("<?")) {
+        skipSection("<?", "?>", "processing instruction");
+      } else if (startsWith("<!")) {
+        skipTo(">");
+      } else if (startsWith("</")) {
+        if (startsWith("</edge")) {
+          return true;
+        }
+        skipTo(">");
+      } else {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private String tagName() {
+    int from = ++position;
+    while (position < limit && !isBlank(peek()) && peek() != '>' && peek() != '/') {
+      position++;
+    }
+    String name = string(from, position);
+    int colon = name.indexOf(':');
+    return colon < 0 ? name : name.substring(colon + 1);
+  }
+
+  /**
+   * Reads the attributes of the current tag up to its closing {@code >}.
+   *
+   * @return whether the tag is empty ({@code />}).
+   */
+  private boolean readAttributes() {
+    attributes.clear();
+    while (true) {
+      while (position < limit && isBlank(peek())) {
+        position++;
+      }
+      if (position >= limit) {
+        throw malformed(position, "unterminated tag");
+      }
+      byte b = peek();
+      if (b == '>') {
+        position++;
+        return false;
+      }
+      if (b == '/' && position + 1 < limit && buffer.get(position + 1) == '>') {
+        position += 2;
+        return true;
+      }
+      int nameStart = position;
+      while (position < limit && peek() != '=' && !isBlank(peek()) && peek() != '>') {
+        position++;
+      }
+      String name = string(nameStart, position);
+      while (position < limit && isBlank(peek())) {
+        position++;
+      }
+      if (position >= limit || peek() != '=') {
+        throw malformed(nameStart, "expected '=' after attribute " + name);
+      }
+      position++;
+      while (position < limit && isBlank(peek())) {
+        position++;
+      }
+      if (position >= limit || (peek() != '"' && peek() != '\'')) {
+        throw malformed(position, "expected a quoted attribute value");
+      }
+      byte quote = buffer.get(position++);
+      int valueStart = position;
+      while (position < limit && peek() != quote) {
+        position++;
+      }
+      if (position >= limit) {
+        throw malformed(valueStart, "unterminated attribute value");
+      }
+      attributes.put(name, unescape(string(valueStart, position++)));
+    }
+  }
+
+  private String required(String attribute, int at) {
+    String value = attributes.get(attribute);
+    if (value == null) {
+      throw malformed(at, "missing attribute " + attribute);
+    }
+    return value;
+  }
+
+  /**
+   * Moves past a comment, CDATA section or processing instruction, which must not contain an element start that
+   * the chunk boundary search would take for a record.
+   */
+  private void skipSection(String open, String close, String what) {
+    int start = position;
+    position += open.length();
+    while (!startsWith(close)) {
+      if (position >= limit) {
+        throw malformed(start, "unterminated " + what + ", or one that contains a <node or <edge tag");
+      }
+      if (isElementStart(buffer, position, limit)) {
+        throw malformed(position, "a " + what + " must not contain a <node or <edge tag");
+      }
+      position++;
+    }
+    position += close.length();
+  }
+
+  /**
+   * Whether {@code <node} or {@code <edge}, followed by a delimiter or the end of the buffer, starts at {@code i}.
+   */
+  static boolean isElementStart(ByteBuffer buffer, int i, int limit) {
+    if (i + 5 > limit || buffer.get(i) != '<') {
+      return false;
+    }
+    boolean node = buffer.get(i + 1) == 'n' && buffer.get(i + 2) == 'o' && buffer.get(i + 3) == 'd'
+      && buffer.get(i + 4) == 'e';
+    boolean edge = buffer.get(i + 1) == 'e' && buffer.get(i + 2) == 'd' && buffer.get(i + 3) == 'g'
+      && buffer.get(i + 4) == 'e';
+    if (!node && !edge) {
+      return false;
+    }
+    if (i + 5 == limit) {
+      return true;
+    }
+    byte next = buffer.get(i + 5);
+    return next == ' ' || next == '\t' || next == '\r' || next == '\n' || next == '/' || next == '>';
+  }
+
+  /**
+   * Moves just past the next occurrence of {@code ascii}, or to the end of the chunk.
+   */
+  private void skipTo(String ascii) {
+    while (position < limit && !startsWith(ascii)) {
+      position++;
+    }
+    position = Math.min(limit, position + ascii.length());
+  }
+
+  private static String unescape(String value) {
+    int amp = value.indexOf('&');
+    if (amp < 0) {
+      return value;
+    }
+    var result = new StringBuilder(value.length());
+    int from = 0;
+    while (amp >= 0) {
+      int semicolon = value.indexOf(';', amp);
+      if (semicolon < 0) {
+        break;
+      }
+      result.append(value, from, amp);
+      String entity = value.substring(amp + 1, semicolon);
+      switch (entity) {
+        case "amp" -> result.append('&');
+        case "lt" -> result.append('<');
+        case "gt" -> result.append('>');
+        case "quot" -> result.append('"');
+        case "apos" -> result.append('\'');
+        default -> {
+          if (entity.startsWith("#x")) {
+            result.appendCodePoint(Integer.parseInt(entity.substring(2), 16));
+          } else if (entity.startsWith("#")) {
+            result.appendCodePoint(Integer.parseInt(entity.substring(1)));
+          } else {
+            result.append('&').append(entity).append(';');
+          }
+        }
+      }
+      from = semicolon + 1;
+      amp = value.indexOf('&', from);
+    }
+    return result.append(value, from, value.length()).toString();
+  }
+}
@@ -0,0 +1,186 @@
+package io.github.aaronchenwei.learning.jgrapht.nio;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * Parses one chunk of an import file and collects what it finds with chunk-local vertex ids.
+ *
+ * <p>Every vertex label seen in the chunk gets a local id in order of first occurrence, so the chunk only holds each
+ * distinct label once. An occurrence is a vertex declaration or one endpoint of an edge; occurrences are numbered in
+ * file order, which lets {@link GraphImportPipeline} number the vertices of the whole file in order of first
+ * occurrence no matter which chunk finishes first.
+ */
+abstract class ImportChunkParser {
+
+  protected final ByteBuffer buffer;
+  protected final long base;
+  protected final int limit;
+  protected int position;
+
+  private final HashMap<String, Integer> localIds = new HashMap<>();
+  private String[] labels = new String[64];
+  private long[] firstOccurrences = new long[64];
+  private int labelCount;
+  private int[] endpoints = new int[256];
+  private double[] weights = new double[128];
+  private int edgeCount;
+  private long occurrenceCount;
+  private boolean weighted;
+  private boolean directed;
+
+  int[] globalIds;
+
+  ImportChunkParser(ByteBuffer buffer, long base) {
+    this.buffer = buffer;
+    this.base = base;
+    this.limit = buffer.limit();
+  }
+
+  /**
+   * Parses the whole chunk.
+   *
+   * @throws UncheckedIOException if the chunk is malformed.
+   */
+  abstract void parse();
+
+  /**
+   * Records a vertex declaration.
+   */
+  protected final void vertex(String label) {
+    localId(label);
+  }
+
+  /**
+   * Records an edge.
+   *
+   * @param weight the weight, or NaN when the edge has none.
+   */
+  protected final void edge(String source, String target, double weight) {
+    if (edgeCount == weights.length) {
+      weights = Arrays.copyOf(weights, edgeCount * 2);
+      endpoints = Arrays.copyOf(endpoints, edgeCount * 4);
+    }
+    endpoints[2 * edgeCount] = localId(source);
+    endpoints[2 * edgeCount + 1] = localId(target);
+    if (Double.isNaN(weight)) {
+      weights[edgeCount] = 1.0;
+    } else {
+      weights[edgeCount] = weight;
+      weighted = true;
+    }
+    edgeCount++;
+  }
+
+  protected final void directed(boolean directed) {
+    this.directed |= directed;
+  }
+
+  private int localId(String label) {
+    Integer id = localIds.get(label);
+    if (id == null) {
+      if (labelCount == labels.length) {
+        labels = Arrays.copyOf(labels, labelCount * 2);
+        firstOccurrences = Arrays.copyOf(firstOccurrences, labelCount * 2);
+      }
+      id = labelCount++;
+      localIds.put(label, id);
+      labels[id] = label;
+      firstOccurrences[id] = occurrenceCount;
+    }
+    occurrenceCount++;
+    return id;
+  }
+
+  int labelCount() {
+    return labelCount;
+  }
+
+  String label(int local) {
+    return labels[local];
+  }
+
+  long firstOccurrence(int local) {
+    return firstOccurrences[local];
+  }
+
+  long occurrenceCount() {
+    return occurrenceCount;
+  }
+
+  int edgeCount() {
+    return edgeCount;
+  }
+
+  int endpoint(int index) {
+    return endpoints[index];
+  }
+
+  double weight(int edge) {
+    return weights[edge];
+  }
+
+  boolean isWeighted() {
+    return weighted;
+  }
+
+  boolean isDirected() {
+    return directed;
+  }
+
+  /**
+   * Drops the local label table once the labels have been interned.
+   */
+  void releaseLabels() {
+    localIds.clear();
+    labels = null;
+  }
+
+  protected final byte peek() {
+    return buffer.get(position);
+  }
+
+  protected final boolean startsWith(String ascii) {
+    if (position + ascii.length() > limit) {
+      return false;
+    }
+    for (int i = 0; i < ascii.length(); i++) {
+      if (buffer.get(position + i) != ascii.charAt(i)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  protected final void skipLine() {
+    while (position < limit && buffer.get(position++) != '\n') {
+      // consume the rest of the line
+    }
+  }
+
+  protected final String string(int from, int to) {
+    var bytes = new byte[to - from];
+    buffer.get(from, bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  protected final double parseWeight(String text, int at) {
+    try {
+      return Double.parseDouble(text.trim());
+    } catch (NumberFormatException e) {
+      throw malformed(at, "malformed weight '" + text + "'");
+    }
+  }
+
+  protected final UncheckedIOException malformed(int at, String message) {
+    return new UncheckedIOException(new IOException(message + " at byte " + (base + at)));
+  }
+
+  protected static boolean isBlank(byte b) {
+    return b == ' ' || b == '\t' || b == '\r' || b == '\n';
+  }
+}
@@ -0,0 +1,89 @@
+package io.github.aaronchenwei.learning.jgrapht.nio;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The wall-clock time and throughput of each stage of a {@link GraphImportPipeline} run.
+ */
+public final class ImportStatistics {
+
+  /**
+   * One completed stage.
+   */
+  public static final class Stage {
+    private final String name;
+    private final long elapsedNanos;
+    private final long edgeCount;
+
+    Stage(String name, long elapsedNanos, long edgeCount) {
+      this.name = name;
+      this.elapsedNanos = elapsedNanos;
+      this.edgeCount = edgeCount;
+    }
+
+    public String name() {
+      return name;
+    }
+
+    public long elapsedNanos() {
+      return elapsedNanos;
+    }
+
+    public long edgeCount() {
+      return edgeCount;
+    }
+
+    /**
+     * Returns the number of edges the stage handled per second.
+     *
+     * @return the throughput in edges per second.
+     */
+    public double edgesPerSecond() {
+      return elapsedNanos == 0 ? Double.POSITIVE_INFINITY : edgeCount * 1e9 / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+      return String.format("%-8s %,14d edges %,12.3f ms %,16.0f edges/s", name, edgeCount, elapsedNanos / 1e6,
+        edgesPerSecond());
+    }
+  }
+
+  private final List<Stage> stages = new ArrayList<>();
+
+  ImportStatistics() {
+  }
+
+  void record(String name, long startNanos, long edgeCount) {
+    stages.add(new Stage(name, System.nanoTime() - startNanos, edgeCount));
+  }
+
+  /**
+   * Returns the completed stages in the order they ran.
+   *
+   * @return the stages.
+   */
+  public List<Stage> stages() {
+    return Collections.unmodifiableList(stages);
+  }
+
+  /**
+   * Returns the total time of all stages.
+   *
+   * @return the elapsed time in nanoseconds.
+   */
+  public long elapsedNanos() {
+    return stages.stream().mapToLong(Stage::elapsedNanos).sum();
+  }
+
+  @Override
+  public String toString() {
+    var builder = new StringBuilder();
+    for (var stage : stages) {
+      builder.append(stage).append('\n');
+    }
+    return builder.toString();
+  }
+}
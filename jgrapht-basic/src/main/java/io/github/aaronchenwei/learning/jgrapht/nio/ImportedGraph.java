@@ -0,0 +1,165 @@
+package io.github.aaronchenwei.learning.jgrapht.nio;
+
+import io.github.aaronchenwei.learning.jgrapht.graph.BulkGraphs;
+import io.github.aaronchenwei.learning.jgrapht.graph.IntCsrGraph;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import org.jgrapht.Graph;
+
+/**
+ * A graph read by {@link GraphImportPipeline}, held as primitive edge columns over dense vertex ids.
+ *
+ * <p>Vertices are numbered {@code 0..n-1} in order of their first occurrence in the file and edges
+ * {@code 0..m-1} in file order, exactly as a sequential import would number them. The result can be turned into an
+ * {@link IntCsrGraph} or inserted into any {@link Graph}; both record their time in {@link #statistics()}.
+ */
+public final class ImportedGraph {
+
+  private final String[] labels;
+  private final int[] sources;
+  private final int[] targets;
+  private final double[] weights;
+  private final boolean directed;
+  private final ForkJoinPool pool;
+  private final ImportStatistics statistics;
+
+  ImportedGraph(String[] labels, int[] sources, int[] targets, double[] weights, boolean directed,
+    ForkJoinPool pool, ImportStatistics statistics) {
+    this.labels = labels;
+    this.sources = sources;
+    this.targets = targets;
+    this.weights = weights;
+    this.directed = directed;
+    this.pool = pool;
+    this.statistics = statistics;
+  }
+
+  public int vertexCount() {
+    return labels.length;
+  }
+
+  public int edgeCount() {
+    return sources.length;
+  }
+
+  /**
+   * Returns the label of a vertex, as written in the file.
+   *
+   * @param vertex the vertex id.
+   * @return the label.
+   */
+  public String label(int vertex) {
+    return labels[vertex];
+  }
+
+  public int edgeSource(int edge) {
+    return sources[edge];
+  }
+
+  public int edgeTarget(int edge) {
+    return targets[edge];
+  }
+
+  /**
+   * Returns the weight of an edge; 1.0 for edges without a weight.
+   *
+   * @param edge the edge id.
+   * @return the weight.
+   */
+  public double weight(int edge) {
+    return weights == null ? Graph.DEFAULT_EDGE_WEIGHT : weights[edge];
+  }
+
+  /**
+   * Whether the file declared a directed graph (a DOT {@code digraph} or a GraphML {@code edgedefault="directed"}).
+   *
+   * @return whether the graph is directed.
+   */
+  public boolean isDirected() {
+    return directed;
+  }
+
+  /**
+   * Whether any edge in the file carried a weight.
+   *
+   * @return whether the graph is weighted.
+   */
+  public boolean isWeighted() {
+    return weights != null;
+  }
+
+  public ImportStatistics statistics() {
+    return statistics;
+  }
+
+  /**
+   * Builds an {@link IntCsrGraph} on the pipeline's pool, directed if the file declared a directed graph. The edge
+   * columns are copied, so this graph stays usable.
+   *
+   * @return the graph.
+   */
+  public IntCsrGraph toCsrGraph() {
+    long start = System.nanoTime();
+    var edgeWeights = weights == null ? null : weights.clone();
+    var graph = directed
+      ? IntCsrGraph.directed(pool, labels.length, sources.clone(), targets.clone(), edgeWeights)
+      : IntCsrGraph.undirected(pool, labels.length, sources.clone(), targets.clone(), edgeWeights);
+    statistics.record("csr", start, sources.length);
+    return graph;
+  }
+
+  /**
+   * Inserts every vertex, then every edge in file order, into a graph. Edge weights are set when the graph is
+   * weighted. Edges that the graph would reject are skipped: self-loops, when the graph type does not allow them, are
+   * left out of the batch up front, and duplicates in a graph without multiple edges are skipped by the graph. The
+   * vertices and edges go in as one {@link BulkGraphs} batch each, so that an
+   * {@link io.github.aaronchenwei.learning.jgrapht.graph.IntArrayGraph} takes them as arrays.
+   *
+   * @param graph the graph to insert into.
+   * @param vertexFactory creates the vertex for a label.
+   * @param <V> the graph vertex type.
+   * @param <E> the graph edge type.
+   */
+  public <V, E> void insertInto(Graph<V, E> graph, Function<String, V> vertexFactory) {
+    Objects.requireNonNull(vertexFactory, "vertexFactory");
+    long start = System.nanoTime();
+    @SuppressWarnings("unchecked")
+    V[] vertices = (V[]) new Object[labels.length];
+    for (int v = 0; v < labels.length; v++) {
+      vertices[v] = vertexFactory.apply(labels[v]);
+    }
+    BulkGraphs.addAllVertices(graph, vertices);
+
+    // the loops are compared as vertices, since the factory may map two labels to the same vertex
+    boolean loops = graph.getType().isAllowingSelfLoops();
+    boolean setWeights = weights != null && graph.getType().isWeighted();
+    @SuppressWarnings("unchecked")
+    V[] edgeSources = (V[]) new Object[sources.length];
+    @SuppressWarnings("unchecked")
+    V[] edgeTargets = (V[]) new Object[sources.length];
+    var edgeWeights = setWeights ? new double[sources.length] : null;
+    int count = 0;
+    for (int e = 0; e < sources.length; e++) {
+      V source = vertices[sources[e]];
+      V target = vertices[targets[e]];
+      if (!loops && source.equals(target)) {
+        continue;
+      }
+      edgeSources[count] = source;
+      edgeTargets[count] = target;
+      if (setWeights) {
+        edgeWeights[count] = weights[e];
+      }
+      count++;
+    }
+    if (count < sources.length) {
+      edgeSources = Arrays.copyOf(edgeSources, count);
+      edgeTargets = Arrays.copyOf(edgeTargets, count);
+      edgeWeights = setWeights ? Arrays.copyOf(edgeWeights, count) : null;
+    }
+    BulkGraphs.addAllEdges(graph, edgeSources, edgeTargets, edgeWeights);
+    statistics.record("insert", start, sources.length);
+  }
+}
@@ -0,0 +1,636 @@
+package io.github.aaronchenwei.learning.jgrapht.nio;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Supplier;
+import org.jgrapht.Graph;
+import org.jgrapht.GraphType;
+import org.jgrapht.graph.AbstractGraph;
+import org.jgrapht.graph.DefaultGraphType;
+
+/**
+ * A read-only graph backed by a memory-mapped {@link MappedGraphFormat} file.
+ *
+ * <p>{@link #open} reads the header, checks that every section it describes lies within the file, and maps the file;
+ * nothing else is read or allocated, so even a very large graph opens in milliseconds, and every process that opens
+ * the same file shares one copy of it through the page cache. The contents of the sections are trusted. Vertices are
+ * decoded from the vertex table on access and looked up by binary search over its sorted index, comparing the key
+ * with the mapped bytes in place; edges are {@code long} ids.
+ *
+ * <p>The graph holds the mapping until it is {@link #close() closed}, and every use of a closed graph, its vertex and
+ * edge set views included, throws {@link IllegalStateException}. Java cannot unmap a file on demand, so closing drops
+ * the graph's references to the mapped buffers and the operating system mapping goes away once the garbage collector
+ * reclaims them; an unclosed graph keeps its mapping until it becomes unreachable.
+ *
+ * @param <V> the graph vertex type.
+ */
+public class MappedGraph<V> extends AbstractGraph<V, Long> implements Closeable {
+
+  private final MappedRegion region;
+  private final VertexCodec<V> codec;
+  private final GraphType type;
+  private final boolean directed;
+  private final int vertexCount;
+  private final long edgeCount;
+  private final long labelIndex;
+  private final long labelHeap;
+  private final long sorted;
+  private final long outOffsets;
+  private final long targets;
+  private final long inOffsets;
+  private final long inEdges;
+  private final long inSources;
+  private final long weights;
+
+  private final Set<V> vertexSetView = new VertexSet();
+  private final Set<Long> edgeSetView = new EdgeSet();
+
+  private MappedGraph(MappedRegion region, ByteBuffer header, VertexCodec<V> codec) {
+    this.region = region;
+    this.codec = codec;
+    int flags = header.getInt(8);
+    this.directed = (flags & MappedGraphFormat.DIRECTED) != 0;
+    var builder = new DefaultGraphType.Builder();
+    this.type = (directed ? builder.directed() : builder.undirected())
+      .weighted((flags & MappedGraphFormat.WEIGHTED) != 0)
+      .allowMultipleEdges((flags & MappedGraphFormat.MULTIPLE_EDGES) != 0)
+      .allowSelfLoops((flags & MappedGraphFormat.SELF_LOOPS) != 0)
+      .allowCycles(true)
+      .modifiable(false)
+      .build();
+    this.vertexCount = (int) header.getLong(16);
+    this.edgeCount = header.getLong(24);
+    this.labelIndex = header.getLong(32);
+    this.labelHeap = header.getLong(40);
+    this.sorted = header.getLong(48);
+    this.outOffsets = header.getLong(56);
+    this.targets = header.getLong(64);
+    this.inOffsets = header.getLong(72);
+    this.inEdges = header.getLong(80);
+    this.weights = header.getLong(88);
+    this.inSources = inEdges + 8 * region.getLong(inOffsets + 8L * vertexCount);
+  }
+
+  /**
+   * Opens a graph file.
+   *
+   * @param path the file written by {@link MappedGraphFormat#write}.
+   * @param codec the encoding the file was written with.
+   * @param <V> the graph vertex type.
+   * @return the graph.
+   * @throws IOException if the file cannot be mapped, is not a graph file, or is truncated or corrupt.
+   */
+  public static <V> MappedGraph<V> open(Path path, VertexCodec<V> codec) throws IOException {
+    Objects.requireNonNull(codec, "codec");
+    try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      var header = read(channel, 0, MappedGraphFormat.HEADER_SIZE);
+      if (header == null || header.getInt(0) != MappedGraphFormat.MAGIC) {
+        throw new IOException("not a mapped graph file");
+      }
+      if (header.getInt(4) != MappedGraphFormat.VERSION) {
+        throw new IOException("unsupported mapped graph version " + header.getInt(4));
+      }
+      checkLayout(channel, header);
+      return new MappedGraph<>(MappedRegion.map(channel), header, codec);
+    }
+  }
+
+  /**
+   * Checks that every section of the header lies within the file, reading the three lengths that are stored in the
+   * sections themselves: the size of the label heap, the edge count of the offsets and the size of the reverse index.
+   */
+  private static void checkLayout(FileChannel channel, ByteBuffer header) throws IOException {
+    long size = channel.size();
+    long n = header.getLong(16);
+    long m = header.getLong(24);
+    if (n < 0 || n >= Integer.MAX_VALUE || m < 0 || m > size) {
+      throw new IOException("corrupt mapped graph header: " + n + " vertices, " + m + " edges");
+    }
+    boolean weighted = (header.getInt(8) & MappedGraphFormat.WEIGHTED) != 0;
+    if (weighted != (header.getLong(88) != 0)) {
+      throw new IOException("corrupt mapped graph header: weights section does not match the flags");
+    }
+    long labelIndex = checkSection(size, "labelIndex", header.getLong(32), 8 * (n + 1), 8);
+    checkSection(size, "labelHeap", header.getLong(40), readLong(channel, labelIndex + 8 * n), 1);
+    checkSection(size, "sorted", header.getLong(48), 4 * n, 4);
+    long outOffsets = checkSection(size, "outOffsets", header.getLong(56), 8 * (n + 1), 8);
+    if (readLong(channel, outOffsets + 8 * n) != m) {
+      throw new IOException("corrupt mapped graph file: the offsets do not add up to " + m + " edges");
+    }
+    checkSection(size, "targets", header.getLong(64), 4 * m, 4);
+    long inOffsets = checkSection(size, "inOffsets", header.getLong(72), 8 * (n + 1), 8);
+    long k = readLong(channel, inOffsets + 8 * n);
+    if (k < 0 || k > size) {
+      throw new IOException("corrupt mapped graph file: reverse index of " + k + " edges");
+    }
+    long inEdges = checkSection(size, "inEdges", header.getLong(80), 8 * k, 8);
+    checkSection(size, "inSources", inEdges + 8 * k, 4 * k, 4);
+    if (weighted) {
+      checkSection(size, "weights", header.getLong(88), 8 * m, 8);
+    }
+  }
+
+  private static long checkSection(long fileSize, String name, long offset, long length, int alignment)
+    throws IOException {
+    if (offset < MappedGraphFormat.HEADER_SIZE || offset % alignment != 0 || length < 0
+      || offset > fileSize - length) {
+      throw new IOException("truncated or corrupt mapped graph file: " + name + " section of " + length
+        + " bytes at " + offset + " in a file of " + fileSize + " bytes");
+    }
+    return offset;
+  }
+
+  private static long readLong(FileChannel channel, long position) throws IOException {
+    var buffer = read(channel, position, Long.BYTES);
+    if (buffer == null) {
+      throw new IOException("truncated mapped graph file: no value at " + position);
+    }
+    return buffer.getLong(0);
+  }
+
+  /**
+   * Reads bytes at a position of a file, or returns null if the file ends before them.
+   */
+  private static ByteBuffer read(FileChannel channel, long position, int length) throws IOException {
+    var buffer = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+    while (buffer.hasRemaining()) {
+      if (channel.read(buffer, position + buffer.position()) < 0) {
+        return null;
+      }
+    }
+    return buffer;
+  }
+
+  /**
+   * Releases the mapping of the file; the graph cannot be used afterwards.
+   */
+  @Override
+  public void close() {
+    region.close();
+  }
+
+  public int vertexCount() {
+    return vertexCount;
+  }
+
+  /**
+   * Returns the number of edges. Unlike {@code edgeSet().size()} it is not clamped to {@code Integer.MAX_VALUE}.
+   *
+   * @return the edge count.
+   */
+  public long edgeCount() {
+    return edgeCount;
+  }
+
+  /**
+   * Returns the vertex with an id.
+   *
+   * @param id the vertex id, in {@code 0..n-1}.
+   * @return the decoded vertex.
+   */
+  public V vertex(int id) {
+    return codec.decode(label(id));
+  }
+
+  /**
+   * Looks up the id of a vertex by binary search over the sorted vertex table.
+   *
+   * @param v the vertex.
+   * @return the id, or -1 if the vertex is not in the graph.
+   */
+  public int vertexId(V v) {
+    if (v == null) {
+      return -1;
+    }
+    byte[] key = codec.encode(v);
+    int low = 0;
+    int high = vertexCount - 1;
+    while (low <= high) {
+      int mid = (low + high) >>> 1;
+      int id = region.getInt(sorted + 4L * mid);
+      long start = region.getLong(labelIndex + 8L * id);
+      long end = region.getLong(labelIndex + 8L * (id + 1));
+      int cmp = region.compareUnsigned(labelHeap + start, (int) (end - start), key);
+      if (cmp < 0) {
+        low = mid + 1;
+      } else if (cmp > 0) {
+        high = mid - 1;
+      } else {
+        return id;
+      }
+    }
+    return -1;
+  }
+
+  private byte[] label(int id) {
+    long start = region.getLong(labelIndex + 8L * id);
+    long end = region.getLong(labelIndex + 8L * (id + 1));
+    var bytes = new byte[(int) (end - start)];
+    region.get(labelHeap + start, bytes);
+    return bytes;
+  }
+
+  /**
+   * Returns the first edge id of a vertex; its outgoing edges are {@code outStart(v) .. outStart(v + 1)}.
+   *
+   * @param v the vertex id, in {@code 0..n}.
+   * @return the first edge id.
+   */
+  public long outStart(int v) {
+    return region.getLong(outOffsets + 8L * v);
+  }
+
+  public int edgeSourceId(long edge) {
+    // the source is the last vertex whose range starts at or before the edge
+    int low = 0;
+    int high = vertexCount - 1;
+    while (low < high) {
+      int mid = (low + high + 1) >>> 1;
+      if (outStart(mid) <= edge) {
+        low = mid;
+      } else {
+        high = mid - 1;
+      }
+    }
+    return low;
+  }
+
+  public int edgeTargetId(long edge) {
+    return region.getInt(targets + 4L * edge);
+  }
+
+  public double weight(long edge) {
+    return weights == 0 ? Graph.DEFAULT_EDGE_WEIGHT : region.getDouble(weights + 8L * edge);
+  }
+
+  private long inStart(int v) {
+    return region.getLong(inOffsets + 8L * v);
+  }
+
+  private long inEdge(long slot) {
+    return region.getLong(inEdges + 8L * slot);
+  }
+
+  private int inSource(long slot) {
+    return region.getInt(inSources + 4L * slot);
+  }
+
+  private int id(V vertex) {
+    Objects.requireNonNull(vertex, "vertex");
+    int id = vertexId(vertex);
+    if (id < 0) {
+      throw new IllegalArgumentException("no such vertex in graph: " + vertex);
+    }
+    return id;
+  }
+
+  private long edgeId(Long e) {
+    Objects.requireNonNull(e, "edge");
+    if (!containsEdge(e)) {
+      throw new IllegalArgumentException("no such edge in graph: " + e);
+    }
+    return e;
+  }
+
+  @Override
+  public Set<Long> getAllEdges(V sourceVertex, V targetVertex) {
+    int u = vertexId(sourceVertex);
+    int v = vertexId(targetVertex);
+    if (u < 0 || v < 0) {
+      return null;
+    }
+    Set<Long> result = new LinkedHashSet<>();
+    for (long e = outStart(u); e < outStart(u + 1); e++) {
+      if (edgeTargetId(e) == v) {
+        result.add(e);
+      }
+    }
+    if (!directed) {
+      for (long slot = inStart(u); slot < inStart(u + 1); slot++) {
+        if (inSource(slot) == v) {
+          result.add(inEdge(slot));
+        }
+      }
+    }
+    return result;
+  }
+
+  @Override
+  public Long getEdge(V sourceVertex, V targetVertex) {
+    var edges = getAllEdges(sourceVertex, targetVertex);
+    return edges == null || edges.isEmpty() ? null : edges.iterator().next();
+  }
+
+  @Override
+  public Supplier<V> getVertexSupplier() {
+    return null;
+  }
+
+  @Override
+  public Supplier<Long> getEdgeSupplier() {
+    return null;
+  }
+
+  @Override
+  public Long addEdge(V sourceVertex, V targetVertex) {
+    throw new UnsupportedOperationException("mapped graph");
+  }
+
+  @Override
+  public boolean addEdge(V sourceVertex, V targetVertex, Long e) {
+    throw new UnsupportedOperationException("mapped graph");
+  }
+
+  @Override
+  public V addVertex() {
+    throw new UnsupportedOperationException("mapped graph");
+  }
+
+  @Override
+  public boolean addVertex(V v) {
+    throw new UnsupportedOperationException("mapped graph");
+  }
+
+  @Override
+  public boolean containsEdge(Long e) {
+    return e != null && e >= 0 && e < edgeCount;
+  }
+
+  @Override
+  public boolean containsVertex(V v) {
+    return vertexId(v) >= 0;
+  }
+
+  @Override
+  public Set<Long> edgeSet() {
+    return edgeSetView;
+  }
+
+  @Override
+  public int degreeOf(V vertex) {
+    int v = id(vertex);
+    int degree = (int) (outStart(v + 1) - outStart(v) + inStart(v + 1) - inStart(v));
+    if (!directed) {
+      // undirected self-loops are only stored in the forward adjacency but count twice
+      for (long e = outStart(v); e < outStart(v + 1); e++) {
+        if (edgeTargetId(e) == v) {
+          degree++;
+        }
+      }
+    }
+    return degree;
+  }
+
+  @Override
+  public Set<Long> edgesOf(V vertex) {
+    return new IncidentEdges(id(vertex), true, true);
+  }
+
+  @Override
+  public int inDegreeOf(V vertex) {
+    if (!directed) {
+      return degreeOf(vertex);
+    }
+    int v = id(vertex);
+    return (int) (inStart(v + 1) - inStart(v));
+  }
+
+  @Override
+  public Set<Long> incomingEdgesOf(V vertex) {
+    int v = id(vertex);
+    return directed ? new IncidentEdges(v, false, true) : new IncidentEdges(v, true, true);
+  }
+
+  @Override
+  public int outDegreeOf(V vertex) {
+    if (!directed) {
+      return degreeOf(vertex);
+    }
+    int v = id(vertex);
+    return (int) (outStart(v + 1) - outStart(v));
+  }
+
+  @Override
+  public Set<Long> outgoingEdgesOf(V vertex) {
+    int v = id(vertex);
+    return directed ? new IncidentEdges(v, true, false) : new IncidentEdges(v, true, true);
+  }
+
+  @Override
+  public Long removeEdge(V sourceVertex, V targetVertex) {
+    throw new UnsupportedOperationException("mapped graph");
+  }
+
+  @Override
+  public boolean removeEdge(Long e) {
+    throw new UnsupportedOperationException("mapped graph");
+  }
+
+  @Override
+  public boolean removeVertex(V v) {
+    throw new UnsupportedOperationException("mapped graph");
+  }
+
+  @Override
+  public Set<V> vertexSet() {
+    return vertexSetView;
+  }
+
+  @Override
+  public V getEdgeSource(Long e) {
+    return vertex(edgeSourceId(edgeId(e)));
+  }
+
+  @Override
+  public V getEdgeTarget(Long e) {
+    return vertex(edgeTargetId(edgeId(e)));
+  }
+
+  @Override
+  public GraphType getType() {
+    return type;
+  }
+
+  @Override
+  public double getEdgeWeight(Long e) {
+    return weight(edgeId(e));
+  }
+
+  @Override
+  public void setEdgeWeight(Long e, double weight) {
+    throw new UnsupportedOperationException("mapped graph");
+  }
+
+  private class VertexSet extends AbstractSet<V> {
+    @Override
+    public Iterator<V> iterator() {
+      return new Iterator<>() {
+        private int next;
+
+        @Override
+        public boolean hasNext() {
+          return next < vertexCount;
+        }
+
+        @Override
+        public V next() {
+          if (next >= vertexCount) {
+            throw new NoSuchElementException();
+          }
+          return vertex(next++);
+        }
+      };
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean contains(Object o) {
+      try {
+        return vertexId((V) o) >= 0;
+      } catch (ClassCastException e) {
+        return false;
+      }
+    }
+
+    @Override
+    public int size() {
+      return vertexCount;
+    }
+  }
+
+  private class EdgeSet extends AbstractSet<Long> {
+    @Override
+    public Iterator<Long> iterator() {
+      return new Iterator<>() {
+        private long next;
+
+        @Override
+        public boolean hasNext() {
+          return next < edgeCount;
+        }
+
+        @Override
+        public Long next() {
+          if (next >= edgeCount) {
+            throw new NoSuchElementException();
+          }
+          return next++;
+        }
+      };
+    }
+
+    @Override
+    public boolean contains(Object o) {
+      return o instanceof Long && containsEdge((Long) o);
+    }
+
+    /**
+     * Returns the number of edges, clamped to {@code Integer.MAX_VALUE} as {@link Set#size()} specifies for larger
+     * sets; {@link #edgeCount()} is exact.
+     */
+    @Override
+    public int size() {
+      return (int) Math.min(edgeCount, Integer.MAX_VALUE);
+    }
+  }
+
+  /**
+   * The forward and/or reverse edges of a vertex. With both, a directed self-loop, which is listed in each, is
+   * reported once.
+   */
+  private class IncidentEdges extends AbstractSet<Long> {
+    private final int vertex;
+    private final boolean withOut;
+    private final boolean withIn;
+
+    IncidentEdges(int vertex, boolean withOut, boolean withIn) {
+      this.vertex = vertex;
+      this.withOut = withOut;
+      this.withIn = withIn;
+    }
+
+    private boolean skipIn(long slot) {
+      return withOut && directed && inSource(slot) == vertex;
+    }
+
+    @Override
+    public Iterator<Long> iterator() {
+      return new Iterator<>() {
+        private long out = withOut ? outStart(vertex) : 0;
+        private final long outEnd = withOut ? outStart(vertex + 1) : 0;
+        private long in = withIn ? inStart(vertex) : 0;
+        private final long inEnd = withIn ? inStart(vertex + 1) : 0;
+
+        {
+          skip();
+        }
+
+        private void skip() {
+          if (out >= outEnd) {
+            while (in < inEnd && skipIn(in)) {
+              in++;
+            }
+          }
+        }
+
+        @Override
+        public boolean hasNext() {
+          return out < outEnd || in < inEnd;
+        }
+
+        @Override
+        public Long next() {
+          long e;
+          if (out < outEnd) {
+            e = out++;
+          } else if (in < inEnd) {
+            e = inEdge(in++);
+          } else {
+            throw new NoSuchElementException();
+          }
+          skip();
+          return e;
+        }
+      };
+    }
+
+    @Override
+    public boolean contains(Object o) {
+      if (!(o instanceof Long) || !containsEdge((Long) o)) {
+        return false;
+      }
+      long e = (Long) o;
+      if (withOut && e >= outStart(vertex) && e < outStart(vertex + 1)) {
+        return true;
+      }
+      return withIn && edgeTargetId(e) == vertex;
+    }
+
+    @Override
+    public int size() {
+      long size = 0;
+      if (withOut) {
+        size += outStart(vertex + 1) - outStart(vertex);
+      }
+      if (withIn) {
+        for (long slot = inStart(vertex); slot < inStart(vertex + 1); slot++) {
+          if (!skipIn(slot)) {
+            size++;
+          }
+        }
+      }
+      return (int) size;
+    }
+  }
+}
@@ -0,0 +1,295 @@
+package io.github.aaronchenwei.learning.jgrapht.nio;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Objects;
+import org.jgrapht.Graph;
+
+/**
+ * The binary graph file read by {@link MappedGraph}, and its writer.
+ *
+ * <p>All values are little-endian and every section starts on an 8-byte boundary:
+ * <pre>
+ * header      magic, version, flags, reserved (int32 x 4), vertex count, edge count and the offsets of every
+ *             section below except inSources, which directly follows inEdges (int64 x 10)
+ * labelIndex  int64[n + 1]  byte offset of each vertex label within labelHeap
+ * labelHeap   byte[]        the encoded vertex labels, in vertex order
+ * sorted      int32[n]      the vertices ordered by their label bytes, for lookups by binary search
+ * outOffsets  int64[n + 1]  CSR offsets: the edges of vertex v are the edge ids outOffsets[v] .. outOffsets[v + 1]
+ * targets     int32[m]      the target of each edge; the source is the vertex whose range contains the edge id
+ * inOffsets   int64[n + 1]  offsets of the reverse index
+ * inEdges     int64[k]      for each vertex, the edges it is the target of (excluding undirected self-loops)
+ * inSources   int32[k]      the source of each edge in inEdges
+ * weights     float64[m]    the edge weights; absent (offset 0) for unweighted graphs
+ * </pre>
+ * Edge ids are assigned by grouping the edges of the source graph by source vertex, so that the forward adjacency
+ * needs no edge id column at all.
+ *
+ * <p>Vertex ids are 32-bit and edge ids and offsets 64-bit, so the format, and {@link MappedGraph}, can hold more
+ * than 2^31 edges. {@link #write} cannot produce such a file: it reads the edges of an in-memory {@link Graph}, whose
+ * edge count is an {@code int}, and sorts them in {@code int}-indexed arrays, so it writes fewer than 2^31 - 1 edges
+ * (about 50 GB for a weighted graph).
+ */
+public final class MappedGraphFormat {
+
+  static final int MAGIC = 0x474d474a;
+  static final int VERSION = 1;
+  static final int HEADER_SIZE = 96;
+
+  static final int DIRECTED = 1;
+  static final int WEIGHTED = 1 << 1;
+  static final int MULTIPLE_EDGES = 1 << 2;
+  static final int SELF_LOOPS = 1 << 3;
+
+  private MappedGraphFormat() {
+  }
+
+  /**
+   * Writes a graph.
+   *
+   * @param graph the graph; it must be either directed or undirected.
+   * @param codec the encoding of the vertices.
+   * @param path the file to create or overwrite.
+   * @param <V> the graph vertex type.
+   * @param <E> the graph edge type.
+   * @throws IOException if the file cannot be written.
+   * @throws IllegalArgumentException if the graph has {@code Integer.MAX_VALUE} edges or more, or two vertices have
+   *     the same encoding.
+   */
+  public static <V, E> void write(Graph<V, E> graph, VertexCodec<V> codec, Path path) throws IOException {
+    Objects.requireNonNull(graph, "graph");
+    Objects.requireNonNull(codec, "codec");
+    var type = graph.getType();
+    if (type.isMixed()) {
+      throw new IllegalArgumentException("mixed graphs are not supported");
+    }
+    boolean directed = type.isDirected();
+    boolean weighted = type.isWeighted();
+
+    int n = graph.vertexSet().size();
+    var ids = new HashMap<V, Integer>();
+    var labels = new byte[n][];
+    for (V v : graph.vertexSet()) {
+      labels[ids.size()] = codec.encode(v);
+      ids.put(v, ids.size());
+    }
+    Integer[] order = new Integer[n];
+    Arrays.setAll(order, i -> i);
+    Arrays.sort(order, (a, b) -> Arrays.compareUnsigned(labels[a], labels[b]));
+    for (int i = 1; i < n; i++) {
+      if (Arrays.equals(labels[order[i - 1]], labels[order[i]])) {
+        throw new IllegalArgumentException("two vertices share the encoding of " + codec.decode(labels[order[i]]));
+      }
+    }
+
+    // a size of Integer.MAX_VALUE may be clamped, and the edge arrays could not hold that many anyway
+    int m = graph.edgeSet().size();
+    if (m == Integer.MAX_VALUE) {
+      throw new IllegalArgumentException("too many edges for the writer: at most " + (Integer.MAX_VALUE - 1));
+    }
+    var sources = new int[m];
+    var targets = new int[m];
+    var weights = weighted ? new double[m] : null;
+    int e = 0;
+    for (E edge : graph.edgeSet()) {
+      sources[e] = ids.get(graph.getEdgeSource(edge));
+      targets[e] = ids.get(graph.getEdgeTarget(edge));
+      if (weighted) {
+        weights[e] = graph.getEdgeWeight(edge);
+      }
+      e++;
+    }
+
+    // stable counting sort of the edges by source: position[e] is the id of edge e in the file
+    var outOffsets = new long[n + 1];
+    for (int i = 0; i < m; i++) {
+      outOffsets[sources[i] + 1]++;
+    }
+    for (int v = 0; v < n; v++) {
+      outOffsets[v + 1] += outOffsets[v];
+    }
+    var position = new int[m];
+    var cursor = Arrays.copyOf(outOffsets, n);
+    for (int i = 0; i < m; i++) {
+      position[i] = (int) cursor[sources[i]]++;
+    }
+
+    var inOffsets = new long[n + 1];
+    for (int i = 0; i < m; i++) {
+      if (directed || sources[i] != targets[i]) {
+        inOffsets[targets[i] + 1]++;
+      }
+    }
+    for (int v = 0; v < n; v++) {
+      inOffsets[v + 1] += inOffsets[v];
+    }
+    int k = (int) inOffsets[n];
+    var inEdges = new long[k];
+    var inSources = new int[k];
+    cursor = Arrays.copyOf(inOffsets, n);
+    // visit the edges in file order so that every reverse list is sorted by edge id
+    var byPosition = new int[m];
+    for (int i = 0; i < m; i++) {
+      byPosition[position[i]] = i;
+    }
+    for (int p = 0; p < m; p++) {
+      int i = byPosition[p];
+      if (directed || sources[i] != targets[i]) {
+        int slot = (int) cursor[targets[i]]++;
+        inEdges[slot] = p;
+        inSources[slot] = sources[i];
+      }
+    }
+
+    long labelBytes = 0;
+    for (var label : labels) {
+      labelBytes += label.length;
+    }
+    long labelIndexOffset = HEADER_SIZE;
+    long labelHeapOffset = labelIndexOffset + 8L * (n + 1);
+    long sortedOffset = align(labelHeapOffset + labelBytes);
+    long outOffsetsOffset = align(sortedOffset + 4L * n);
+    long targetsOffset = outOffsetsOffset + 8L * (n + 1);
+    long inOffsetsOffset = align(targetsOffset + 4L * m);
+    long inEdgesOffset = inOffsetsOffset + 8L * (n + 1);
+    long inSourcesOffset = inEdgesOffset + 8L * k;
+    long weightsOffset = weighted ? align(inSourcesOffset + 4L * k) : 0;
+
+    int flags = (directed ? DIRECTED : 0)
+      | (weighted ? WEIGHTED : 0)
+      | (type.isAllowingMultipleEdges() ? MULTIPLE_EDGES : 0)
+      | (type.isAllowingSelfLoops() ? SELF_LOOPS : 0);
+
+    try (var out = new Output(path)) {
+      out.putInt(MAGIC).putInt(VERSION).putInt(flags).putInt(0);
+      out.putLong(n).putLong(m);
+      out.putLong(labelIndexOffset).putLong(labelHeapOffset).putLong(sortedOffset).putLong(outOffsetsOffset);
+      out.putLong(targetsOffset).putLong(inOffsetsOffset).putLong(inEdgesOffset).putLong(weightsOffset);
+
+      long labelOffset = 0;
+      for (var label : labels) {
+        out.putLong(labelOffset);
+        labelOffset += label.length;
+      }
+      out.putLong(labelOffset);
+      for (var label : labels) {
+        out.putBytes(label);
+      }
+      out.padTo(sortedOffset);
+      for (var v : order) {
+        out.putInt(v);
+      }
+      out.padTo(outOffsetsOffset);
+      for (var offset : outOffsets) {
+        out.putLong(offset);
+      }
+      var sortedTargets = new int[m];
+      for (int i = 0; i < m; i++) {
+        sortedTargets[position[i]] = targets[i];
+      }
+      for (var target : sortedTargets) {
+        out.putInt(target);
+      }
+      out.padTo(inOffsetsOffset);
+      for (var offset : inOffsets) {
+        out.putLong(offset);
+      }
+      for (var edge : inEdges) {
+        out.putLong(edge);
+      }
+      for (var source : inSources) {
+        out.putInt(source);
+      }
+      if (weighted) {
+        out.padTo(weightsOffset);
+        for (int p = 0; p < m; p++) {
+          out.putDouble(weights[byPosition[p]]);
+        }
+      }
+    }
+  }
+
+  static long align(long position) {
+    return (position + 7) & ~7L;
+  }
+
+  /**
+   * A buffered little-endian writer that tracks its position.
+   */
+  private static final class Output implements AutoCloseable {
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 20).order(ByteOrder.LITTLE_ENDIAN);
+    private long position;
+
+    Output(Path path) throws IOException {
+      this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+        StandardOpenOption.TRUNCATE_EXISTING);
+    }
+
+    Output putInt(int value) throws IOException {
+      ensure(Integer.BYTES);
+      buffer.putInt(value);
+      position += Integer.BYTES;
+      return this;
+    }
+
+    Output putLong(long value) throws IOException {
+      ensure(Long.BYTES);
+      buffer.putLong(value);
+      position += Long.BYTES;
+      return this;
+    }
+
+    Output putDouble(double value) throws IOException {
+      ensure(Double.BYTES);
+      buffer.putDouble(value);
+      position += Double.BYTES;
+      return this;
+    }
+
+    void putBytes(byte[] bytes) throws IOException {
+      for (byte b : bytes) {
+        ensure(1);
+        buffer.put(b);
+      }
+      position += bytes.length;
+    }
+
+    void padTo(long target) throws IOException {
+      while (position < target) {
+        ensure(1);
+        buffer.put((byte) 0);
+        position++;
+      }
+    }
+
+    private void ensure(int bytes) throws IOException {
+      if (buffer.remaining() < bytes) {
+        flush();
+      }
+    }
+
+    private void flush() throws IOException {
+      buffer.flip();
+      while (buffer.hasRemaining()) {
+        channel.write(buffer);
+      }
+      buffer.clear();
+    }
+
+    @Override
+    public void close() throws IOException {
+      try {
+        flush();
+      } finally {
+        channel.close();
+      }
+    }
+  }
+}
@@ -0,0 +1,101 @@
+package io.github.aaronchenwei.learning.jgrapht.nio;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * A read-only, little-endian view of a whole file, mapped in segments of 1 GiB so that files larger than the 2 GiB
+ * limit of a single {@link MappedByteBuffer} can be addressed with {@code long} positions.
+ *
+ * <p>Values must be naturally aligned (a {@code long} on a multiple of 8, an {@code int} on a multiple of 4), which
+ * guarantees that no value straddles two segments.
+ *
+ * <p>Java cannot unmap a file on demand: {@link #close()} drops the references to the segments, every later access
+ * throws {@link IllegalStateException}, and the operating system mapping is removed once the garbage collector has
+ * reclaimed the buffers.
+ */
+final class MappedRegion {
+
+  private static final int SEGMENT_BITS = 30;
+  private static final long SEGMENT_SIZE = 1L << SEGMENT_BITS;
+  private static final long SEGMENT_MASK = SEGMENT_SIZE - 1;
+
+  private MappedByteBuffer[] segments;
+  private final long size;
+
+  private MappedRegion(MappedByteBuffer[] segments, long size) {
+    this.segments = segments;
+    this.size = size;
+  }
+
+  /**
+   * Maps a whole file. Mapping only reserves address space, so this returns without reading the file; pages are
+   * loaded from (and shared through) the page cache on first access. The mappings stay valid after the channel is
+   * closed.
+   */
+  static MappedRegion map(FileChannel channel) throws IOException {
+    long size = channel.size();
+    var segments = new MappedByteBuffer[(int) ((size + SEGMENT_MASK) >>> SEGMENT_BITS)];
+    for (int i = 0; i < segments.length; i++) {
+      long position = (long) i << SEGMENT_BITS;
+      segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(SEGMENT_SIZE, size - position));
+      segments[i].order(ByteOrder.LITTLE_ENDIAN);
+    }
+    return new MappedRegion(segments, size);
+  }
+
+  long size() {
+    return size;
+  }
+
+  void close() {
+    segments = null;
+  }
+
+  private MappedByteBuffer segment(long position) {
+    var s = segments;
+    if (s == null) {
+      throw new IllegalStateException("the mapping is closed");
+    }
+    return s[(int) (position >>> SEGMENT_BITS)];
+  }
+
+  byte get(long position) {
+    return segment(position).get((int) (position & SEGMENT_MASK));
+  }
+
+  int getInt(long position) {
+    return segment(position).getInt((int) (position & SEGMENT_MASK));
+  }
+
+  long getLong(long position) {
+    return segment(position).getLong((int) (position & SEGMENT_MASK));
+  }
+
+  double getDouble(long position) {
+    return segment(position).getDouble((int) (position & SEGMENT_MASK));
+  }
+
+  void get(long position, byte[] destination) {
+    for (int i = 0; i < destination.length; i++) {
+      destination[i] = get(position + i);
+    }
+  }
+
+  /**
+   * Compares {@code length} bytes at a position with a key, as {@link java.util.Arrays#compareUnsigned(byte[],
+   * byte[])} would compare a copy of them, without copying.
+   */
+  int compareUnsigned(long position, int length, byte[] key) {
+    int common = Math.min(length, key.length);
+    for (int i = 0; i < common; i++) {
+      byte b = get(position + i);
+      if (b != key[i]) {
+        return Byte.compareUnsigned(b, key[i]);
+      }
+    }
+    return length - key.length;
+  }
+}
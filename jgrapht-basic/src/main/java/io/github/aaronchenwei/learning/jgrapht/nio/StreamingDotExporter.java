@@ -0,0 +1,249 @@
+package io.github.aaronchenwei.learning.jgrapht.nio;
+
+import java.io.IOException;
+import java.nio.channels.WritableByteChannel;
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+import org.jgrapht.Graph;
+
+/**
+ * Exports a graph in DOT format directly to a {@link WritableByteChannel}.
+ *
+ * <p>The output has the same shape as the one produced by {@code org.jgrapht.nio.dot.DOTExporter}, but nothing is
+ * accumulated: text is encoded into one fixed buffer that is drained to the channel as it fills up. Attributes are
+ * not returned as a fresh {@code Map<String, Attribute>} per element; an {@link AttributeWriter} instead puts them
+ * into a single {@link DotAttributes} sink that is reused for every vertex and edge and writes them out immediately.
+ * Apart from the strings returned by the id provider, an export allocates nothing per element.
+ *
+ * <p>An export can be cancelled: the cancellation condition and the thread's interrupt flag are polled every
+ * {@value #CANCELLATION_CHECK_INTERVAL} elements, and a {@link CancellationException} is thrown when either is set.
+ * The output written so far is flushed to the channel first. The channel is never closed by the exporter.
+ *
+ * @param <V> the graph vertex type.
+ * @param <E> the graph edge type.
+ */
+public class StreamingDotExporter<V, E> {
+
+  /**
+   * The number of elements written between two cancellation checks.
+   */
+  public static final int CANCELLATION_CHECK_INTERVAL = 1024;
+
+  private static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+  /**
+   * Puts the attributes of one element into the reused sink.
+   *
+   * @param <T> the element type.
+   */
+  @FunctionalInterface
+  public interface AttributeWriter<T> {
+    void write(T element, DotAttributes attributes) throws IOException;
+  }
+
+  private final Function<V, String> vertexIdProvider;
+  private AttributeWriter<V> vertexAttributeWriter;
+  private AttributeWriter<E> edgeAttributeWriter;
+  private String graphId = "G";
+  private int bufferSize = DEFAULT_BUFFER_SIZE;
+
+  /**
+   * Creates an exporter.
+   *
+   * @param vertexIdProvider the DOT id of each vertex; ids that are not plain DOT identifiers or numerals are quoted.
+   */
+  public StreamingDotExporter(Function<V, String> vertexIdProvider) {
+    this.vertexIdProvider = Objects.requireNonNull(vertexIdProvider, "vertexIdProvider");
+  }
+
+  public void setVertexAttributeWriter(AttributeWriter<V> vertexAttributeWriter) {
+    this.vertexAttributeWriter = vertexAttributeWriter;
+  }
+
+  public void setEdgeAttributeWriter(AttributeWriter<E> edgeAttributeWriter) {
+    this.edgeAttributeWriter = edgeAttributeWriter;
+  }
+
+  public void setGraphId(String graphId) {
+    this.graphId = Objects.requireNonNull(graphId, "graphId");
+  }
+
+  /**
+   * Sets the size of the output buffer, which bounds the memory held by an export. Defaults to 64 KiB.
+   *
+   * @param bufferSize the buffer size in bytes.
+   */
+  public void setBufferSize(int bufferSize) {
+    this.bufferSize = bufferSize;
+  }
+
+  /**
+   * Exports a graph.
+   *
+   * @param graph the graph.
+   * @param channel the channel to write to.
+   * @throws IOException if the channel cannot be written.
+   */
+  public void exportGraph(Graph<V, E> graph, WritableByteChannel channel) throws IOException {
+    exportGraph(graph, channel, () -> false);
+  }
+
+  /**
+   * Exports a graph unless cancelled.
+   *
+   * @param graph the graph.
+   * @param channel the channel to write to.
+   * @param cancelled the cancellation condition.
+   * @throws IOException if the channel cannot be written.
+   * @throws CancellationException if {@code cancelled} became true or the thread was interrupted.
+   */
+  public void exportGraph(Graph<V, E> graph, WritableByteChannel channel, BooleanSupplier cancelled)
+    throws IOException {
+    var out = new Utf8ChannelWriter(channel, bufferSize);
+    var attributes = new DotAttributes(out);
+    var type = graph.getType();
+    String connector = type.isDirected() ? " -> " : " -- ";
+
+    if (!type.isAllowingMultipleEdges()) {
+      out.append("strict ");
+    }
+    out.append(type.isDirected() ? "digraph " : "graph ");
+    writeId(out, graphId);
+    out.append(" {\n");
+
+    int count = 0;
+    for (V v : graph.vertexSet()) {
+      if (++count % CANCELLATION_CHECK_INTERVAL == 0) {
+        checkCancelled(out, cancelled);
+      }
+      out.append("  ");
+      writeId(out, vertexIdProvider.apply(v));
+      if (vertexAttributeWriter != null) {
+        attributes.begin();
+        vertexAttributeWriter.write(v, attributes);
+        attributes.end();
+      }
+      out.append(";\n");
+    }
+    for (E e : graph.edgeSet()) {
+      if (++count % CANCELLATION_CHECK_INTERVAL == 0) {
+        checkCancelled(out, cancelled);
+      }
+      out.append("  ");
+      writeId(out, vertexIdProvider.apply(graph.getEdgeSource(e)));
+      out.append(connector);
+      writeId(out, vertexIdProvider.apply(graph.getEdgeTarget(e)));
+      if (edgeAttributeWriter != null) {
+        attributes.begin();
+        edgeAttributeWriter.write(e, attributes);
+        attributes.end();
+      }
+      out.append(";\n");
+    }
+    out.append("}\n");
+    out.flush();
+  }
+
+  private static void checkCancelled(Utf8ChannelWriter out, BooleanSupplier cancelled) throws IOException {
+    if (cancelled.getAsBoolean() || Thread.currentThread().isInterrupted()) {
+      out.flush();
+      throw new CancellationException("DOT export cancelled");
+    }
+  }
+
+  private static void writeId(Utf8ChannelWriter out, String id) throws IOException {
+    if (isPlainId(id)) {
+      out.append(id);
+    } else {
+      DotAttributes.writeQuoted(out, id);
+    }
+  }
+
+  /**
+   * Whether an id is a DOT identifier ({@code [a-zA-Z_][a-zA-Z0-9_]*}, other than a keyword) or a numeral, which
+   * need no quotes.
+   */
+  private static boolean isPlainId(String id) {
+    if (id.isEmpty() || isKeyword(id)) {
+      return false;
+    }
+    boolean identifier = true;
+    boolean numeral = true;
+    boolean dot = false;
+    for (int i = 0; i < id.length(); i++) {
+      char c = id.charAt(i);
+      boolean letter = (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || c == '_';
+      boolean digit = c >= '0' && c <= '9';
+      identifier &= letter || (digit && i > 0);
+      if (c == '.' && !dot) {
+        dot = true;
+      } else {
+        numeral &= digit || (c == '-' && i == 0);
+      }
+    }
+    return identifier || (numeral && !id.equals("-") && !id.equals(".") && !id.equals("-."));
+  }
+
+  private static boolean isKeyword(String id) {
+    return id.equalsIgnoreCase("node") || id.equalsIgnoreCase("edge") || id.equalsIgnoreCase("graph")
+      || id.equalsIgnoreCase("digraph") || id.equalsIgnoreCase("subgraph") || id.equalsIgnoreCase("strict");
+  }
+
+  /**
+   * The reusable sink for the attributes of the element being written.
+   */
+  public static final class DotAttributes {
+    private final Utf8ChannelWriter out;
+    private boolean open;
+
+    DotAttributes(Utf8ChannelWriter out) {
+      this.out = out;
+    }
+
+    /**
+     * Writes the attribute {@code key="value"}.
+     *
+     * @param key the attribute name, a plain DOT identifier.
+     * @param value the attribute value, quoted and escaped on output.
+     * @return this sink.
+     * @throws IOException if the channel cannot be written.
+     */
+    public DotAttributes put(String key, CharSequence value) throws IOException {
+      out.append(open ? " " : " [ ");
+      open = true;
+      out.append(key).append('=');
+      writeQuoted(out, value);
+      return this;
+    }
+
+    void begin() {
+      open = false;
+    }
+
+    void end() throws IOException {
+      if (open) {
+        out.append(" ]");
+      }
+    }
+
+    static void writeQuoted(Utf8ChannelWriter out, CharSequence value) throws IOException {
+      out.append('"');
+      for (int i = 0; i < value.length(); i++) {
+        char c = value.charAt(i);
+        if (c == '\\' || c == '"') {
+          out.append('\\');
+        }
+        char next = i + 1 < value.length() ? value.charAt(i + 1) : 0;
+        if (Character.isHighSurrogate(c) && Character.isLowSurrogate(next)) {
+          out.appendCodePoint(Character.toCodePoint(c, next));
+          i++;
+        } else {
+          out.append(c);
+        }
+      }
+      out.append('"');
+    }
+  }
+}
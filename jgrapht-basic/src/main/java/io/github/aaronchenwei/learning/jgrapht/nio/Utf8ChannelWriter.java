@@ -0,0 +1,71 @@
+package io.github.aaronchenwei.learning.jgrapht.nio;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Encodes characters as UTF-8 straight into a fixed direct buffer that is drained to a channel whenever it fills
+ * up, so that writing text never allocates and never holds more than one buffer of output.
+ */
+final class Utf8ChannelWriter {
+
+  private final WritableByteChannel channel;
+  private final ByteBuffer buffer;
+
+  Utf8ChannelWriter(WritableByteChannel channel, int bufferSize) {
+    this.channel = channel;
+    this.buffer = ByteBuffer.allocateDirect(Math.max(bufferSize, 16));
+  }
+
+  int bufferCapacity() {
+    return buffer.capacity();
+  }
+
+  Utf8ChannelWriter append(char c) throws IOException {
+    if (buffer.remaining() < 3) {
+      flush();
+    }
+    if (c < 0x80) {
+      buffer.put((byte) c);
+    } else if (c < 0x800) {
+      buffer.put((byte) (0xc0 | (c >> 6)));
+      buffer.put((byte) (0x80 | (c & 0x3f)));
+    } else {
+      buffer.put((byte) (0xe0 | (c >> 12)));
+      buffer.put((byte) (0x80 | ((c >> 6) & 0x3f)));
+      buffer.put((byte) (0x80 | (c & 0x3f)));
+    }
+    return this;
+  }
+
+  Utf8ChannelWriter append(CharSequence text) throws IOException {
+    for (int i = 0; i < text.length(); i++) {
+      char c = text.charAt(i);
+      if (Character.isHighSurrogate(c) && i + 1 < text.length() && Character.isLowSurrogate(text.charAt(i + 1))) {
+        appendCodePoint(Character.toCodePoint(c, text.charAt(++i)));
+      } else {
+        append(c);
+      }
+    }
+    return this;
+  }
+
+  void appendCodePoint(int codePoint) throws IOException {
+    if (buffer.remaining() < 4) {
+      flush();
+    }
+    buffer.put((byte) (0xf0 | (codePoint >> 18)));
+    buffer.put((byte) (0x80 | ((codePoint >> 12) & 0x3f)));
+    buffer.put((byte) (0x80 | ((codePoint >> 6) & 0x3f)));
+    buffer.put((byte) (0x80 | (codePoint & 0x3f)));
+  }
+
+  void flush() throws IOException {
+    buffer.flip();
+    while (buffer.hasRemaining()) {
+      channel.write(buffer);
+    }
+    buffer.clear();
+  }
+}
@@ -0,0 +1,76 @@
+package io.github.aaronchenwei.learning.jgrapht.nio;
+
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Converts vertices to and from the bytes stored in the vertex table of a {@link MappedGraph} file.
+ *
+ * <p>The encoding must be deterministic: vertices are looked up by binary search over their encoded bytes.
+ *
+ * @param <V> the graph vertex type.
+ */
+public interface VertexCodec<V> {
+
+  byte[] encode(V vertex);
+
+  V decode(byte[] bytes);
+
+  /**
+   * Returns a codec for {@link Integer} vertices.
+   *
+   * @return the codec.
+   */
+  static VertexCodec<Integer> integers() {
+    return new VertexCodec<>() {
+      @Override
+      public byte[] encode(Integer vertex) {
+        return ByteBuffer.allocate(Integer.BYTES).putInt(vertex).array();
+      }
+
+      @Override
+      public Integer decode(byte[] bytes) {
+        return ByteBuffer.wrap(bytes).getInt();
+      }
+    };
+  }
+
+  /**
+   * Returns a codec for {@link String} vertices, stored as UTF-8.
+   *
+   * @return the codec.
+   */
+  static VertexCodec<String> strings() {
+    return new VertexCodec<>() {
+      @Override
+      public byte[] encode(String vertex) {
+        return vertex.getBytes(StandardCharsets.UTF_8);
+      }
+
+      @Override
+      public String decode(byte[] bytes) {
+        return new String(bytes, StandardCharsets.UTF_8);
+      }
+    };
+  }
+
+  /**
+   * Returns a codec for {@link URI} vertices, stored as the UTF-8 form of {@link URI#toString()}.
+   *
+   * @return the codec.
+   */
+  static VertexCodec<URI> uris() {
+    return new VertexCodec<>() {
+      @Override
+      public byte[] encode(URI vertex) {
+        return vertex.toString().getBytes(StandardCharsets.UTF_8);
+      }
+
+      @Override
+      public URI decode(byte[] bytes) {
+        return URI.create(new String(bytes, StandardCharsets.UTF_8));
+      }
+    };
+  }
+}
@@ -0,0 +1,286 @@
+package io.github.aaronchenwei.learning.jgrapht.order;
+
+import io.github.aaronchenwei.learning.jgrapht.graph.IntCsr;
+import io.github.aaronchenwei.learning.jgrapht.graph.IntCsrGraph;
+import java.util.Arrays;
+
+/**
+ * Vertex orderings that relabel an {@link IntCsrGraph} for cache locality.
+ *
+ * <p>Vertex identifiers that come from insertion order scatter the neighbors of a vertex over the whole of the
+ * adjacency and score arrays, so a traversal misses the cache on nearly every edge. An ordering is a permutation
+ * {@code p} with {@code p[old] = new}; {@link #relabel} applies it. Two orderings are provided:
+ *
+ * <ul>
+ *   <li>{@link #degreeSorted}: vertices by descending degree. The hubs, which most edges lead to, share a few cache
+ *       lines at the front of every array. Cheap, but it only pays off when a few hubs carry a large share of
+ *       the edges.</li>
+ *   <li>{@link #reverseCuthillMcKee}: a breadth-first order from a peripheral vertex of each component, visiting
+ *       neighbors by ascending degree, reversed. Neighbors get nearby identifiers, which minimizes the bandwidth
+ *       of the adjacency matrix; most effective on meshes and road networks.</li>
+ * </ul>
+ *
+ * <p>Directed edges are followed both ways.
+ */
+public final class VertexOrdering {
+
+  private static final int PERIPHERAL_SEARCHES = 8;
+
+  private VertexOrdering() {
+  }
+
+  /**
+   * Orders vertices by descending {@link IntCsrGraph#degreeOf degree}, ties by identifier.
+   *
+   * @param graph the graph.
+   * @return the permutation, {@code p[old] = new}.
+   */
+  public static int[] degreeSorted(IntCsrGraph graph) {
+    int n = graph.vertexCount();
+    var degrees = new int[n];
+    int maxDegree = 0;
+    for (int v = 0; v < n; v++) {
+      degrees[v] = graph.degreeOf(v);
+      maxDegree = Math.max(maxDegree, degrees[v]);
+    }
+    // counting sort on maxDegree - degree
+    var cursor = new int[maxDegree + 2];
+    for (int v = 0; v < n; v++) {
+      cursor[maxDegree - degrees[v] + 1]++;
+    }
+    for (int d = 0; d <= maxDegree; d++) {
+      cursor[d + 1] += cursor[d];
+    }
+    var permutation = new int[n];
+    for (int v = 0; v < n; v++) {
+      permutation[v] = cursor[maxDegree - degrees[v]]++;
+    }
+    return permutation;
+  }
+
+  /**
+   * Orders vertices by reverse Cuthill-McKee, one component after another.
+   *
+   * @param graph the graph.
+   * @return the permutation, {@code p[old] = new}.
+   */
+  public static int[] reverseCuthillMcKee(IntCsrGraph graph) {
+    var sequence = cuthillMcKee(undirected(graph));
+    int n = sequence.length;
+    var permutation = new int[n];
+    for (int i = 0; i < n; i++) {
+      permutation[sequence[i]] = n - 1 - i;
+    }
+    return permutation;
+  }
+
+  /**
+   * Builds a copy of a graph with every vertex renamed. Edges keep their identifiers and weights.
+   *
+   * @param graph the graph.
+   * @param permutation the new identifier of each vertex.
+   * @return the relabelled graph, directed if the graph is.
+   * @throws IllegalArgumentException if {@code permutation} is not a permutation of the vertices.
+   */
+  public static IntCsrGraph relabel(IntCsrGraph graph, int[] permutation) {
+    int n = graph.vertexCount();
+    validate(permutation, n);
+    int m = graph.edgeCount();
+    var sources = new int[m];
+    var targets = new int[m];
+    for (int e = 0; e < m; e++) {
+      sources[e] = permutation[graph.edgeSource(e)];
+      targets[e] = permutation[graph.edgeTarget(e)];
+    }
+    double[] weights = null;
+    if (graph.getType().isWeighted()) {
+      weights = new double[m];
+      for (int e = 0; e < m; e++) {
+        weights[e] = graph.weight(e);
+      }
+    }
+    return graph.getType().isDirected()
+      ? IntCsrGraph.directed(n, sources, targets, weights)
+      : IntCsrGraph.undirected(n, sources, targets, weights);
+  }
+
+  /**
+   * Inverts a permutation.
+   *
+   * @param permutation the permutation, {@code p[old] = new}.
+   * @return the inverse, {@code q[new] = old}.
+   */
+  public static int[] inverse(int[] permutation) {
+    var inverse = new int[permutation.length];
+    for (int v = 0; v < permutation.length; v++) {
+      inverse[permutation[v]] = v;
+    }
+    return inverse;
+  }
+
+  private static void validate(int[] permutation, int n) {
+    if (permutation.length != n) {
+      throw new IllegalArgumentException("permutation has " + permutation.length + " entries for " + n + " vertices");
+    }
+    var seen = new boolean[n];
+    for (int p : permutation) {
+      if (p < 0 || p >= n || seen[p]) {
+        throw new IllegalArgumentException("not a permutation: " + p);
+      }
+      seen[p] = true;
+    }
+  }
+
+  /**
+   * Returns the adjacency of a graph with directed edges listed under both endpoints.
+   */
+  static IntCsr undirected(IntCsrGraph graph) {
+    if (!graph.getType().isDirected()) {
+      return graph.adjacency();
+    }
+    int m = graph.edgeCount();
+    var sources = new int[m];
+    var targets = new int[m];
+    for (int e = 0; e < m; e++) {
+      sources[e] = graph.edgeSource(e);
+      targets[e] = graph.edgeTarget(e);
+    }
+    return IntCsr.of(graph.vertexCount(), sources, targets, m, true);
+  }
+
+  /**
+   * Sorts the vertices by ascending degree, ties by identifier, with a counting sort.
+   */
+  static int[] byDegree(IntCsr adjacency) {
+    int n = adjacency.vertexCount();
+    int maxDegree = maxDegree(adjacency);
+    var cursor = new int[maxDegree + 2];
+    for (int v = 0; v < n; v++) {
+      cursor[adjacency.degree(v) + 1]++;
+    }
+    for (int d = 0; d <= maxDegree; d++) {
+      cursor[d + 1] += cursor[d];
+    }
+    var sequence = new int[n];
+    for (int v = 0; v < n; v++) {
+      sequence[cursor[adjacency.degree(v)]++] = v;
+    }
+    return sequence;
+  }
+
+  private static int maxDegree(IntCsr adjacency) {
+    int maxDegree = 0;
+    for (int v = 0; v < adjacency.vertexCount(); v++) {
+      maxDegree = Math.max(maxDegree, adjacency.degree(v));
+    }
+    return maxDegree;
+  }
+
+  /**
+   * Returns the vertices in Cuthill-McKee order: each component breadth-first from a pseudo-peripheral vertex, the
+   * newly discovered neighbors of a vertex by ascending degree.
+   */
+  static int[] cuthillMcKee(IntCsr adjacency) {
+    int n = adjacency.vertexCount();
+    var sequence = new int[n];
+    var placed = new boolean[n];
+    var search = new Search(n);
+    var neighbors = new long[16];
+    int tail = 0;
+    // start each component at its lowest-degree vertex, moved to the far end of the component
+    for (int candidate : byDegree(adjacency)) {
+      if (placed[candidate]) {
+        continue;
+      }
+      int start = search.peripheral(adjacency, candidate);
+      int head = tail;
+      sequence[tail++] = start;
+      placed[start] = true;
+      while (head < tail) {
+        int u = sequence[head++];
+        if (adjacency.degree(u) > neighbors.length) {
+          neighbors = new long[adjacency.degree(u)];
+        }
+        int found = 0;
+        for (int slot = adjacency.start(u); slot < adjacency.end(u); slot++) {
+          int w = adjacency.neighbor(slot);
+          if (!placed[w]) {
+            placed[w] = true;
+            neighbors[found++] = (long) adjacency.degree(w) << 32 | w;
+          }
+        }
+        Arrays.sort(neighbors, 0, found);
+        for (int i = 0; i < found; i++) {
+          sequence[tail++] = (int) neighbors[i];
+        }
+      }
+    }
+    return sequence;
+  }
+
+  /**
+   * Breadth-first searches that find a pseudo-peripheral vertex (George and Liu, 1979), with a stamp per search so
+   * that the marks need no clearing.
+   */
+  private static final class Search {
+    private final int[] stamps;
+    private final int[] queue;
+    private int stamp;
+
+    Search(int n) {
+      this.stamps = new int[n];
+      this.queue = new int[n];
+    }
+
+    /**
+     * Repeatedly searches from the lowest-degree vertex of the last level of the previous search, for as long as
+     * the depth grows.
+     */
+    int peripheral(IntCsr adjacency, int root) {
+      int v = root;
+      int depth = -1;
+      for (int i = 0; i < PERIPHERAL_SEARCHES; i++) {
+        stamp++;
+        stamps[v] = stamp;
+        queue[0] = v;
+        int levelStart = 0;
+        int levelEnd = 1;
+        int tail = 1;
+        int levels = 0;
+        while (true) {
+          for (int head = levelStart; head < levelEnd; head++) {
+            int u = queue[head];
+            for (int slot = adjacency.start(u); slot < adjacency.end(u); slot++) {
+              int w = adjacency.neighbor(slot);
+              if (stamps[w] != stamp) {
+                stamps[w] = stamp;
+                queue[tail++] = w;
+              }
+            }
+          }
+          if (tail == levelEnd) {
+            break;
+          }
+          levelStart = levelEnd;
+          levelEnd = tail;
+          levels++;
+        }
+        if (levels <= depth) {
+          break;
+        }
+        depth = levels;
+        int next = queue[levelStart];
+        for (int head = levelStart + 1; head < levelEnd; head++) {
+          if (adjacency.degree(queue[head]) < adjacency.degree(next)) {
+            next = queue[head];
+          }
+        }
+        if (next == v) {
+          break;
+        }
+        v = next;
+      }
+      return v;
+    }
+  }
+}
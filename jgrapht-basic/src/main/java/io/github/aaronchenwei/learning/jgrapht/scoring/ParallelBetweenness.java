@@ -0,0 +1,220 @@
+package io.github.aaronchenwei.learning.jgrapht.scoring;
+
+import io.github.aaronchenwei.learning.jgrapht.graph.FrozenGraph;
+import io.github.aaronchenwei.learning.jgrapht.graph.IntCsr;
+import io.github.aaronchenwei.learning.jgrapht.util.ParallelRange;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Betweenness centrality of an unweighted graph by Brandes' algorithm, with the sources split over a fork-join pool.
+ *
+ * <p>Each source costs a breadth-first search that counts shortest paths, then a pass in reverse search order that
+ * accumulates the dependencies. The sources are independent, so they are handed out in ranges; a task borrows a
+ * workspace (the search arrays plus a private score array) from a shared queue, so there are only as many
+ * workspaces as tasks running at once and no task ever writes to another's arrays. The private scores are summed
+ * at the end. Only the out-adjacency is needed: the dependencies of a vertex are pulled from its successors one
+ * level further from the source, which the reverse pass has already finished.
+ *
+ * <p>Exact betweenness needs a search from every vertex. For large graphs, {@link #sample(int, long)} searches from a
+ * random subset of the sources and scales the result up, which estimates the same scores (Brandes and Pich, 2007).
+ */
+public final class ParallelBetweenness {
+
+  private static final int SOURCE_GRAIN = 1 << 4;
+
+  private final IntCsr outgoing;
+  private final boolean directed;
+  private ForkJoinPool pool = ForkJoinPool.commonPool();
+  private boolean normalized;
+  private int sampleSize = -1;
+  private long seed;
+
+  /**
+   * Creates a computation over an adjacency.
+   *
+   * @param outgoing the out-adjacency; for an undirected graph, the symmetric adjacency.
+   * @param directed whether the graph is directed. Undirected scores count every pair of vertices once.
+   */
+  public ParallelBetweenness(IntCsr outgoing, boolean directed) {
+    this.outgoing = Objects.requireNonNull(outgoing, "outgoing");
+    this.directed = directed;
+  }
+
+  /**
+   * Creates a computation over a frozen graph. Edge weights are ignored.
+   *
+   * @param graph the graph.
+   */
+  public ParallelBetweenness(FrozenGraph<?, ?> graph) {
+    this(graph.outgoing(), graph.getType().isDirected());
+  }
+
+  /**
+   * Sets the pool to run in. Defaults to the common pool.
+   *
+   * @param pool the pool.
+   * @return this computation.
+   */
+  public ParallelBetweenness pool(ForkJoinPool pool) {
+    this.pool = Objects.requireNonNull(pool, "pool");
+    return this;
+  }
+
+  /**
+   * Sets whether the scores are divided by the number of pairs of other vertices, {@code (n - 1)(n - 2)} when
+   * directed and half of it when undirected. Defaults to false.
+   *
+   * @param normalized whether to normalize.
+   * @return this computation.
+   */
+  public ParallelBetweenness normalized(boolean normalized) {
+    this.normalized = normalized;
+    return this;
+  }
+
+  /**
+   * Searches from {@code sampleSize} random sources instead of every vertex, and scales the result by
+   * {@code n / sampleSize}. The sources are the same for the same seed.
+   *
+   * @param sampleSize the number of sources.
+   * @param seed the random seed.
+   * @return this computation.
+   */
+  public ParallelBetweenness sample(int sampleSize, long seed) {
+    if (sampleSize <= 0) {
+      throw new IllegalArgumentException("sample size must be positive");
+    }
+    this.sampleSize = sampleSize;
+    this.seed = seed;
+    return this;
+  }
+
+  /**
+   * Computes the scores.
+   *
+   * @return the betweenness of each vertex, indexed by vertex.
+   */
+  public double[] run() {
+    int n = outgoing.vertexCount();
+    int[] sources = sources(n);
+    var workspaces = new ConcurrentLinkedQueue<Workspace>();
+    ParallelRange.forEach(pool, 0, sources.length, ParallelRange.grain(pool, sources.length, SOURCE_GRAIN),
+      (from, to) -> {
+        var workspace = workspaces.poll();
+        if (workspace == null) {
+          workspace = new Workspace(n);
+        }
+        for (int i = from; i < to; i++) {
+          workspace.accumulate(outgoing, sources[i]);
+        }
+        workspaces.add(workspace);
+      });
+
+    var scores = new double[n];
+    for (var workspace : workspaces) {
+      for (int v = 0; v < n; v++) {
+        scores[v] += workspace.scores[v];
+      }
+    }
+    double scale = (double) n / Math.max(1, sources.length);
+    if (!directed) {
+      scale /= 2;
+    }
+    if (normalized && n > 2) {
+      scale /= (double) (n - 1) * (n - 2) / (directed ? 1 : 2);
+    }
+    for (int v = 0; v < n; v++) {
+      scores[v] *= scale;
+    }
+    return scores;
+  }
+
+  private int[] sources(int n) {
+    var all = new int[n];
+    Arrays.setAll(all, v -> v);
+    if (sampleSize < 0 || sampleSize >= n) {
+      return all;
+    }
+    // the first sampleSize steps of a Fisher-Yates shuffle
+    var random = new SplittableRandom(seed);
+    for (int i = 0; i < sampleSize; i++) {
+      int j = i + random.nextInt(n - i);
+      int t = all[i];
+      all[i] = all[j];
+      all[j] = t;
+    }
+    return Arrays.copyOf(all, sampleSize);
+  }
+
+  /**
+   * The per-task state of Brandes' algorithm. Only the vertices reached from a source are reset after it.
+   */
+  private static final class Workspace {
+    final double[] scores;
+    final int[] distances;
+    final double[] pathCounts;
+    final double[] dependencies;
+    final int[] order;
+
+    Workspace(int n) {
+      scores = new double[n];
+      distances = new int[n];
+      pathCounts = new double[n];
+      dependencies = new double[n];
+      order = new int[n];
+      Arrays.fill(distances, -1);
+    }
+
+    void accumulate(IntCsr outgoing, int source) {
+      int[] offsets = outgoing.offsets();
+      int[] neighbors = outgoing.neighbors();
+      // the search order doubles as the queue
+      int head = 0;
+      int tail = 0;
+      order[tail++] = source;
+      distances[source] = 0;
+      pathCounts[source] = 1;
+      while (head < tail) {
+        int v = order[head++];
+        int next = distances[v] + 1;
+        for (int slot = offsets[v], end = offsets[v + 1]; slot < end; slot++) {
+          int w = neighbors[slot];
+          if (distances[w] < 0) {
+            distances[w] = next;
+            order[tail++] = w;
+          }
+          if (distances[w] == next) {
+            pathCounts[w] += pathCounts[v];
+          }
+        }
+      }
+
+      for (int i = tail - 1; i >= 0; i--) {
+        int v = order[i];
+        int next = distances[v] + 1;
+        double dependency = 0;
+        for (int slot = offsets[v], end = offsets[v + 1]; slot < end; slot++) {
+          int w = neighbors[slot];
+          if (distances[w] == next) {
+            dependency += pathCounts[v] / pathCounts[w] * (1 + dependencies[w]);
+          }
+        }
+        dependencies[v] = dependency;
+        if (v != source) {
+          scores[v] += dependency;
+        }
+      }
+
+      for (int i = 0; i < tail; i++) {
+        int v = order[i];
+        distances[v] = -1;
+        pathCounts[v] = 0;
+        dependencies[v] = 0;
+      }
+    }
+  }
+}
@@ -0,0 +1,139 @@
+package io.github.aaronchenwei.learning.jgrapht.server;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.StandardSocketOptions;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+
+/**
+ * A blocking client for {@link GraphQueryServer}, one request at a time. Not thread-safe; use one per thread.
+ *
+ * <p>For pipelining, write {@link QueryProtocol} requests to a {@link SocketChannel} directly and split the responses
+ * with {@link QueryProtocol#responseLength}.
+ */
+public final class GraphQueryClient implements Closeable {
+
+  private final SocketChannel channel;
+  private final ByteBuffer out = ByteBuffer.allocate(QueryProtocol.MAX_REQUEST_LENGTH);
+  private ByteBuffer in = ByteBuffer.allocate(1 << 12);
+
+  private GraphQueryClient(SocketChannel channel) {
+    this.channel = channel;
+  }
+
+  /**
+   * Connects to a server.
+   *
+   * @param address the address of the server, TCP or Unix domain.
+   * @return the client.
+   * @throws IOException if the connection fails.
+   */
+  public static GraphQueryClient connect(SocketAddress address) throws IOException {
+    var channel = address instanceof UnixDomainSocketAddress
+      ? SocketChannel.open(StandardProtocolFamily.UNIX)
+      : SocketChannel.open();
+    try {
+      channel.connect(address);
+      if (address instanceof InetSocketAddress) {
+        channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+      }
+    } catch (IOException e) {
+      channel.close();
+      throw e;
+    }
+    return new GraphQueryClient(channel);
+  }
+
+  /**
+   * Returns the successors of a vertex.
+   *
+   * @param vertex the vertex.
+   * @return the successors.
+   * @throws IOException if the connection fails.
+   * @throws IllegalArgumentException if the vertex does not exist.
+   */
+  public int[] neighbors(int vertex) throws IOException {
+    QueryProtocol.putNeighbors(out, vertex);
+    return readVertices(call());
+  }
+
+  /**
+   * Returns a path with the fewest edges between two vertices.
+   *
+   * @param source the source.
+   * @param target the target.
+   * @return the vertices of the path, source and target included, or an empty array if there is none.
+   * @throws IOException if the connection fails.
+   * @throws IllegalArgumentException if a vertex does not exist.
+   */
+  public int[] path(int source, int target) throws IOException {
+    QueryProtocol.putPath(out, source, target);
+    return readVertices(call());
+  }
+
+  /**
+   * Returns whether a vertex can be reached from another.
+   *
+   * @param source the source.
+   * @param target the target.
+   * @return true if there is a path.
+   * @throws IOException if the connection fails.
+   * @throws IllegalArgumentException if a vertex does not exist.
+   */
+  public boolean reachable(int source, int target) throws IOException {
+    QueryProtocol.putReachable(out, source, target);
+    return call().get() != 0;
+  }
+
+  @Override
+  public void close() throws IOException {
+    channel.close();
+  }
+
+  /**
+   * Sends the request in {@code out} and reads the whole response.
+   *
+   * @return the response after its status byte.
+   */
+  private ByteBuffer call() throws IOException {
+    out.flip();
+    while (out.hasRemaining()) {
+      channel.write(out);
+    }
+    out.clear();
+    in.clear();
+    int length;
+    while (true) {
+      in.flip();
+      length = QueryProtocol.responseLength(in);
+      in.position(in.limit()).limit(in.capacity());
+      if (length >= 0 && in.position() >= length) {
+        break;
+      }
+      if (length > in.capacity()) {
+        in = ByteBuffer.allocate(length).put(in.flip());
+      }
+      if (channel.read(in) < 0) {
+        throw new EOFException("connection closed by the server");
+      }
+    }
+    in.flip();
+    in.get();
+    if (in.get() == QueryProtocol.NO_SUCH_VERTEX) {
+      throw new IllegalArgumentException("no such vertex in graph");
+    }
+    return in;
+  }
+
+  private static int[] readVertices(ByteBuffer in) {
+    var vertices = new int[in.getInt()];
+    in.asIntBuffer().get(vertices);
+    return vertices;
+  }
+}
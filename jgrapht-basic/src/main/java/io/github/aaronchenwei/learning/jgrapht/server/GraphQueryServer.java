@@ -0,0 +1,387 @@
+package io.github.aaronchenwei.learning.jgrapht.server;
+
+import io.github.aaronchenwei.learning.jgrapht.graph.IntCsr;
+import io.github.aaronchenwei.learning.jgrapht.graph.IntCsrGraph;
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.StandardSocketOptions;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Serves neighbor, shortest-path and reachability queries on an {@link IntCsrGraph} over a TCP or Unix domain
+ * socket, in the {@link QueryProtocol binary protocol}.
+ *
+ * <p>The graph is loaded once and shared read-only by all connections. Each connection is served by its own thread,
+ * a virtual thread on Java 21 and later (the library targets Java 17, so the virtual-thread executor is looked up
+ * reflectively) and a platform thread before that.
+ *
+ * <p>Requests are executed in batches: every read from a connection takes all the requests that have arrived, up to
+ * the buffer size, answers them in order into one output buffer, and writes it back with a single write. A client
+ * that pipelines its requests thus pays one pair of system calls per batch instead of per request, and the more
+ * load there is, the larger the batches get.
+ *
+ * <p>Paths and reachability are answered by a bidirectional breadth-first search, which expands the smaller of the
+ * forward and backward frontiers one level at a time and stops when they meet; the path has the fewest edges. The
+ * search state (12 bytes per vertex) is pooled and borrowed per query, so there is about one per busy carrier thread,
+ * not one per connection.
+ */
+public final class GraphQueryServer implements Closeable {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(GraphQueryServer.class);
+  private static final int BUFFER_SIZE = 1 << 16;
+
+  private final IntCsr outgoing;
+  private final IntCsr incoming;
+  private final ConcurrentLinkedQueue<Search> searches = new ConcurrentLinkedQueue<>();
+  private final Set<SocketChannel> connections = ConcurrentHashMap.newKeySet();
+  private final LongAdder queryCount = new LongAdder();
+  private final LongAdder batchCount = new LongAdder();
+
+  private ServerSocketChannel server;
+  private SocketAddress localAddress;
+  private ExecutorService executor;
+  private boolean virtualThreads;
+
+  /**
+   * Creates a server for a graph. Directed graphs are queried along their edges.
+   *
+   * @param graph the graph.
+   */
+  public GraphQueryServer(IntCsrGraph graph) {
+    this.outgoing = graph.adjacency();
+    this.incoming = graph.incoming();
+  }
+
+  /**
+   * Binds the server and starts accepting connections.
+   *
+   * @param address an {@link InetSocketAddress}, port 0 for any free port, or a {@link UnixDomainSocketAddress}.
+   * @return the address the server is bound to.
+   * @throws IOException if the address cannot be bound.
+   * @throws IllegalStateException if the server was already started.
+   */
+  public synchronized SocketAddress start(SocketAddress address) throws IOException {
+    if (server != null) {
+      throw new IllegalStateException("server already started");
+    }
+    server = address instanceof UnixDomainSocketAddress
+      ? ServerSocketChannel.open(StandardProtocolFamily.UNIX)
+      : ServerSocketChannel.open();
+    server.bind(address);
+    localAddress = server.getLocalAddress();
+    executor = newConnectionExecutor();
+    executor.execute(this::accept);
+    LOGGER.atInfo().setMessage("serving {} vertices on {} ({} threads)").addArgument(outgoing.vertexCount())
+      .addArgument(localAddress).addArgument(virtualThreads ? "virtual" : "platform").log();
+    return localAddress;
+  }
+
+  /**
+   * Whether connections are served by virtual threads.
+   *
+   * @return true on Java 21 and later, once started.
+   */
+  public boolean usesVirtualThreads() {
+    return virtualThreads;
+  }
+
+  /**
+   * Returns the number of requests answered.
+   *
+   * @return the query count.
+   */
+  public long queryCount() {
+    return queryCount.sum();
+  }
+
+  /**
+   * Returns the number of batches the requests were answered in; every batch is one read and one write.
+   *
+   * @return the batch count.
+   */
+  public long batchCount() {
+    return batchCount.sum();
+  }
+
+  /**
+   * Stops accepting connections and closes the open ones. A Unix domain socket file is deleted.
+   *
+   * @throws IOException if the socket file cannot be deleted.
+   */
+  @Override
+  public synchronized void close() throws IOException {
+    if (server == null) {
+      return;
+    }
+    server.close();
+    for (var channel : connections) {
+      channel.close();
+    }
+    executor.shutdownNow();
+    if (localAddress instanceof UnixDomainSocketAddress unix) {
+      Files.deleteIfExists(unix.getPath());
+    }
+  }
+
+  private ExecutorService newConnectionExecutor() {
+    try {
+      var executor = (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+      virtualThreads = true;
+      return executor;
+    } catch (ReflectiveOperationException | UnsupportedOperationException e) {
+      // before Java 21, or Java 19 and 20 without preview features
+      var threads = new AtomicInteger();
+      return Executors.newCachedThreadPool(task -> {
+        var thread = new Thread(task, "graph-query-" + threads.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+      });
+    }
+  }
+
+  private void accept() {
+    try {
+      while (true) {
+        var channel = server.accept();
+        if (localAddress instanceof InetSocketAddress) {
+          channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+        }
+        connections.add(channel);
+        try {
+          executor.execute(() -> serve(channel));
+        } catch (RejectedExecutionException e) {
+          // closing
+          connections.remove(channel);
+          channel.close();
+        }
+      }
+    } catch (ClosedChannelException e) {
+      // closed by close()
+    } catch (IOException e) {
+      LOGGER.atWarn().setMessage("stopped accepting connections on {}").addArgument(localAddress).setCause(e).log();
+    }
+  }
+
+  private void serve(SocketChannel channel) {
+    var in = ByteBuffer.allocate(BUFFER_SIZE);
+    var out = ByteBuffer.allocate(BUFFER_SIZE);
+    try (channel) {
+      while (channel.read(in) >= 0) {
+        in.flip();
+        int batch = 0;
+        while (in.hasRemaining()) {
+          int length = QueryProtocol.requestLength(in.get(in.position()));
+          if (length < 0) {
+            LOGGER.atWarn().setMessage("closing connection {}: unknown opcode {}").addArgument(channel)
+              .addArgument(in.get(in.position())).log();
+            return;
+          }
+          if (in.remaining() < length) {
+            break;
+          }
+          out = execute(in, out);
+          batch++;
+        }
+        in.compact();
+        if (batch > 0) {
+          queryCount.add(batch);
+          batchCount.increment();
+          out.flip();
+          while (out.hasRemaining()) {
+            channel.write(out);
+          }
+          out.clear();
+        }
+      }
+    } catch (ClosedChannelException e) {
+      // closed by the server
+    } catch (IOException e) {
+      LOGGER.atDebug().setMessage("connection {} failed").addArgument(channel).setCause(e).log();
+    } finally {
+      connections.remove(channel);
+    }
+  }
+
+  /**
+   * Reads one complete request and appends its response.
+   *
+   * @return the output buffer, or a larger copy of it if the response did not fit.
+   */
+  private ByteBuffer execute(ByteBuffer in, ByteBuffer out) {
+    byte opcode = in.get();
+    int source = in.getInt();
+    int target = opcode == QueryProtocol.NEIGHBORS ? source : in.getInt();
+    int n = outgoing.vertexCount();
+    if (source < 0 || source >= n || target < 0 || target >= n) {
+      out = ensureRemaining(out, 2);
+      out.put(opcode).put(QueryProtocol.NO_SUCH_VERTEX);
+      return out;
+    }
+    if (opcode == QueryProtocol.NEIGHBORS) {
+      int start = outgoing.start(source);
+      int degree = outgoing.end(source) - start;
+      out = ensureRemaining(out, 6 + 4 * degree);
+      out.put(opcode).put(QueryProtocol.OK).putInt(degree);
+      out.asIntBuffer().put(outgoing.neighbors(), start, degree);
+      out.position(out.position() + 4 * degree);
+      return out;
+    }
+    var search = searches.poll();
+    if (search == null) {
+      search = new Search(n);
+    }
+    try {
+      if (opcode == QueryProtocol.REACHABLE) {
+        out = ensureRemaining(out, 3);
+        out.put(opcode).put(QueryProtocol.OK).put((byte) (search.run(source, target, false) > 0 ? 1 : 0));
+        return out;
+      }
+      int length = search.run(source, target, true);
+      out = ensureRemaining(out, 6 + 4 * length);
+      out.put(opcode).put(QueryProtocol.OK).putInt(length);
+      out.asIntBuffer().put(search.path, 0, length);
+      out.position(out.position() + 4 * length);
+      return out;
+    } finally {
+      searches.offer(search);
+    }
+  }
+
+  private static ByteBuffer ensureRemaining(ByteBuffer out, int bytes) {
+    if (out.remaining() >= bytes) {
+      return out;
+    }
+    var larger = ByteBuffer.allocate(Math.max(2 * out.capacity(), out.position() + bytes));
+    return larger.put(out.flip());
+  }
+
+  /**
+   * A bidirectional breadth-first search. A vertex is marked with the stamp of the search when the forward search
+   * finds it and with the negated stamp when the backward search does, so one array tells both searches apart and
+   * needs no clearing; the two queues share one array, the forward one growing up from the start and the backward
+   * one down from the end.
+   */
+  private final class Search {
+    private final int[] marks;
+    private final int[] parents;
+    private final int[] queue;
+    private int stamp;
+    private int[] path = new int[16];
+
+    Search(int vertexCount) {
+      this.marks = new int[vertexCount];
+      this.parents = new int[vertexCount];
+      this.queue = new int[vertexCount];
+    }
+
+    /**
+     * Searches a shortest path.
+     *
+     * @return the number of vertices on the path, which is left in {@code path} if requested, or 0 if there is
+     *     none. When the path is not requested, any positive number means there is one.
+     */
+    int run(int source, int target, boolean buildPath) {
+      if (source == target) {
+        path[0] = source;
+        return 1;
+      }
+      if (++stamp == Integer.MAX_VALUE) {
+        Arrays.fill(marks, 0);
+        stamp = 1;
+      }
+      int last = queue.length - 1;
+      marks[source] = stamp;
+      parents[source] = -1;
+      queue[0] = source;
+      int forwardHead = 0;
+      int forwardTail = 1;
+      marks[target] = -stamp;
+      parents[target] = -1;
+      queue[last] = target;
+      int backwardHead = last;
+      int backwardTail = last - 1;
+      while (forwardHead < forwardTail && backwardHead > backwardTail) {
+        if (forwardTail - forwardHead <= backwardHead - backwardTail) {
+          for (int levelEnd = forwardTail; forwardHead < levelEnd; forwardHead++) {
+            int v = queue[forwardHead];
+            for (int slot = outgoing.start(v), end = outgoing.end(v); slot < end; slot++) {
+              int w = outgoing.neighbor(slot);
+              if (marks[w] == -stamp) {
+                return meet(v, w, buildPath);
+              }
+              if (marks[w] != stamp) {
+                marks[w] = stamp;
+                parents[w] = v;
+                queue[forwardTail++] = w;
+              }
+            }
+          }
+        } else {
+          for (int levelEnd = backwardTail; backwardHead > levelEnd; backwardHead--) {
+            int v = queue[backwardHead];
+            for (int slot = incoming.start(v), end = incoming.end(v); slot < end; slot++) {
+              int w = incoming.neighbor(slot);
+              if (marks[w] == stamp) {
+                return meet(w, v, buildPath);
+              }
+              if (marks[w] != -stamp) {
+                marks[w] = -stamp;
+                parents[w] = v;
+                queue[backwardTail--] = w;
+              }
+            }
+          }
+        }
+      }
+      return 0;
+    }
+
+    /**
+     * Joins the forward path to {@code forward} and the backward path from {@code backward}, linked by an edge.
+     */
+    private int meet(int forward, int backward, boolean buildPath) {
+      if (!buildPath) {
+        return 1;
+      }
+      int forwardLength = 0;
+      for (int v = forward; v >= 0; v = parents[v]) {
+        forwardLength++;
+      }
+      int length = forwardLength;
+      for (int v = backward; v >= 0; v = parents[v]) {
+        length++;
+      }
+      if (path.length < length) {
+        path = new int[length];
+      }
+      int i = forwardLength;
+      for (int v = forward; v >= 0; v = parents[v]) {
+        path[--i] = v;
+      }
+      i = forwardLength;
+      for (int v = backward; v >= 0; v = parents[v]) {
+        path[i++] = v;
+      }
+      return length;
+    }
+  }
+}
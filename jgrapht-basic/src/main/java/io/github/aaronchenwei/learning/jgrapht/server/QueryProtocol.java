@@ -0,0 +1,124 @@
+package io.github.aaronchenwei.learning.jgrapht.server;
+
+import java.nio.ByteBuffer;
+
+/**
+ * The binary protocol of {@link GraphQueryServer}: fixed-size requests and length-prefixed responses, big-endian, with
+ * no per-message header beyond the opcode.
+ *
+ * <p>Requests:
+ * <ul>
+ *   <li>{@link #NEIGHBORS}: {@code opcode, int32 vertex}, 5 bytes;</li>
+ *   <li>{@link #PATH}: {@code opcode, int32 source, int32 target}, 9 bytes;</li>
+ *   <li>{@link #REACHABLE}: {@code opcode, int32 source, int32 target}, 9 bytes.</li>
+ * </ul>
+ *
+ * <p>Every response starts with the opcode of its request and a status byte. If the status is {@link #OK}, it goes
+ * on with {@code int32 count} and {@code count} vertices for {@code NEIGHBORS} (the successors) and {@code PATH} (a
+ * shortest path from source to target, both included, or nothing if there is none), and with one byte, 0 or 1, for
+ * {@code REACHABLE}. Any other status ends the response.
+ *
+ * <p>A connection carries any number of requests, and the responses come back in request order, so a client may
+ * send many requests before reading the first response. An unknown opcode closes the connection.
+ */
+public final class QueryProtocol {
+
+  /**
+   * The successors of a vertex.
+   */
+  public static final byte NEIGHBORS = 1;
+  /**
+   * A shortest path, in edges, between two vertices.
+   */
+  public static final byte PATH = 2;
+  /**
+   * Whether a vertex can be reached from another.
+   */
+  public static final byte REACHABLE = 3;
+
+  /**
+   * The status of a response that carries a result.
+   */
+  public static final byte OK = 0;
+  /**
+   * The status of a response to a request naming a vertex that is not in the graph; no result follows.
+   */
+  public static final byte NO_SUCH_VERTEX = 1;
+
+  /**
+   * The length of the longest request.
+   */
+  public static final int MAX_REQUEST_LENGTH = 9;
+
+  private QueryProtocol() {
+  }
+
+  /**
+   * Returns the length of a request.
+   *
+   * @param opcode the opcode.
+   * @return the length in bytes, opcode included, or -1 if the opcode is unknown.
+   */
+  public static int requestLength(byte opcode) {
+    return switch (opcode) {
+      case NEIGHBORS -> 5;
+      case PATH, REACHABLE -> 9;
+      default -> -1;
+    };
+  }
+
+  /**
+   * Writes a {@link #NEIGHBORS} request.
+   *
+   * @param out the buffer, with at least 5 bytes remaining.
+   * @param vertex the vertex.
+   */
+  public static void putNeighbors(ByteBuffer out, int vertex) {
+    out.put(NEIGHBORS).putInt(vertex);
+  }
+
+  /**
+   * Writes a {@link #PATH} request.
+   *
+   * @param out the buffer, with at least 9 bytes remaining.
+   * @param source the first vertex of the path.
+   * @param target the last vertex of the path.
+   */
+  public static void putPath(ByteBuffer out, int source, int target) {
+    out.put(PATH).putInt(source).putInt(target);
+  }
+
+  /**
+   * Writes a {@link #REACHABLE} request.
+   *
+   * @param out the buffer, with at least 9 bytes remaining.
+   * @param source the vertex to search from.
+   * @param target the vertex to reach.
+   */
+  public static void putReachable(ByteBuffer out, int source, int target) {
+    out.put(REACHABLE).putInt(source).putInt(target);
+  }
+
+  /**
+   * Returns the length of the response at the position of a buffer, without moving it.
+   *
+   * @param in the buffer.
+   * @return the length in bytes, or -1 if the buffer does not hold enough of it to tell.
+   * @throws IllegalStateException if the response is malformed.
+   */
+  public static int responseLength(ByteBuffer in) {
+    int p = in.position();
+    if (in.remaining() < 2) {
+      return -1;
+    }
+    byte opcode = in.get(p);
+    if (in.get(p + 1) != OK) {
+      return 2;
+    }
+    return switch (opcode) {
+      case NEIGHBORS, PATH -> in.remaining() < 6 ? -1 : 6 + 4 * in.getInt(p + 2);
+      case REACHABLE -> 3;
+      default -> throw new IllegalStateException("unknown opcode in response: " + opcode);
+    };
+  }
+}
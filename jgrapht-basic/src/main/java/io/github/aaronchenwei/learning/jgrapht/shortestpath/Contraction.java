@@ -0,0 +1,395 @@
+package io.github.aaronchenwei.learning.jgrapht.shortestpath;
+
+import io.github.aaronchenwei.learning.jgrapht.shortestpath.ContractionHierarchy.ArcTable;
+import io.github.aaronchenwei.learning.jgrapht.util.ParallelRange;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * The preprocessing of a {@link ContractionHierarchy}: contracts every vertex of a weighted overlay graph, lowest
+ * priority first, and records the shortcuts that keep the distances between the remaining vertices.
+ *
+ * <p>The vertices are contracted in rounds. Each round selects the vertices whose priority is lower than the
+ * priority of every remaining neighbor, an independent set, and contracts them all on the pool: for every pair of
+ * arcs {@code (u, v)}, {@code (v, w)} a bounded witness search from {@code u} looks for a path to {@code w} that avoids
+ * the vertices of the round and is no longer than the pair, and a shortcut {@code (u, w)} is added when there is
+ * none. Witness searches that give up early only add superfluous shortcuts. The priority of a vertex is its edge
+ * difference (shortcuts added minus arcs removed), plus the number of its contracted neighbors and its level, to
+ * spread the contraction uniformly over the graph; it is recomputed for the neighbors of every round.
+ */
+final class Contraction {
+
+  private static final int[] NO_INTS = new int[0];
+  private static final double[] NO_DOUBLES = new double[0];
+  private static final int GRAIN = 1 << 6;
+  private static final int SETTLE_LIMIT = 500;
+  private static final int SIMULATION_SETTLE_LIMIT = 50;
+
+  private static final byte REMAINING = 0;
+  private static final byte CONTRACTING = 1;
+  private static final byte CONTRACTED = 2;
+
+  private final int vertexCount;
+  private final Arcs[] out;
+  private final Arcs[] in;
+  private final byte[] state;
+  private final int[] priorities;
+  private final int[] deleted;
+  private final int[] levels;
+  private final int[] ranks;
+
+  Contraction(int vertexCount) {
+    this.vertexCount = vertexCount;
+    this.out = new Arcs[vertexCount];
+    this.in = new Arcs[vertexCount];
+    for (int v = 0; v < vertexCount; v++) {
+      out[v] = new Arcs();
+      in[v] = new Arcs();
+    }
+    this.state = new byte[vertexCount];
+    this.priorities = new int[vertexCount];
+    this.deleted = new int[vertexCount];
+    this.levels = new int[vertexCount];
+    this.ranks = new int[vertexCount];
+  }
+
+  /**
+   * Adds an arc of the input graph; of several parallel arcs only the lightest is kept, and self-loops are dropped.
+   *
+   * @param u the tail.
+   * @param w the head.
+   * @param weight the weight, non-negative.
+   */
+  void addArc(int u, int w, double weight) {
+    if (u != w) {
+      out[u].put(w, weight, -1);
+      in[w].put(u, weight, -1);
+    }
+  }
+
+  /**
+   * Contracts every vertex.
+   *
+   * @param pool the pool to run the witness searches in.
+   */
+  void run(ForkJoinPool pool) {
+    var witnesses = ThreadLocal.withInitial(Witness::new);
+    var remaining = new int[vertexCount];
+    Arrays.setAll(remaining, v -> v);
+    ParallelRange.forEach(pool, 0, vertexCount, ParallelRange.grain(pool, vertexCount, GRAIN), (from, to) -> {
+      var witness = witnesses.get();
+      for (int v = from; v < to; v++) {
+        priorities[v] = priority(v, witness);
+      }
+    });
+
+    var batch = new int[vertexCount];
+    var touched = new int[vertexCount];
+    var stamps = new int[vertexCount];
+    int remainingCount = vertexCount;
+    int nextRank = 0;
+    for (int round = 1; remainingCount > 0; round++) {
+      int count = remainingCount;
+      ParallelRange.forEach(pool, 0, count, ParallelRange.grain(pool, count, GRAIN), (from, to) -> {
+        for (int i = from; i < to; i++) {
+          int v = remaining[i];
+          if (isLocalMinimum(v)) {
+            state[v] = CONTRACTING;
+          }
+        }
+      });
+      int batchSize = 0;
+      remainingCount = 0;
+      for (int i = 0; i < count; i++) {
+        int v = remaining[i];
+        if (state[v] == CONTRACTING) {
+          batch[batchSize++] = v;
+        } else {
+          remaining[remainingCount++] = v;
+        }
+      }
+
+      var shortcuts = new Shortcuts[batchSize];
+      ParallelRange.forEach(pool, 0, batchSize, ParallelRange.grain(pool, batchSize, GRAIN), (from, to) -> {
+        var witness = witnesses.get();
+        for (int i = from; i < to; i++) {
+          shortcuts[i] = new Shortcuts();
+          shortcuts(batch[i], witness, SETTLE_LIMIT, shortcuts[i]);
+        }
+      });
+
+      // the vertices of a batch are not adjacent, so their updates touch disjoint arcs of remaining vertices only
+      int touchedCount = 0;
+      for (int i = 0; i < batchSize; i++) {
+        int v = batch[i];
+        ranks[v] = nextRank++;
+        state[v] = CONTRACTED;
+        for (var arcs : new Arcs[] {out[v], in[v]}) {
+          for (int j = 0; j < arcs.size; j++) {
+            int u = arcs.heads[j];
+            (arcs == out[v] ? in[u] : out[u]).remove(v);
+            deleted[u]++;
+            levels[u] = Math.max(levels[u], levels[v] + 1);
+            if (stamps[u] != round) {
+              stamps[u] = round;
+              touched[touchedCount++] = u;
+            }
+          }
+        }
+        var added = shortcuts[i];
+        for (int j = 0; j < added.size; j++) {
+          out[added.tails[j]].put(added.heads[j], added.weights[j], v);
+          in[added.heads[j]].put(added.tails[j], added.weights[j], v);
+        }
+      }
+
+      ParallelRange.forEach(pool, 0, touchedCount, ParallelRange.grain(pool, touchedCount, GRAIN), (from, to) -> {
+        var witness = witnesses.get();
+        for (int i = from; i < to; i++) {
+          priorities[touched[i]] = priority(touched[i], witness);
+        }
+      });
+    }
+  }
+
+  int[] ranks() {
+    return ranks;
+  }
+
+  /**
+   * Returns the arcs towards higher-ranked vertices, listed at their tail. Only valid after {@link #run}.
+   *
+   * @return the upward arcs.
+   */
+  ArcTable upward() {
+    return table(out);
+  }
+
+  /**
+   * Returns the arcs from higher-ranked vertices, listed at their head. Only valid after {@link #run}.
+   *
+   * @return the downward arcs.
+   */
+  ArcTable downward() {
+    return table(in);
+  }
+
+  private ArcTable table(Arcs[] lists) {
+    var offsets = new int[vertexCount + 1];
+    for (int v = 0; v < vertexCount; v++) {
+      offsets[v + 1] = offsets[v] + lists[v].size;
+    }
+    int size = offsets[vertexCount];
+    var heads = new int[size];
+    var weights = new double[size];
+    var middles = new int[size];
+    for (int v = 0; v < vertexCount; v++) {
+      var arcs = lists[v];
+      System.arraycopy(arcs.heads, 0, heads, offsets[v], arcs.size);
+      System.arraycopy(arcs.weights, 0, weights, offsets[v], arcs.size);
+      System.arraycopy(arcs.middles, 0, middles, offsets[v], arcs.size);
+    }
+    return new ArcTable(offsets, heads, weights, middles);
+  }
+
+  private int priority(int v, Witness witness) {
+    int shortcuts = shortcuts(v, witness, SIMULATION_SETTLE_LIMIT, null);
+    return 2 * (shortcuts - in[v].size - out[v].size) + deleted[v] + levels[v];
+  }
+
+  /**
+   * Whether a vertex precedes all of its neighbors, by priority and then by a hash of the identifier.
+   */
+  private boolean isLocalMinimum(int v) {
+    for (var arcs : new Arcs[] {out[v], in[v]}) {
+      for (int j = 0; j < arcs.size; j++) {
+        if (precedes(arcs.heads[j], v)) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  private boolean precedes(int a, int b) {
+    if (priorities[a] != priorities[b]) {
+      return priorities[a] < priorities[b];
+    }
+    // a bijection, so only a == b ties
+    return mix(a) < mix(b);
+  }
+
+  private static int mix(int v) {
+    int h = v * 0x9e3779b9;
+    h ^= h >>> 16;
+    h *= 0x85ebca6b;
+    return h ^ (h >>> 13);
+  }
+
+  /**
+   * Counts the shortcuts that contracting a vertex needs, and collects them when {@code shortcuts} is not null. The
+   * priorities are only estimates, so their witness searches give up sooner than the ones of an actual contraction.
+   */
+  private int shortcuts(int v, Witness witness, int settleLimit, Shortcuts shortcuts) {
+    var ins = in[v];
+    var outs = out[v];
+    int count = 0;
+    for (int i = 0; i < ins.size; i++) {
+      int u = ins.heads[i];
+      double first = ins.weights[i];
+      double longest = -1.0;
+      for (int j = 0; j < outs.size; j++) {
+        if (outs.heads[j] != u) {
+          longest = Math.max(longest, outs.weights[j]);
+        }
+      }
+      if (longest < 0.0) {
+        continue;
+      }
+      witness.search(u, v, first + longest, settleLimit);
+      for (int j = 0; j < outs.size; j++) {
+        int w = outs.heads[j];
+        double via = first + outs.weights[j];
+        if (w != u && witness.distances[w] > via) {
+          count++;
+          if (shortcuts != null) {
+            shortcuts.add(u, w, via);
+          }
+        }
+      }
+    }
+    return count;
+  }
+
+  /**
+   * The arcs of a vertex in the overlay graph, unordered, at most one per neighbor.
+   */
+  private static final class Arcs {
+    int[] heads = NO_INTS;
+    double[] weights = NO_DOUBLES;
+    int[] middles = NO_INTS;
+    int size;
+
+    /**
+     * Adds an arc, or lowers the weight of the existing arc to the same neighbor.
+     */
+    void put(int head, double weight, int middle) {
+      for (int i = 0; i < size; i++) {
+        if (heads[i] == head) {
+          if (weight < weights[i]) {
+            weights[i] = weight;
+            middles[i] = middle;
+          }
+          return;
+        }
+      }
+      if (size == heads.length) {
+        int capacity = Math.max(4, size * 2);
+        heads = Arrays.copyOf(heads, capacity);
+        weights = Arrays.copyOf(weights, capacity);
+        middles = Arrays.copyOf(middles, capacity);
+      }
+      heads[size] = head;
+      weights[size] = weight;
+      middles[size] = middle;
+      size++;
+    }
+
+    void remove(int head) {
+      for (int i = 0; i < size; i++) {
+        if (heads[i] == head) {
+          size--;
+          heads[i] = heads[size];
+          weights[i] = weights[size];
+          middles[i] = middles[size];
+          return;
+        }
+      }
+    }
+  }
+
+  /**
+   * The shortcuts found for one vertex of a round.
+   */
+  private static final class Shortcuts {
+    int[] tails = NO_INTS;
+    int[] heads = NO_INTS;
+    double[] weights = NO_DOUBLES;
+    int size;
+
+    void add(int tail, int head, double weight) {
+      if (size == tails.length) {
+        int capacity = Math.max(4, size * 2);
+        tails = Arrays.copyOf(tails, capacity);
+        heads = Arrays.copyOf(heads, capacity);
+        weights = Arrays.copyOf(weights, capacity);
+      }
+      tails[size] = tail;
+      heads[size] = head;
+      weights[size] = weight;
+      size++;
+    }
+  }
+
+  /**
+   * A bounded Dijkstra search over the remaining vertices, with arrays reused across searches of one thread.
+   */
+  private final class Witness {
+    final double[] distances = new double[vertexCount];
+    final int[] touched = new int[vertexCount];
+    final int[] targetStamps = new int[vertexCount];
+    final IntDoubleHeap heap = new IntDoubleHeap(vertexCount);
+    int touchedCount;
+    int stamp;
+
+    Witness() {
+      Arrays.fill(distances, Double.POSITIVE_INFINITY);
+    }
+
+    /**
+     * Searches from an in-neighbor of a vertex towards its out-neighbors, avoiding the vertex and the vertices of the
+     * round, until every out-neighbor is settled, the distances exceed a limit, or enough vertices are settled.
+     */
+    void search(int source, int skipped, double limit, int settleLimit) {
+      for (int i = 0; i < touchedCount; i++) {
+        distances[touched[i]] = Double.POSITIVE_INFINITY;
+      }
+      stamp++;
+      int targets = 0;
+      var outs = out[skipped];
+      for (int j = 0; j < outs.size; j++) {
+        if (outs.heads[j] != source) {
+          targetStamps[outs.heads[j]] = stamp;
+          targets++;
+        }
+      }
+      distances[source] = 0.0;
+      touched[0] = source;
+      touchedCount = 1;
+      heap.update(source, 0.0);
+      for (int settled = 0; !heap.isEmpty() && heap.minKey() <= limit && settled < settleLimit; settled++) {
+        int u = heap.poll();
+        if (targetStamps[u] == stamp && --targets == 0) {
+          break;
+        }
+        double du = distances[u];
+        var arcs = out[u];
+        for (int j = 0; j < arcs.size; j++) {
+          int w = arcs.heads[j];
+          if (w == skipped || state[w] != REMAINING) {
+            continue;
+          }
+          double dw = du + arcs.weights[j];
+          if (dw < distances[w]) {
+            if (distances[w] == Double.POSITIVE_INFINITY) {
+              touched[touchedCount++] = w;
+            }
+            distances[w] = dw;
+            heap.update(w, dw);
+          }
+        }
+      }
+      heap.clear();
+    }
+  }
+}
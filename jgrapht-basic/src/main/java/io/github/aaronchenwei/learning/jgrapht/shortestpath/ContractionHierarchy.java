@@ -0,0 +1,533 @@
+package io.github.aaronchenwei.learning.jgrapht.shortestpath;
+
+import io.github.aaronchenwei.learning.jgrapht.nio.VertexCodec;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import org.jgrapht.Graph;
+
+/**
+ * A contraction hierarchy (Geisberger, Sanders, Schultes and Delling, "Contraction Hierarchies: Faster and Simpler
+ * Hierarchical Routing in Road Networks", WEA 2008) of a weighted graph, for fast point-to-point shortest paths.
+ *
+ * <p>{@link #build} ranks the vertices and contracts them in that order on a fork-join pool, adding a shortcut arc
+ * wherever removing a vertex would lengthen a shortest path between the remaining ones. A {@link Query} then runs a
+ * bidirectional Dijkstra search that only climbs the ranks: forward from the source over the arcs to higher-ranked
+ * vertices, backward from the target over the arcs from higher-ranked vertices. Both searches meet at the highest
+ * vertex of a shortest path, after settling a few hundred vertices on road-like graphs instead of a large part of
+ * the graph. Paths are returned as vertex lists, with the shortcuts unpacked.
+ *
+ * <p>The hierarchy is immutable and independent of the graph it was built from: a change of the graph needs a new
+ * hierarchy. It can be saved with {@link #write} and loaded with {@link #read}, which is much faster than building
+ * it again. Edge weights must be non-negative, as for Dijkstra.
+ *
+ * @param <V> the graph vertex type.
+ */
+public final class ContractionHierarchy<V> {
+
+  private static final int MAGIC = 0x4843474a;
+  private static final int VERSION = 1;
+
+  private final Object[] vertices;
+  private final Map<V, Integer> vertexIds;
+  private final int[] ranks;
+  private final ArcTable upward;
+  private final ArcTable downward;
+
+  private ContractionHierarchy(Object[] vertices, Map<V, Integer> vertexIds, int[] ranks, ArcTable upward,
+    ArcTable downward) {
+    this.vertices = vertices;
+    this.vertexIds = vertexIds;
+    this.ranks = ranks;
+    this.upward = upward;
+    this.downward = downward;
+  }
+
+  /**
+   * Builds the hierarchy of a graph. An undirected edge can be traversed both ways; of parallel edges only the
+   * lightest matters, and self-loops are ignored.
+   *
+   * @param pool the pool to contract in.
+   * @param graph the graph; it must be either directed or undirected.
+   * @param <V> the graph vertex type.
+   * @param <E> the graph edge type.
+   * @return the hierarchy.
+   * @throws IllegalArgumentException if an edge weight is negative.
+   */
+  public static <V, E> ContractionHierarchy<V> build(ForkJoinPool pool, Graph<V, E> graph) {
+    Objects.requireNonNull(pool, "pool");
+    Objects.requireNonNull(graph, "graph");
+    var type = graph.getType();
+    if (type.isMixed()) {
+      throw new IllegalArgumentException("mixed graphs are not supported");
+    }
+    int n = graph.vertexSet().size();
+    var vertices = new Object[n];
+    var vertexIds = new HashMap<V, Integer>();
+    for (V v : graph.vertexSet()) {
+      vertices[vertexIds.size()] = v;
+      vertexIds.put(v, vertexIds.size());
+    }
+
+    var contraction = new Contraction(n);
+    boolean directed = type.isDirected();
+    for (E e : graph.edgeSet()) {
+      double weight = graph.getEdgeWeight(e);
+      if (!(weight >= 0.0)) {
+        throw new IllegalArgumentException("Negative edge weight not allowed");
+      }
+      int u = vertexIds.get(graph.getEdgeSource(e));
+      int w = vertexIds.get(graph.getEdgeTarget(e));
+      contraction.addArc(u, w, weight);
+      if (!directed) {
+        contraction.addArc(w, u, weight);
+      }
+    }
+    contraction.run(pool);
+    return new ContractionHierarchy<>(vertices, vertexIds, contraction.ranks(), contraction.upward(),
+      contraction.downward());
+  }
+
+  public int vertexCount() {
+    return vertices.length;
+  }
+
+  /**
+   * Returns the number of arcs of the hierarchy, original and shortcut, upward and downward.
+   *
+   * @return the number of arcs.
+   */
+  public int arcCount() {
+    return upward.size() + downward.size();
+  }
+
+  /**
+   * Returns the number of shortcut arcs.
+   *
+   * @return the number of shortcuts.
+   */
+  public int shortcutCount() {
+    return upward.shortcutCount() + downward.shortcutCount();
+  }
+
+  /**
+   * Returns the dense identifier of a vertex.
+   *
+   * @param v the vertex.
+   * @return the identifier, or -1 if the vertex is not in the hierarchy.
+   */
+  public int vertexId(V v) {
+    var id = vertexIds.get(v);
+    return id == null ? -1 : id;
+  }
+
+  @SuppressWarnings("unchecked")
+  public V vertex(int id) {
+    return (V) vertices[id];
+  }
+
+  /**
+   * Returns the position of a vertex in the contraction order; the searches only move to higher ranks.
+   *
+   * @param id the vertex identifier.
+   * @return the rank, from 0 to {@code vertexCount() - 1}.
+   */
+  public int rank(int id) {
+    return ranks[id];
+  }
+
+  /**
+   * Creates a query. A query owns its search arrays and is reused across searches without allocating; it must
+   * only be used by one thread at a time, but any number of queries can share the hierarchy.
+   *
+   * @return a new query.
+   */
+  public Query newQuery() {
+    return new Query();
+  }
+
+  /**
+   * Saves the hierarchy. The file holds a header (magic, version, vertex count), the encoded vertices, the ranks and
+   * both arc tables, as big-endian values.
+   *
+   * @param path the file to create or overwrite.
+   * @param codec the encoding of the vertices.
+   * @throws IOException if the file cannot be written.
+   */
+  public void write(Path path, VertexCodec<V> codec) throws IOException {
+    Objects.requireNonNull(codec, "codec");
+    try (var out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path), 1 << 16))) {
+      out.writeInt(MAGIC);
+      out.writeInt(VERSION);
+      out.writeInt(vertices.length);
+      for (int v = 0; v < vertices.length; v++) {
+        var bytes = codec.encode(vertex(v));
+        out.writeInt(bytes.length);
+        out.write(bytes);
+      }
+      for (int rank : ranks) {
+        out.writeInt(rank);
+      }
+      upward.write(out);
+      downward.write(out);
+    }
+  }
+
+  /**
+   * Loads a hierarchy saved by {@link #write}.
+   *
+   * @param path the file.
+   * @param codec the encoding of the vertices.
+   * @param <V> the graph vertex type.
+   * @return the hierarchy.
+   * @throws IOException if the file cannot be read or is not a hierarchy file.
+   */
+  public static <V> ContractionHierarchy<V> read(Path path, VertexCodec<V> codec) throws IOException {
+    Objects.requireNonNull(codec, "codec");
+    try (var in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path), 1 << 16))) {
+      if (in.readInt() != MAGIC) {
+        throw new IOException("not a contraction hierarchy file: " + path);
+      }
+      int version = in.readInt();
+      if (version != VERSION) {
+        throw new IOException("unsupported contraction hierarchy version: " + version);
+      }
+      int n = in.readInt();
+      var vertices = new Object[n];
+      var vertexIds = new HashMap<V, Integer>();
+      for (int v = 0; v < n; v++) {
+        var bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        V vertex = codec.decode(bytes);
+        if (vertexIds.put(vertex, v) != null) {
+          throw new IOException("duplicate vertex: " + vertex);
+        }
+        vertices[v] = vertex;
+      }
+      var ranks = new int[n];
+      for (int v = 0; v < n; v++) {
+        ranks[v] = in.readInt();
+      }
+      var upward = ArcTable.read(in, n);
+      var downward = ArcTable.read(in, n);
+      return new ContractionHierarchy<>(vertices, vertexIds, ranks, upward, downward);
+    }
+  }
+
+  /**
+   * A bidirectional search over the hierarchy.
+   */
+  public final class Query {
+    private final double[] forward = new double[vertices.length];
+    private final double[] backward = new double[vertices.length];
+    private final int[] forwardParents = new int[vertices.length];
+    private final int[] backwardParents = new int[vertices.length];
+    private final int[] forwardArcs = new int[vertices.length];
+    private final int[] backwardArcs = new int[vertices.length];
+    private final int[] touched = new int[vertices.length];
+    private final IntDoubleHeap forwardHeap = new IntDoubleHeap(vertices.length);
+    private final IntDoubleHeap backwardHeap = new IntDoubleHeap(vertices.length);
+    private int touchedCount;
+    private int meeting = -1;
+    private int settled;
+
+    private int[] path = new int[16];
+    private int pathSize;
+    private int[] stack = new int[48];
+
+    Query() {
+      Arrays.fill(forward, Double.POSITIVE_INFINITY);
+      Arrays.fill(backward, Double.POSITIVE_INFINITY);
+      Arrays.fill(forwardParents, -1);
+      Arrays.fill(backwardParents, -1);
+    }
+
+    /**
+     * Returns the weight of a shortest path.
+     *
+     * @param source the source vertex.
+     * @param target the target vertex.
+     * @return the weight, or {@link Double#POSITIVE_INFINITY} if the target cannot be reached.
+     * @throws IllegalArgumentException if a vertex is not in the hierarchy.
+     */
+    public double getPathWeight(V source, V target) {
+      return distance(id(source), id(target));
+    }
+
+    /**
+     * Returns the vertices of a shortest path, from the source to the target.
+     *
+     * @param source the source vertex.
+     * @param target the target vertex.
+     * @return the vertices, or null if the target cannot be reached.
+     * @throws IllegalArgumentException if a vertex is not in the hierarchy.
+     */
+    public List<V> getPathVertexList(V source, V target) {
+      var ids = path(id(source), id(target));
+      if (ids == null) {
+        return null;
+      }
+      var list = new ArrayList<V>(ids.length);
+      for (int v : ids) {
+        list.add(vertex(v));
+      }
+      return Collections.unmodifiableList(list);
+    }
+
+    /**
+     * Returns the number of vertices the last search settled, in both directions.
+     *
+     * @return the number of settled vertices.
+     */
+    public int settledCount() {
+      return settled;
+    }
+
+    /**
+     * Returns the weight of a shortest path between two vertex identifiers.
+     *
+     * @param source the source identifier.
+     * @param target the target identifier.
+     * @return the weight, or {@link Double#POSITIVE_INFINITY} if the target cannot be reached.
+     */
+    public double distance(int source, int target) {
+      Objects.checkIndex(source, vertices.length);
+      Objects.checkIndex(target, vertices.length);
+      reset();
+      touch(source);
+      forward[source] = 0.0;
+      forwardHeap.update(source, 0.0);
+      touch(target);
+      backward[target] = 0.0;
+      backwardHeap.update(target, 0.0);
+
+      double best = Double.POSITIVE_INFINITY;
+      while (true) {
+        boolean forwardOpen = !forwardHeap.isEmpty() && forwardHeap.minKey() < best;
+        boolean backwardOpen = !backwardHeap.isEmpty() && backwardHeap.minKey() < best;
+        if (forwardOpen && (!backwardOpen || forwardHeap.minKey() <= backwardHeap.minKey())) {
+          best = step(forwardHeap, forward, backward, forwardParents, forwardArcs, upward, best);
+        } else if (backwardOpen) {
+          best = step(backwardHeap, backward, forward, backwardParents, backwardArcs, downward, best);
+        } else {
+          break;
+        }
+      }
+      forwardHeap.clear();
+      backwardHeap.clear();
+      return best;
+    }
+
+    /**
+     * Returns the identifiers of the vertices of a shortest path.
+     *
+     * @param source the source identifier.
+     * @param target the target identifier.
+     * @return the identifiers from the source to the target, or null if the target cannot be reached.
+     */
+    public int[] path(int source, int target) {
+      if (distance(source, target) == Double.POSITIVE_INFINITY) {
+        return null;
+      }
+      // the arcs down to the source are collected backwards, then each arc is unpacked in path order
+      int upCount = 0;
+      for (int v = meeting; forwardParents[v] >= 0; v = forwardParents[v]) {
+        upCount++;
+      }
+      var up = new int[upCount];
+      int i = upCount;
+      for (int v = meeting; forwardParents[v] >= 0; v = forwardParents[v]) {
+        up[--i] = v;
+      }
+      pathSize = 0;
+      append(source);
+      for (int v : up) {
+        unpack(forwardParents[v], v, upward.middles[forwardArcs[v]]);
+      }
+      for (int v = meeting; backwardParents[v] >= 0; v = backwardParents[v]) {
+        unpack(v, backwardParents[v], downward.middles[backwardArcs[v]]);
+      }
+      return Arrays.copyOf(path, pathSize);
+    }
+
+    /**
+     * Settles the closest vertex of one direction and relaxes its arcs; returns the best known path weight.
+     */
+    private double step(IntDoubleHeap heap, double[] distances, double[] opposite, int[] parents, int[] arcs,
+      ArcTable table, double best) {
+      int u = heap.poll();
+      settled++;
+      double du = distances[u];
+      if (du + opposite[u] < best) {
+        best = du + opposite[u];
+        meeting = u;
+      }
+      for (int slot = table.offsets[u]; slot < table.offsets[u + 1]; slot++) {
+        int v = table.heads[slot];
+        double dv = du + table.weights[slot];
+        if (dv < distances[v]) {
+          touch(v);
+          distances[v] = dv;
+          parents[v] = u;
+          arcs[v] = slot;
+          heap.update(v, dv);
+          if (dv + opposite[v] < best) {
+            best = dv + opposite[v];
+            meeting = v;
+          }
+        }
+      }
+      return best;
+    }
+
+    /**
+     * Appends the vertices of an arc after its tail, replacing every shortcut by its two halves: the arc into the
+     * middle vertex is listed downward at the middle, the arc out of it upward.
+     */
+    private void unpack(int tail, int head, int middle) {
+      int top = push(0, tail, head, middle);
+      while (top > 0) {
+        top -= 3;
+        int t = stack[top];
+        int h = stack[top + 1];
+        int m = stack[top + 2];
+        if (m < 0) {
+          append(h);
+        } else {
+          top = push(top, m, h, upward.middles[upward.find(m, h)]);
+          top = push(top, t, m, downward.middles[downward.find(m, t)]);
+        }
+      }
+    }
+
+    private int push(int top, int tail, int head, int middle) {
+      if (top + 3 > stack.length) {
+        stack = Arrays.copyOf(stack, stack.length * 2);
+      }
+      stack[top] = tail;
+      stack[top + 1] = head;
+      stack[top + 2] = middle;
+      return top + 3;
+    }
+
+    private void append(int v) {
+      if (pathSize == path.length) {
+        path = Arrays.copyOf(path, pathSize * 2);
+      }
+      path[pathSize++] = v;
+    }
+
+    private void touch(int v) {
+      if (forward[v] == Double.POSITIVE_INFINITY && backward[v] == Double.POSITIVE_INFINITY) {
+        touched[touchedCount++] = v;
+      }
+    }
+
+    private void reset() {
+      for (int i = 0; i < touchedCount; i++) {
+        int v = touched[i];
+        forward[v] = Double.POSITIVE_INFINITY;
+        backward[v] = Double.POSITIVE_INFINITY;
+        forwardParents[v] = -1;
+        backwardParents[v] = -1;
+      }
+      touchedCount = 0;
+      meeting = -1;
+      settled = 0;
+    }
+
+    private int id(V v) {
+      var id = vertexIds.get(v);
+      if (id == null) {
+        throw new IllegalArgumentException("graph must contain the vertex: " + v);
+      }
+      return id;
+    }
+  }
+
+  /**
+   * Arcs in compressed-sparse-row form: the arcs listed at vertex {@code v} are the slots {@code offsets[v]} to
+   * {@code offsets[v + 1]}, each with the other endpoint, the weight, and the contracted middle vertex of a shortcut
+   * (-1 for an arc of the graph).
+   */
+  static final class ArcTable {
+    final int[] offsets;
+    final int[] heads;
+    final double[] weights;
+    final int[] middles;
+
+    ArcTable(int[] offsets, int[] heads, double[] weights, int[] middles) {
+      this.offsets = offsets;
+      this.heads = heads;
+      this.weights = weights;
+      this.middles = middles;
+    }
+
+    int size() {
+      return heads.length;
+    }
+
+    int shortcutCount() {
+      int count = 0;
+      for (int middle : middles) {
+        if (middle >= 0) {
+          count++;
+        }
+      }
+      return count;
+    }
+
+    int find(int v, int head) {
+      for (int slot = offsets[v]; slot < offsets[v + 1]; slot++) {
+        if (heads[slot] == head) {
+          return slot;
+        }
+      }
+      throw new IllegalStateException("no arc between " + v + " and " + head);
+    }
+
+    void write(DataOutputStream out) throws IOException {
+      out.writeInt(heads.length);
+      for (int offset : offsets) {
+        out.writeInt(offset);
+      }
+      for (int i = 0; i < heads.length; i++) {
+        out.writeInt(heads[i]);
+        out.writeDouble(weights[i]);
+        out.writeInt(middles[i]);
+      }
+    }
+
+    static ArcTable read(DataInputStream in, int vertexCount) throws IOException {
+      int size = in.readInt();
+      var offsets = new int[vertexCount + 1];
+      for (int v = 0; v <= vertexCount; v++) {
+        offsets[v] = in.readInt();
+      }
+      if (offsets[vertexCount] != size) {
+        throw new IOException("corrupt arc table");
+      }
+      var heads = new int[size];
+      var weights = new double[size];
+      var middles = new int[size];
+      for (int i = 0; i < size; i++) {
+        heads[i] = in.readInt();
+        weights[i] = in.readDouble();
+        middles[i] = in.readInt();
+      }
+      return new ArcTable(offsets, heads, weights, middles);
+    }
+  }
+}
@@ -0,0 +1,102 @@
+package io.github.aaronchenwei.learning.jgrapht.shortestpath;
+
+import java.util.Arrays;
+
+/**
+ * An indexed binary min-heap of the vertices {@code 0..n-1} keyed by {@code double}, with decrease-key.
+ *
+ * <p>The heap and position arrays are allocated once, so a search that clears the heap when it is done can be
+ * repeated without allocating.
+ */
+final class IntDoubleHeap {
+
+  private final int[] heap;
+  private final int[] positions;
+  private final double[] keys;
+  private int size;
+
+  IntDoubleHeap(int capacity) {
+    this.heap = new int[capacity];
+    this.positions = new int[capacity];
+    this.keys = new double[capacity];
+    Arrays.fill(positions, -1);
+  }
+
+  boolean isEmpty() {
+    return size == 0;
+  }
+
+  double minKey() {
+    return keys[heap[0]];
+  }
+
+  /**
+   * Inserts a vertex, or lowers its key if it is already in the heap and the new key is smaller.
+   *
+   * @param v the vertex.
+   * @param key the key.
+   */
+  void update(int v, double key) {
+    int i = positions[v];
+    if (i < 0) {
+      i = size++;
+    } else if (key >= keys[v]) {
+      return;
+    }
+    keys[v] = key;
+    siftUp(i, v);
+  }
+
+  int poll() {
+    int min = heap[0];
+    positions[min] = -1;
+    int last = heap[--size];
+    if (size > 0) {
+      siftDown(0, last);
+    }
+    return min;
+  }
+
+  void clear() {
+    for (int i = 0; i < size; i++) {
+      positions[heap[i]] = -1;
+    }
+    size = 0;
+  }
+
+  private void siftUp(int i, int v) {
+    double key = keys[v];
+    while (i > 0) {
+      int parent = (i - 1) >>> 1;
+      int p = heap[parent];
+      if (keys[p] <= key) {
+        break;
+      }
+      heap[i] = p;
+      positions[p] = i;
+      i = parent;
+    }
+    heap[i] = v;
+    positions[v] = i;
+  }
+
+  private void siftDown(int i, int v) {
+    double key = keys[v];
+    int half = size >>> 1;
+    while (i < half) {
+      int child = 2 * i + 1;
+      int c = heap[child];
+      if (child + 1 < size && keys[heap[child + 1]] < keys[c]) {
+        c = heap[++child];
+      }
+      if (key <= keys[c]) {
+        break;
+      }
+      heap[i] = c;
+      positions[c] = i;
+      i = child;
+    }
+    heap[i] = v;
+    positions[v] = i;
+  }
+}
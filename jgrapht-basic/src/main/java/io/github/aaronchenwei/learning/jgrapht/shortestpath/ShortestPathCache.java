@@ -0,0 +1,580 @@
+package io.github.aaronchenwei.learning.jgrapht.shortestpath;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import org.jgrapht.Graph;
+import org.jgrapht.GraphPath;
+import org.jgrapht.Graphs;
+import org.jgrapht.ListenableGraph;
+import org.jgrapht.alg.interfaces.ShortestPathAlgorithm;
+import org.jgrapht.event.GraphEdgeChangeEvent;
+import org.jgrapht.event.GraphListener;
+import org.jgrapht.event.GraphVertexChangeEvent;
+import org.jgrapht.graph.GraphWalk;
+
+/**
+ * Dijkstra shortest paths over a {@link ListenableGraph}, with a size-bounded cache of single-source trees
+ * ({@link #getPaths}) and point-to-point results ({@link #getPath}, {@link #getPathWeight}).
+ *
+ * <p>Every cached result remembers its <em>region</em>: the vertices its search settled, with their distances, and
+ * the edges the result depends on (the tree edges, or the path edges). The cache listens to the graph and drops only
+ * the results that a change can affect:
+ *
+ * <ul>
+ *   <li>an edge is removed, or its weight changes, and the result uses it;</li>
+ *   <li>an edge {@code (u, v)} is added, or its weight changes, with {@code u} in the region and
+ *       {@code d(u) + w(u, v)} below the known distance of {@code v} (or, for a point-to-point result whose search
+ *       did not reach {@code v}, below the path weight);</li>
+ *   <li>the source or the target of the result is removed.</li>
+ * </ul>
+ *
+ * <p>The cache is bounded by the total number of region vertices it holds, and evicts the least recently used
+ * ({@link Eviction#LRU}) or the least frequently used ({@link Eviction#LFU}) results first. A result whose region
+ * alone exceeds the capacity is returned but not cached. Point-to-point queries are also answered from a cached tree
+ * of the same source.
+ *
+ * <p>Like the jgrapht {@code DijkstraShortestPath}, edge weights must be non-negative. The cache is not thread-safe;
+ * queries and graph changes must not run concurrently, as for the graph itself.
+ *
+ * @param <V> the graph vertex type.
+ * @param <E> the graph edge type.
+ */
+public class ShortestPathCache<V, E> implements ShortestPathAlgorithm<V, E> {
+
+  /**
+   * The order in which cached results are evicted.
+   */
+  public enum Eviction {
+    /** The least recently used result first. */
+    LRU,
+    /** The least frequently used result first, and the least recently used among equally frequent ones. */
+    LFU
+  }
+
+  private final ListenableGraph<V, E> graph;
+  private final long capacity;
+  private final Policy<Key<V>> policy;
+  private final Map<Key<V>, Result<V, E>> results = new HashMap<>();
+  private final GraphListener<V, E> listener = new Listener();
+  private long cachedVertices;
+
+  private long hits;
+  private long misses;
+  private long evictions;
+  private long invalidations;
+
+  /**
+   * Creates a cache and starts listening to the graph.
+   *
+   * @param graph the graph.
+   * @param eviction the eviction order.
+   * @param capacity the largest number of region vertices, summed over all cached results.
+   */
+  public ShortestPathCache(ListenableGraph<V, E> graph, Eviction eviction, long capacity) {
+    this.graph = Objects.requireNonNull(graph, "graph");
+    if (capacity < 0) {
+      throw new IllegalArgumentException("negative capacity: " + capacity);
+    }
+    this.capacity = capacity;
+    this.policy = Objects.requireNonNull(eviction, "eviction") == Eviction.LRU ? new Lru<>() : new Lfu<>();
+    graph.addGraphListener(listener);
+  }
+
+  /**
+   * Stops listening to the graph and empties the cache. The cache must not be used afterwards.
+   */
+  public void close() {
+    graph.removeGraphListener(listener);
+    clear();
+  }
+
+  /**
+   * Empties the cache; the counters keep their values.
+   */
+  public void clear() {
+    results.clear();
+    policy.clear();
+    cachedVertices = 0;
+  }
+
+  @Override
+  public GraphPath<V, E> getPath(V source, V sink) {
+    return pointToPoint(source, sink).getPath(sink);
+  }
+
+  @Override
+  public double getPathWeight(V source, V sink) {
+    return pointToPoint(source, sink).getWeight(sink);
+  }
+
+  @Override
+  public SingleSourcePaths<V, E> getPaths(V source) {
+    assertVertexExist(source);
+    var key = new Key<V>(source, null);
+    var tree = lookup(key);
+    if (tree == null) {
+      tree = search(source, null);
+      store(key, tree);
+    }
+    return tree;
+  }
+
+  /**
+   * Returns a snapshot of the counters.
+   *
+   * @return the statistics.
+   */
+  public Statistics statistics() {
+    return new Statistics(hits, misses, evictions, invalidations, results.size(), cachedVertices);
+  }
+
+  private Result<V, E> pointToPoint(V source, V sink) {
+    assertVertexExist(source);
+    assertVertexExist(sink);
+    var tree = results.get(new Key<V>(source, null));
+    if (tree != null) {
+      hits++;
+      policy.touch(tree.key);
+      return tree;
+    }
+    var key = new Key<>(source, sink);
+    var result = lookup(key);
+    if (result == null) {
+      result = search(source, sink);
+      store(key, result);
+    }
+    return result;
+  }
+
+  private Result<V, E> lookup(Key<V> key) {
+    var result = results.get(key);
+    if (result == null) {
+      misses++;
+      return null;
+    }
+    hits++;
+    policy.touch(key);
+    return result;
+  }
+
+  private void store(Key<V> key, Result<V, E> result) {
+    result.key = key;
+    long size = result.distances.size();
+    if (size > capacity) {
+      return;
+    }
+    while (cachedVertices + size > capacity) {
+      remove(policy.victim());
+      evictions++;
+    }
+    results.put(key, result);
+    policy.add(key);
+    cachedVertices += size;
+  }
+
+  private void remove(Key<V> key) {
+    var result = results.remove(key);
+    policy.remove(key);
+    cachedVertices -= result.distances.size();
+  }
+
+  /**
+   * Runs Dijkstra from a source, up to the sink if there is one.
+   */
+  private Result<V, E> search(V source, V sink) {
+    Map<V, Double> distances = new HashMap<>();
+    Map<V, E> predecessors = new HashMap<>();
+    Map<V, Double> tentative = new HashMap<>();
+    var queue = new PriorityQueue<Entry<V>>();
+    tentative.put(source, 0.0);
+    queue.add(new Entry<>(source, 0.0));
+    while (!queue.isEmpty()) {
+      var entry = queue.poll();
+      V u = entry.vertex;
+      if (distances.containsKey(u)) {
+        continue;
+      }
+      double du = entry.distance;
+      distances.put(u, du);
+      if (u.equals(sink)) {
+        break;
+      }
+      for (E e : graph.outgoingEdgesOf(u)) {
+        V v = Graphs.getOppositeVertex(graph, e, u);
+        double w = graph.getEdgeWeight(e);
+        if (w < 0.0) {
+          throw new IllegalArgumentException("Negative edge weight not allowed");
+        }
+        if (distances.containsKey(v)) {
+          continue;
+        }
+        double dv = du + w;
+        Double known = tentative.get(v);
+        if (known == null || dv < known) {
+          tentative.put(v, dv);
+          predecessors.put(v, e);
+          queue.add(new Entry<>(v, dv));
+        }
+      }
+    }
+
+    // the edges the result depends on: the whole tree, or the path to the sink
+    Set<E> edges;
+    if (sink == null) {
+      edges = new HashSet<>(predecessors.values());
+    } else {
+      Map<V, E> path = new HashMap<>();
+      if (distances.containsKey(sink)) {
+        for (V v = sink; !v.equals(source); ) {
+          E e = predecessors.get(v);
+          path.put(v, e);
+          v = Graphs.getOppositeVertex(graph, e, v);
+        }
+      }
+      predecessors = path;
+      edges = new HashSet<>(path.values());
+    }
+    double bound = sink == null ? Double.POSITIVE_INFINITY : distances.getOrDefault(sink, Double.POSITIVE_INFINITY);
+    return new Result<>(graph, source, distances, predecessors, edges, bound);
+  }
+
+  private void assertVertexExist(V v) {
+    if (!graph.containsVertex(v)) {
+      throw new IllegalArgumentException("graph must contain the vertex: " + v);
+    }
+  }
+
+  /**
+   * Drops every cached result that an edge change can affect.
+   */
+  private void edgeChanged(E e, V u, V v, double weight, boolean removed) {
+    boolean undirected = !graph.getType().isDirected();
+    for (Iterator<Result<V, E>> it = results.values().iterator(); it.hasNext(); ) {
+      var result = it.next();
+      if (result.edges.contains(e)
+        || (!removed && (result.improvedBy(u, v, weight) || (undirected && result.improvedBy(v, u, weight))))) {
+        it.remove();
+        policy.remove(result.key);
+        cachedVertices -= result.distances.size();
+        invalidations++;
+      }
+    }
+  }
+
+  private void vertexRemoved(V v) {
+    for (Iterator<Result<V, E>> it = results.values().iterator(); it.hasNext(); ) {
+      var result = it.next();
+      if (result.key.source.equals(v) || v.equals(result.key.sink)) {
+        it.remove();
+        policy.remove(result.key);
+        cachedVertices -= result.distances.size();
+        invalidations++;
+      }
+    }
+  }
+
+  private class Listener implements GraphListener<V, E> {
+    @Override
+    public void edgeAdded(GraphEdgeChangeEvent<V, E> e) {
+      edgeChanged(e.getEdge(), e.getEdgeSource(), e.getEdgeTarget(), e.getEdgeWeight(), false);
+    }
+
+    @Override
+    public void edgeRemoved(GraphEdgeChangeEvent<V, E> e) {
+      edgeChanged(e.getEdge(), e.getEdgeSource(), e.getEdgeTarget(), e.getEdgeWeight(), true);
+    }
+
+    @Override
+    public void edgeWeightUpdated(GraphEdgeChangeEvent<V, E> e) {
+      edgeChanged(e.getEdge(), e.getEdgeSource(), e.getEdgeTarget(), e.getEdgeWeight(), false);
+    }
+
+    @Override
+    public void vertexAdded(GraphVertexChangeEvent<V> e) {
+      // a new vertex has no edges yet, so it cannot shorten any path
+    }
+
+    @Override
+    public void vertexRemoved(GraphVertexChangeEvent<V> e) {
+      ShortestPathCache.this.vertexRemoved(e.getVertex());
+    }
+  }
+
+  /**
+   * The hit, miss, eviction and invalidation counters of a cache, and its current size.
+   */
+  public static final class Statistics {
+    private final long hits;
+    private final long misses;
+    private final long evictions;
+    private final long invalidations;
+    private final int entries;
+    private final long cachedVertices;
+
+    Statistics(long hits, long misses, long evictions, long invalidations, int entries, long cachedVertices) {
+      this.hits = hits;
+      this.misses = misses;
+      this.evictions = evictions;
+      this.invalidations = invalidations;
+      this.entries = entries;
+      this.cachedVertices = cachedVertices;
+    }
+
+    public long hits() {
+      return hits;
+    }
+
+    public long misses() {
+      return misses;
+    }
+
+    public long evictions() {
+      return evictions;
+    }
+
+    public long invalidations() {
+      return invalidations;
+    }
+
+    public int entries() {
+      return entries;
+    }
+
+    public long cachedVertices() {
+      return cachedVertices;
+    }
+
+    /**
+     * Returns the fraction of queries answered from the cache.
+     *
+     * @return the hit rate, or 0 before the first query.
+     */
+    public double hitRate() {
+      long queries = hits + misses;
+      return queries == 0 ? 0.0 : (double) hits / queries;
+    }
+
+    @Override
+    public String toString() {
+      return String.format("hits=%d misses=%d hitRate=%.3f evictions=%d invalidations=%d entries=%d vertices=%d",
+        hits, misses, hitRate(), evictions, invalidations, entries, cachedVertices);
+    }
+  }
+
+  /**
+   * A cache key: a single-source tree when {@code sink} is null, a point-to-point result otherwise.
+   */
+  private static final class Key<V> {
+    final V source;
+    final V sink;
+
+    Key(V source, V sink) {
+      this.source = source;
+      this.sink = sink;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (!(o instanceof Key)) {
+        return false;
+      }
+      var other = (Key<?>) o;
+      return source.equals(other.source) && Objects.equals(sink, other.sink);
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * source.hashCode() + Objects.hashCode(sink);
+    }
+  }
+
+  private static final class Entry<V> implements Comparable<Entry<V>> {
+    final V vertex;
+    final double distance;
+
+    Entry(V vertex, double distance) {
+      this.vertex = vertex;
+      this.distance = distance;
+    }
+
+    @Override
+    public int compareTo(Entry<V> o) {
+      return Double.compare(distance, o.distance);
+    }
+  }
+
+  /**
+   * A cached search: the settled vertices with their distances, the predecessor edges of the tree (or of the path),
+   * and the edges the result depends on.
+   */
+  private static final class Result<V, E> implements SingleSourcePaths<V, E> {
+    final Graph<V, E> graph;
+    final V source;
+    final Map<V, Double> distances;
+    final Map<V, E> predecessors;
+    final Set<E> edges;
+    final double bound;
+    Key<V> key;
+
+    Result(Graph<V, E> graph, V source, Map<V, Double> distances, Map<V, E> predecessors, Set<E> edges,
+      double bound) {
+      this.graph = graph;
+      this.source = source;
+      this.distances = distances;
+      this.predecessors = predecessors;
+      this.edges = edges;
+      this.bound = bound;
+    }
+
+    /**
+     * Whether an edge {@code (u, v)} of the given weight can shorten a distance this result depends on.
+     */
+    boolean improvedBy(V u, V v, double weight) {
+      Double du = distances.get(u);
+      if (du == null) {
+        return false;
+      }
+      Double dv = distances.get(v);
+      return du + weight < (dv == null ? bound : dv);
+    }
+
+    @Override
+    public Graph<V, E> getGraph() {
+      return graph;
+    }
+
+    @Override
+    public V getSourceVertex() {
+      return source;
+    }
+
+    @Override
+    public double getWeight(V sink) {
+      return distances.getOrDefault(sink, Double.POSITIVE_INFINITY);
+    }
+
+    @Override
+    public GraphPath<V, E> getPath(V sink) {
+      Double weight = distances.get(sink);
+      if (weight == null) {
+        return null;
+      }
+      if (sink.equals(source)) {
+        return GraphWalk.singletonWalk(graph, source, 0.0);
+      }
+      List<V> vertices = new ArrayList<>();
+      List<E> path = new ArrayList<>();
+      vertices.add(sink);
+      for (V v = sink; !v.equals(source); ) {
+        E e = predecessors.get(v);
+        path.add(e);
+        v = Graphs.getOppositeVertex(graph, e, v);
+        vertices.add(v);
+      }
+      Collections.reverse(vertices);
+      Collections.reverse(path);
+      return new GraphWalk<>(graph, source, sink, vertices, path, weight);
+    }
+  }
+
+  /**
+   * An eviction order over the cached keys.
+   */
+  private interface Policy<K> {
+    void add(K key);
+
+    void touch(K key);
+
+    void remove(K key);
+
+    K victim();
+
+    void clear();
+  }
+
+  private static final class Lru<K> implements Policy<K> {
+    private final LinkedHashSet<K> order = new LinkedHashSet<>();
+
+    @Override
+    public void add(K key) {
+      order.add(key);
+    }
+
+    @Override
+    public void touch(K key) {
+      order.remove(key);
+      order.add(key);
+    }
+
+    @Override
+    public void remove(K key) {
+      order.remove(key);
+    }
+
+    @Override
+    public K victim() {
+      return order.iterator().next();
+    }
+
+    @Override
+    public void clear() {
+      order.clear();
+    }
+  }
+
+  private static final class Lfu<K> implements Policy<K> {
+    private final Map<K, Long> counts = new HashMap<>();
+    private final TreeMap<Long, LinkedHashSet<K>> buckets = new TreeMap<>();
+
+    @Override
+    public void add(K key) {
+      counts.put(key, 1L);
+      buckets.computeIfAbsent(1L, c -> new LinkedHashSet<>()).add(key);
+    }
+
+    @Override
+    public void touch(K key) {
+      long count = counts.get(key);
+      unlink(key, count);
+      counts.put(key, count + 1);
+      buckets.computeIfAbsent(count + 1, c -> new LinkedHashSet<>()).add(key);
+    }
+
+    @Override
+    public void remove(K key) {
+      Long count = counts.remove(key);
+      if (count != null) {
+        unlink(key, count);
+      }
+    }
+
+    @Override
+    public K victim() {
+      return buckets.firstEntry().getValue().iterator().next();
+    }
+
+    @Override
+    public void clear() {
+      counts.clear();
+      buckets.clear();
+    }
+
+    private void unlink(K key, long count) {
+      var bucket = buckets.get(count);
+      bucket.remove(key);
+      if (bucket.isEmpty()) {
+        buckets.remove(count);
+      }
+    }
+  }
+}
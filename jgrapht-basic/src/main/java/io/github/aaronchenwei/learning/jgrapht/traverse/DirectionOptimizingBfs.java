@@ -0,0 +1,347 @@
+package io.github.aaronchenwei.learning.jgrapht.traverse;
+
+import io.github.aaronchenwei.learning.jgrapht.graph.IntCsr;
+import io.github.aaronchenwei.learning.jgrapht.graph.IntCsrGraph;
+import io.github.aaronchenwei.learning.jgrapht.util.ParallelRange;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Parallel level-synchronous breadth-first search that switches between top-down and bottom-up steps (Beamer,
+ * Asanovic and Patterson, "Direction-Optimizing Breadth-First Search", SC 2012).
+ *
+ * <p>A top-down step expands every vertex of the frontier and claims its unvisited neighbors with a compare-and-set
+ * on the parent array. A bottom-up step instead lets every unvisited vertex look for a parent among its
+ * in-neighbors in the frontier, and stops at the first one found. Top-down is cheaper while the frontier is small;
+ * bottom-up is cheaper once the frontier holds a large part of the edges, since most edge checks then succeed early.
+ * The search switches to bottom-up when the edges leaving the frontier exceed {@code 1/alpha} of the edges left to
+ * check, and back to top-down when the frontier shrinks below {@code 1/beta} of the vertices. Both steps split their
+ * work over a fork-join pool.
+ *
+ * <p>The search runs over {@link IntCsr} adjacencies: the out-adjacency for top-down steps and the in-adjacency for
+ * bottom-up steps. For an undirected graph both are the same, e.g. {@link IntCsrGraph#adjacency()}; for a directed
+ * {@link IntCsrGraph} or a {@code FrozenGraph} they are {@code adjacency()} or {@code outgoing()} and
+ * {@code incoming()}.
+ */
+public final class DirectionOptimizingBfs {
+
+  private static final VarHandle INTS = MethodHandles.arrayElementVarHandle(int[].class);
+  private static final VarHandle LONGS = MethodHandles.arrayElementVarHandle(long[].class);
+  private static final int VERTEX_GRAIN = 1 << 10;
+  private static final int WORD_GRAIN = 1 << 8;
+
+  private final IntCsr outgoing;
+  private final IntCsr incoming;
+  private ForkJoinPool pool = ForkJoinPool.commonPool();
+  private int alpha = 14;
+  private int beta = 24;
+  private boolean bottomUpEnabled = true;
+
+  /**
+   * Creates a search over a directed graph.
+   *
+   * @param outgoing the out-adjacency.
+   * @param incoming the in-adjacency, over the same vertices.
+   */
+  public DirectionOptimizingBfs(IntCsr outgoing, IntCsr incoming) {
+    this.outgoing = Objects.requireNonNull(outgoing, "outgoing");
+    this.incoming = Objects.requireNonNull(incoming, "incoming");
+    if (outgoing.vertexCount() != incoming.vertexCount()) {
+      throw new IllegalArgumentException("the adjacencies have different vertex counts");
+    }
+  }
+
+  /**
+   * Creates a search over a graph, following the edge directions if it is directed.
+   *
+   * @param graph the graph.
+   */
+  public DirectionOptimizingBfs(IntCsrGraph graph) {
+    this(graph.adjacency(), graph.incoming());
+  }
+
+  /**
+   * Sets the pool to run in. Defaults to the common pool.
+   *
+   * @param pool the pool.
+   * @return this search.
+   */
+  public DirectionOptimizingBfs pool(ForkJoinPool pool) {
+    this.pool = Objects.requireNonNull(pool, "pool");
+    return this;
+  }
+
+  /**
+   * Sets the top-down to bottom-up threshold. Defaults to 14; larger values switch to bottom-up earlier.
+   *
+   * @param alpha the threshold.
+   * @return this search.
+   */
+  public DirectionOptimizingBfs alpha(int alpha) {
+    if (alpha <= 0) {
+      throw new IllegalArgumentException("alpha must be positive");
+    }
+    this.alpha = alpha;
+    return this;
+  }
+
+  /**
+   * Sets the bottom-up to top-down threshold. Defaults to 24.
+   *
+   * @param beta the threshold.
+   * @return this search.
+   */
+  public DirectionOptimizingBfs beta(int beta) {
+    if (beta <= 0) {
+      throw new IllegalArgumentException("beta must be positive");
+    }
+    this.beta = beta;
+    return this;
+  }
+
+  /**
+   * Sets whether bottom-up steps are taken at all. Defaults to true; false gives a plain parallel top-down search.
+   *
+   * @param enabled whether bottom-up steps are enabled.
+   * @return this search.
+   */
+  public DirectionOptimizingBfs bottomUp(boolean enabled) {
+    this.bottomUpEnabled = enabled;
+    return this;
+  }
+
+  /**
+   * Runs a search.
+   *
+   * @param source the source vertex.
+   * @return the distances and parents.
+   */
+  public Result search(int source) {
+    int n = outgoing.vertexCount();
+    if (source < 0 || source >= n) {
+      throw new IllegalArgumentException("no such vertex in graph: " + source);
+    }
+    var distances = new int[n];
+    var parents = new int[n];
+    ParallelRange.forEach(pool, 0, n, ParallelRange.grain(pool, n, VERTEX_GRAIN), (from, to) -> {
+      Arrays.fill(distances, from, to, -1);
+      Arrays.fill(parents, from, to, -1);
+    });
+    distances[source] = 0;
+    parents[source] = source;
+
+    int[] frontier = new int[] {source};
+    int frontierSize = 1;
+    long[] frontierBits = null;
+    long frontierEdges = outgoing.degree(source);
+    long uncheckedEdges = outgoing.slotCount() - frontierEdges;
+    boolean bottomUp = false;
+    int reached = 1;
+    int level = 0;
+    int bottomUpLevels = 0;
+
+    while (frontierSize > 0) {
+      if (!bottomUp && bottomUpEnabled && frontierEdges * alpha > uncheckedEdges) {
+        bottomUp = true;
+        frontierBits = toBits(frontier, frontierSize, n);
+      } else if (bottomUp && (long) frontierSize * beta < n) {
+        bottomUp = false;
+        frontier = toList(frontierBits, frontierSize);
+      }
+      Step step;
+      if (bottomUp) {
+        step = bottomUpStep(frontierBits, level, distances, parents);
+        frontierBits = step.bits;
+        bottomUpLevels++;
+      } else {
+        step = topDownStep(frontier, frontierSize, frontierEdges, level, distances, parents);
+        frontier = step.list;
+      }
+      frontierSize = step.size;
+      frontierEdges = step.edges;
+      uncheckedEdges -= step.edges;
+      reached += step.size;
+      level++;
+    }
+    return new Result(distances, parents, reached, level, bottomUpLevels);
+  }
+
+  private Step topDownStep(int[] frontier, int frontierSize, long frontierEdges, int level, int[] distances,
+    int[] parents) {
+    int[] offsets = outgoing.offsets();
+    int[] neighbors = outgoing.neighbors();
+    // every discovered vertex is at the end of a frontier edge, so this bounds the next frontier
+    var next = new int[(int) Math.min(outgoing.vertexCount(), frontierEdges)];
+    var nextSize = new AtomicInteger();
+    var edges = new AtomicLong();
+    ParallelRange.forEach(pool, 0, frontierSize, ParallelRange.grain(pool, frontierSize, VERTEX_GRAIN),
+      (from, to) -> {
+        var found = new int[64];
+        int count = 0;
+        long degrees = 0;
+        for (int i = from; i < to; i++) {
+          int v = frontier[i];
+          for (int slot = offsets[v], end = offsets[v + 1]; slot < end; slot++) {
+            int w = neighbors[slot];
+            if ((int) INTS.getOpaque(parents, w) < 0 && INTS.compareAndSet(parents, w, -1, v)) {
+              distances[w] = level + 1;
+              if (count == found.length) {
+                found = Arrays.copyOf(found, count * 2);
+              }
+              found[count++] = w;
+              degrees += offsets[w + 1] - offsets[w];
+            }
+          }
+        }
+        if (count > 0) {
+          System.arraycopy(found, 0, next, nextSize.getAndAdd(count), count);
+          edges.addAndGet(degrees);
+        }
+      });
+    return new Step(next, null, nextSize.get(), edges.get());
+  }
+
+  private Step bottomUpStep(long[] frontierBits, int level, int[] distances, int[] parents) {
+    int n = incoming.vertexCount();
+    int[] offsets = incoming.offsets();
+    int[] neighbors = incoming.neighbors();
+    int[] outOffsets = outgoing.offsets();
+    int words = frontierBits.length;
+    var next = new long[words];
+    var nextSize = new AtomicInteger();
+    var edges = new AtomicLong();
+    // tasks own whole words of the next frontier, so it is written without atomics
+    ParallelRange.forEach(pool, 0, words, ParallelRange.grain(pool, words, WORD_GRAIN), (fromWord, toWord) -> {
+      int count = 0;
+      long degrees = 0;
+      for (int word = fromWord; word < toWord; word++) {
+        long bits = 0;
+        for (int v = word << 6, end = Math.min(n, v + 64); v < end; v++) {
+          if (parents[v] >= 0) {
+            continue;
+          }
+          for (int slot = offsets[v], slotEnd = offsets[v + 1]; slot < slotEnd; slot++) {
+            int u = neighbors[slot];
+            if ((frontierBits[u >>> 6] & (1L << u)) != 0) {
+              parents[v] = u;
+              distances[v] = level + 1;
+              bits |= 1L << v;
+              count++;
+              degrees += outOffsets[v + 1] - outOffsets[v];
+              break;
+            }
+          }
+        }
+        next[word] = bits;
+      }
+      nextSize.addAndGet(count);
+      edges.addAndGet(degrees);
+    });
+    return new Step(null, next, nextSize.get(), edges.get());
+  }
+
+  private long[] toBits(int[] list, int size, int n) {
+    var bits = new long[(n + 63) >>> 6];
+    ParallelRange.forEach(pool, 0, size, ParallelRange.grain(pool, size, VERTEX_GRAIN), (from, to) -> {
+      for (int i = from; i < to; i++) {
+        int v = list[i];
+        LONGS.getAndBitwiseOr(bits, v >>> 6, 1L << v);
+      }
+    });
+    return bits;
+  }
+
+  private static int[] toList(long[] bits, int size) {
+    var list = new int[Math.max(16, size)];
+    int count = 0;
+    for (int word = 0; word < bits.length; word++) {
+      for (long w = bits[word]; w != 0; w &= w - 1) {
+        list[count++] = (word << 6) + Long.numberOfTrailingZeros(w);
+      }
+    }
+    return list;
+  }
+
+  private static final class Step {
+    final int[] list;
+    final long[] bits;
+    final int size;
+    final long edges;
+
+    Step(int[] list, long[] bits, int size, long edges) {
+      this.list = list;
+      this.bits = bits;
+      this.size = size;
+      this.edges = edges;
+    }
+  }
+
+  /**
+   * The outcome of a search.
+   */
+  public static final class Result {
+    private final int[] distances;
+    private final int[] parents;
+    private final int reachedCount;
+    private final int levelCount;
+    private final int bottomUpLevelCount;
+
+    Result(int[] distances, int[] parents, int reachedCount, int levelCount, int bottomUpLevelCount) {
+      this.distances = distances;
+      this.parents = parents;
+      this.reachedCount = reachedCount;
+      this.levelCount = levelCount;
+      this.bottomUpLevelCount = bottomUpLevelCount;
+    }
+
+    /**
+     * Returns the number of edges on a shortest path from the source to each vertex, -1 for unreached vertices.
+     *
+     * @return the distances, indexed by vertex.
+     */
+    public int[] distances() {
+      return distances;
+    }
+
+    /**
+     * Returns the parent of each vertex in the search tree: the source for itself, -1 for unreached vertices. When a
+     * vertex has several in-neighbors one level closer to the source, which of them becomes its parent depends on
+     * thread scheduling.
+     *
+     * @return the parents, indexed by vertex.
+     */
+    public int[] parents() {
+      return parents;
+    }
+
+    public int distance(int vertex) {
+      return distances[vertex];
+    }
+
+    public int parent(int vertex) {
+      return parents[vertex];
+    }
+
+    public int reachedCount() {
+      return reachedCount;
+    }
+
+    /**
+     * Returns the number of distinct distances, the eccentricity of the source plus one.
+     *
+     * @return the level count.
+     */
+    public int levelCount() {
+      return levelCount;
+    }
+
+    public int bottomUpLevelCount() {
+      return bottomUpLevelCount;
+    }
+  }
+}
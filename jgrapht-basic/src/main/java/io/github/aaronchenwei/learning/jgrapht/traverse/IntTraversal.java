@@ -0,0 +1,239 @@
+package io.github.aaronchenwei.learning.jgrapht.traverse;
+
+import io.github.aaronchenwei.learning.jgrapht.graph.IntCsr;
+import java.util.Arrays;
+
+/**
+ * Depth-first and breadth-first traversal of an {@link IntCsr} adjacency, with no allocation in steady state.
+ *
+ * <p>Unlike {@link org.jgrapht.traverse.DepthFirstIterator} and {@link org.jgrapht.traverse.BreadthFirstIterator},
+ * which box every vertex, keep a map of per-vertex bookkeeping objects and fire listener events, a traversal keeps
+ * its state in primitive arrays sized for the largest graph seen so far: a bitset of visited vertices, and an
+ * {@code int} stack (vertex and next adjacency slot) or queue. The arrays are reused by every traversal, so once they
+ * are large enough, traversing allocates nothing. Vertices are reported to a {@link Visitor} as they are discovered.
+ *
+ * <p>Depth-first traversal explores neighbors in adjacency order and reports vertices in preorder, as a recursive
+ * traversal would. Directed graphs are traversed along the adjacency given ({@code FrozenGraph.outgoing()} follows
+ * edge direction, {@code incoming()} goes against it).
+ *
+ * <p>An instance is not thread-safe; use one per thread.
+ */
+public final class IntTraversal {
+
+  /**
+   * Receives the vertices of a traversal.
+   */
+  @FunctionalInterface
+  public interface Visitor {
+    /**
+     * Called once for every vertex, when it is discovered.
+     *
+     * @param vertex the vertex.
+     * @param depth the depth of the vertex in the traversal tree, 0 for a start vertex.
+     * @return true to continue, false to stop the traversal.
+     */
+    boolean visit(int vertex, int depth);
+  }
+
+  private long[] visited;
+  private int[] vertices;
+  private int[] slots;
+  private int capacity;
+  private boolean stopped;
+
+  /**
+   * Creates a traversal sized for graphs of up to {@code vertexCount} vertices. It grows if given a larger graph.
+   *
+   * @param vertexCount the expected number of vertices.
+   */
+  public IntTraversal(int vertexCount) {
+    ensureCapacity(vertexCount);
+  }
+
+  /**
+   * Traverses the vertices reachable from {@code start} depth-first.
+   *
+   * @param graph the adjacency.
+   * @param start the start vertex.
+   * @param visitor the visitor.
+   * @return the number of vertices visited.
+   */
+  public int depthFirst(IntCsr graph, int start, Visitor visitor) {
+    reset(graph);
+    assertVertexExist(graph, start);
+    return depthFirstTree(graph, start, visitor);
+  }
+
+  /**
+   * Traverses every vertex depth-first, starting a new tree at the lowest unvisited vertex whenever the previous one
+   * is exhausted, like {@code new DepthFirstIterator<>(graph)}.
+   *
+   * @param graph the adjacency.
+   * @param visitor the visitor.
+   * @return the number of vertices visited.
+   */
+  public int depthFirst(IntCsr graph, Visitor visitor) {
+    reset(graph);
+    int count = 0;
+    for (int v = nextUnvisited(0, graph.vertexCount()); v >= 0 && !stopped;
+      v = nextUnvisited(v + 1, graph.vertexCount())) {
+      count += depthFirstTree(graph, v, visitor);
+    }
+    return count;
+  }
+
+  /**
+   * Traverses the vertices reachable from {@code start} breadth-first.
+   *
+   * @param graph the adjacency.
+   * @param start the start vertex.
+   * @param visitor the visitor.
+   * @return the number of vertices visited.
+   */
+  public int breadthFirst(IntCsr graph, int start, Visitor visitor) {
+    reset(graph);
+    assertVertexExist(graph, start);
+    return breadthFirstTree(graph, start, visitor);
+  }
+
+  /**
+   * Traverses every vertex breadth-first, starting a new tree at the lowest unvisited vertex whenever the previous
+   * one is exhausted, like {@code new BreadthFirstIterator<>(graph)}.
+   *
+   * @param graph the adjacency.
+   * @param visitor the visitor.
+   * @return the number of vertices visited.
+   */
+  public int breadthFirst(IntCsr graph, Visitor visitor) {
+    reset(graph);
+    int count = 0;
+    for (int v = nextUnvisited(0, graph.vertexCount()); v >= 0 && !stopped;
+      v = nextUnvisited(v + 1, graph.vertexCount())) {
+      count += breadthFirstTree(graph, v, visitor);
+    }
+    return count;
+  }
+
+  /**
+   * Whether the last traversal visited a vertex.
+   *
+   * @param vertex the vertex.
+   * @return whether it was visited.
+   */
+  public boolean isVisited(int vertex) {
+    return (visited[vertex >>> 6] & (1L << vertex)) != 0;
+  }
+
+  private int depthFirstTree(IntCsr graph, int start, Visitor visitor) {
+    int[] offsets = graph.offsets();
+    int[] neighbors = graph.neighbors();
+    int count = 1;
+    markVisited(start);
+    if (!visitor.visit(start, 0)) {
+      stopped = true;
+      return count;
+    }
+    int top = 0;
+    vertices[0] = start;
+    slots[0] = offsets[start];
+    while (top >= 0) {
+      int v = vertices[top];
+      int slot = slots[top];
+      int end = offsets[v + 1];
+      while (slot < end && isVisited(neighbors[slot])) {
+        slot++;
+      }
+      if (slot == end) {
+        top--;
+        continue;
+      }
+      int w = neighbors[slot];
+      slots[top] = slot + 1;
+      markVisited(w);
+      count++;
+      if (!visitor.visit(w, top + 1)) {
+        stopped = true;
+        return count;
+      }
+      top++;
+      vertices[top] = w;
+      slots[top] = offsets[w];
+    }
+    return count;
+  }
+
+  private int breadthFirstTree(IntCsr graph, int start, Visitor visitor) {
+    int[] offsets = graph.offsets();
+    int[] neighbors = graph.neighbors();
+    int[] queue = vertices;
+    int head = 0;
+    int tail = 0;
+    markVisited(start);
+    if (!visitor.visit(start, 0)) {
+      stopped = true;
+      return 1;
+    }
+    queue[tail++] = start;
+    int depth = 0;
+    int levelEnd = tail;
+    while (head < tail) {
+      if (head == levelEnd) {
+        depth++;
+        levelEnd = tail;
+      }
+      int v = queue[head++];
+      for (int slot = offsets[v], end = offsets[v + 1]; slot < end; slot++) {
+        int w = neighbors[slot];
+        if (isVisited(w)) {
+          continue;
+        }
+        markVisited(w);
+        if (!visitor.visit(w, depth + 1)) {
+          stopped = true;
+          return tail + 1;
+        }
+        queue[tail++] = w;
+      }
+    }
+    return tail;
+  }
+
+  private void reset(IntCsr graph) {
+    int n = graph.vertexCount();
+    ensureCapacity(n);
+    Arrays.fill(visited, 0, (n + 63) >>> 6, 0L);
+    stopped = false;
+  }
+
+  private static void assertVertexExist(IntCsr graph, int vertex) {
+    if (vertex < 0 || vertex >= graph.vertexCount()) {
+      throw new IllegalArgumentException("no such vertex in graph: " + vertex);
+    }
+  }
+
+  private void markVisited(int vertex) {
+    visited[vertex >>> 6] |= 1L << vertex;
+  }
+
+  private int nextUnvisited(int from, int n) {
+    for (int v = from; v < n; v++) {
+      long word = ~visited[v >>> 6] >>> v;
+      if (word != 0) {
+        v += Long.numberOfTrailingZeros(word);
+        return v < n ? v : -1;
+      }
+      v |= 63;
+    }
+    return -1;
+  }
+
+  private void ensureCapacity(int vertexCount) {
+    if (vertexCount <= capacity && visited != null) {
+      return;
+    }
+    capacity = Math.max(vertexCount, capacity);
+    visited = new long[(capacity + 63) >>> 6];
+    vertices = new int[capacity];
+    slots = new int[capacity];
+  }
+}
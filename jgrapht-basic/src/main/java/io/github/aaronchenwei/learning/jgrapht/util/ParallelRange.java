@@ -0,0 +1,80 @@
+package io.github.aaronchenwei.learning.jgrapht.util;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Fork-join helpers for splitting an index range across the workers of a pool.
+ */
+public final class ParallelRange {
+
+  private ParallelRange() {
+  }
+
+  /**
+   * An action over the half-open index range {@code [from, to)}.
+   */
+  @FunctionalInterface
+  public interface RangeAction {
+    void apply(int from, int to);
+  }
+
+  /**
+   * Applies an action to {@code [from, to)} by recursively halving the range until a piece is at most {@code grain}
+   * long, and waits for all pieces to complete.
+   *
+   * @param pool the pool to run in.
+   * @param from the first index, inclusive.
+   * @param to the last index, exclusive.
+   * @param grain the largest range handled by a single task.
+   * @param action the action.
+   */
+  public static void forEach(ForkJoinPool pool, int from, int to, int grain, RangeAction action) {
+    if (to - from <= grain) {
+      if (from < to) {
+        action.apply(from, to);
+      }
+      return;
+    }
+    pool.invoke(new RangeTask(from, to, Math.max(grain, 1), action));
+  }
+
+  /**
+   * Returns a grain that splits {@code size} into a few pieces per worker of the pool, but never below
+   * {@code minimum}.
+   *
+   * @param pool the pool.
+   * @param size the size of the range.
+   * @param minimum the smallest useful grain.
+   * @return the grain.
+   */
+  public static int grain(ForkJoinPool pool, int size, int minimum) {
+    return Math.max(minimum, size / (pool.getParallelism() * 4));
+  }
+
+  private static final class RangeTask extends RecursiveAction {
+    private static final long serialVersionUID = 3581132556197255127L;
+
+    private final int from;
+    private final int to;
+    private final int grain;
+    private final RangeAction action;
+
+    RangeTask(int from, int to, int grain, RangeAction action) {
+      this.from = from;
+      this.to = to;
+      this.grain = grain;
+      this.action = action;
+    }
+
+    @Override
+    protected void compute() {
+      if (to - from <= grain) {
+        action.apply(from, to);
+        return;
+      }
+      int mid = (from + to) >>> 1;
+      invokeAll(new RangeTask(from, mid, grain, action), new RangeTask(mid, to, grain, action));
+    }
+  }
+}
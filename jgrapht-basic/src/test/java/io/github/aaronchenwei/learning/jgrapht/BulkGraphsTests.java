@@ -0,0 +1,207 @@
+package io.github.aaronchenwei.learning.jgrapht;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import io.github.aaronchenwei.learning.jgrapht.graph.BulkGraphs;
+import io.github.aaronchenwei.learning.jgrapht.graph.ConcurrentGraph;
+import io.github.aaronchenwei.learning.jgrapht.graph.IntArrayGraph;
+import java.lang.invoke.MethodHandles;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import org.jgrapht.Graph;
+import org.jgrapht.graph.DefaultGraphType;
+import org.jgrapht.graph.DefaultWeightedEdge;
+import org.jgrapht.graph.SimpleWeightedGraph;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.MethodOrderer.OrderAnnotation;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+@TestMethodOrder(OrderAnnotation.class)
+public class BulkGraphsTests {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+  private static final Integer[] VERTICES = {1, 2, 3, 4, 5, 6, 7, 8};
+
+  @Test
+  @DisplayName("SimpleWeightedGraph rejects a batch with a self-loop")
+  @Order(1)
+  void testSimpleWeightedGraph() {
+    var graph = new SimpleWeightedGraph<Integer, DefaultWeightedEdge>(DefaultWeightedEdge.class);
+    assertEquals(8, BulkGraphs.addAllVertices(graph, VERTICES));
+
+    assertThrows(IllegalArgumentException.class,
+      () -> BulkGraphs.addAllEdges(graph, new Integer[] {1, 2}, new Integer[] {2, 2}, null));
+    assertThrows(IllegalArgumentException.class,
+      () -> BulkGraphs.addAllEdges(graph, new Integer[] {1, 2}, new Integer[] {2, 9}, null));
+    assertEquals(0, graph.edgeSet().size());
+
+    int added = BulkGraphs.addAllEdges(graph, new Integer[] {1, 1, 2, 3}, new Integer[] {2, 2, 1, 4},
+      new double[] {0.5, 1.5, 2.5, 3.5});
+    assertEquals(2, added);
+    assertEquals(0.5, graph.getEdgeWeight(graph.getEdge(1, 2)));
+    assertEquals(3.5, graph.getEdgeWeight(graph.getEdge(4, 3)));
+
+    LOGGER.atInfo().setMessage("{}").addArgument(graph).log();
+  }
+
+  @Test
+  @DisplayName("IntArrayGraph batch matches one-at-a-time insertion")
+  @Order(2)
+  void testIntArrayGraph() {
+    var random = new SplittableRandom(5L);
+    int n = 1000;
+    int m = 20_000;
+    var sources = new Integer[m];
+    var targets = new Integer[m];
+    var weights = new double[m];
+    for (int i = 0; i < m; i++) {
+      sources[i] = random.nextInt(n);
+      targets[i] = random.nextInt(n);
+      weights[i] = random.nextDouble();
+    }
+    var vertices = new Integer[n];
+    for (int v = 0; v < n; v++) {
+      vertices[v] = v;
+    }
+    var types = new DefaultGraphType[] {
+      DefaultGraphType.simple(), DefaultGraphType.pseudograph(), DefaultGraphType.directedSimple(),
+      DefaultGraphType.directedPseudograph()
+    };
+    for (var type : types) {
+      var weighted = type.asWeighted();
+      var expected = new IntArrayGraph(weighted);
+      var actual = new IntArrayGraph(weighted);
+      BulkGraphs.addAllVertices(expected, vertices);
+      BulkGraphs.addAllVertices(actual, vertices);
+      // an edge already in the graph before the batch
+      expected.addEdge(0, 1);
+      actual.addEdge(0, 1);
+      for (int i = 0; i < m; i++) {
+        if (!weighted.isAllowingSelfLoops() && sources[i].equals(targets[i])) {
+          continue;
+        }
+        var e = expected.addEdge(sources[i], targets[i]);
+        if (e != null) {
+          expected.setEdgeWeight(e, weights[i]);
+        }
+      }
+      int added = weighted.isAllowingSelfLoops()
+        ? BulkGraphs.addAllEdges(actual, sources, targets, weights)
+        : actual.addEdges(withoutLoops(sources, targets, true), withoutLoops(sources, targets, false),
+          weightsWithoutLoops(sources, targets, weights));
+
+      assertEquals(expected.edgeSet().size() - 1, added);
+      assertSameGraph(expected, actual);
+
+      // a batch under an eighth of the vertex count takes the hashed duplicate check
+      var smallSources = new int[] {0, 1, 7, 7, 3};
+      var smallTargets = new int[] {1, 0, 9, 9, 999};
+      for (int i = 0; i < smallSources.length; i++) {
+        expected.addEdge(smallSources[i], smallTargets[i]);
+      }
+      actual.addEdges(smallSources, smallTargets, null);
+      assertSameGraph(expected, actual);
+    }
+  }
+
+  @Test
+  @DisplayName("A rejected batch leaves the graph as it was")
+  @Order(3)
+  void testRejectedBatch() {
+    var supplier = new int[1];
+    var graph = new ConcurrentGraph<Integer, Integer>(DefaultGraphType.simple(), null, () -> supplier[0]++);
+    BulkGraphs.addAllVertices(graph, VERTICES);
+    graph.addEdge(1, 2);
+
+    // the self-loop and the missing vertex come after edges that were already added
+    assertThrows(IllegalArgumentException.class,
+      () -> BulkGraphs.addAllEdges(graph, new Integer[] {2, 3, 4}, new Integer[] {3, 4, 4}, null));
+    assertThrows(IllegalArgumentException.class,
+      () -> BulkGraphs.addAllEdges(graph, new Integer[] {2, 1, 3}, new Integer[] {3, 2, 9}, null));
+    assertThrows(NullPointerException.class,
+      () -> BulkGraphs.addAllEdges(graph, new Integer[] {2, null}, new Integer[] {3, 4}, null));
+    assertEquals(1, graph.edgeSet().size());
+    assertEquals(0, graph.degreeOf(3));
+    assertEquals(2, BulkGraphs.addAllEdges(graph, new Integer[] {2, 1, 3}, new Integer[] {3, 2, 4}, null));
+
+    // a vertex missing below the highest one
+    var ints = new IntArrayGraph(DefaultGraphType.simple());
+    BulkGraphs.addAllVertices(ints, VERTICES);
+    ints.removeVertex(4);
+    assertThrows(IllegalArgumentException.class, () -> ints.addEdges(new int[] {1, 3}, new int[] {2, 4}, null));
+    assertThrows(IllegalArgumentException.class, () -> ints.addEdges(new int[] {1, 3}, new int[] {2, 9}, null));
+    assertEquals(0, ints.edgeSet().size());
+
+    LOGGER.atInfo().setMessage("{}").addArgument(graph).log();
+  }
+
+  @Test
+  @DisplayName("A built graph matches SimpleWeightedGraph")
+  @Order(4)
+  void testBuild() {
+    var sources = new Integer[] {1, 1, 2, 3, 5, 8};
+    var targets = new Integer[] {2, 2, 1, 4, 6, 7};
+    var weights = new double[] {0.5, 1.5, 2.5, 3.5, 4.5, 5.5};
+    var expected = new SimpleWeightedGraph<Integer, DefaultWeightedEdge>(DefaultWeightedEdge.class);
+    BulkGraphs.addAllVertices(expected, VERTICES);
+    BulkGraphs.addAllEdges(expected, sources, targets, weights);
+
+    var actual = BulkGraphs.<Integer, DefaultWeightedEdge>build(DefaultGraphType.simple().asWeighted(),
+      DefaultWeightedEdge::new, VERTICES, sources, targets, weights);
+    assertEquals(expected.getType().isWeighted(), actual.getType().isWeighted());
+    assertEquals(expected.vertexSet(), actual.vertexSet());
+    assertEquals(expected.edgeSet().size(), actual.edgeSet().size());
+    for (var e : expected.edgeSet()) {
+      var source = expected.getEdgeSource(e);
+      var target = expected.getEdgeTarget(e);
+      assertEquals(expected.getEdgeWeight(e), actual.getEdgeWeight(actual.getEdge(target, source)));
+    }
+    assertThrows(IllegalArgumentException.class, () -> BulkGraphs.build(DefaultGraphType.simple(),
+      DefaultWeightedEdge::new, VERTICES, new Integer[] {1}, new Integer[] {1}, null));
+
+    LOGGER.atInfo().setMessage("{}").addArgument(actual).log();
+  }
+
+  private static void assertSameGraph(Graph<Integer, Integer> expected, Graph<Integer, Integer> actual) {
+    assertEquals(expected.vertexSet(), actual.vertexSet());
+    assertEquals(expected.edgeSet(), actual.edgeSet());
+    for (var e : expected.edgeSet()) {
+      assertEquals(expected.getEdgeSource(e), actual.getEdgeSource(e));
+      assertEquals(expected.getEdgeTarget(e), actual.getEdgeTarget(e));
+      assertEquals(expected.getEdgeWeight(e), actual.getEdgeWeight(e));
+    }
+    for (var v : expected.vertexSet()) {
+      assertEquals(expected.degreeOf(v), actual.degreeOf(v));
+      assertEquals(expected.outgoingEdgesOf(v), actual.outgoingEdgesOf(v));
+      assertEquals(expected.incomingEdgesOf(v), actual.incomingEdgesOf(v));
+    }
+  }
+
+  private static int[] withoutLoops(Integer[] sources, Integer[] targets, boolean source) {
+    int count = 0;
+    var result = new int[sources.length];
+    for (int i = 0; i < sources.length; i++) {
+      if (!sources[i].equals(targets[i])) {
+        result[count++] = source ? sources[i] : targets[i];
+      }
+    }
+    return Arrays.copyOf(result, count);
+  }
+
+  private static double[] weightsWithoutLoops(Integer[] sources, Integer[] targets, double[] weights) {
+    int count = 0;
+    var result = new double[sources.length];
+    for (int i = 0; i < sources.length; i++) {
+      if (!sources[i].equals(targets[i])) {
+        result[count++] = weights[i];
+      }
+    }
+    return Arrays.copyOf(result, count);
+  }
+}
@@ -0,0 +1,254 @@
+package io.github.aaronchenwei.learning.jgrapht;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.github.aaronchenwei.learning.jgrapht.graph.CompressedIntGraph;
+import java.lang.invoke.MethodHandles;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.TreeSet;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.MethodOrderer.OrderAnnotation;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+@TestMethodOrder(OrderAnnotation.class)
+public class CompressedIntGraphTests {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+  @Test
+  @DisplayName("Random access and the cursor decode the successor lists")
+  @Order(1)
+  void testDecode() {
+    int n = 5_000;
+    var edges = webLike(n, 11L);
+    var graph = new CompressedIntGraph.Compressor().sampleInterval(16).compress(n, edges[0], edges[1]);
+    var expected = successorLists(n, edges);
+
+    int m = 0;
+    for (int v = 0; v < n; v++) {
+      assertArrayEquals(expected.get(v), graph.successors(v), "vertex " + v);
+      assertEquals(expected.get(v).length, graph.outDegree(v));
+      assertEquals(m, graph.firstEdge(v));
+      m += expected.get(v).length;
+    }
+    assertEquals(m, graph.edgeCount());
+
+    var cursor = graph.cursor();
+    for (int v = 0; v < n; v++) {
+      assertTrue(cursor.next());
+      assertEquals(v, cursor.vertex());
+      assertArrayEquals(expected.get(v), Arrays.copyOf(cursor.successors(), cursor.degree()), "vertex " + v);
+    }
+    assertFalse(cursor.next());
+
+    // without references the lists decode the same, only larger
+    var plain = new CompressedIntGraph.Compressor().window(0).compress(n, edges[0], edges[1]);
+    for (int v = 0; v < n; v += 7) {
+      assertArrayEquals(expected.get(v), plain.successors(v));
+    }
+    assertTrue(graph.sizeInBytes() < plain.sizeInBytes());
+    // far below the 64 bits per edge of a CSR with int offsets and targets
+    assertTrue(graph.bitsPerEdge() < 16, "bits per edge " + graph.bitsPerEdge());
+
+    LOGGER.atInfo().setMessage("{} edges: {} bits per edge, {} without references").addArgument(m)
+      .addArgument(graph.bitsPerEdge()).addArgument(plain.bitsPerEdge()).log();
+  }
+
+  @Test
+  @DisplayName("Graph views over the compressed lists")
+  @Order(2)
+  void testGraphView() {
+    int n = 2_000;
+    var edges = webLike(n, 13L);
+    var graph = new CompressedIntGraph.Compressor().maxReferenceChain(1).compress(n, edges[0], edges[1]);
+    var expected = successorLists(n, edges);
+
+    assertTrue(graph.getType().isDirected());
+    assertEquals(n, graph.vertexSet().size());
+    assertEquals(graph.edgeCount(), graph.edgeSet().size());
+    for (int e = 0; e < graph.edgeCount(); e += 3) {
+      int source = graph.getEdgeSource(e);
+      int target = graph.getEdgeTarget(e);
+      assertEquals(e, (int) graph.getEdge(source, target));
+    }
+    var inDegrees = new int[n];
+    for (int v = 0; v < n; v++) {
+      for (int w : expected.get(v)) {
+        inDegrees[w]++;
+      }
+    }
+    for (int v = 0; v < n; v += 5) {
+      assertEquals(inDegrees[v], graph.inDegreeOf(v));
+      for (int e : graph.incomingEdgesOf(v)) {
+        assertEquals(v, (int) graph.getEdgeTarget(e));
+      }
+      int next = graph.firstEdge(v);
+      for (int e : graph.outgoingEdgesOf(v)) {
+        assertEquals(next++, e);
+      }
+      assertEquals(graph.firstEdge(v) + expected.get(v).length, next);
+      assertEquals(inDegrees[v] + expected.get(v).length, graph.degreeOf(v));
+    }
+
+    // parallel edges are merged, self-loops kept
+    var small = new CompressedIntGraph.Compressor().transpose(false).compress(3, new int[] {0, 0, 2, 1},
+      new int[] {1, 1, 2, 0});
+    assertEquals(3, small.edgeCount());
+    assertEquals(0, (int) small.getEdge(0, 1));
+    assertNull(small.getEdge(1, 2));
+    assertEquals(2, (int) small.getEdgeSource(2));
+    assertThrows(IllegalStateException.class, () -> small.incomingEdgesOf(0));
+    assertThrows(IllegalStateException.class, () -> small.edgesOf(0));
+    assertThrows(UnsupportedOperationException.class, () -> small.addEdge(0, 2));
+    assertThrows(IllegalArgumentException.class, () -> small.getEdgeSource(3));
+    assertThrows(IllegalArgumentException.class,
+      () -> new CompressedIntGraph.Compressor().compress(2, new int[] {0}, new int[] {2}));
+  }
+
+  @Test
+  @DisplayName("References and intervals compress a graph with locality to about 3 bits per edge")
+  @Order(3)
+  void testBitsPerEdge() {
+    int n = 20_000;
+    var edges = hostLike(n, 17L);
+    var graph = new CompressedIntGraph.Compressor().compress(n, edges[0], edges[1]);
+    var noIntervals = new CompressedIntGraph.Compressor().minIntervalLength(0).compress(n, edges[0], edges[1]);
+    var noReferences = new CompressedIntGraph.Compressor().window(0).compress(n, edges[0], edges[1]);
+    var expected = successorLists(n, edges);
+    for (int v = 0; v < n; v += 3) {
+      assertArrayEquals(expected.get(v), graph.successors(v), "vertex " + v);
+      assertArrayEquals(expected.get(v), noIntervals.successors(v), "vertex " + v);
+    }
+
+    assertTrue(graph.bitsPerEdge() < 3.5, "bits per edge " + graph.bitsPerEdge());
+    assertTrue(graph.bitsPerEdge() < noIntervals.bitsPerEdge());
+    assertTrue(graph.bitsPerEdge() < noReferences.bitsPerEdge());
+    assertThrows(IllegalArgumentException.class, () -> new CompressedIntGraph.Compressor().minIntervalLength(1));
+
+    // gaps across the whole vertex range, in both directions
+    int far = 1 << 20;
+    var sparse = new CompressedIntGraph.Compressor().compress(far, new int[] {0, far - 1, far - 1, far / 2},
+      new int[] {far - 1, 0, far - 2, 3});
+    assertArrayEquals(new int[] {far - 1}, sparse.successors(0));
+    assertArrayEquals(new int[] {0, far - 2}, sparse.successors(far - 1));
+    assertArrayEquals(new int[] {3}, sparse.successors(far / 2));
+    assertEquals(1, sparse.inDegreeOf(far - 1));
+    assertEquals(2, sparse.inDegreeOf(0) + sparse.inDegreeOf(far - 2));
+
+    LOGGER.atInfo().setMessage("{} edges: {} bits per edge, {} without intervals, {} without references")
+      .addArgument(graph.edgeCount()).addArgument(graph.bitsPerEdge()).addArgument(noIntervals.bitsPerEdge())
+      .addArgument(noReferences.bitsPerEdge()).log();
+  }
+
+  /**
+   * A graph with the locality and similarity of a web graph: successors near the vertex, and lists that copy most of
+   * the previous list.
+   */
+  private static int[][] webLike(int n, long seed) {
+    var random = new SplittableRandom(seed);
+    var sources = new ArrayList<Integer>();
+    var targets = new ArrayList<Integer>();
+    var previous = new int[0];
+    for (int v = 0; v < n; v++) {
+      var list = new TreeSet<Integer>();
+      for (int w : previous) {
+        if (random.nextInt(10) < 8) {
+          list.add(w);
+        }
+      }
+      int fresh = random.nextInt(6);
+      for (int i = 0; i < fresh; i++) {
+        int w = random.nextInt(20) == 0 ? random.nextInt(n) : Math.floorMod(v + random.nextInt(-50, 50), n);
+        list.add(w);
+      }
+      previous = list.stream().mapToInt(Integer::intValue).toArray();
+      for (int w : previous) {
+        sources.add(v);
+        targets.add(w);
+      }
+    }
+    // shuffled, and with some edges twice
+    int m = sources.size();
+    var order = new int[m + m / 10];
+    for (int i = 0; i < order.length; i++) {
+      order[i] = i < m ? i : random.nextInt(m);
+    }
+    for (int i = order.length - 1; i > 0; i--) {
+      int j = random.nextInt(i + 1);
+      int swap = order[i];
+      order[i] = order[j];
+      order[j] = swap;
+    }
+    var edges = new int[2][order.length];
+    for (int i = 0; i < order.length; i++) {
+      edges[0][i] = sources.get(order[i]);
+      edges[1][i] = targets.get(order[i]);
+    }
+    return edges;
+  }
+
+  /**
+   * A graph with the locality of a crawl numbered by URL: hosts of consecutive pages, in which every page links to
+   * the first pages of its host, to the next few pages, and to a few pages nearby.
+   */
+  private static int[][] hostLike(int n, long seed) {
+    var random = new SplittableRandom(seed);
+    var sources = new ArrayList<Integer>();
+    var targets = new ArrayList<Integer>();
+    int host = 0;
+    for (int v = 0; v < n; v++) {
+      if (v - host >= 100 || random.nextInt(40) == 0) {
+        host = v;
+      }
+      var list = new TreeSet<Integer>();
+      for (int w = host; w < Math.min(host + 8, n); w++) {
+        list.add(w);
+      }
+      for (int w = v + 1; w <= Math.min(v + 4, n - 1); w++) {
+        list.add(w);
+      }
+      int nearby = random.nextInt(3);
+      for (int i = 0; i < nearby; i++) {
+        list.add(Math.min(n - 1, host + random.nextInt(v - host + 16)));
+      }
+      if (random.nextInt(20) == 0) {
+        list.add(random.nextInt(n));
+      }
+      for (int w : list) {
+        sources.add(v);
+        targets.add(w);
+      }
+    }
+    var edges = new int[2][];
+    edges[0] = sources.stream().mapToInt(Integer::intValue).toArray();
+    edges[1] = targets.stream().mapToInt(Integer::intValue).toArray();
+    return edges;
+  }
+
+  private static List<int[]> successorLists(int n, int[][] edges) {
+    var sets = new ArrayList<TreeSet<Integer>>();
+    for (int v = 0; v < n; v++) {
+      sets.add(new TreeSet<>());
+    }
+    for (int e = 0; e < edges[0].length; e++) {
+      sets.get(edges[0][e]).add(edges[1][e]);
+    }
+    var lists = new ArrayList<int[]>();
+    for (var set : sets) {
+      lists.add(set.stream().mapToInt(Integer::intValue).toArray());
+    }
+    return lists;
+  }
+}
@@ -0,0 +1,264 @@
+package io.github.aaronchenwei.learning.jgrapht;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.github.aaronchenwei.learning.jgrapht.graph.ConcurrentGraph;
+import java.lang.invoke.MethodHandles;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.jgrapht.GraphType;
+import org.jgrapht.Graphs;
+import org.jgrapht.graph.DefaultGraphType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.MethodOrderer.OrderAnnotation;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+@TestMethodOrder(OrderAnnotation.class)
+public class ConcurrentGraphTests {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+  private static final List<Integer> VERTEX_LIST = Arrays.asList(1, 2, 3, 4, 5, 6, 7, 8);
+
+  private static ConcurrentGraph<Integer, Integer> create(GraphType type) {
+    var vertices = new AtomicInteger(100);
+    var edges = new AtomicInteger();
+    return new ConcurrentGraph<>(type, vertices::getAndIncrement, edges::getAndIncrement);
+  }
+
+  @Test
+  @DisplayName("Simple graph rejects multiple edges and loops")
+  @Order(1)
+  void testSimple() {
+    var graph = create(DefaultGraphType.simple());
+    Graphs.addAllVertices(graph, VERTEX_LIST);
+    var edge1 = graph.addEdge(1, 2);
+    var edge2 = graph.addEdge(1, 2);
+    var edge3 = graph.addEdge(2, 1);
+
+    assertNotNull(edge1);
+    assertNull(edge2);
+    assertNull(edge3);
+    assertThrows(IllegalArgumentException.class, () -> graph.addEdge(1, 1));
+    assertThrows(IllegalArgumentException.class, () -> graph.addEdge(1, 9));
+    assertEquals(edge1, graph.getEdge(2, 1));
+    assertEquals(1, graph.degreeOf(1));
+
+    LOGGER.atInfo().setMessage("{}").addArgument(graph).log();
+  }
+
+  @Test
+  @DisplayName("Pseudograph keeps multiple edges and counts a loop twice")
+  @Order(2)
+  void testPseudograph() {
+    var graph = create(DefaultGraphType.pseudograph());
+    Graphs.addAllVertices(graph, VERTEX_LIST);
+    var edge1 = graph.addEdge(1, 2);
+    var edge2 = graph.addEdge(1, 2);
+    var edge3 = graph.addEdge(2, 1);
+    var edge4 = graph.addEdge(1, 1);
+
+    assertNotEquals(edge1, edge2);
+    assertNotEquals(edge1, edge3);
+    assertNotNull(edge4);
+    assertEquals(4, graph.edgeSet().size());
+    assertEquals(3, graph.getAllEdges(1, 2).size());
+    assertEquals(5, graph.degreeOf(1));
+    assertEquals(4, graph.edgesOf(1).size());
+
+    assertTrue(graph.removeVertex(1));
+    assertEquals(0, graph.edgeSet().size());
+    assertEquals(0, graph.degreeOf(2));
+  }
+
+  @Test
+  @DisplayName("Directed weighted multigraph")
+  @Order(3)
+  void testDirectedWeighted() {
+    var type = new DefaultGraphType.Builder().directed().allowMultipleEdges(true).allowSelfLoops(true)
+      .weighted(true).build();
+    var graph = create(type);
+    Graphs.addAllVertices(graph, VERTEX_LIST);
+    var edge1 = graph.addEdge(1, 2);
+    var edge2 = graph.addEdge(2, 1);
+    var edge3 = graph.addEdge(1, 1);
+    graph.setEdgeWeight(edge1, 2.5);
+
+    assertEquals(edge1, graph.getEdge(1, 2));
+    assertEquals(edge2, graph.getEdge(2, 1));
+    assertEquals(2.5, graph.getEdgeWeight(edge1));
+    assertEquals(1.0, graph.getEdgeWeight(edge2));
+    assertEquals(2, graph.outDegreeOf(1));
+    assertEquals(2, graph.inDegreeOf(1));
+    assertEquals(3, graph.edgesOf(1).size());
+    assertEquals(edge3, graph.removeEdge(1, 1));
+    assertEquals(2, graph.edgeSet().size());
+  }
+
+  @Test
+  @DisplayName("Concurrent writers adding the same pairs get one edge per pair")
+  @Order(4)
+  void testConcurrentDuplicates() throws Exception {
+    int threads = 8;
+    int n = 500;
+    var graph = create(DefaultGraphType.simple());
+    var added = new AtomicInteger();
+    var pool = Executors.newFixedThreadPool(threads);
+    try {
+      run(pool, threads, t -> {
+        for (int v = 0; v < n; v++) {
+          graph.addVertex(v);
+        }
+        for (int v = 0; v < n; v++) {
+          // alternate directions so that both endpoint orders race
+          if ((v + t) % 2 == 0 ? graph.addEdge(v, (v + 1) % n) != null : graph.addEdge((v + 1) % n, v) != null) {
+            added.incrementAndGet();
+          }
+        }
+      });
+    } finally {
+      pool.shutdown();
+    }
+    assertEquals(n, added.get());
+    assertEquals(n, graph.vertexSet().size());
+    assertEquals(n, graph.edgeSet().size());
+    for (int v = 0; v < n; v++) {
+      assertEquals(2, graph.degreeOf(v));
+    }
+  }
+
+  @Test
+  @DisplayName("Concurrent edge insertion and vertex removal leave no dangling edge")
+  @Order(5)
+  void testConcurrentRemoval() throws Exception {
+    int threads = 8;
+    int n = 200;
+    var graph = create(DefaultGraphType.directedPseudograph());
+    for (int v = 0; v < n; v++) {
+      graph.addVertex(v);
+    }
+    var pool = Executors.newFixedThreadPool(threads);
+    try {
+      run(pool, threads, t -> {
+        var random = new SplittableRandom(t);
+        for (int i = 0; i < 20_000; i++) {
+          int u = random.nextInt(n);
+          int v = random.nextInt(n);
+          if (t == 0 && i % 100 == 0) {
+            graph.removeVertex(u);
+            graph.addVertex(u);
+          } else if (t == 1 && i % 3 == 0) {
+            graph.removeEdge(u, v);
+          } else {
+            try {
+              graph.addEdge(u, v);
+            } catch (IllegalArgumentException e) {
+              // the vertex was removed meanwhile
+            }
+          }
+        }
+      });
+    } finally {
+      pool.shutdown();
+    }
+    int incident = 0;
+    for (var v : graph.vertexSet()) {
+      for (var e : graph.outgoingEdgesOf(v)) {
+        assertTrue(graph.containsEdge(e));
+        assertEquals(v, graph.getEdgeSource(e));
+        assertTrue(graph.incomingEdgesOf(graph.getEdgeTarget(e)).contains(e));
+        incident++;
+      }
+    }
+    for (var e : graph.edgeSet()) {
+      assertTrue(graph.containsVertex(graph.getEdgeSource(e)));
+      assertTrue(graph.containsVertex(graph.getEdgeTarget(e)));
+    }
+    assertEquals(graph.edgeSet().size(), incident);
+  }
+
+  @Test
+  @DisplayName("Concurrent writers of disjoint vertices and edges lose none of them")
+  @Order(6)
+  void testConcurrentWriters() throws Exception {
+    int n = 2_000;
+    int m = 20_000;
+    int writers = 4;
+    var random = new SplittableRandom(42L);
+    var sources = new int[m];
+    var targets = new int[m];
+    var degrees = new int[n];
+    for (int e = 0; e < m; e++) {
+      sources[e] = random.nextInt(n);
+      targets[e] = random.nextInt(n);
+      degrees[sources[e]]++;
+      degrees[targets[e]]++;
+    }
+    var graph = create(DefaultGraphType.pseudograph());
+    var pool = Executors.newFixedThreadPool(writers);
+    try {
+      run(pool, writers, t -> {
+        for (int v = t; v < n; v += writers) {
+          graph.addVertex(v);
+        }
+      });
+      run(pool, writers, t -> {
+        for (int e = t; e < m; e += writers) {
+          graph.addEdge(sources[e], targets[e]);
+        }
+      });
+    } finally {
+      pool.shutdown();
+    }
+
+    assertEquals(n, graph.vertexSet().size());
+    assertEquals(m, graph.edgeSet().size());
+    for (int v = 0; v < n; v++) {
+      assertEquals(degrees[v], graph.degreeOf(v));
+    }
+
+    LOGGER.atInfo().setMessage("{} writers added {} vertices and {} edges").addArgument(writers).addArgument(n)
+      .addArgument(m).log();
+  }
+
+
+  private interface Task {
+    void run(int thread);
+  }
+
+  /**
+   * Runs a task on {@code threads} threads that start together, and waits for all of them.
+   */
+  private static void run(ExecutorService pool, int threads, Task task) throws Exception {
+    var ready = new CountDownLatch(1);
+    List<Future<?>> futures = new ArrayList<>();
+    for (int t = 0; t < threads; t++) {
+      int thread = t;
+      futures.add(pool.submit(() -> {
+        ready.await();
+        task.run(thread);
+        return null;
+      }));
+    }
+    ready.countDown();
+    for (var future : futures) {
+      future.get();
+    }
+  }
+}
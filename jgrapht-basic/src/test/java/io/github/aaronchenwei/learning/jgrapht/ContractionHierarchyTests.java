@@ -0,0 +1,190 @@
+package io.github.aaronchenwei.learning.jgrapht;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import io.github.aaronchenwei.learning.jgrapht.graph.IntArrayGraph;
+import io.github.aaronchenwei.learning.jgrapht.nio.VertexCodec;
+import io.github.aaronchenwei.learning.jgrapht.shortestpath.ContractionHierarchy;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import org.jgrapht.Graph;
+import org.jgrapht.GraphType;
+import org.jgrapht.alg.shortestpath.DijkstraShortestPath;
+import org.jgrapht.graph.DefaultGraphType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.MethodOrderer.OrderAnnotation;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+@TestMethodOrder(OrderAnnotation.class)
+public class ContractionHierarchyTests {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+  @TempDir
+  Path tempDir;
+
+  /**
+   * A grid with random weights and a few random long-range edges, roughly like a road network.
+   */
+  private static Graph<Integer, Integer> grid(GraphType type, int side, long seed) {
+    var random = new SplittableRandom(seed);
+    var graph = new IntArrayGraph(type.asWeighted());
+    int n = side * side;
+    for (int v = 0; v < n; v++) {
+      graph.addVertex(v);
+    }
+    for (int v = 0; v < n; v++) {
+      if (v % side + 1 < side) {
+        addEdge(graph, v, v + 1, random.nextInt(10));
+      }
+      if (v + side < n) {
+        addEdge(graph, v, v + side, random.nextInt(10));
+      }
+      if (type.isDirected() && random.nextInt(3) > 0) {
+        // most streets run both ways, with their own weight
+        if (v % side + 1 < side) {
+          addEdge(graph, v + 1, v, random.nextInt(10));
+        }
+        if (v + side < n) {
+          addEdge(graph, v + side, v, random.nextInt(10));
+        }
+      }
+    }
+    for (int i = 0; i < n / 10; i++) {
+      addEdge(graph, random.nextInt(n), random.nextInt(n), 5.0 + random.nextInt(30));
+    }
+    return graph;
+  }
+
+  private static void addEdge(Graph<Integer, Integer> graph, int u, int v, double weight) {
+    graph.setEdgeWeight(graph.addEdge(u, v), weight);
+  }
+
+  @Test
+  @DisplayName("Distances and paths match Dijkstra")
+  @Order(1)
+  void testAgainstDijkstra() {
+    var pool = new ForkJoinPool(4);
+    try {
+      for (var type : List.of(DefaultGraphType.directedPseudograph(), DefaultGraphType.pseudograph())) {
+        var graph = grid(type, 30, 7L);
+        var hierarchy = ContractionHierarchy.build(pool, graph);
+        var query = hierarchy.newQuery();
+        var dijkstra = new DijkstraShortestPath<>(graph);
+        var random = new SplittableRandom(11L);
+        long settled = 0;
+        for (int q = 0; q < 300; q++) {
+          int s = random.nextInt(900);
+          int t = random.nextInt(900);
+          double expected = dijkstra.getPathWeight(s, t);
+          assertEquals(expected, query.getPathWeight(s, t));
+          settled += query.settledCount();
+          var path = query.getPathVertexList(s, t);
+          if (expected == Double.POSITIVE_INFINITY) {
+            assertNull(path);
+          } else {
+            assertEquals(s, (int) path.get(0));
+            assertEquals(t, (int) path.get(path.size() - 1));
+            assertEquals(expected, pathWeight(graph, path));
+          }
+        }
+        LOGGER.atInfo().setMessage("{}: {} arcs, {} shortcuts, {} settled per query")
+          .addArgument(type.isDirected() ? "directed" : "undirected").addArgument(hierarchy.arcCount())
+          .addArgument(hierarchy.shortcutCount()).addArgument(settled / 300).log();
+      }
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  @Test
+  @DisplayName("Sparse random graphs with unreachable pairs")
+  @Order(2)
+  void testRandomGraphs() {
+    for (long seed = 1; seed <= 20; seed++) {
+      var random = new SplittableRandom(seed);
+      var graph = new IntArrayGraph(DefaultGraphType.directedPseudograph().asWeighted());
+      int n = 40;
+      for (int v = 0; v < n; v++) {
+        graph.addVertex(v);
+      }
+      for (int i = 0; i < 70; i++) {
+        addEdge(graph, random.nextInt(n), random.nextInt(n), random.nextInt(4));
+      }
+      var query = ContractionHierarchy.build(ForkJoinPool.commonPool(), graph).newQuery();
+      var dijkstra = new DijkstraShortestPath<>(graph);
+      for (int s = 0; s < n; s++) {
+        for (int t = 0; t < n; t++) {
+          assertEquals(dijkstra.getPathWeight(s, t), query.getPathWeight(s, t));
+        }
+      }
+      assertEquals(List.of(3), query.getPathVertexList(3, 3));
+    }
+  }
+
+  @Test
+  @DisplayName("Write and read back")
+  @Order(3)
+  void testPersistence() throws IOException {
+    var graph = grid(DefaultGraphType.directedPseudograph(), 20, 3L);
+    var hierarchy = ContractionHierarchy.build(ForkJoinPool.commonPool(), graph);
+    var file = tempDir.resolve("grid.ch");
+    hierarchy.write(file, VertexCodec.integers());
+    var loaded = ContractionHierarchy.read(file, VertexCodec.integers());
+
+    assertEquals(hierarchy.vertexCount(), loaded.vertexCount());
+    assertEquals(hierarchy.arcCount(), loaded.arcCount());
+    assertEquals(hierarchy.shortcutCount(), loaded.shortcutCount());
+    var before = hierarchy.newQuery();
+    var after = loaded.newQuery();
+    for (int s = 0; s < 400; s += 7) {
+      for (int t = 0; t < 400; t += 13) {
+        assertEquals(before.getPathWeight(s, t), after.getPathWeight(s, t));
+        assertEquals(before.getPathVertexList(s, t), after.getPathVertexList(s, t));
+      }
+    }
+    assertThrows(IOException.class, () -> ContractionHierarchy.read(tempDir.resolve("missing.ch"),
+      VertexCodec.integers()));
+
+    LOGGER.atInfo().setMessage("{} bytes").addArgument(file.toFile().length()).log();
+  }
+
+  @Test
+  @DisplayName("Invalid input")
+  @Order(4)
+  void testInvalidInput() {
+    var graph = new IntArrayGraph(DefaultGraphType.directedSimple().asWeighted());
+    graph.addVertex(0);
+    graph.addVertex(1);
+    addEdge(graph, 0, 1, 1.0);
+    var query = ContractionHierarchy.build(ForkJoinPool.commonPool(), graph).newQuery();
+    assertThrows(IllegalArgumentException.class, () -> query.getPathWeight(0, 2));
+    assertEquals(Double.POSITIVE_INFINITY, query.getPathWeight(1, 0));
+
+    graph.setEdgeWeight(graph.getEdge(0, 1), -1.0);
+    assertThrows(IllegalArgumentException.class, () -> ContractionHierarchy.build(ForkJoinPool.commonPool(), graph));
+  }
+
+  private static double pathWeight(Graph<Integer, Integer> graph, List<Integer> path) {
+    double weight = 0.0;
+    for (int i = 1; i < path.size(); i++) {
+      double lightest = Double.POSITIVE_INFINITY;
+      for (var e : graph.getAllEdges(path.get(i - 1), path.get(i))) {
+        lightest = Math.min(lightest, graph.getEdgeWeight(e));
+      }
+      weight += lightest;
+    }
+    return weight;
+  }
+}
@@ -0,0 +1,129 @@
+package io.github.aaronchenwei.learning.jgrapht;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.github.aaronchenwei.learning.jgrapht.graph.DictionaryGraph;
+import java.lang.invoke.MethodHandles;
+import java.net.URI;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import org.jgrapht.Graphs;
+import org.jgrapht.graph.DefaultGraphType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.MethodOrderer.OrderAnnotation;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+@TestMethodOrder(OrderAnnotation.class)
+public class DictionaryGraphTests {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+  private static final List<String> VERTEX_LIST = Arrays.asList("a", "b", "c", "d", "e", "f", "g", "h");
+
+  @Test
+  @DisplayName("Simple graph of String vertices")
+  @Order(1)
+  void testSimpleGraph() {
+    var graph = new DictionaryGraph<String>(DefaultGraphType.simple(), null);
+    Graphs.addAllVertices(graph, VERTEX_LIST);
+    var edge1 = graph.addEdge("b", "c");
+    var edge2 = graph.addEdge("b", "c");
+    var edge3 = graph.addEdge("c", "b");
+
+    graph.addEdge("c", "d");
+    graph.addEdge("c", "e");
+    graph.addEdge("e", "f");
+    graph.addEdge("e", "g");
+    graph.addEdge("e", "h");
+    graph.addEdge("f", "g");
+    graph.addEdge("f", "h");
+    graph.addEdge("g", "h");
+
+    assertNotNull(edge1);
+    assertNull(edge2);
+    assertNull(edge3);
+    assertEquals(8, graph.vertexSet().size());
+    assertEquals(9, graph.edgeSet().size());
+    assertEquals(4, graph.degreeOf("e"));
+    assertEquals("b", graph.getEdgeSource(edge1));
+    assertEquals("c", graph.getEdgeTarget(edge1));
+    assertEquals(edge1, graph.getEdge("c", "b"));
+    assertThrows(IllegalArgumentException.class, () -> graph.addEdge("a", "a"));
+    assertThrows(IllegalArgumentException.class, () -> graph.addEdge("a", "z"));
+    assertThrows(IllegalArgumentException.class, () -> graph.edgesOf("z"));
+    assertThrows(NullPointerException.class, () -> graph.edgesOf(null));
+    assertNotEquals(graph.getEdgeSupplier().get(), graph.getEdgeSupplier().get());
+    assertNull(graph.getEdge("a", "z"));
+
+    LOGGER.atInfo().setMessage("{}").addArgument(graph).log();
+  }
+
+  @Test
+  @DisplayName("Directed weighted pseudograph of URI vertices")
+  @Order(2)
+  void testDirectedWeightedPseudograph() {
+    var graph = new DictionaryGraph<URI>(DefaultGraphType.directedPseudograph().asWeighted(), null);
+    var google = URI.create("http://www.google.com");
+    var wikipedia = URI.create("http://www.wikipedia.org");
+    var jgrapht = URI.create("http://www.jgrapht.org");
+    graph.addVertex(google);
+    graph.addVertex(wikipedia);
+    graph.addVertex(jgrapht);
+    assertFalse(graph.addVertex(URI.create("http://www.google.com")));
+
+    var e1 = graph.addEdge(jgrapht, wikipedia);
+    var e2 = graph.addEdge(google, jgrapht);
+    var e3 = graph.addEdge(google, wikipedia);
+    var e4 = graph.addEdge(wikipedia, google);
+    var e5 = graph.addEdge(google, google);
+    graph.setEdgeWeight(e2, 2.5);
+
+    assertEquals(5, graph.edgeSet().size());
+    assertEquals(Set.of(e2, e3, e5), graph.outgoingEdgesOf(google));
+    assertEquals(Set.of(e4, e5), graph.incomingEdgesOf(google));
+    assertEquals(Set.of(e1, e3), graph.incomingEdgesOf(wikipedia));
+    assertEquals(2.5, graph.getEdgeWeight(e2));
+    assertEquals(google, graph.vertex(graph.vertexId(URI.create("http://www.google.com"))));
+
+    var encoded = graph.encoded();
+    assertEquals(graph.vertexId(google), (int) encoded.getEdgeSource(e2));
+    assertThrows(UnsupportedOperationException.class, () -> encoded.addVertex(99));
+  }
+
+  @Test
+  @DisplayName("Removed identifiers are reused")
+  @Order(3)
+  void testRemoval() {
+    var graph = new DictionaryGraph<String>(DefaultGraphType.pseudograph(), null);
+    Graphs.addAllVertices(graph, VERTEX_LIST);
+    graph.addEdge("a", "b");
+    graph.addEdge("b", "c");
+    graph.addEdge("b", "b");
+    int id = graph.vertexId("b");
+
+    assertTrue(graph.removeVertex("b"));
+    assertFalse(graph.removeVertex("b"));
+    assertEquals(-1, graph.vertexId("b"));
+    assertEquals(7, graph.vertexSet().size());
+    assertEquals(0, graph.edgeSet().size());
+    assertFalse(graph.vertexSet().contains("b"));
+
+    assertTrue(graph.addVertex("z"));
+    assertEquals(id, graph.vertexId("z"));
+    assertEquals(0, graph.degreeOf("z"));
+    graph.addEdge("z", "a");
+    assertEquals(1, graph.degreeOf("a"));
+    assertTrue(graph.vertexSet().containsAll(List.of("a", "c", "z")));
+  }
+}
@@ -0,0 +1,114 @@
+package io.github.aaronchenwei.learning.jgrapht;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.github.aaronchenwei.learning.jgrapht.graph.FrozenGraph;
+import io.github.aaronchenwei.learning.jgrapht.graph.IntCsr;
+import io.github.aaronchenwei.learning.jgrapht.graph.IntCsrGraph;
+import io.github.aaronchenwei.learning.jgrapht.traverse.DirectionOptimizingBfs;
+import io.github.aaronchenwei.learning.jgrapht.traverse.IntTraversal;
+import java.lang.invoke.MethodHandles;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import org.jgrapht.graph.DefaultDirectedGraph;
+import org.jgrapht.graph.DefaultEdge;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.MethodOrderer.OrderAnnotation;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+@TestMethodOrder(OrderAnnotation.class)
+public class DirectionOptimizingBfsTests {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+  @Test
+  @DisplayName("Undirected random graph, top-down and bottom-up")
+  @Order(1)
+  void testUndirected() {
+    int n = 20_000;
+    int m = 80_000;
+    var random = new SplittableRandom(9L);
+    var sources = new int[m];
+    var targets = new int[m];
+    for (int e = 0; e < m; e++) {
+      sources[e] = random.nextInt(n);
+      targets[e] = random.nextInt(n);
+    }
+    var pool = new ForkJoinPool(4);
+    var graph = IntCsrGraph.undirected(pool, n, sources, targets, null);
+    var expected = sequentialDistances(graph.adjacency(), 0);
+
+    var directionOptimizing = new DirectionOptimizingBfs(graph).pool(pool).search(0);
+    assertArrayEquals(expected, directionOptimizing.distances());
+    assertTrue(directionOptimizing.bottomUpLevelCount() > 0);
+    assertValidParents(graph.adjacency(), directionOptimizing);
+
+    var topDown = new DirectionOptimizingBfs(graph).pool(pool).bottomUp(false).search(0);
+    assertArrayEquals(expected, topDown.distances());
+    assertEquals(0, topDown.bottomUpLevelCount());
+    assertValidParents(graph.adjacency(), topDown);
+
+    LOGGER.atInfo().setMessage("reached {} in {} levels, {} bottom-up")
+      .addArgument(directionOptimizing.reachedCount())
+      .addArgument(directionOptimizing.levelCount())
+      .addArgument(directionOptimizing.bottomUpLevelCount())
+      .log();
+  }
+
+  @Test
+  @DisplayName("Directed graph follows edge direction")
+  @Order(2)
+  void testDirected() {
+    var graph = new DefaultDirectedGraph<Integer, DefaultEdge>(DefaultEdge.class);
+    for (int v = 0; v < 6; v++) {
+      graph.addVertex(v);
+    }
+    graph.addEdge(0, 1);
+    graph.addEdge(1, 2);
+    graph.addEdge(0, 3);
+    graph.addEdge(3, 2);
+    graph.addEdge(4, 0);
+    graph.addEdge(2, 5);
+    var frozen = FrozenGraph.freeze(graph);
+
+    // alpha = 1000 goes bottom-up as soon as possible
+    var result = new DirectionOptimizingBfs(frozen.outgoing(), frozen.incoming()).alpha(1000).beta(1).search(0);
+    assertArrayEquals(new int[] {0, 1, 2, 1, -1, 3}, result.distances());
+    assertEquals(-1, result.parent(4));
+    assertEquals(5, result.reachedCount());
+    assertEquals(4, result.levelCount());
+    assertValidParents(frozen.outgoing(), result);
+  }
+
+  private static int[] sequentialDistances(IntCsr adjacency, int source) {
+    var distances = new int[adjacency.vertexCount()];
+    Arrays.fill(distances, -1);
+    new IntTraversal(adjacency.vertexCount()).breadthFirst(adjacency, source, (v, depth) -> {
+      distances[v] = depth;
+      return true;
+    });
+    return distances;
+  }
+
+  private static void assertValidParents(IntCsr outgoing, DirectionOptimizingBfs.Result result) {
+    for (int v = 0; v < outgoing.vertexCount(); v++) {
+      int parent = result.parent(v);
+      if (result.distance(v) <= 0) {
+        continue;
+      }
+      assertEquals(result.distance(v) - 1, result.distance(parent));
+      boolean adjacent = false;
+      for (int slot = outgoing.start(parent); slot < outgoing.end(parent); slot++) {
+        adjacent |= outgoing.neighbor(slot) == v;
+      }
+      assertTrue(adjacent);
+    }
+  }
+}
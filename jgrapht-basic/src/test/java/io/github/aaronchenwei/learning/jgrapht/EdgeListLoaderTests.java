@@ -0,0 +1,218 @@
+package io.github.aaronchenwei.learning.jgrapht;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.github.aaronchenwei.learning.jgrapht.graph.IntArrayGraph;
+import io.github.aaronchenwei.learning.jgrapht.graph.IntCsrGraph;
+import io.github.aaronchenwei.learning.jgrapht.nio.EdgeListLoader;
+import io.github.aaronchenwei.learning.jgrapht.nio.EdgeListLoader.Format;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import org.jgrapht.alg.util.Pair;
+import org.jgrapht.alg.util.Triple;
+import org.jgrapht.graph.DefaultGraphType;
+import org.jgrapht.opt.graph.sparse.SparseIntUndirectedGraph;
+import org.jgrapht.opt.graph.sparse.SparseIntUndirectedWeightedGraph;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.MethodOrderer.OrderAnnotation;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+@TestMethodOrder(OrderAnnotation.class)
+public class EdgeListLoaderTests {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+  @TempDir
+  Path tempDir;
+
+  @Test
+  @DisplayName("Text edge list as SparseIntUndirectedGraph")
+  @Order(1)
+  void testTextEdgeList() throws IOException {
+    var file = tempDir.resolve("edges.txt");
+    Files.writeString(file, String.join("\n",
+      "# source target",
+      "0 5",
+      "0 2",
+      "3 4",
+      "",
+      "1 4",
+      "0\t1",
+      "3 1",
+      "2 4"));
+    List<Pair<Integer, Integer>> edges = Arrays.asList(
+      Pair.of(0, 5),
+      Pair.of(0, 2),
+      Pair.of(3, 4),
+      Pair.of(1, 4),
+      Pair.of(0, 1),
+      Pair.of(3, 1),
+      Pair.of(2, 4));
+    var expected = new SparseIntUndirectedGraph(6, edges);
+
+    var graph = new EdgeListLoader(Format.TEXT).loadUndirected(file);
+
+    assertEquals(expected.vertexSet(), graph.vertexSet());
+    assertEquals(expected.edgeSet().size(), graph.edgeSet().size());
+    for (var v : expected.vertexSet()) {
+      assertEquals(expected.degreeOf(v), graph.degreeOf(v));
+    }
+    for (var e : expected.edgeSet()) {
+      assertEquals(expected.getEdgeSource(e), graph.getEdgeSource(e));
+      assertEquals(expected.getEdgeTarget(e), graph.getEdgeTarget(e));
+    }
+
+    LOGGER.atInfo().setMessage("{}").addArgument(graph).log();
+  }
+
+  @Test
+  @DisplayName("Binary edge list as SparseIntUndirectedWeightedGraph")
+  @Order(2)
+  void testBinaryWeightedEdgeList() throws IOException {
+    List<Triple<Integer, Integer, Double>> edges = Arrays.asList(
+      Triple.of(0, 5, 1d),
+      Triple.of(0, 2, 2d),
+      Triple.of(3, 4, 3d),
+      Triple.of(1, 4, 4d),
+      Triple.of(0, 1, 5d),
+      Triple.of(3, 1, 6d),
+      Triple.of(2, 4, 7d));
+    var expected = new SparseIntUndirectedWeightedGraph(6, edges);
+    var file = tempDir.resolve("edges.bin");
+    EdgeListLoader.writeBinary(file,
+      edges.stream().mapToInt(Triple::getFirst).toArray(),
+      edges.stream().mapToInt(Triple::getSecond).toArray(),
+      edges.stream().mapToDouble(Triple::getThird).toArray());
+
+    var graph = new EdgeListLoader(Format.BINARY).weighted(true).loadUndirected(file);
+
+    assertEquals(expected.edgeSet().size(), graph.edgeSet().size());
+    for (var e : expected.edgeSet()) {
+      assertEquals(expected.getEdgeWeight(e), graph.getEdgeWeight(e));
+      assertEquals(expected.getEdgeSource(e), graph.getEdgeSource(e));
+    }
+    for (var v : expected.vertexSet()) {
+      assertEquals(expected.edgesOf(v), graph.edgesOf(v));
+    }
+
+    LOGGER.atInfo().setMessage("{}").addArgument(graph).log();
+  }
+
+  @Test
+  @DisplayName("Parallel load matches sequential construction")
+  @Order(3)
+  void testParallelLoad() throws IOException {
+    var random = new SplittableRandom(42L);
+    int n = 10_000;
+    int m = 200_000;
+    var sources = new int[m];
+    var targets = new int[m];
+    var text = new StringBuilder();
+    for (int e = 0; e < m; e++) {
+      sources[e] = random.nextInt(n);
+      targets[e] = random.nextInt(n);
+      text.append(sources[e]).append(' ').append(targets[e]).append('\n');
+    }
+    var file = tempDir.resolve("random.txt");
+    Files.writeString(file, text);
+    var expected = IntCsrGraph.undirected(n, sources, targets, null);
+
+    var pool = new ForkJoinPool(4);
+    try {
+      var graph = new EdgeListLoader(Format.TEXT).vertexCount(n).pool(pool).loadUndirected(file);
+
+      assertArrayEquals(expected.adjacency().offsets(), graph.adjacency().offsets());
+      assertArrayEquals(expected.adjacency().edges(), graph.adjacency().edges());
+      assertArrayEquals(expected.adjacency().neighbors(), graph.adjacency().neighbors());
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  @Test
+  @DisplayName("Malformed edge list")
+  @Order(4)
+  void testMalformedEdgeList() throws IOException {
+    var file = tempDir.resolve("malformed.txt");
+    Files.writeString(file, "0 1\n1 x\n");
+
+    assertThrows(IOException.class, () -> new EdgeListLoader(Format.TEXT).loadUndirected(file));
+
+    var outOfRange = tempDir.resolve("out-of-range.txt");
+    Files.writeString(outOfRange, "0 1\n1 7\n");
+    var loader = new EdgeListLoader(Format.TEXT).vertexCount(4);
+    assertThrows(IOException.class, () -> loader.loadUndirected(outOfRange));
+    assertThrows(IOException.class, () -> loader.loadDirected(outOfRange));
+    assertThrows(IllegalArgumentException.class, () -> loader.vertexCount(-2));
+    assertThrows(IllegalArgumentException.class,
+      () -> IntCsrGraph.undirected(ForkJoinPool.commonPool(), 2, new int[0], new int[1], null));
+  }
+
+  @Test
+  @DisplayName("Directed edge list with outgoing and incoming adjacency")
+  @Order(5)
+  void testDirectedEdgeList() throws IOException {
+    var random = new SplittableRandom(5L);
+    int n = 200;
+    int m = 2_000;
+    var sources = new int[m];
+    var targets = new int[m];
+    // every vertex gets self-loops and parallel edges
+    var expected = new IntArrayGraph(DefaultGraphType.directedPseudograph());
+    for (int v = 0; v < n; v++) {
+      expected.addVertex(v);
+    }
+    for (int e = 0; e < m; e++) {
+      sources[e] = random.nextInt(n);
+      targets[e] = e % 50 == 0 ? sources[e] : random.nextInt(n / 4);
+      assertEquals(e, (int) expected.addEdge(sources[e], targets[e]));
+    }
+    var file = tempDir.resolve("directed.bin");
+    EdgeListLoader.writeBinary(file, sources, targets, null);
+
+    var pool = new ForkJoinPool(4);
+    try {
+      var graph = new EdgeListLoader(Format.BINARY).vertexCount(n).pool(pool).loadDirected(file);
+      var sequential = IntCsrGraph.directed(n, sources, targets, null);
+      assertTrue(graph.getType().isDirected());
+      assertArrayEquals(sequential.adjacency().edges(), graph.adjacency().edges());
+      assertArrayEquals(sequential.incoming().edges(), graph.incoming().edges());
+      assertArrayEquals(sequential.incoming().neighbors(), graph.incoming().neighbors());
+
+      for (int v = 0; v < n; v++) {
+        assertEquals(expected.outgoingEdgesOf(v), graph.outgoingEdgesOf(v));
+        assertEquals(expected.incomingEdgesOf(v), graph.incomingEdgesOf(v));
+        assertEquals(expected.edgesOf(v), graph.edgesOf(v));
+        assertEquals(expected.edgesOf(v).size(), new HashSet<>(graph.edgesOf(v)).size());
+        assertEquals(expected.outDegreeOf(v), graph.outDegreeOf(v));
+        assertEquals(expected.inDegreeOf(v), graph.inDegreeOf(v));
+        assertEquals(expected.degreeOf(v), graph.degreeOf(v));
+      }
+      for (int e = 0; e < m; e++) {
+        int u = sources[e];
+        int v = targets[e];
+        assertEquals(expected.getAllEdges(u, v), graph.getAllEdges(u, v));
+        assertTrue(graph.outgoingEdgesOf(u).contains(e));
+        assertEquals(u == v, graph.incomingEdgesOf(u).contains(e));
+        assertEquals(u == v, graph.outgoingEdgesOf(v).contains(e));
+      }
+    } finally {
+      pool.shutdown();
+    }
+  }
+}
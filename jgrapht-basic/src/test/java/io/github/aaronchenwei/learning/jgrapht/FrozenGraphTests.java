@@ -0,0 +1,115 @@
+package io.github.aaronchenwei.learning.jgrapht;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.github.aaronchenwei.learning.jgrapht.graph.FrozenGraph;
+import java.lang.invoke.MethodHandles;
+import java.net.URI;
+import java.util.Arrays;
+import java.util.List;
+import org.jgrapht.Graphs;
+import org.jgrapht.alg.shortestpath.DijkstraShortestPath;
+import org.jgrapht.graph.DefaultDirectedGraph;
+import org.jgrapht.graph.DefaultEdge;
+import org.jgrapht.graph.DefaultWeightedEdge;
+import org.jgrapht.graph.Pseudograph;
+import org.jgrapht.graph.WeightedMultigraph;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.MethodOrderer.OrderAnnotation;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+@TestMethodOrder(OrderAnnotation.class)
+public class FrozenGraphTests {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+  private static final List<Integer> VERTEX_LIST = Arrays.asList(1, 2, 3, 4, 5, 6, 7, 8);
+
+  @Test
+  @DisplayName("Frozen DefaultDirectedGraph of URIs")
+  @Order(1)
+  void testDirectedGraph() {
+    var graph = new DefaultDirectedGraph<URI, DefaultEdge>(DefaultEdge.class);
+    var google = URI.create("http://www.google.com");
+    var wikipedia = URI.create("http://www.wikipedia.org");
+    var jgrapht = URI.create("http://www.jgrapht.org");
+    graph.addVertex(google);
+    graph.addVertex(wikipedia);
+    graph.addVertex(jgrapht);
+    graph.addEdge(jgrapht, wikipedia);
+    graph.addEdge(google, jgrapht);
+    graph.addEdge(google, wikipedia);
+    graph.addEdge(wikipedia, google);
+
+    var frozen = FrozenGraph.freeze(graph);
+
+    assertEquals(graph.vertexSet(), frozen.vertexSet());
+    assertEquals(graph.edgeSet(), frozen.edgeSet());
+    for (var v : graph.vertexSet()) {
+      assertEquals(graph.outgoingEdgesOf(v), frozen.outgoingEdgesOf(v));
+      assertEquals(graph.incomingEdgesOf(v), frozen.incomingEdgesOf(v));
+      assertEquals(v, frozen.vertex(frozen.vertexId(v)));
+    }
+    var id = frozen.vertexId(google);
+    assertEquals(2, frozen.outgoing().degree(id));
+    assertEquals(1, frozen.incoming().degree(id));
+    assertEquals(2.0, new DijkstraShortestPath<>(frozen).getPathWeight(jgrapht, google));
+    assertThrows(UnsupportedOperationException.class, () -> frozen.addEdge(jgrapht, google));
+
+    LOGGER.atInfo().setMessage("{}").addArgument(frozen).log();
+  }
+
+  @Test
+  @DisplayName("Frozen WeightedMultigraph")
+  @Order(2)
+  void testWeightedMultigraph() {
+    var graph = new WeightedMultigraph<Integer, DefaultWeightedEdge>(DefaultWeightedEdge.class);
+    Graphs.addAllVertices(graph, VERTEX_LIST);
+    var edge1 = graph.addEdge(1, 2);
+    var edge2 = graph.addEdge(1, 2);
+    var edge3 = graph.addEdge(2, 3);
+    graph.setEdgeWeight(edge1, 1.0);
+    graph.setEdgeWeight(edge2, 2.0);
+    graph.setEdgeWeight(edge3, 4.0);
+
+    var frozen = FrozenGraph.freeze(graph);
+
+    assertEquals(2, frozen.getAllEdges(2, 1).size());
+    assertEquals(2.0, frozen.getEdgeWeight(edge2));
+    assertEquals(4.0, frozen.weight(frozen.edgeId(edge3)));
+    assertEquals(3, frozen.degreeOf(2));
+    // undirected snapshots share one adjacency for both directions
+    assertSame(frozen.outgoing(), frozen.incoming());
+    assertEquals(5.0, new DijkstraShortestPath<>(frozen).getPathWeight(1, 3));
+
+    LOGGER.atInfo().setMessage("{}").addArgument(frozen).log();
+  }
+
+  @Test
+  @DisplayName("Frozen Pseudograph")
+  @Order(3)
+  void testPseudograph() {
+    var graph = new Pseudograph<Integer, DefaultEdge>(DefaultEdge.class);
+    Graphs.addAllVertices(graph, VERTEX_LIST);
+    graph.addEdge(1, 2);
+    graph.addEdge(1, 2);
+    graph.addEdge(1, 1);
+
+    var frozen = FrozenGraph.freeze(graph);
+
+    for (var v : graph.vertexSet()) {
+      assertEquals(graph.edgesOf(v), frozen.edgesOf(v));
+      assertEquals(graph.degreeOf(v), frozen.degreeOf(v));
+    }
+    assertTrue(frozen.getType().isPseudograph());
+
+    LOGGER.atInfo().setMessage("{}").addArgument(frozen).log();
+  }
+}
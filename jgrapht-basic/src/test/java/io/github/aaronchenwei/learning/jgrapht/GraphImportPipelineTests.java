@@ -0,0 +1,256 @@
+package io.github.aaronchenwei.learning.jgrapht;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.github.aaronchenwei.learning.jgrapht.graph.IntArrayGraph;
+import io.github.aaronchenwei.learning.jgrapht.nio.GraphImportPipeline;
+import io.github.aaronchenwei.learning.jgrapht.nio.GraphImportPipeline.Format;
+import io.github.aaronchenwei.learning.jgrapht.nio.ImportedGraph;
+import io.github.aaronchenwei.learning.jgrapht.nio.StreamingDotExporter;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import org.jgrapht.Graph;
+import org.jgrapht.graph.DefaultDirectedWeightedGraph;
+import org.jgrapht.graph.DefaultGraphType;
+import org.jgrapht.graph.DefaultWeightedEdge;
+import org.jgrapht.graph.DirectedWeightedPseudograph;
+import org.jgrapht.graph.SimpleWeightedGraph;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.MethodOrderer.OrderAnnotation;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+@TestMethodOrder(OrderAnnotation.class)
+public class GraphImportPipelineTests {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+  @TempDir
+  Path tempDir;
+
+  @Test
+  @DisplayName("CSV edge list numbered by first occurrence")
+  @Order(1)
+  void testCsv() throws IOException {
+    var file = tempDir.resolve("edges.csv");
+    Files.writeString(file, String.join("\n",
+      "a,b",
+      "c,a,2.5",
+      "",
+      "\"d,\"\"e\"\"\",b"));
+
+    var imported = new GraphImportPipeline(Format.CSV).read(file);
+    assertEquals(4, imported.vertexCount());
+    assertEquals(3, imported.edgeCount());
+    assertEquals("a", imported.label(0));
+    assertEquals("b", imported.label(1));
+    assertEquals("c", imported.label(2));
+    assertEquals("d,\"e\"", imported.label(3));
+    assertEquals(2, imported.edgeSource(1));
+    assertEquals(0, imported.edgeTarget(1));
+    assertEquals(2.5, imported.weight(1));
+    assertEquals(1.0, imported.weight(2));
+    assertTrue(imported.isWeighted());
+    assertFalse(imported.isDirected());
+
+    var graph = imported.toCsrGraph();
+    assertEquals(2, graph.degreeOf(0));
+    assertEquals(2.5, graph.getEdgeWeight(1));
+
+    LOGGER.atInfo().setMessage("{}").addArgument(graph).log();
+    LOGGER.atInfo().setMessage("{}").addArgument(imported.statistics()).log();
+  }
+
+  @Test
+  @DisplayName("DOT round trip through StreamingDotExporter, many chunks")
+  @Order(2)
+  void testDotRoundTrip() throws IOException {
+    var graph = new DirectedWeightedPseudograph<String, DefaultWeightedEdge>(DefaultWeightedEdge.class);
+    var random = new SplittableRandom(11L);
+    for (int i = 0; i < 500; i++) {
+      graph.addVertex("v" + i);
+    }
+    for (int i = 0; i < 5000; i++) {
+      var edge = graph.addEdge("v" + random.nextInt(500), "v" + random.nextInt(500));
+      graph.setEdgeWeight(edge, random.nextInt(100));
+    }
+
+    var file = tempDir.resolve("graph.dot");
+    var exporter = new StreamingDotExporter<String, DefaultWeightedEdge>(v -> v);
+    exporter.setEdgeAttributeWriter((e, attributes) ->
+      attributes.put("weight", Double.toString(graph.getEdgeWeight(e))));
+    try (var channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+      exporter.exportGraph(graph, channel);
+    }
+
+    var imported = new GraphImportPipeline(Format.DOT).chunkSize(1024).pool(new ForkJoinPool(4)).read(file);
+    assertTrue(imported.isDirected());
+    assertSameGraph(graph, imported);
+    var csr = imported.toCsrGraph();
+    assertTrue(csr.getType().isDirected());
+    assertEquals(graph.edgeSet().size(), csr.incoming().slotCount());
+
+    var copy = new DefaultDirectedWeightedGraph<String, DefaultWeightedEdge>(DefaultWeightedEdge.class);
+    imported.insertInto(copy, label -> label);
+    assertEquals(graph.vertexSet(), copy.vertexSet());
+    for (var edge : graph.edgeSet()) {
+      assertNotNull(copy.getEdge(graph.getEdgeSource(edge), graph.getEdgeTarget(edge)));
+    }
+
+    LOGGER.atInfo().setMessage("{}").addArgument(imported.statistics()).log();
+  }
+
+  @Test
+  @DisplayName("GraphML with weight key")
+  @Order(3)
+  void testGraphMl() throws IOException {
+    var file = tempDir.resolve("graph.graphml");
+    Files.writeString(file, String.join("\n",
+      "<?xml version=\"1.0\" encoding=\"UTF-8\"?>",
+      "<graphml xmlns=\"http://graphml.graphdrawing.org/xmlns\">",
+      "  <key id=\"d0\" for=\"edge\" attr.name=\"cost\" attr.type=\"double\"/>",
+      "  <graph id=\"G\" edgedefault=\"undirected\">",
+      "    <node id=\"n0\"/>",
+      "    <node id=\"n1\"/>",
+      "    <node id=\"n&amp;2\"/>",
+      "    <edge source=\"n0\" target=\"n1\"><data key=\"d0\">0.5</data></edge>",
+      "    <edge source=\"n1\" target=\"n&amp;2\"/>",
+      "  </graph>",
+      "</graphml>"));
+
+    var imported = new GraphImportPipeline(Format.GRAPHML).weightAttribute("cost").read(file);
+    assertFalse(imported.isDirected());
+    assertEquals(3, imported.vertexCount());
+    assertEquals("n&2", imported.label(2));
+    assertEquals(0.5, imported.weight(0));
+    assertEquals(1.0, imported.weight(1));
+
+    LOGGER.atInfo().setMessage("{}").addArgument(imported.statistics()).log();
+  }
+
+  @Test
+  @DisplayName("Malformed input")
+  @Order(4)
+  void testMalformed() throws IOException {
+    var csv = tempDir.resolve("bad.csv");
+    Files.writeString(csv, "a,b\nc\n");
+    assertThrows(IOException.class, () -> new GraphImportPipeline(Format.CSV).read(csv));
+
+    var dot = tempDir.resolve("bad.dot");
+    Files.writeString(dot, "graph G {\n  a -- b [ weight=heavy ];\n}\n");
+    assertThrows(IOException.class, () -> new GraphImportPipeline(Format.DOT).read(dot));
+  }
+
+  @Test
+  @DisplayName("Insertion skips the self-loops and duplicates a simple graph rejects")
+  @Order(5)
+  void testInsertIntoSimpleGraph() throws IOException {
+    var file = tempDir.resolve("loops.csv");
+    Files.writeString(file, "0,1\n1,1,3\n1,0,2\n2,0,1.5\n2,2\n");
+    var imported = new GraphImportPipeline(Format.CSV).read(file);
+
+    var strings = new SimpleWeightedGraph<String, DefaultWeightedEdge>(DefaultWeightedEdge.class);
+    imported.insertInto(strings, label -> label);
+    assertEquals(3, strings.vertexSet().size());
+    assertEquals(2, strings.edgeSet().size());
+    assertEquals(1.0, strings.getEdgeWeight(strings.getEdge("1", "0")));
+    assertEquals(1.5, strings.getEdgeWeight(strings.getEdge("0", "2")));
+
+    var ints = new IntArrayGraph(DefaultGraphType.simple().asWeighted());
+    imported.insertInto(ints, Integer::valueOf);
+    assertEquals(3, ints.vertexSet().size());
+    assertEquals(2, ints.edgeSet().size());
+    assertEquals(1.5, ints.getEdgeWeight(ints.getEdge(0, 2)));
+
+    LOGGER.atInfo().setMessage("{}").addArgument(ints).log();
+  }
+
+  @Test
+  @DisplayName("Comments, strings and CDATA at every chunk cut")
+  @Order(6)
+  void testChunkBoundaries() throws IOException {
+    var dot = new StringBuilder("digraph G {\n");
+    var graphMl = new StringBuilder(String.join("\n",
+      "<?xml version=\"1.0\" encoding=\"UTF-8\"?>",
+      "<graphml xmlns=\"http://graphml.graphdrawing.org/xmlns\">",
+      "  <graph id=\"G\" edgedefault=\"directed\">\n"));
+    for (int i = 0; i < 100; i++) {
+      dot.append("  /* a -> b; */ \"v").append(i).append(" -> w;\" -> \"v").append(i + 1)
+        .append("\" [ weight=").append(i).append(" ]; // c -> d\n");
+      graphMl.append("    <!-- <edges/> --><node id=\"v").append(i).append("\"/>\n")
+        .append("    <![CDATA[ x ]]><edge source=\"v").append(i).append("\" target=\"v").append(i + 1).append("\"/>\n");
+    }
+    dot.append("}\n");
+    graphMl.append("  </graph>\n</graphml>\n");
+    var dotFile = tempDir.resolve("boundaries.dot");
+    Files.writeString(dotFile, dot);
+    var graphMlFile = tempDir.resolve("boundaries.graphml");
+    Files.writeString(graphMlFile, graphMl);
+
+    var pool = new ForkJoinPool(4);
+    var dotWhole = new GraphImportPipeline(Format.DOT).read(dotFile);
+    var dotChunked = new GraphImportPipeline(Format.DOT).chunkSize(16).pool(pool).read(dotFile);
+    assertEquals(100, dotChunked.edgeCount());
+    assertEquals("v0 -> w;", dotChunked.label(0));
+    for (int e = 0; e < 100; e++) {
+      assertEquals(dotWhole.label(dotWhole.edgeSource(e)), dotChunked.label(dotChunked.edgeSource(e)));
+      assertEquals(dotWhole.label(dotWhole.edgeTarget(e)), dotChunked.label(dotChunked.edgeTarget(e)));
+      assertEquals(e, dotChunked.weight(e));
+    }
+    var graphMlChunked = new GraphImportPipeline(Format.GRAPHML).chunkSize(16).pool(pool).read(graphMlFile);
+    assertTrue(graphMlChunked.isDirected());
+    assertEquals(101, graphMlChunked.vertexCount());
+    assertEquals(100, graphMlChunked.edgeCount());
+
+    // a multi-line statement, string or comment, and a tag inside a comment, fail at every chunk size
+    var invalid = new String[] {
+      "graph G {\n  a -- b\n  [ weight=2 ];\n  c -- d;\n}\n",
+      "graph G {\n  a -- \"b\nc\";\n  c -- d;\n}\n",
+      "graph G {\n  a -- b; /* a -- c;\n  b -- c; */\n  c -- d;\n}\n",
+      "graph G {\n  a\n  -- b;\n  c -- d;\n}\n",
+    };
+    for (var text : invalid) {
+      var file = tempDir.resolve("invalid.dot");
+      Files.writeString(file, text);
+      for (int chunkSize : new int[] {4, 1 << 20}) {
+        var e = assertThrows(IOException.class,
+          () -> new GraphImportPipeline(Format.DOT).chunkSize(chunkSize).pool(pool).read(file));
+        assertTrue(e.getMessage().contains("must not span lines"), e.getMessage());
+      }
+    }
+    var commented = tempDir.resolve("commented.graphml");
+    Files.writeString(commented, graphMl.toString().replace("<edges/>", "<edge/>"));
+    for (int chunkSize : new int[] {16, 1 << 20}) {
+      var e = assertThrows(IOException.class,
+        () -> new GraphImportPipeline(Format.GRAPHML).chunkSize(chunkSize).pool(pool).read(commented));
+      assertTrue(e.getMessage().contains("<node or <edge"), e.getMessage());
+    }
+    pool.shutdown();
+  }
+
+  private static void assertSameGraph(Graph<String, DefaultWeightedEdge> graph, ImportedGraph imported) {
+    assertEquals(graph.vertexSet().size(), imported.vertexCount());
+    assertEquals(graph.edgeSet().size(), imported.edgeCount());
+    int e = 0;
+    for (var edge : graph.edgeSet()) {
+      assertEquals(graph.getEdgeSource(edge), imported.label(imported.edgeSource(e)));
+      assertEquals(graph.getEdgeTarget(edge), imported.label(imported.edgeTarget(e)));
+      assertEquals(graph.getEdgeWeight(edge), imported.weight(e));
+      e++;
+    }
+  }
+}
@@ -0,0 +1,156 @@
+package io.github.aaronchenwei.learning.jgrapht;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.github.aaronchenwei.learning.jgrapht.graph.IntCsrGraph;
+import io.github.aaronchenwei.learning.jgrapht.server.GraphQueryClient;
+import io.github.aaronchenwei.learning.jgrapht.server.GraphQueryServer;
+import io.github.aaronchenwei.learning.jgrapht.server.QueryProtocol;
+import io.github.aaronchenwei.learning.jgrapht.traverse.IntTraversal;
+import java.lang.invoke.MethodHandles;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.MethodOrderer.OrderAnnotation;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+@TestMethodOrder(OrderAnnotation.class)
+public class GraphQueryServerTests {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+  @Test
+  @DisplayName("Neighbor, path and reachability queries over TCP")
+  @Order(1)
+  void testQueries() throws Exception {
+    int n = 2_000;
+    var graph = randomDirected(n, 3 * n, 3L);
+    var traversal = new IntTraversal(n);
+    var depths = new int[n];
+    try (var server = new GraphQueryServer(graph)) {
+      var address = server.start(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+      try (var client = GraphQueryClient.connect(address)) {
+        for (int v = 0; v < n; v += 97) {
+          var expected = new int[graph.adjacency().degree(v)];
+          for (int i = 0; i < expected.length; i++) {
+            expected[i] = graph.adjacency().neighbor(graph.adjacency().start(v) + i);
+          }
+          assertArrayEquals(expected, client.neighbors(v));
+        }
+
+        var random = new SplittableRandom(5L);
+        for (int i = 0; i < 200; i++) {
+          int source = random.nextInt(n);
+          int target = random.nextInt(n);
+          Arrays.fill(depths, -1);
+          traversal.breadthFirst(graph.adjacency(), source, (vertex, depth) -> {
+            depths[vertex] = depth;
+            return true;
+          });
+          var path = client.path(source, target);
+          assertEquals(depths[target] + 1, path.length, source + " -> " + target);
+          if (path.length > 0) {
+            assertEquals(source, path[0]);
+            assertEquals(target, path[path.length - 1]);
+            for (int j = 1; j < path.length; j++) {
+              assertTrue(graph.containsEdge(path[j - 1], path[j]));
+            }
+          }
+          assertEquals(depths[target] >= 0, client.reachable(source, target));
+        }
+
+        assertArrayEquals(new int[] {7}, client.path(7, 7));
+        assertThrows(IllegalArgumentException.class, () -> client.neighbors(n));
+        assertThrows(IllegalArgumentException.class, () -> client.path(0, -1));
+        // the connection survives an error response
+        assertTrue(client.reachable(7, 7));
+      }
+    }
+  }
+
+  @Test
+  @DisplayName("Pipelined requests over a Unix domain socket are answered in batches")
+  @Order(2)
+  void testPipelining() throws Exception {
+    int n = 1_000;
+    var graph = randomDirected(n, 4 * n, 7L);
+    var directory = Files.createTempDirectory("graph-query");
+    var socket = directory.resolve("graph.sock");
+    try (var server = new GraphQueryServer(graph)) {
+      server.start(UnixDomainSocketAddress.of(socket));
+      int requests = 5_000;
+      try (var channel = SocketChannel.open(StandardProtocolFamily.UNIX)) {
+        channel.connect(UnixDomainSocketAddress.of(socket));
+        var out = ByteBuffer.allocate(requests * QueryProtocol.MAX_REQUEST_LENGTH);
+        for (int i = 0; i < requests; i++) {
+          switch (i % 3) {
+            case 0 -> QueryProtocol.putNeighbors(out, i % n);
+            case 1 -> QueryProtocol.putPath(out, i % n, (i * 31) % n);
+            default -> QueryProtocol.putReachable(out, i % n, (i * 17) % n);
+          }
+        }
+        out.flip();
+        while (out.hasRemaining()) {
+          channel.write(out);
+        }
+
+        var in = ByteBuffer.allocate(1 << 20);
+        int received = 0;
+        while (received < requests) {
+          assertTrue(channel.read(in) > 0);
+          in.flip();
+          int length;
+          while ((length = QueryProtocol.responseLength(in)) >= 0 && in.remaining() >= length) {
+            byte opcode = in.get(in.position());
+            assertEquals(received % 3 == 0 ? QueryProtocol.NEIGHBORS
+              : received % 3 == 1 ? QueryProtocol.PATH : QueryProtocol.REACHABLE, opcode);
+            assertEquals(QueryProtocol.OK, in.get(in.position() + 1));
+            if (opcode == QueryProtocol.NEIGHBORS) {
+              assertEquals(graph.adjacency().degree(received % n), in.getInt(in.position() + 2));
+            }
+            in.position(in.position() + length);
+            received++;
+          }
+          in.compact();
+        }
+
+        // an unknown opcode closes the connection
+        channel.write(ByteBuffer.wrap(new byte[] {42}));
+        in.clear();
+        assertEquals(-1, channel.read(in));
+      }
+      assertEquals(requests, server.queryCount());
+      assertTrue(server.batchCount() < requests / 10, "batches " + server.batchCount());
+
+      LOGGER.atInfo().setMessage("{} pipelined requests in {} batches, virtual threads: {}").addArgument(requests)
+        .addArgument(server.batchCount()).addArgument(server.usesVirtualThreads()).log();
+    }
+    assertTrue(Files.notExists(socket));
+    Files.delete(directory);
+  }
+
+  private static IntCsrGraph randomDirected(int n, int m, long seed) {
+    var random = new SplittableRandom(seed);
+    var sources = new int[m];
+    var targets = new int[m];
+    for (int e = 0; e < m; e++) {
+      sources[e] = random.nextInt(n);
+      targets[e] = random.nextInt(n);
+    }
+    return IntCsrGraph.directed(n, sources, targets, null);
+  }
+}
@@ -5,6 +5,7 @@ import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.lang.invoke.MethodHandles;
 import java.util.Arrays;
@@ -30,6 +31,8 @@ import org.jgrapht.graph.SimpleGraph;
 import org.jgrapht.graph.SimpleWeightedGraph;
 import org.jgrapht.graph.WeightedMultigraph;
 import org.jgrapht.graph.WeightedPseudograph;
+import org.jgrapht.opt.graph.sparse.SparseIntDirectedGraph;
+import org.jgrapht.opt.graph.sparse.SparseIntDirectedWeightedGraph;
 import org.jgrapht.opt.graph.sparse.SparseIntUndirectedGraph;
 import org.jgrapht.opt.graph.sparse.SparseIntUndirectedWeightedGraph;
 import org.junit.jupiter.api.DisplayName;
@@ -329,7 +332,13 @@ public class GraphStructuresIntegerTests {
       Pair.of(0, 1),
       Pair.of(3, 1),
       Pair.of(2, 4));
-    var graph = new SparseIntUndirectedGraph(vertexCount, edges);
+    var graph = new SparseIntDirectedGraph(vertexCount, edges);
+
+    assertTrue(graph.getType().isDirected());
+    assertEquals(3, graph.outDegreeOf(0));
+    assertEquals(0, graph.inDegreeOf(0));
+    assertEquals(3, graph.inDegreeOf(4));
+    assertNull(graph.getEdge(5, 0));
 
     LOGGER.atInfo().setMessage("{}").addArgument(graph).log();
   }
@@ -347,7 +356,12 @@ public class GraphStructuresIntegerTests {
       Triple.of(0, 1, 5d),
       Triple.of(3, 1, 6d),
       Triple.of(2, 4, 7d));
-    var graph = new SparseIntUndirectedWeightedGraph(vertexCount, edges);
+    var graph = new SparseIntDirectedWeightedGraph(vertexCount, edges);
+
+    assertTrue(graph.getType().isDirected());
+    assertEquals(3, graph.outDegreeOf(0));
+    assertEquals(3, graph.inDegreeOf(4));
+    assertEquals(7d, graph.getEdgeWeight(graph.getEdge(2, 4)));
 
     LOGGER.atInfo().setMessage("{}").addArgument(graph).log();
   }
@@ -0,0 +1,194 @@
+package io.github.aaronchenwei.learning.jgrapht;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.github.aaronchenwei.learning.jgrapht.connectivity.IncrementalConnectivity;
+import io.github.aaronchenwei.learning.jgrapht.connectivity.IncrementalStrongConnectivity;
+import io.github.aaronchenwei.learning.jgrapht.graph.IntArrayGraph;
+import java.lang.invoke.MethodHandles;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import org.jgrapht.Graph;
+import org.jgrapht.GraphType;
+import org.jgrapht.graph.DefaultGraphType;
+import org.jgrapht.graph.DefaultListenableGraph;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.MethodOrderer.OrderAnnotation;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+@TestMethodOrder(OrderAnnotation.class)
+public class IncrementalConnectivityTests {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+  private static DefaultListenableGraph<Integer, Integer> create(GraphType type, int n) {
+    var graph = new DefaultListenableGraph<>(new IntArrayGraph(type));
+    for (int v = 0; v < n; v++) {
+      graph.addVertex(v);
+    }
+    return graph;
+  }
+
+  @Test
+  @DisplayName("Connected components under insertions and deletions")
+  @Order(1)
+  void testConnectivity() {
+    var graph = create(DefaultGraphType.pseudograph(), 6);
+    graph.addEdge(0, 1);
+    graph.addEdge(1, 2);
+    var tracker = new IncrementalConnectivity<>(graph);
+    assertEquals(4, tracker.componentCount());
+    assertTrue(tracker.connected(0, 2));
+    assertFalse(tracker.connected(0, 3));
+
+    var cycle = graph.addEdge(2, 0);
+    graph.addEdge(3, 4);
+    assertEquals(Set.of(0, 1, 2), tracker.componentOf(1));
+    // a cycle edge or a tree edge with a replacement: no split
+    graph.removeEdge(cycle);
+    graph.removeEdge(0, 1);
+    graph.addEdge(0, 2);
+    graph.removeEdge(1, 2);
+    assertEquals(4, tracker.componentCount());
+    assertEquals(Set.of(0, 2), tracker.componentOf(0));
+    assertEquals(Set.of(1), tracker.componentOf(1));
+
+    graph.removeVertex(4);
+    assertEquals(4, tracker.componentCount());
+    assertThrows(IllegalArgumentException.class, () -> tracker.connected(4, 3));
+    tracker.close();
+    graph.addEdge(0, 5);
+    assertFalse(tracker.connected(0, 5));
+
+    LOGGER.atInfo().setMessage("{}").addArgument(tracker.componentOf(0)).log();
+  }
+
+  @Test
+  @DisplayName("Strongly connected components under insertions and deletions")
+  @Order(2)
+  void testStrongConnectivity() {
+    var graph = create(DefaultGraphType.directedPseudograph(), 4);
+    graph.addEdge(2, 1);
+    graph.addEdge(0, 2);
+    graph.addEdge(0, 1);
+    graph.addEdge(1, 0);
+    var tracker = new IncrementalStrongConnectivity<>(graph);
+    assertEquals(2, tracker.componentCount());
+    assertTrue(tracker.stronglyConnected(0, 2));
+
+    // 3 -> 0 -> 2 -> 3 closes a cycle through 3
+    graph.addEdge(2, 3);
+    assertEquals(2, tracker.componentCount());
+    graph.addEdge(3, 0);
+    assertEquals(1, tracker.componentCount());
+
+    graph.removeEdge(1, 0);
+    assertEquals(Set.of(0, 2, 3), tracker.componentOf(3));
+    assertEquals(List.of(Set.of(0, 2, 3), Set.of(1)), tracker.components());
+    assertThrows(IllegalArgumentException.class,
+      () -> new IncrementalStrongConnectivity<>(create(DefaultGraphType.simple(), 1)));
+
+    LOGGER.atInfo().setMessage("{}").addArgument(tracker.components()).log();
+  }
+
+  @Test
+  @DisplayName("Random changes against recomputation")
+  @Order(3)
+  void testAgainstReference() {
+    int n = 30;
+    for (var type : List.of(DefaultGraphType.pseudograph(), DefaultGraphType.directedPseudograph())) {
+      var random = new SplittableRandom(5L);
+      var graph = create(type, n);
+      var weak = new IncrementalConnectivity<>(graph);
+      var strong = type.isDirected() ? new IncrementalStrongConnectivity<>(graph) : null;
+      List<Integer> edges = new ArrayList<>();
+      for (int step = 0; step < 3000; step++) {
+        // grow to about two edges per vertex, then hover there
+        var vertices = new ArrayList<>(graph.vertexSet());
+        int action = random.nextInt(10);
+        if (action < 7 && edges.size() < 2 * n || action < 3) {
+          edges.add(graph.addEdge(vertices.get(random.nextInt(vertices.size())),
+            vertices.get(random.nextInt(vertices.size()))));
+        } else if (action < 9 && !edges.isEmpty()) {
+          graph.removeEdge(edges.remove(random.nextInt(edges.size())));
+        } else if (action == 9 && vertices.size() > 5) {
+          int v = vertices.get(random.nextInt(vertices.size()));
+          edges.removeAll(graph.edgesOf(v));
+          graph.removeVertex(v);
+          graph.addVertex(n + step);
+        }
+        if (step % 10 == 0) {
+          assertSameComponents(graph, weak, strong);
+        }
+      }
+      LOGGER.atInfo().setMessage("{}: {} components, {} strong").addArgument(type.isDirected() ? "directed" : "undirected")
+        .addArgument(weak.componentCount()).addArgument(strong == null ? "-" : strong.componentCount()).log();
+    }
+  }
+
+  private static void assertSameComponents(Graph<Integer, Integer> graph, IncrementalConnectivity<Integer, Integer> weak,
+    IncrementalStrongConnectivity<Integer, Integer> strong) {
+    var vertices = new ArrayList<>(graph.vertexSet());
+    int n = vertices.size();
+    var index = new HashMap<Integer, Integer>();
+    for (int i = 0; i < n; i++) {
+      index.put(vertices.get(i), i);
+    }
+    var reach = new boolean[n][n];
+    var linked = new boolean[n][n];
+    for (int i = 0; i < n; i++) {
+      reach[i][i] = true;
+      linked[i][i] = true;
+    }
+    for (var e : graph.edgeSet()) {
+      int u = index.get(graph.getEdgeSource(e));
+      int v = index.get(graph.getEdgeTarget(e));
+      reach[u][v] = true;
+      linked[u][v] = true;
+      linked[v][u] = true;
+      if (!graph.getType().isDirected()) {
+        reach[v][u] = true;
+      }
+    }
+    for (int k = 0; k < n; k++) {
+      for (int i = 0; i < n; i++) {
+        for (int j = 0; j < n; j++) {
+          reach[i][j] |= reach[i][k] && reach[k][j];
+          linked[i][j] |= linked[i][k] && linked[k][j];
+        }
+      }
+    }
+    for (int i = 0; i < n; i++) {
+      for (int j = 0; j < n; j++) {
+        assertEquals(linked[i][j], weak.connected(vertices.get(i), vertices.get(j)));
+        if (strong != null) {
+          assertEquals(reach[i][j] && reach[j][i], strong.stronglyConnected(vertices.get(i), vertices.get(j)));
+        }
+      }
+    }
+    if (strong != null) {
+      // every edge between two components follows the topological order
+      var position = new HashMap<Integer, Integer>();
+      var components = strong.components();
+      for (int c = 0; c < components.size(); c++) {
+        for (var v : components.get(c)) {
+          position.put(v, c);
+        }
+      }
+      assertEquals(n, position.size());
+      for (var e : graph.edgeSet()) {
+        assertTrue(position.get(graph.getEdgeSource(e)) <= position.get(graph.getEdgeTarget(e)));
+      }
+    }
+  }
+}
@@ -0,0 +1,132 @@
+package io.github.aaronchenwei.learning.jgrapht;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.github.aaronchenwei.learning.jgrapht.graph.IntArrayGraph;
+import io.github.aaronchenwei.learning.jgrapht.metrics.GraphOperation;
+import io.github.aaronchenwei.learning.jgrapht.metrics.InstrumentedGraph;
+import io.github.aaronchenwei.learning.jgrapht.metrics.LatencyHistogram;
+import io.github.aaronchenwei.learning.jgrapht.metrics.Slf4jMetricsSink;
+import java.lang.invoke.MethodHandles;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import org.jgrapht.graph.DefaultGraphType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.MethodOrderer.OrderAnnotation;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+@TestMethodOrder(OrderAnnotation.class)
+public class InstrumentedGraphTests {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+  @Test
+  @DisplayName("Histogram quantiles within the bucket precision")
+  @Order(1)
+  void testHistogram() {
+    var histogram = new LatencyHistogram(3);
+    for (long nanos = 1; nanos <= 100_000; nanos++) {
+      histogram.countCall();
+      histogram.recordLatency(nanos);
+    }
+    histogram.countCall();
+    var snapshot = histogram.snapshot();
+    assertEquals(100_001, snapshot.callCount());
+    assertEquals(100_000, snapshot.sampleCount());
+    assertEquals(100_000, snapshot.maxNanos());
+    assertEquals(50_000.5, snapshot.meanNanos(), 1e-9);
+    for (double quantile : new double[] {0.0001, 0.5, 0.9, 0.99, 0.999}) {
+      long exact = Math.round(quantile * 100_000);
+      long reported = snapshot.quantileNanos(quantile);
+      assertTrue(reported >= exact && reported <= exact + exact / 64 + 1, quantile + ": " + reported);
+    }
+    assertEquals(100_000, snapshot.quantileNanos(1));
+    assertEquals(0, new LatencyHistogram().snapshot().quantileNanos(0.5));
+
+    LOGGER.atInfo().setMessage("p50={} p99={}").addArgument(snapshot.quantileNanos(0.5))
+      .addArgument(snapshot.quantileNanos(0.99)).log();
+  }
+
+  @Test
+  @DisplayName("Every operation counted once")
+  @Order(2)
+  void testCounts() {
+    var published = new AtomicReference<Map<GraphOperation, LatencyHistogram.Snapshot>>();
+    var graph = new InstrumentedGraph<>(new IntArrayGraph(DefaultGraphType.directedPseudograph()), "test",
+      (name, metrics) -> published.set(metrics), 1);
+    for (int v = 0; v < 10; v++) {
+      graph.addVertex(v);
+    }
+    var edges = new ArrayList<Integer>();
+    for (int v = 0; v < 5; v++) {
+      edges.add(graph.addEdge(v, v + 1));
+    }
+    for (int v = 0; v < 7; v++) {
+      graph.edgesOf(v);
+    }
+    assertEquals(edges.get(2), graph.getEdge(2, 3));
+    assertNull(graph.getEdge(3, 2));
+    assertTrue(graph.containsEdge(0, 1));
+    assertTrue(graph.containsEdge(edges.get(4)));
+    assertEquals(10, graph.vertexSet().stream().count());
+    for (int e : graph.edgeSet()) {
+      assertTrue(edges.contains(e));
+    }
+    assertEquals(5, graph.edgeSet().size());
+
+    graph.publish();
+    var metrics = published.get();
+    assertEquals(10, metrics.get(GraphOperation.ADD_VERTEX).callCount());
+    assertEquals(5, metrics.get(GraphOperation.ADD_EDGE).callCount());
+    assertEquals(7, metrics.get(GraphOperation.EDGES_OF).callCount());
+    assertEquals(2, metrics.get(GraphOperation.GET_EDGE).callCount());
+    assertEquals(2, metrics.get(GraphOperation.CONTAINS_EDGE).callCount());
+    assertEquals(2, metrics.get(GraphOperation.ITERATOR).callCount());
+    for (var snapshot : metrics.values()) {
+      assertEquals(snapshot.callCount(), snapshot.sampleCount());
+    }
+    new Slf4jMetricsSink().publish(graph.name(), metrics);
+  }
+
+  @Test
+  @DisplayName("Concurrent calls, one in 64 timed")
+  @Order(3)
+  void testConcurrentSampling() throws InterruptedException {
+    var graph = new InstrumentedGraph<>(new IntArrayGraph(DefaultGraphType.directedPseudograph()), "concurrent",
+      (name, metrics) -> {
+      }, 64);
+    for (int v = 0; v < 100; v++) {
+      graph.addVertex(v);
+    }
+    int threadCount = 4;
+    int calls = 100_000;
+    var threads = new ArrayList<Thread>();
+    for (int t = 0; t < threadCount; t++) {
+      var thread = new Thread(() -> {
+        for (int i = 0; i < calls; i++) {
+          graph.edgesOf(i % 100);
+        }
+      });
+      threads.add(thread);
+      thread.start();
+    }
+    for (var thread : threads) {
+      thread.join();
+    }
+    var snapshot = graph.histogram(GraphOperation.EDGES_OF).snapshot();
+    assertEquals(threadCount * calls, snapshot.callCount());
+    // each stripe times its calls 0, 64, 128, ...
+    long samples = snapshot.sampleCount();
+    assertTrue(samples >= threadCount * calls / 64 && samples <= threadCount * (calls / 64 + 1), "" + samples);
+
+    LOGGER.atInfo().setMessage("{} calls, {} timed, p99 {} ns").addArgument(snapshot.callCount()).addArgument(samples)
+      .addArgument(snapshot.quantileNanos(0.99)).log();
+  }
+}
@@ -0,0 +1,160 @@
+package io.github.aaronchenwei.learning.jgrapht;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.github.aaronchenwei.learning.jgrapht.graph.IntArrayGraph;
+import java.lang.invoke.MethodHandles;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import org.jgrapht.Graphs;
+import org.jgrapht.graph.DefaultGraphType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.MethodOrderer.OrderAnnotation;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+@TestMethodOrder(OrderAnnotation.class)
+public class IntArrayGraphTests {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+  private static final List<Integer> VERTEX_LIST = Arrays.asList(1, 2, 3, 4, 5, 6, 7, 8);
+
+  @Test
+  @DisplayName("IntArrayGraph as SimpleGraph")
+  @Order(1)
+  void testSimpleGraph() {
+    var graph = new IntArrayGraph(DefaultGraphType.simple());
+    Graphs.addAllVertices(graph, VERTEX_LIST);
+    var edge1 = graph.addEdge(1, 2);
+    var edge2 = graph.addEdge(1, 2);
+    var edge3 = graph.addEdge(2, 1);
+
+    graph.addEdge(2, 3);
+    graph.addEdge(3, 4);
+    graph.addEdge(4, 5);
+    graph.addEdge(4, 6);
+    graph.addEdge(4, 7);
+    graph.addEdge(5, 7);
+    graph.addEdge(6, 8);
+    graph.addEdge(7, 8);
+
+    assertNotNull(edge1);
+    assertNull(edge2);
+    assertNull(edge3);
+    assertThrows(IllegalArgumentException.class, () -> graph.addEdge(1, 1));
+    assertThrows(IllegalArgumentException.class, () -> graph.addVertex(Integer.MAX_VALUE));
+    assertThrows(IllegalArgumentException.class, () -> graph.addEdge(5, 6, Integer.MAX_VALUE));
+    assertEquals(8, graph.vertexSet().size());
+    assertEquals(9, graph.edgeSet().size());
+    assertEquals(4, graph.degreeOf(4));
+    assertEquals(edge1, graph.getEdge(2, 1));
+
+    LOGGER.atInfo().setMessage("{}").addArgument(graph).log();
+  }
+
+  @Test
+  @DisplayName("IntArrayGraph as Pseudograph")
+  @Order(2)
+  void testPseudograph() {
+    var graph = new IntArrayGraph(DefaultGraphType.pseudograph());
+    Graphs.addAllVertices(graph, VERTEX_LIST);
+    var edge1 = graph.addEdge(1, 2);
+    var edge2 = graph.addEdge(1, 2);
+    var edge3 = graph.addEdge(2, 1);
+    var edge4 = graph.addEdge(1, 1);
+
+    assertNotEquals(edge1, edge2);
+    assertNotEquals(edge1, edge3);
+    assertNotNull(edge4);
+    assertEquals(4, graph.edgeSet().size());
+    assertEquals(3, graph.getAllEdges(1, 2).size());
+    // a self-loop is one incident edge but counts twice towards the degree
+    assertEquals(4, graph.edgesOf(1).size());
+    assertEquals(5, graph.degreeOf(1));
+
+    LOGGER.atInfo().setMessage("{}").addArgument(graph).log();
+  }
+
+  @Test
+  @DisplayName("IntArrayGraph as DirectedWeightedPseudograph")
+  @Order(3)
+  void testDirectedWeightedPseudograph() {
+    var graph = new IntArrayGraph(DefaultGraphType.directedPseudograph().asWeighted());
+    Graphs.addAllVertices(graph, VERTEX_LIST);
+    var edge1 = graph.addEdge(1, 2);
+    var edge2 = graph.addEdge(1, 2);
+    var edge3 = graph.addEdge(2, 2);
+    graph.setEdgeWeight(edge1, 1.0);
+    graph.setEdgeWeight(edge2, 2.0);
+
+    assertEquals(2, graph.getAllEdges(1, 2).size());
+    assertTrue(graph.getAllEdges(2, 1).isEmpty());
+    assertEquals(2.0, graph.getEdgeWeight(edge2));
+    assertEquals(1, graph.outDegreeOf(2));
+    assertEquals(3, graph.inDegreeOf(2));
+    assertEquals(Set.of(edge1, edge2, edge3), graph.edgesOf(2));
+    assertThrows(IllegalArgumentException.class, () -> graph.inDegreeOf(42));
+    assertThrows(NullPointerException.class, () -> graph.inDegreeOf(null));
+
+    LOGGER.atInfo().setMessage("{}").addArgument(graph).log();
+  }
+
+  @Test
+  @DisplayName("IntArrayGraph removal")
+  @Order(4)
+  void testRemoval() {
+    var graph = new IntArrayGraph(DefaultGraphType.directedSimple());
+    Graphs.addAllVertices(graph, VERTEX_LIST);
+    var edge1 = graph.addEdge(1, 2);
+    graph.addEdge(2, 3);
+    graph.addEdge(3, 1);
+
+    assertTrue(graph.removeEdge(edge1));
+    assertFalse(graph.containsEdge(1, 2));
+    assertTrue(graph.removeVertex(3));
+    assertEquals(7, graph.vertexSet().size());
+    assertTrue(graph.edgeSet().isEmpty());
+    assertThrows(UnsupportedOperationException.class, () -> graph.setEdgeWeight(graph.addEdge(1, 2), 2.0));
+
+    LOGGER.atInfo().setMessage("{}").addArgument(graph).log();
+  }
+
+  @Test
+  @DisplayName("IntArrayGraph suppliers")
+  @Order(5)
+  void testSuppliers() {
+    var graph = new IntArrayGraph(DefaultGraphType.pseudograph());
+    var vertices = graph.getVertexSupplier();
+    int v1 = vertices.get();
+    int v2 = vertices.get();
+    assertNotEquals(v1, v2);
+    int v3 = graph.addVertex();
+    assertNotEquals(v1, v3);
+    assertNotEquals(v2, v3);
+    assertTrue(graph.addVertex(v1));
+    assertTrue(graph.addVertex(v2));
+
+    var edges = graph.getEdgeSupplier();
+    int e1 = edges.get();
+    int e2 = edges.get();
+    assertNotEquals(e1, e2);
+    int e3 = graph.addEdge(v1, v2);
+    assertNotEquals(e1, e3);
+    assertNotEquals(e2, e3);
+    assertTrue(graph.addEdge(v2, v3, e1));
+    assertEquals(Set.of(e1, e3), graph.edgeSet());
+
+    LOGGER.atInfo().setMessage("{}").addArgument(graph).log();
+  }
+}
@@ -0,0 +1,108 @@
+package io.github.aaronchenwei.learning.jgrapht;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.github.aaronchenwei.learning.jgrapht.graph.FrozenGraph;
+import io.github.aaronchenwei.learning.jgrapht.traverse.IntTraversal;
+import java.lang.invoke.MethodHandles;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import org.jgrapht.Graph;
+import org.jgrapht.generate.CompleteGraphGenerator;
+import org.jgrapht.graph.DefaultDirectedGraph;
+import org.jgrapht.graph.DefaultEdge;
+import org.jgrapht.graph.SimpleGraph;
+import org.jgrapht.traverse.DepthFirstIterator;
+import org.jgrapht.util.SupplierUtil;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.MethodOrderer.OrderAnnotation;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+@TestMethodOrder(OrderAnnotation.class)
+public class IntTraversalTests {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+  @Test
+  @DisplayName("DFS of a complete graph visits what DepthFirstIterator visits")
+  @Order(1)
+  void testCompleteGraphDepthFirst() {
+    Graph<String, DefaultEdge> graph = new SimpleGraph<>(SupplierUtil.createStringSupplier(),
+      SupplierUtil.createDefaultEdgeSupplier(), false);
+    new CompleteGraphGenerator<String, DefaultEdge>(10).generateGraph(graph);
+    var frozen = FrozenGraph.freeze(graph);
+
+    var expected = new HashSet<String>();
+    new DepthFirstIterator<>(graph).forEachRemaining(expected::add);
+    var visited = new HashSet<String>();
+    var depths = new ArrayList<Integer>();
+    int count = new IntTraversal(frozen.vertexCount()).depthFirst(frozen.outgoing(), (v, depth) -> {
+      visited.add(frozen.vertex(v));
+      depths.add(depth);
+      return true;
+    });
+
+    assertEquals(10, count);
+    assertEquals(expected, visited);
+    // in a complete graph every vertex is discovered from the previous one
+    assertEquals(List.of(0, 1, 2, 3, 4, 5, 6, 7, 8, 9), depths);
+
+    LOGGER.atInfo().setMessage("{}").addArgument(visited).log();
+  }
+
+  @Test
+  @DisplayName("DFS preorder and BFS levels")
+  @Order(2)
+  void testOrder() {
+    var graph = new SimpleGraph<Integer, DefaultEdge>(DefaultEdge.class);
+    for (int v = 0; v < 7; v++) {
+      graph.addVertex(v);
+    }
+    graph.addEdge(0, 1);
+    graph.addEdge(0, 2);
+    graph.addEdge(1, 3);
+    graph.addEdge(1, 4);
+    graph.addEdge(2, 5);
+    var frozen = FrozenGraph.freeze(graph);
+    var traversal = new IntTraversal(0);
+
+    var preorder = new ArrayList<Integer>();
+    traversal.depthFirst(frozen.outgoing(), 0, (v, depth) -> preorder.add(v));
+    assertEquals(List.of(0, 1, 3, 4, 2, 5), preorder);
+    assertFalse(traversal.isVisited(6));
+
+    var levels = new ArrayList<String>();
+    int count = traversal.breadthFirst(frozen.outgoing(), (v, depth) -> levels.add(v + "@" + depth));
+    assertEquals(7, count);
+    assertEquals(List.of("0@0", "1@1", "2@1", "3@2", "4@2", "5@2", "6@0"), levels);
+    assertTrue(traversal.isVisited(6));
+
+    LOGGER.atInfo().setMessage("{}").addArgument(levels).log();
+  }
+
+  @Test
+  @DisplayName("Directed reachability and early stop")
+  @Order(3)
+  void testDirectedAndStop() {
+    var graph = new DefaultDirectedGraph<String, DefaultEdge>(DefaultEdge.class);
+    graph.addVertex("a");
+    graph.addVertex("b");
+    graph.addVertex("c");
+    graph.addEdge("a", "b");
+    graph.addEdge("c", "b");
+    var frozen = FrozenGraph.freeze(graph);
+    var traversal = new IntTraversal(frozen.vertexCount());
+
+    assertEquals(2, traversal.depthFirst(frozen.outgoing(), frozen.vertexId("a"), (v, depth) -> true));
+    assertFalse(traversal.isVisited(frozen.vertexId("c")));
+    assertEquals(3, traversal.breadthFirst(frozen.incoming(), frozen.vertexId("b"), (v, depth) -> true));
+    assertEquals(1, traversal.breadthFirst(frozen.outgoing(), frozen.vertexId("a"), (v, depth) -> false));
+  }
+}
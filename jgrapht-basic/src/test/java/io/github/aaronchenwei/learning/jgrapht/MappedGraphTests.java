@@ -0,0 +1,218 @@
+package io.github.aaronchenwei.learning.jgrapht;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import io.github.aaronchenwei.learning.jgrapht.nio.MappedGraph;
+import io.github.aaronchenwei.learning.jgrapht.nio.MappedGraphFormat;
+import io.github.aaronchenwei.learning.jgrapht.nio.VertexCodec;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import org.jgrapht.Graph;
+import org.jgrapht.Graphs;
+import org.jgrapht.graph.DefaultDirectedGraph;
+import org.jgrapht.graph.DefaultEdge;
+import org.jgrapht.graph.DefaultWeightedEdge;
+import org.jgrapht.graph.DirectedWeightedPseudograph;
+import org.jgrapht.graph.Pseudograph;
+import org.jgrapht.graph.SimpleGraph;
+import org.jgrapht.graph.WeightedMultigraph;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.MethodOrderer.OrderAnnotation;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+@TestMethodOrder(OrderAnnotation.class)
+public class MappedGraphTests {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+  private static final List<Integer> VERTEX_LIST = Arrays.asList(1, 2, 3, 4, 5, 6, 7, 8);
+
+  @TempDir
+  Path tempDir;
+
+  @Test
+  @DisplayName("SimpleGraph round trip")
+  @Order(1)
+  void testSimpleGraph() throws IOException {
+    var graph = new SimpleGraph<Integer, DefaultEdge>(DefaultEdge.class);
+    Graphs.addAllVertices(graph, VERTEX_LIST);
+    graph.addEdge(1, 2);
+    graph.addEdge(2, 3);
+    graph.addEdge(3, 4);
+    graph.addEdge(4, 5);
+    graph.addEdge(4, 6);
+    graph.addEdge(4, 7);
+    graph.addEdge(5, 7);
+    graph.addEdge(6, 8);
+    graph.addEdge(7, 8);
+
+    var mapped = roundTrip(graph, VertexCodec.integers());
+
+    assertSameStructure(graph, mapped);
+    assertFalse(mapped.getType().isAllowingSelfLoops());
+
+    LOGGER.atInfo().setMessage("{}").addArgument(mapped).log();
+  }
+
+  @Test
+  @DisplayName("Pseudograph round trip")
+  @Order(2)
+  void testPseudograph() throws IOException {
+    var graph = new Pseudograph<String, DefaultEdge>(DefaultEdge.class);
+    Graphs.addAllVertices(graph, Arrays.asList("a", "b", "c", "d"));
+    graph.addEdge("a", "b");
+    graph.addEdge("a", "b");
+    graph.addEdge("b", "a");
+    graph.addEdge("a", "a");
+    graph.addEdge("c", "d");
+
+    var mapped = roundTrip(graph, VertexCodec.strings());
+
+    assertSameStructure(graph, mapped);
+
+    LOGGER.atInfo().setMessage("{}").addArgument(mapped).log();
+  }
+
+  @Test
+  @DisplayName("WeightedMultigraph round trip")
+  @Order(3)
+  void testWeightedMultigraph() throws IOException {
+    var graph = new WeightedMultigraph<Integer, DefaultWeightedEdge>(DefaultWeightedEdge.class);
+    Graphs.addAllVertices(graph, VERTEX_LIST);
+    graph.setEdgeWeight(graph.addEdge(1, 2), 1.0);
+    graph.setEdgeWeight(graph.addEdge(1, 2), 2.0);
+    graph.setEdgeWeight(graph.addEdge(2, 3), 4.0);
+    graph.setEdgeWeight(graph.addEdge(3, 2), 8.0);
+
+    var mapped = roundTrip(graph, VertexCodec.integers());
+
+    assertSameStructure(graph, mapped);
+
+    LOGGER.atInfo().setMessage("{}").addArgument(mapped).log();
+  }
+
+  @Test
+  @DisplayName("DirectedWeightedPseudograph round trip")
+  @Order(4)
+  void testDirectedWeightedPseudograph() throws IOException {
+    var graph = new DirectedWeightedPseudograph<Integer, DefaultWeightedEdge>(DefaultWeightedEdge.class);
+    Graphs.addAllVertices(graph, VERTEX_LIST);
+    graph.setEdgeWeight(graph.addEdge(1, 2), 1.5);
+    graph.setEdgeWeight(graph.addEdge(1, 2), 2.5);
+    graph.setEdgeWeight(graph.addEdge(2, 1), 3.5);
+    graph.setEdgeWeight(graph.addEdge(2, 2), 4.5);
+    graph.setEdgeWeight(graph.addEdge(8, 1), 5.5);
+
+    var mapped = roundTrip(graph, VertexCodec.integers());
+
+    assertSameStructure(graph, mapped);
+
+    LOGGER.atInfo().setMessage("{}").addArgument(mapped).log();
+  }
+
+  @Test
+  @DisplayName("URI graph round trip")
+  @Order(5)
+  void testUriGraph() throws IOException {
+    var graph = new DefaultDirectedGraph<URI, DefaultEdge>(DefaultEdge.class);
+    var google = URI.create("http://www.google.com");
+    var wikipedia = URI.create("http://www.wikipedia.org");
+    var jgrapht = URI.create("http://www.jgrapht.org");
+    graph.addVertex(google);
+    graph.addVertex(wikipedia);
+    graph.addVertex(jgrapht);
+    graph.addEdge(jgrapht, wikipedia);
+    graph.addEdge(google, jgrapht);
+    graph.addEdge(google, wikipedia);
+    graph.addEdge(wikipedia, google);
+
+    var mapped = roundTrip(graph, VertexCodec.uris());
+
+    assertSameStructure(graph, mapped);
+    assertThrows(UnsupportedOperationException.class, () -> mapped.addVertex(URI.create("http://example.com")));
+
+    LOGGER.atInfo().setMessage("{}").addArgument(mapped).log();
+  }
+
+  @Test
+  @DisplayName("Not a graph file")
+  @Order(6)
+  void testInvalidFile() throws IOException {
+    var file = tempDir.resolve("invalid.bin");
+    Files.write(file, new byte[128]);
+
+    assertThrows(IOException.class, () -> MappedGraph.open(file, VertexCodec.integers()));
+  }
+
+  @Test
+  @DisplayName("Truncated graph file")
+  @Order(7)
+  void testTruncatedFile() throws IOException {
+    var graph = new SimpleGraph<Integer, DefaultEdge>(DefaultEdge.class);
+    Graphs.addEdgeWithVertices(graph, 1, 2);
+    Graphs.addEdgeWithVertices(graph, 2, 3);
+    var file = tempDir.resolve("graph.bin");
+    MappedGraphFormat.write(graph, VertexCodec.integers(), file);
+    byte[] bytes = Files.readAllBytes(file);
+
+    for (int length : new int[] {bytes.length - 1, bytes.length / 2, 100}) {
+      var truncated = tempDir.resolve("truncated.bin");
+      Files.write(truncated, Arrays.copyOf(bytes, length));
+      assertThrows(IOException.class, () -> MappedGraph.open(truncated, VertexCodec.integers()));
+    }
+  }
+
+  @Test
+  @DisplayName("Closed graph")
+  @Order(8)
+  void testClose() throws IOException {
+    var graph = new SimpleGraph<Integer, DefaultEdge>(DefaultEdge.class);
+    Graphs.addEdgeWithVertices(graph, 1, 2);
+
+    var mapped = roundTrip(graph, VertexCodec.integers());
+    var vertices = mapped.vertexSet();
+    mapped.close();
+
+    assertThrows(IllegalStateException.class, () -> mapped.containsVertex(1));
+    assertThrows(IllegalStateException.class, () -> vertices.iterator().next());
+  }
+
+  private <V, E> MappedGraph<V> roundTrip(Graph<V, E> graph, VertexCodec<V> codec) throws IOException {
+    var file = tempDir.resolve("graph.bin");
+    MappedGraphFormat.write(graph, codec, file);
+    return MappedGraph.open(file, codec);
+  }
+
+  private static <V, E> void assertSameStructure(Graph<V, E> expected, MappedGraph<V> actual) {
+    assertEquals(expected.getType().isDirected(), actual.getType().isDirected());
+    assertEquals(expected.getType().isWeighted(), actual.getType().isWeighted());
+    assertEquals(expected.vertexSet(), actual.vertexSet());
+    assertEquals(expected.edgeSet().size(), actual.edgeSet().size());
+    for (var v : expected.vertexSet()) {
+      assertEquals(expected.degreeOf(v), actual.degreeOf(v));
+      assertEquals(expected.inDegreeOf(v), actual.inDegreeOf(v));
+      assertEquals(expected.outDegreeOf(v), actual.outDegreeOf(v));
+      assertEquals(expected.edgesOf(v).size(), actual.edgesOf(v).size());
+      for (var u : expected.vertexSet()) {
+        var expectedEdges = expected.getAllEdges(v, u);
+        var actualEdges = actual.getAllEdges(v, u);
+        assertEquals(expectedEdges.size(), actualEdges.size());
+        assertEquals(
+          expectedEdges.stream().mapToDouble(expected::getEdgeWeight).sum(),
+          actualEdges.stream().mapToDouble(actual::getEdgeWeight).sum());
+      }
+    }
+  }
+}
@@ -0,0 +1,155 @@
+package io.github.aaronchenwei.learning.jgrapht;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.github.aaronchenwei.learning.jgrapht.generate.GeneratedGraph;
+import io.github.aaronchenwei.learning.jgrapht.generate.ParallelGenerators;
+import java.lang.invoke.MethodHandles;
+import java.util.HashSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import org.jgrapht.graph.DefaultGraphType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.MethodOrderer.OrderAnnotation;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+@TestMethodOrder(OrderAnnotation.class)
+public class ParallelGeneratorsTests {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+  private ForkJoinPool single;
+  private ForkJoinPool wide;
+
+  @BeforeEach
+  void createPools() {
+    single = new ForkJoinPool(1);
+    wide = new ForkJoinPool(7);
+  }
+
+  @AfterEach
+  void shutdownPools() {
+    single.shutdown();
+    wide.shutdown();
+  }
+
+  @Test
+  @DisplayName("Complete graph")
+  @Order(1)
+  void testComplete() {
+    int n = 400;
+    var graph = assertDeterministic(pool -> ParallelGenerators.complete(pool, n));
+    assertEquals(n * (n - 1) / 2, graph.edgeCount());
+    assertSimple(graph);
+
+    var csr = graph.toCsrGraph();
+    for (int v = 0; v < n; v++) {
+      assertEquals(n - 1, csr.adjacency().degree(v));
+    }
+    assertEquals(graph.edgeCount(), graph.toIntArrayGraph(DefaultGraphType.simple()).edgeSet().size());
+  }
+
+  @Test
+  @DisplayName("G(n,p)")
+  @Order(2)
+  void testGnp() {
+    int n = 3000;
+    double p = 0.01;
+    var graph = assertDeterministic(pool -> ParallelGenerators.gnp(pool, n, p, 11L));
+    assertSimple(graph);
+    double expected = p * n * (n - 1) / 2;
+    assertTrue(Math.abs(graph.edgeCount() - expected) < 5 * Math.sqrt(expected));
+
+    assertEquals(0, ParallelGenerators.gnp(single, n, 0.0, 11L).edgeCount());
+    assertEquals(n * (n - 1) / 2, ParallelGenerators.gnp(single, n, 1.0, 11L).edgeCount());
+
+    LOGGER.atInfo().setMessage("{} edges, {} expected").addArgument(graph.edgeCount()).addArgument(expected).log();
+  }
+
+  @Test
+  @DisplayName("Barabasi-Albert")
+  @Order(3)
+  void testBarabasiAlbert() {
+    int n = 200_000;
+    int d = 3;
+    var graph = assertDeterministic(pool -> ParallelGenerators.barabasiAlbert(pool, n, d, 5L));
+    assertEquals((n - 1) * d, graph.edgeCount());
+    var degrees = new int[n];
+    for (int e = 0; e < graph.edgeCount(); e++) {
+      assertEquals(e / d + 1, graph.edgeSource(e));
+      assertTrue(graph.edgeTarget(e) < graph.edgeSource(e));
+      degrees[graph.edgeSource(e)]++;
+      degrees[graph.edgeTarget(e)]++;
+    }
+    // preferential attachment: the oldest vertices gather far more than the average degree of 2d
+    int max = 0;
+    for (int v = 0; v < 10; v++) {
+      max = Math.max(max, degrees[v]);
+    }
+    assertTrue(max > 100 * d);
+
+    LOGGER.atInfo().setMessage("largest degree among the first 10 vertices: {}").addArgument(max).log();
+  }
+
+  @Test
+  @DisplayName("R-MAT")
+  @Order(4)
+  void testRmat() {
+    int scale = 16;
+    int m = 500_000;
+    var graph = assertDeterministic(pool -> ParallelGenerators.rmat(pool, scale, m, 0.57, 0.19, 0.19, 3L));
+    assertEquals(1 << scale, graph.vertexCount());
+    assertEquals(m, graph.edgeCount());
+    // the top-left quadrant of the matrix holds a fraction a of the edges
+    int topLeft = 0;
+    int half = 1 << (scale - 1);
+    for (int e = 0; e < m; e++) {
+      if (graph.edgeSource(e) < half && graph.edgeTarget(e) < half) {
+        topLeft++;
+      }
+    }
+    assertTrue(Math.abs(topLeft - 0.57 * m) < 0.01 * m);
+
+    var csr = graph.toCsrGraph();
+    assertEquals(m, csr.edgeCount());
+  }
+
+  /**
+   * Runs a generator on a single-worker and a seven-worker pool and checks that both produce the same edges.
+   */
+  private GeneratedGraph assertDeterministic(Function<ForkJoinPool, GeneratedGraph> generator) {
+    var expected = generator.apply(single);
+    var actual = generator.apply(wide);
+    assertEquals(expected.vertexCount(), actual.vertexCount());
+    assertArrayEquals(columns(expected, true), columns(actual, true));
+    assertArrayEquals(columns(expected, false), columns(actual, false));
+    return actual;
+  }
+
+  private static int[] columns(GeneratedGraph graph, boolean source) {
+    var result = new int[graph.edgeCount()];
+    for (int e = 0; e < result.length; e++) {
+      result[e] = source ? graph.edgeSource(e) : graph.edgeTarget(e);
+    }
+    return result;
+  }
+
+  private static void assertSimple(GeneratedGraph graph) {
+    var pairs = new HashSet<Long>();
+    for (int e = 0; e < graph.edgeCount(); e++) {
+      int v = graph.edgeSource(e);
+      int u = graph.edgeTarget(e);
+      assertTrue(v < u);
+      assertTrue(u < graph.vertexCount());
+      assertTrue(pairs.add((long) v << 32 | u));
+    }
+  }
+}
@@ -0,0 +1,240 @@
+package io.github.aaronchenwei.learning.jgrapht;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.github.aaronchenwei.learning.jgrapht.graph.FrozenGraph;
+import io.github.aaronchenwei.learning.jgrapht.graph.IntArrayGraph;
+import io.github.aaronchenwei.learning.jgrapht.graph.IntCsr;
+import io.github.aaronchenwei.learning.jgrapht.scoring.ParallelBetweenness;
+import io.github.aaronchenwei.learning.jgrapht.scoring.ParallelPageRank;
+import java.lang.invoke.MethodHandles;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import org.jgrapht.graph.DefaultGraphType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.MethodOrderer.OrderAnnotation;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+@TestMethodOrder(OrderAnnotation.class)
+public class ParallelScoringTests {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+  @Test
+  @DisplayName("PageRank, Jacobi and Gauss-Seidel, against power iteration")
+  @Order(1)
+  void testPageRank() {
+    int n = 20_000;
+    int m = 60_000;
+    var random = new SplittableRandom(3L);
+    var sources = new int[m];
+    var targets = new int[m];
+    for (int e = 0; e < m; e++) {
+      // skewed targets, and a tenth of the vertices without outgoing edges
+      sources[e] = random.nextInt(n - n / 10);
+      targets[e] = (int) (n * Math.pow(random.nextDouble(), 2));
+    }
+    var outgoing = IntCsr.of(n, sources, targets, m, false);
+    var incoming = IntCsr.of(n, targets, sources, m, false);
+    var expected = powerIteration(outgoing, null, 0.85, 1e-12);
+
+    var pool = new ForkJoinPool(4);
+    var jacobi = new ParallelPageRank(outgoing, incoming).pool(pool).tolerance(1e-10).run();
+    assertTrue(jacobi.converged());
+    assertScores(expected, jacobi.scores(), 1e-8);
+    var sequential = new ParallelPageRank(outgoing, incoming).pool(new ForkJoinPool(1)).tolerance(1e-10).run();
+    assertArrayEquals(jacobi.scores(), sequential.scores());
+
+    var gaussSeidel = new ParallelPageRank(outgoing, incoming).pool(pool).tolerance(1e-10).asynchronous(true).run();
+    assertTrue(gaussSeidel.converged());
+    assertScores(expected, gaussSeidel.scores(), 1e-8);
+    assertTrue(gaussSeidel.iterationCount() < jacobi.iterationCount());
+
+    var capped = new ParallelPageRank(outgoing, incoming).pool(pool).tolerance(1e-10).maxIterations(3).run();
+    assertEquals(3, capped.iterationCount());
+    assertFalse(capped.converged());
+
+    LOGGER.atInfo().setMessage("Jacobi {} iterations, Gauss-Seidel {}").addArgument(jacobi.iterationCount())
+      .addArgument(gaussSeidel.iterationCount()).log();
+  }
+
+  @Test
+  @DisplayName("Personalized PageRank stays within reach of the seeds")
+  @Order(2)
+  void testPersonalized() {
+    var graph = new IntArrayGraph(DefaultGraphType.directedSimple());
+    for (int v = 0; v < 6; v++) {
+      graph.addVertex(v);
+    }
+    graph.addEdge(0, 1);
+    graph.addEdge(1, 2);
+    graph.addEdge(2, 0);
+    graph.addEdge(2, 3);
+    graph.addEdge(4, 0);
+    graph.addEdge(5, 4);
+    var frozen = FrozenGraph.freeze(graph);
+    var ranking = new ParallelPageRank(frozen).tolerance(1e-12).maxIterations(1000);
+
+    var scores = ranking.personalized(frozen.vertexId(1)).toMap(frozen);
+    assertEquals(0.0, (double) scores.get(4));
+    assertEquals(0.0, (double) scores.get(5));
+    assertTrue(scores.get(1) > scores.get(2) && scores.get(2) > scores.get(0));
+    assertEquals(1.0, scores.values().stream().mapToDouble(Double::doubleValue).sum(), 1e-9);
+
+    var weights = new double[6];
+    weights[frozen.vertexId(1)] = 3;
+    var expected = powerIteration(frozen.outgoing(), seedVector(6, frozen.vertexId(1)), 0.85, 1e-14);
+    assertScores(expected, ranking.personalized(weights).scores(), 1e-9);
+    assertScores(expected, ranking.personalized(frozen.vertexId(1)).scores(), 1e-9);
+
+    LOGGER.atInfo().setMessage("{}").addArgument(scores).log();
+  }
+
+  @Test
+  @DisplayName("Betweenness against all-pairs path counting")
+  @Order(3)
+  void testBetweenness() {
+    // a path 0 - 1 - 2 - 3: every inner vertex lies on 2 * 2 = 4 ordered pairs of shortest paths
+    var path = IntCsr.of(4, new int[] {0, 1, 2}, new int[] {1, 2, 3}, 3, true);
+    assertArrayEquals(new double[] {0, 2, 2, 0}, new ParallelBetweenness(path, false).run());
+    assertArrayEquals(new double[] {0, 2.0 / 3, 2.0 / 3, 0},
+      new ParallelBetweenness(path, false).normalized(true).run(), 1e-12);
+    var directedPath = IntCsr.of(4, new int[] {0, 1, 2}, new int[] {1, 2, 3}, 3, false);
+    assertArrayEquals(new double[] {0, 2, 2, 0}, new ParallelBetweenness(directedPath, true).run());
+
+    var pool = new ForkJoinPool(4);
+    for (boolean directed : new boolean[] {true, false}) {
+      int n = 60;
+      int m = 150;
+      var random = new SplittableRandom(11L);
+      var sources = new int[m];
+      var targets = new int[m];
+      for (int e = 0; e < m; e++) {
+        sources[e] = random.nextInt(n);
+        targets[e] = random.nextInt(n);
+      }
+      var adjacency = IntCsr.of(n, sources, targets, m, !directed);
+      var expected = bruteForceBetweenness(adjacency, directed);
+      var actual = new ParallelBetweenness(adjacency, directed).pool(pool).run();
+      assertArrayEquals(expected, actual, 1e-9);
+      assertArrayEquals(actual, new ParallelBetweenness(adjacency, directed).pool(pool).sample(n, 1L).run(), 1e-9);
+
+      var estimate = new ParallelBetweenness(adjacency, directed).pool(pool).sample(n / 2, 5L).run();
+      double exactTotal = Arrays.stream(actual).sum();
+      double estimatedTotal = Arrays.stream(estimate).sum();
+      assertTrue(Math.abs(estimatedTotal - exactTotal) < 0.25 * exactTotal);
+
+      LOGGER.atInfo().setMessage("{}: total {}, sampled estimate {}").addArgument(directed ? "directed" : "undirected")
+        .addArgument(exactTotal).addArgument(estimatedTotal).log();
+    }
+  }
+
+  private static void assertScores(double[] expected, double[] actual, double delta) {
+    assertEquals(expected.length, actual.length);
+    for (int v = 0; v < expected.length; v++) {
+      assertEquals(expected[v], actual[v], delta, "vertex " + v);
+    }
+  }
+
+  private static double[] seedVector(int n, int seed) {
+    var teleport = new double[n];
+    teleport[seed] = 1;
+    return teleport;
+  }
+
+  /**
+   * Textbook power iteration: follow a link with probability {@code damping}, otherwise (or from a dead end)
+   * teleport.
+   */
+  private static double[] powerIteration(IntCsr outgoing, double[] teleport, double damping, double tolerance) {
+    int n = outgoing.vertexCount();
+    var p = teleport != null ? teleport : new double[n];
+    if (teleport == null) {
+      Arrays.fill(p, 1.0 / n);
+    }
+    var scores = new double[n];
+    Arrays.fill(scores, 1.0 / n);
+    while (true) {
+      var next = new double[n];
+      double dangling = 0;
+      for (int u = 0; u < n; u++) {
+        if (outgoing.degree(u) == 0) {
+          dangling += scores[u];
+        }
+        for (int slot = outgoing.start(u); slot < outgoing.end(u); slot++) {
+          next[outgoing.neighbor(slot)] += damping * scores[u] / outgoing.degree(u);
+        }
+      }
+      double change = 0;
+      for (int v = 0; v < n; v++) {
+        next[v] += (1 - damping + damping * dangling) * p[v];
+        change = Math.max(change, Math.abs(next[v] - scores[v]));
+      }
+      scores = next;
+      if (change < tolerance) {
+        return scores;
+      }
+    }
+  }
+
+  /**
+   * Sums, over every ordered pair {@code (s, t)}, the share of the shortest paths that run through each vertex, from
+   * all-pairs distances and path counts.
+   */
+  private static double[] bruteForceBetweenness(IntCsr adjacency, boolean directed) {
+    int n = adjacency.vertexCount();
+    var distances = new int[n][];
+    var counts = new double[n][];
+    for (int s = 0; s < n; s++) {
+      distances[s] = new int[n];
+      counts[s] = new double[n];
+      Arrays.fill(distances[s], -1);
+      distances[s][s] = 0;
+      counts[s][s] = 1;
+      var queue = new ArrayDeque<Integer>();
+      queue.add(s);
+      while (!queue.isEmpty()) {
+        int v = queue.poll();
+        for (int slot = adjacency.start(v); slot < adjacency.end(v); slot++) {
+          int w = adjacency.neighbor(slot);
+          if (distances[s][w] < 0) {
+            distances[s][w] = distances[s][v] + 1;
+            queue.add(w);
+          }
+          if (distances[s][w] == distances[s][v] + 1) {
+            counts[s][w] += counts[s][v];
+          }
+        }
+      }
+    }
+    var scores = new double[n];
+    for (int s = 0; s < n; s++) {
+      for (int t = 0; t < n; t++) {
+        if (s == t || distances[s][t] < 0) {
+          continue;
+        }
+        for (int v = 0; v < n; v++) {
+          if (v != s && v != t && distances[s][v] >= 0 && distances[v][t] >= 0
+            && distances[s][v] + distances[v][t] == distances[s][t]) {
+            scores[v] += counts[s][v] * counts[v][t] / counts[s][t];
+          }
+        }
+      }
+    }
+    if (!directed) {
+      for (int v = 0; v < n; v++) {
+        scores[v] /= 2;
+      }
+    }
+    return scores;
+  }
+}
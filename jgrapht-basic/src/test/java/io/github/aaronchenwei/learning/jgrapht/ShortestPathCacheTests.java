@@ -0,0 +1,203 @@
+package io.github.aaronchenwei.learning.jgrapht;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import io.github.aaronchenwei.learning.jgrapht.graph.IntArrayGraph;
+import io.github.aaronchenwei.learning.jgrapht.shortestpath.ShortestPathCache;
+import io.github.aaronchenwei.learning.jgrapht.shortestpath.ShortestPathCache.Eviction;
+import java.lang.invoke.MethodHandles;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import org.jgrapht.Graph;
+import org.jgrapht.GraphType;
+import org.jgrapht.graph.DefaultGraphType;
+import org.jgrapht.graph.DefaultListenableGraph;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.MethodOrderer.OrderAnnotation;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+@TestMethodOrder(OrderAnnotation.class)
+public class ShortestPathCacheTests {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+  private static DefaultListenableGraph<Integer, Integer> create(GraphType type, int n) {
+    var graph = new DefaultListenableGraph<>(new IntArrayGraph(type.asWeighted()));
+    for (int v = 0; v < n; v++) {
+      graph.addVertex(v);
+    }
+    return graph;
+  }
+
+  private static void addEdge(Graph<Integer, Integer> graph, int u, int v, double weight) {
+    graph.setEdgeWeight(graph.addEdge(u, v), weight);
+  }
+
+  @Test
+  @DisplayName("Hits, misses and selective invalidation")
+  @Order(1)
+  void testInvalidation() {
+    // two components: 0 -> 1 -> 2 -> 3 and 4 -> 5
+    var graph = create(DefaultGraphType.directedSimple(), 6);
+    addEdge(graph, 0, 1, 1.0);
+    addEdge(graph, 1, 2, 1.0);
+    addEdge(graph, 2, 3, 1.0);
+    addEdge(graph, 4, 5, 1.0);
+    var cache = new ShortestPathCache<>(graph, Eviction.LRU, 100);
+
+    assertEquals(3.0, cache.getPathWeight(0, 3));
+    assertEquals(List.of(0, 1, 2, 3), cache.getPath(0, 3).getVertexList());
+    assertEquals(1.0, cache.getPaths(4).getWeight(5));
+    assertEquals(Double.POSITIVE_INFINITY, cache.getPaths(4).getWeight(0));
+    assertNull(cache.getPaths(4).getPath(0));
+    var statistics = cache.statistics();
+    assertEquals(3, statistics.hits());
+    assertEquals(2, statistics.misses());
+    assertEquals(2, statistics.entries());
+
+    // outside both regions, or not shorter than what is known: nothing is dropped
+    addEdge(graph, 5, 4, 1.0);
+    addEdge(graph, 3, 0, 1.0);
+    graph.setEdgeWeight(graph.getEdge(3, 0), 5.0);
+    assertEquals(0, cache.statistics().invalidations());
+
+    // a shortcut into the region of 0 -> 3
+    graph.addEdge(0, 2);
+    assertEquals(1, cache.statistics().invalidations());
+    assertEquals(2.0, cache.getPathWeight(0, 3));
+
+    // a path edge gets heavier
+    graph.setEdgeWeight(graph.getEdge(2, 3), 4.0);
+    assertEquals(2, cache.statistics().invalidations());
+    assertEquals(5.0, cache.getPathWeight(0, 3));
+
+    // the tree of 4 loses its only edge
+    graph.removeEdge(4, 5);
+    assertEquals(3, cache.statistics().invalidations());
+    assertEquals(Double.POSITIVE_INFINITY, cache.getPaths(4).getWeight(5));
+    assertThrows(IllegalArgumentException.class, () -> cache.getPath(0, 9));
+
+    LOGGER.atInfo().setMessage("{}").addArgument(cache.statistics()).log();
+  }
+
+  @Test
+  @DisplayName("LRU and LFU eviction")
+  @Order(2)
+  void testEviction() {
+    var graph = create(DefaultGraphType.simple(), 10);
+    for (int v = 1; v < 10; v++) {
+      addEdge(graph, v - 1, v, 1.0);
+    }
+    // every tree holds all ten vertices, so the cache fits two
+    var lru = new ShortestPathCache<>(graph, Eviction.LRU, 20);
+    var lfu = new ShortestPathCache<>(graph, Eviction.LFU, 20);
+    for (var cache : List.of(lru, lfu)) {
+      cache.getPaths(0);
+      cache.getPaths(0);
+      cache.getPaths(0);
+      cache.getPaths(1);
+      cache.getPaths(1);
+      cache.getPaths(2);
+      assertEquals(1, cache.statistics().evictions());
+      assertEquals(20, cache.statistics().cachedVertices());
+    }
+    // LRU dropped the tree of 0, the oldest; LFU dropped the tree of 1, the least used
+    long hits = lru.statistics().hits();
+    lru.getPaths(1);
+    assertEquals(hits + 1, lru.statistics().hits());
+    hits = lfu.statistics().hits();
+    lfu.getPaths(0);
+    assertEquals(hits + 1, lfu.statistics().hits());
+  }
+
+  @Test
+  @DisplayName("Random changes against Floyd-Warshall")
+  @Order(3)
+  void testAgainstReference() {
+    var types = List.of(DefaultGraphType.directedPseudograph(), DefaultGraphType.pseudograph());
+    for (var type : types) {
+      for (var eviction : Eviction.values()) {
+        int n = 40;
+        var random = new SplittableRandom(13L);
+        var graph = create(type, n);
+        var cache = new ShortestPathCache<>(graph, eviction, 400);
+        List<Integer> edges = new ArrayList<>();
+        for (int i = 0; i < 80; i++) {
+          var e = graph.addEdge(random.nextInt(n), random.nextInt(n));
+          graph.setEdgeWeight(e, random.nextInt(10));
+          edges.add(e);
+        }
+        for (int step = 0; step < 400; step++) {
+          int action = random.nextInt(4);
+          if (action == 0) {
+            var e = graph.addEdge(random.nextInt(n), random.nextInt(n));
+            graph.setEdgeWeight(e, random.nextInt(10));
+            edges.add(e);
+          } else if (action == 1 && !edges.isEmpty()) {
+            graph.setEdgeWeight(edges.get(random.nextInt(edges.size())), random.nextInt(10));
+          } else if (action == 2 && !edges.isEmpty()) {
+            graph.removeEdge(edges.remove(random.nextInt(edges.size())));
+          }
+          var expected = floydWarshall(graph, n);
+          for (int q = 0; q < 5; q++) {
+            int s = random.nextInt(n);
+            int t = random.nextInt(n);
+            assertEquals(expected[s][t], cache.getPathWeight(s, t));
+            var path = cache.getPath(s, t);
+            assertEquals(expected[s][t], path == null ? Double.POSITIVE_INFINITY : pathWeight(graph, path.getEdgeList()));
+            if (q == 0) {
+              var tree = cache.getPaths(s);
+              for (int v = 0; v < n; v++) {
+                assertEquals(expected[s][v], tree.getWeight(v));
+              }
+            }
+          }
+        }
+        LOGGER.atInfo().setMessage("{} {}: {}").addArgument(type.isDirected() ? "directed" : "undirected")
+          .addArgument(eviction).addArgument(cache.statistics()).log();
+      }
+    }
+  }
+
+  private static double pathWeight(Graph<Integer, Integer> graph, List<Integer> edges) {
+    double weight = 0.0;
+    for (var e : edges) {
+      weight += graph.getEdgeWeight(e);
+    }
+    return weight;
+  }
+
+  private static double[][] floydWarshall(Graph<Integer, Integer> graph, int n) {
+    var d = new double[n][n];
+    for (int u = 0; u < n; u++) {
+      for (int v = 0; v < n; v++) {
+        d[u][v] = u == v ? 0.0 : Double.POSITIVE_INFINITY;
+      }
+    }
+    boolean directed = graph.getType().isDirected();
+    for (var e : graph.edgeSet()) {
+      int u = graph.getEdgeSource(e);
+      int v = graph.getEdgeTarget(e);
+      double w = graph.getEdgeWeight(e);
+      d[u][v] = Math.min(d[u][v], w);
+      if (!directed) {
+        d[v][u] = Math.min(d[v][u], w);
+      }
+    }
+    for (int k = 0; k < n; k++) {
+      for (int u = 0; u < n; u++) {
+        for (int v = 0; v < n; v++) {
+          d[u][v] = Math.min(d[u][v], d[u][k] + d[k][v]);
+        }
+      }
+    }
+    return d;
+  }
+}
@@ -0,0 +1,137 @@
+package io.github.aaronchenwei.learning.jgrapht;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.github.aaronchenwei.learning.jgrapht.graph.SlidingWindowGraph;
+import java.lang.invoke.MethodHandles;
+import java.net.URI;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.MethodOrderer.OrderAnnotation;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+@TestMethodOrder(OrderAnnotation.class)
+public class SlidingWindowGraphTests {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+  @Test
+  @DisplayName("Edges expire by bucket, are renewed by new events, and late events are dropped")
+  @Order(1)
+  void testExpiry() {
+    var a = URI.create("https://a.example/");
+    var b = URI.create("https://b.example/");
+    var c = URI.create("https://c.example/");
+    Map<URI, int[]> degrees = new HashMap<>();
+    var graph = new SlidingWindowGraph<URI>(Duration.ofMinutes(10), Duration.ofMinutes(1))
+      .degreeListener((v, in, out) -> degrees.put(v, new int[] {in, out}));
+    long minute = Duration.ofMinutes(1).toMillis();
+
+    int ab = graph.ingest(a, b, 0);
+    int bc = graph.ingest(b, c, 30_000);
+    int cc = graph.ingest(c, c, minute);
+    assertEquals(Set.of(a, b, c), graph.vertexSet());
+    assertEquals(Set.of(ab, bc, cc), graph.edgeSet());
+    assertEquals(2, graph.degreeOf(b));
+    assertEquals(Set.of(bc, cc), graph.edgesOf(c));
+    assertEquals(2, graph.edgesOf(c).size());
+    assertEquals(1, degrees.get(c)[1]);
+
+    // renews a -> b into the bucket of minute 5
+    assertEquals(ab, graph.ingest(a, b, 5 * minute + 1));
+    assertEquals(5 * minute + 1, graph.timestamp(ab));
+
+    // the first bucket ends 10 minutes before this, so b -> c goes, and nothing else
+    assertEquals(1, graph.advanceTo(11 * minute));
+    assertFalse(graph.containsEdge(bc));
+    assertEquals(Set.of(a, b, c), graph.vertexSet());
+    assertEquals(0, graph.outDegreeOf(b));
+    assertEquals(0, degrees.get(b)[1]);
+
+    // an event in the expired first bucket is late; one in the second is not
+    assertEquals(-1, graph.ingest(b, c, minute - 1));
+    assertEquals(1, graph.lateEventCount());
+    int ca = graph.ingest(c, a, minute + 1);
+    assertTrue(ca >= 0);
+
+    assertEquals(2, graph.advanceTo(12 * minute));
+    assertFalse(graph.containsVertex(c));
+    assertNull(graph.getEdge(c, c));
+    assertArrayEquals(new int[] {0, 0}, degrees.get(c));
+    assertEquals(List.of(ab), List.copyOf(graph.edgeSet()));
+
+    // moving time to minute 16 expires a -> b before c -> b is added
+    graph.ingest(c, b, 16 * minute);
+    assertEquals(Set.of(b, c), graph.vertexSet());
+    assertEquals(1, graph.edgeSet().size());
+    assertEquals(0, graph.advanceTo(27 * minute - 1));
+    assertEquals(1, graph.advanceTo(27 * minute));
+    assertTrue(graph.vertexSet().isEmpty());
+    assertTrue(graph.edgeSet().isEmpty());
+    assertEquals(5, graph.expiredEdgeCount());
+
+    assertThrows(UnsupportedOperationException.class, () -> graph.addEdge(a, b));
+    assertThrows(UnsupportedOperationException.class, () -> graph.removeVertex(a));
+  }
+
+  @Test
+  @DisplayName("A long random stream matches a recount of the edges seen in the window")
+  @Order(2)
+  void testRandomStream() {
+    int n = 500;
+    long window = 60_000;
+    long bucket = 5_000;
+    var graph = new SlidingWindowGraph<Integer>(Duration.ofMillis(window), Duration.ofMillis(bucket));
+    Map<Long, Long> lastSeen = new HashMap<>();
+    var random = new SplittableRandom(11L);
+    long time = 0;
+    for (int i = 0; i < 200_000; i++) {
+      time += random.nextInt(3);
+      // a few events arrive out of order
+      long timestamp = time - (random.nextInt(100) == 0 ? random.nextInt(70_000) : 0);
+      int s = random.nextInt(n);
+      int t = random.nextInt(n);
+      if (graph.ingest(s, t, timestamp) >= 0) {
+        lastSeen.merge((long) s << 32 | t, timestamp, Math::max);
+      }
+
+      if (i % 20_000 == 0) {
+        long cutoff = Math.floorDiv(graph.now() - window, bucket) * bucket;
+        lastSeen.values().removeIf(seen -> seen < cutoff);
+        assertEquals(lastSeen.size(), graph.edgeSet().size());
+        int[] outDegrees = new int[n];
+        for (var entry : lastSeen.entrySet()) {
+          int source = (int) (entry.getKey() >>> 32);
+          int target = (int) (long) entry.getKey();
+          var e = graph.getEdge(source, target);
+          assertEquals(entry.getValue().longValue(), graph.timestamp(e));
+          outDegrees[source]++;
+        }
+        for (int v = 0; v < n; v++) {
+          assertEquals(outDegrees[v], graph.containsVertex(v) ? graph.outDegreeOf(v) : 0);
+          if (graph.containsVertex(v)) {
+            assertEquals(graph.outDegreeOf(v), graph.outgoingEdgesOf(v).size());
+            assertEquals(graph.inDegreeOf(v), graph.incomingEdgesOf(v).size());
+          }
+        }
+      }
+    }
+
+    LOGGER.atInfo().setMessage("{} edges in the window, {} expired, {} late").addArgument(graph.edgeSet().size())
+      .addArgument(graph.expiredEdgeCount()).addArgument(graph.lateEventCount()).log();
+  }
+}
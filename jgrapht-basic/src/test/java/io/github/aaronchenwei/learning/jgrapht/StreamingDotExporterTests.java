@@ -0,0 +1,99 @@
+package io.github.aaronchenwei.learning.jgrapht;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.github.aaronchenwei.learning.jgrapht.nio.StreamingDotExporter;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.net.URI;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CancellationException;
+import org.jgrapht.graph.DefaultDirectedGraph;
+import org.jgrapht.graph.DefaultEdge;
+import org.jgrapht.graph.SimpleGraph;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.MethodOrderer.OrderAnnotation;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+@TestMethodOrder(OrderAnnotation.class)
+public class StreamingDotExporterTests {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+  @Test
+  @DisplayName("Export URI graph")
+  @Order(1)
+  void testExportHrefGraph() throws IOException {
+    var graph = new DefaultDirectedGraph<URI, DefaultEdge>(DefaultEdge.class);
+    var google = URI.create("http://www.google.com");
+    var jgrapht = URI.create("http://www.jgrapht.org");
+    graph.addVertex(google);
+    graph.addVertex(jgrapht);
+    graph.addEdge(google, jgrapht);
+
+    var exporter = new StreamingDotExporter<URI, DefaultEdge>(v -> v.getHost().replace('.', '_'));
+    exporter.setVertexAttributeWriter((v, attributes) -> attributes.put("label", v.toString()));
+    var output = new ByteArrayOutputStream();
+    exporter.exportGraph(graph, Channels.newChannel(output));
+
+    var expected = "strict digraph G {\n"
+      + "  www_google_com [ label=\"http://www.google.com\" ];\n"
+      + "  www_jgrapht_org [ label=\"http://www.jgrapht.org\" ];\n"
+      + "  www_google_com -> www_jgrapht_org;\n"
+      + "}\n";
+    assertEquals(expected, output.toString(StandardCharsets.UTF_8));
+
+    LOGGER.atInfo().setMessage("{}").addArgument(output).log();
+  }
+
+  @Test
+  @DisplayName("Quote ids and escape values")
+  @Order(2)
+  void testQuoting() throws IOException {
+    var graph = new SimpleGraph<String, DefaultEdge>(DefaultEdge.class);
+    graph.addVertex("node");
+    graph.addVertex("a b");
+    graph.addVertex("-1.5");
+    graph.addVertex("dir\\");
+    graph.addEdge("node", "a b");
+
+    var exporter = new StreamingDotExporter<String, DefaultEdge>(v -> v);
+    exporter.setEdgeAttributeWriter((e, attributes) -> attributes.put("label", "say \"hi\"").put("weight", "2"));
+    var output = new ByteArrayOutputStream();
+    exporter.exportGraph(graph, Channels.newChannel(output));
+
+    var text = output.toString(StandardCharsets.UTF_8);
+    assertTrue(text.startsWith("strict graph G {\n"));
+    assertTrue(text.contains("  \"node\";\n"));
+    assertTrue(text.contains("  -1.5;\n"));
+    assertTrue(text.contains("  \"dir\\\\\";\n"));
+    assertTrue(text.contains("  \"node\" -- \"a b\" [ label=\"say \\\"hi\\\"\" weight=\"2\" ];\n"));
+
+    LOGGER.atInfo().setMessage("{}").addArgument(text).log();
+  }
+
+  @Test
+  @DisplayName("Cancel export")
+  @Order(3)
+  void testCancellation() {
+    var graph = new SimpleGraph<Integer, DefaultEdge>(DefaultEdge.class);
+    for (int v = 0; v < 10 * StreamingDotExporter.CANCELLATION_CHECK_INTERVAL; v++) {
+      graph.addVertex(v);
+    }
+
+    var exporter = new StreamingDotExporter<Integer, DefaultEdge>(String::valueOf);
+    exporter.setBufferSize(1024);
+    var output = new ByteArrayOutputStream();
+    assertThrows(CancellationException.class,
+      () -> exporter.exportGraph(graph, Channels.newChannel(output), () -> output.size() > 4096));
+    assertTrue(output.size() < graph.vertexSet().size() * 4);
+  }
+}
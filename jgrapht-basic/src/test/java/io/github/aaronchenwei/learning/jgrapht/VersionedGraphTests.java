@@ -0,0 +1,198 @@
+package io.github.aaronchenwei.learning.jgrapht;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.github.aaronchenwei.learning.jgrapht.graph.VersionedGraph;
+import java.lang.invoke.MethodHandles;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import org.jgrapht.Graphs;
+import org.jgrapht.graph.DefaultGraphType;
+import org.jgrapht.traverse.DepthFirstIterator;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.MethodOrderer.OrderAnnotation;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+@TestMethodOrder(OrderAnnotation.class)
+public class VersionedGraphTests {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+  private static final List<Integer> VERTEX_LIST = List.of(1, 2, 3, 4, 5, 6, 7, 8);
+
+  @Test
+  @DisplayName("Snapshots do not see later epochs")
+  @Order(1)
+  void testIsolation() {
+    var edgeIds = new AtomicInteger();
+    var graph = new VersionedGraph<Integer, Integer>(DefaultGraphType.simple(), null, edgeIds::getAndIncrement);
+    var empty = graph.snapshot();
+    var first = graph.update(g -> {
+      Graphs.addAllVertices(g, VERTEX_LIST);
+      assertNotNull(g.addEdge(1, 2));
+      assertNull(g.addEdge(2, 1));
+      g.addEdge(2, 3);
+    });
+    var second = graph.update(g -> {
+      g.removeVertex(2);
+      g.addEdge(3, 4);
+    });
+
+    assertEquals(0, empty.epoch());
+    assertEquals(0, empty.vertexSet().size());
+    assertEquals(1, first.epoch());
+    assertEquals(2, first.edgeSet().size());
+    assertEquals(2, first.degreeOf(2));
+    assertEquals(2, second.epoch());
+    assertEquals(7, second.vertexSet().size());
+    assertEquals(1, second.edgeSet().size());
+    assertNotNull(second.getEdge(4, 3));
+    assertNull(first.getEdge(3, 4));
+    assertEquals(second, graph.snapshot());
+    assertThrows(UnsupportedOperationException.class, () -> second.addVertex(9));
+
+    LOGGER.atInfo().setMessage("{}").addArgument(first).log();
+  }
+
+  @Test
+  @DisplayName("A failed update publishes nothing")
+  @Order(2)
+  void testFailedUpdate() {
+    var edgeIds = new AtomicInteger();
+    var graph = new VersionedGraph<Integer, Integer>(DefaultGraphType.pseudograph().asWeighted(), null,
+      edgeIds::getAndIncrement);
+    graph.update(g -> {
+      Graphs.addAllVertices(g, VERTEX_LIST);
+      var loop = g.addEdge(1, 1);
+      g.setEdgeWeight(loop, 2.0);
+    });
+    assertThrows(IllegalArgumentException.class, () -> graph.update(g -> {
+      g.addEdge(1, 2);
+      g.addEdge(1, 9);
+    }));
+
+    var snapshot = graph.snapshot();
+    assertEquals(1, snapshot.epoch());
+    assertEquals(1, snapshot.edgeSet().size());
+    assertEquals(2, snapshot.degreeOf(1));
+    assertEquals(2.0, snapshot.getEdgeWeight(snapshot.getEdge(1, 1)));
+  }
+
+  @Test
+  @DisplayName("Every epoch matches a reference graph")
+  @Order(3)
+  void testAgainstReference() {
+    var edgeIds = new AtomicInteger();
+    var graph = new VersionedGraph<Integer, Integer>(DefaultGraphType.directedPseudograph(), null,
+      edgeIds::getAndIncrement);
+    var random = new SplittableRandom(7L);
+    Map<Integer, int[]> reference = new HashMap<>();
+    List<VersionedGraph.Snapshot<Integer, Integer>> snapshots = new ArrayList<>();
+    List<Map<Integer, int[]>> references = new ArrayList<>();
+    graph.update(g -> {
+      for (int v = 0; v < 200; v++) {
+        g.addVertex(v);
+      }
+    });
+    for (int epoch = 0; epoch < 50; epoch++) {
+      graph.update(g -> {
+        for (int i = 0; i < 100; i++) {
+          if (random.nextInt(4) == 0 && !reference.isEmpty()) {
+            var e = reference.keySet().iterator().next();
+            assertTrue(g.removeEdge(e));
+            reference.remove(e);
+          } else {
+            int u = random.nextInt(200);
+            int v = random.nextInt(200);
+            reference.put(g.addEdge(u, v), new int[] {u, v});
+          }
+        }
+      });
+      snapshots.add(graph.snapshot());
+      references.add(new HashMap<>(reference));
+    }
+    for (int i = 0; i < snapshots.size(); i++) {
+      var snapshot = snapshots.get(i);
+      var expected = references.get(i);
+      assertEquals(expected.keySet(), snapshot.edgeSet());
+      int degrees = 0;
+      for (var v : snapshot.vertexSet()) {
+        for (var e : snapshot.outgoingEdgesOf(v)) {
+          assertEquals(expected.get(e)[0], (int) snapshot.getEdgeSource(e));
+          assertEquals(expected.get(e)[1], (int) snapshot.getEdgeTarget(e));
+        }
+        degrees += snapshot.outDegreeOf(v);
+      }
+      assertEquals(expected.size(), degrees);
+    }
+  }
+
+  @Test
+  @DisplayName("DepthFirstIterator over snapshots while a writer commits")
+  @Order(4)
+  void testTraversalDuringWrites() throws Exception {
+    int n = 2000;
+    var edgeIds = new AtomicInteger();
+    var graph = new VersionedGraph<Integer, Integer>(DefaultGraphType.simple(), null, edgeIds::getAndIncrement);
+    graph.update(g -> {
+      for (int v = 0; v < n; v++) {
+        g.addVertex(v);
+      }
+      for (int v = 1; v < n; v++) {
+        g.addEdge(v - 1, v);
+      }
+    });
+    var stop = new AtomicBoolean();
+    var failure = new AtomicReference<Throwable>();
+    var writer = new Thread(() -> {
+      var random = new SplittableRandom(3L);
+      try {
+        while (!stop.get()) {
+          graph.update(g -> {
+            for (int i = 0; i < 50; i++) {
+              // toggle chords of the path, so that every snapshot stays connected
+              int u = random.nextInt(n - 12);
+              int v = u + 2 + random.nextInt(10);
+              if (g.removeEdge(u, v) == null) {
+                g.addEdge(u, v);
+              }
+            }
+          });
+        }
+      } catch (Throwable t) {
+        failure.set(t);
+      }
+    });
+    writer.start();
+    try {
+      for (int i = 0; i < 50; i++) {
+        var snapshot = graph.snapshot();
+        int visited = 0;
+        for (var it = new DepthFirstIterator<>(snapshot, 0); it.hasNext(); it.next()) {
+          visited++;
+        }
+        assertEquals(n, visited);
+      }
+    } finally {
+      stop.set(true);
+      writer.join();
+    }
+    assertNull(failure.get());
+    assertFalse(graph.epoch() < 2);
+  }
+}
@@ -0,0 +1,178 @@
+package io.github.aaronchenwei.learning.jgrapht;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.github.aaronchenwei.learning.jgrapht.graph.IntCsrGraph;
+import io.github.aaronchenwei.learning.jgrapht.order.GraphPartitioner;
+import io.github.aaronchenwei.learning.jgrapht.order.VertexOrdering;
+import java.lang.invoke.MethodHandles;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.MethodOrderer.OrderAnnotation;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+@TestMethodOrder(OrderAnnotation.class)
+public class VertexOrderingTests {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+  @Test
+  @DisplayName("Reverse Cuthill-McKee recovers the locality of a shuffled grid")
+  @Order(1)
+  void testReverseCuthillMcKee() {
+    int side = 60;
+    var graph = shuffledGrid(side, 3L);
+    long before = bandwidth(graph);
+
+    var permutation = VertexOrdering.reverseCuthillMcKee(graph);
+    var ordered = VertexOrdering.relabel(graph, permutation);
+    long after = bandwidth(ordered);
+    // a breadth-first order of a grid puts neighbors at most two diagonals apart
+    assertTrue(after <= 2 * side + 1, "bandwidth " + after);
+    assertSameGraph(graph, ordered, permutation);
+
+    var inverse = VertexOrdering.inverse(permutation);
+    for (int v = 0; v < permutation.length; v++) {
+      assertEquals(v, inverse[permutation[v]]);
+    }
+
+    LOGGER.atInfo().setMessage("bandwidth {} shuffled, {} after RCM").addArgument(before).addArgument(after).log();
+  }
+
+  @Test
+  @DisplayName("Degree-sorted order and relabelling of a directed weighted graph")
+  @Order(2)
+  void testDegreeSorted() {
+    var random = new SplittableRandom(7L);
+    int n = 500;
+    int m = 3_000;
+    var sources = new int[m];
+    var targets = new int[m];
+    var weights = new double[m];
+    for (int e = 0; e < m; e++) {
+      // skewed targets, so that the degrees differ
+      sources[e] = random.nextInt(n);
+      targets[e] = (int) (n * Math.pow(random.nextDouble(), 3));
+      weights[e] = e;
+    }
+    var graph = IntCsrGraph.directed(n, sources, targets, weights);
+
+    var permutation = VertexOrdering.degreeSorted(graph);
+    var ordered = VertexOrdering.relabel(graph, permutation);
+    assertTrue(ordered.getType().isDirected());
+    for (int v = 1; v < n; v++) {
+      assertTrue(ordered.degreeOf(v - 1) >= ordered.degreeOf(v));
+    }
+    assertSameGraph(graph, ordered, permutation);
+    for (int e = 0; e < m; e++) {
+      assertEquals(e, ordered.getEdgeWeight(e));
+    }
+
+    assertThrows(IllegalArgumentException.class, () -> VertexOrdering.relabel(graph, new int[n - 1]));
+    assertThrows(IllegalArgumentException.class, () -> VertexOrdering.relabel(graph, new int[n]));
+  }
+
+  @Test
+  @DisplayName("k-way partition of a shuffled grid and of disconnected pieces")
+  @Order(3)
+  void testPartition() {
+    int side = 60;
+    var graph = shuffledGrid(side, 5L);
+    int k = 4;
+    var partition = new GraphPartitioner(k).partition(graph);
+
+    long total = graph.adjacency().slotCount() + graph.vertexCount();
+    long work = 0;
+    for (int p = 0; p < k; p++) {
+      assertTrue(partition.work(p) <= Math.ceil(1.03 * total / k), "part " + p);
+      work += partition.work(p);
+    }
+    assertEquals(total, work);
+    // bands along the grid cut a few times side edges; a random assignment cuts three quarters of all edges
+    assertTrue(partition.edgeCut() < 6 * side, "cut " + partition.edgeCut());
+
+    var permutation = partition.permutation();
+    var offsets = partition.offsets();
+    assertEquals(graph.vertexCount(), offsets[k]);
+    for (int v = 0; v < graph.vertexCount(); v++) {
+      int p = partition.part(v);
+      assertTrue(permutation[v] >= offsets[p] && permutation[v] < offsets[p + 1]);
+    }
+    VertexOrdering.relabel(graph, permutation);
+
+    var unrefined = new GraphPartitioner(k).refinementPasses(0).partition(graph);
+    assertTrue(partition.edgeCut() <= unrefined.edgeCut());
+    assertEquals(0, new GraphPartitioner(1).partition(graph).edgeCut());
+
+    // three paths and an isolated vertex, in two parts: no path needs to be cut
+    var pieces = IntCsrGraph.undirected(10, new int[] {0, 1, 3, 4, 6, 7}, new int[] {1, 2, 4, 5, 7, 8}, null);
+    var split = new GraphPartitioner(2).imbalance(0.5).partition(pieces);
+    assertEquals(0, split.edgeCut());
+    // each path is searched from an end, so it gets consecutive identifiers
+    assertEquals(1, bandwidth(VertexOrdering.relabel(pieces, VertexOrdering.reverseCuthillMcKee(pieces))));
+
+    LOGGER.atInfo().setMessage("cut {} refined, {} unrefined").addArgument(partition.edgeCut())
+      .addArgument(unrefined.edgeCut()).log();
+  }
+
+  /**
+   * A square grid whose vertices are numbered in random order.
+   */
+  private static IntCsrGraph shuffledGrid(int side, long seed) {
+    int n = side * side;
+    var label = new int[n];
+    for (int v = 0; v < n; v++) {
+      label[v] = v;
+    }
+    var random = new SplittableRandom(seed);
+    for (int i = n - 1; i > 0; i--) {
+      int j = random.nextInt(i + 1);
+      int swap = label[i];
+      label[i] = label[j];
+      label[j] = swap;
+    }
+    int m = 2 * side * (side - 1);
+    var sources = new int[m];
+    var targets = new int[m];
+    int e = 0;
+    for (int row = 0; row < side; row++) {
+      for (int col = 0; col < side; col++) {
+        int v = row * side + col;
+        if (col + 1 < side) {
+          sources[e] = label[v];
+          targets[e++] = label[v + 1];
+        }
+        if (row + 1 < side) {
+          sources[e] = label[v];
+          targets[e++] = label[v + side];
+        }
+      }
+    }
+    return IntCsrGraph.undirected(n, sources, targets, null);
+  }
+
+  private static long bandwidth(IntCsrGraph graph) {
+    long bandwidth = 0;
+    for (int e = 0; e < graph.edgeCount(); e++) {
+      bandwidth = Math.max(bandwidth, Math.abs(graph.edgeSource(e) - graph.edgeTarget(e)));
+    }
+    return bandwidth;
+  }
+
+  private static void assertSameGraph(IntCsrGraph graph, IntCsrGraph relabelled, int[] permutation) {
+    assertEquals(graph.edgeCount(), relabelled.edgeCount());
+    for (int e = 0; e < graph.edgeCount(); e++) {
+      assertEquals(permutation[graph.edgeSource(e)], relabelled.edgeSource(e));
+      assertEquals(permutation[graph.edgeTarget(e)], relabelled.edgeTarget(e));
+    }
+    for (int v = 0; v < graph.vertexCount(); v++) {
+      assertEquals(graph.degreeOf(v), relabelled.degreeOf(permutation[v]));
+    }
+  }
+}
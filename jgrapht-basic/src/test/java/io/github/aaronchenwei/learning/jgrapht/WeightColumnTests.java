@@ -0,0 +1,86 @@
+package io.github.aaronchenwei.learning.jgrapht;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import io.github.aaronchenwei.learning.jgrapht.graph.IntArrayGraph;
+import io.github.aaronchenwei.learning.jgrapht.graph.WeightColumn;
+import java.lang.invoke.MethodHandles;
+import org.jgrapht.graph.DefaultGraphType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.MethodOrderer.OrderAnnotation;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+@TestMethodOrder(OrderAnnotation.class)
+public class WeightColumnTests {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+  @Test
+  @DisplayName("Heap and off-heap columns agree")
+  @Order(1)
+  void testColumns() {
+    for (var storage : WeightColumn.Storage.values()) {
+      var column = WeightColumn.allocate(storage, 4);
+      assertEquals(storage, column.storage());
+      column.put(0, new double[] {1.0, 2.0, 3.0, 4.0});
+      column.ensureCapacity(10);
+      assertEquals(0.0, column.get(9));
+      column.fill(4, 10, 0.5);
+      column.set(new int[] {9, 0}, new double[] {8.0, -1.0});
+      column.scale(0, 10, 2.0);
+      column.transform(1, 3, w -> w + 1.0);
+
+      assertArrayEquals(new double[] {-2.0, 5.0, 7.0, 8.0, 1.0, 1.0, 1.0, 1.0, 1.0, 16.0}, column.toArray(0, 10));
+      assertEquals(39.0, column.sum(0, 10));
+      assertEquals(12.0, column.sum(1, 3));
+      assertThrows(IndexOutOfBoundsException.class, () -> column.sum(0, column.capacity() + 1));
+    }
+  }
+
+  @Test
+  @DisplayName("IntArrayGraph with off-heap weights")
+  @Order(2)
+  void testIntArrayGraph() {
+    var graph = new IntArrayGraph(DefaultGraphType.directedPseudograph().asWeighted(), 4, 2,
+      WeightColumn.Storage.OFF_HEAP);
+    int n = 1000;
+    for (int v = 0; v < n; v++) {
+      graph.addVertex(v);
+    }
+    for (int v = 0; v < n; v++) {
+      graph.setEdgeWeight(graph.addEdge(v, (v + 1) % n), v);
+    }
+    graph.removeEdge(3);
+
+    graph.scaleEdgeWeights(0.5);
+    graph.transformEdgeWeights(w -> w + 1.0);
+    graph.setEdgeWeights(new int[] {0, 999}, new double[] {-1.0, -2.0});
+
+    assertEquals(WeightColumn.Storage.OFF_HEAP, graph.weightColumn().storage());
+    assertEquals(-1.0, graph.getEdgeWeight(0));
+    assertEquals(2.0, graph.getEdgeWeight(2));
+    assertEquals(250.0, graph.getEdgeWeight(498));
+    assertEquals(-2.0, graph.getEdgeWeight(999));
+    assertThrows(IllegalArgumentException.class, () -> graph.setEdgeWeights(new int[] {1, 3}, new double[] {0, 0}));
+    assertEquals(1.5, graph.getEdgeWeight(1));
+    assertThrows(UnsupportedOperationException.class,
+      () -> new IntArrayGraph(DefaultGraphType.simple()).scaleEdgeWeights(2.0));
+
+    LOGGER.atInfo().setMessage("{}").addArgument(graph.weightColumn().sum(0, 10)).log();
+  }
+
+  @Test
+  @DisplayName("An off-heap column rejects a capacity above its limit")
+  @Order(3)
+  void testDirectCapacityLimit() {
+    var column = WeightColumn.allocate(WeightColumn.Storage.OFF_HEAP, 4);
+    assertThrows(IllegalArgumentException.class, () -> column.ensureCapacity(1 << 28));
+    assertEquals(4, column.capacity());
+  }
+}
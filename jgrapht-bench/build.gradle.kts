@@ -0,0 +1,53 @@
+plugins {
+  java
+  id("me.champeau.jmh") version "0.7.0"
+}
+
+group = "io.github.aaronchenwei.learning.jgrapht"
+version = "0.0.1-SNAPSHOT"
+
+repositories {
+  mavenCentral()
+}
+
+dependencies {
+  implementation(project(":jgrapht-basic"))
+  implementation("org.jgrapht:jgrapht-core:1.5.1")
+  implementation("org.jgrapht:jgrapht-io:1.5.1")
+  implementation("org.jgrapht:jgrapht-opt:1.5.1")
+}
+
+jmh {
+  jmhVersion.set("1.36")
+  fork.set(1)
+  warmupIterations.set(2)
+  iterations.set(3)
+  profilers.add("gc")
+  jvmArgsAppend.add("-Xmx16g")
+  resultFormat.set("JSON")
+  if (project.hasProperty("jmhIncludes")) {
+    includes.add(project.property("jmhIncludes").toString())
+  }
+}
+
+tasks.register<JavaExec>("footprint") {
+  group = "benchmark"
+  description = "Prints the retained heap per vertex and per edge of every graph type."
+  classpath = sourceSets["jmh"].runtimeClasspath
+  mainClass.set("io.github.aaronchenwei.learning.jgrapht.bench.GraphFootprint")
+  jvmArgs("-Xmx16g")
+  if (project.hasProperty("footprintArgs")) {
+    args(project.property("footprintArgs").toString().split(","))
+  }
+}
+
+tasks.register<JavaExec>("queryLoad") {
+  group = "benchmark"
+  description = "Drives the graph query server at a fixed rate and prints the latency percentiles."
+  classpath = sourceSets["jmh"].runtimeClasspath
+  mainClass.set("io.github.aaronchenwei.learning.jgrapht.bench.QueryLoadGenerator")
+  jvmArgs("-Xmx4g")
+  if (project.hasProperty("queryLoadArgs")) {
+    args(project.property("queryLoadArgs").toString().split(","))
+  }
+}
@@ -0,0 +1,126 @@
+package io.github.aaronchenwei.learning.jgrapht.bench;
+
+import io.github.aaronchenwei.learning.jgrapht.graph.BulkGraphs;
+import io.github.aaronchenwei.learning.jgrapht.graph.IntArrayGraph;
+import io.github.aaronchenwei.learning.jgrapht.graph.PresizedGraph;
+import java.util.concurrent.TimeUnit;
+import org.jgrapht.Graph;
+import org.jgrapht.graph.DefaultGraphType;
+import org.jgrapht.graph.DefaultWeightedEdge;
+import org.jgrapht.graph.SimpleWeightedGraph;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Weighted edge insertion one {@code addEdge}/{@code setEdgeWeight} call at a time vs one
+ * {@link BulkGraphs#addAllEdges} batch, into a {@code SimpleWeightedGraph} or a weighted simple {@link IntArrayGraph}.
+ *
+ * <p>Every invocation starts from a graph that already holds every vertex, so only edge insertion is timed; the
+ * {@code edges} counter is the insertion rate (edges per second). For the {@code SimpleWeightedGraph} target the batch
+ * goes into a {@link PresizedGraph} of the same type, created for the final edge count as {@link BulkGraphs#build}
+ * does, since the batch itself still adds one edge at a time there.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+public class BulkInsertBenchmark {
+
+  public enum Target {
+    SIMPLE_WEIGHTED_GRAPH,
+    INT_ARRAY_GRAPH
+  }
+
+  @Param
+  public Target target;
+
+  @Param({"100000", "1000000"})
+  public int vertexCount;
+
+  @Param({"4"})
+  public int edgesPerVertex;
+
+  private EdgeList edges;
+  private Integer[] sources;
+  private Integer[] targets;
+  private double[] weights;
+
+  @Setup(Level.Trial)
+  public void generate() {
+    edges = EdgeList.random(vertexCount, vertexCount * edgesPerVertex, 42L);
+    int m = edges.edgeCount();
+    sources = new Integer[m];
+    targets = new Integer[m];
+    weights = new double[m];
+    for (int i = 0; i < m; i++) {
+      sources[i] = edges.source(i);
+      targets[i] = edges.target(i);
+      weights[i] = edges.weight(i);
+    }
+  }
+
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.OPERATIONS)
+  public static class Counters {
+    public long edges;
+
+    @Setup(Level.Iteration)
+    public void reset() {
+      edges = 0;
+    }
+  }
+
+  /**
+   * A graph that already holds every vertex.
+   */
+  @State(Scope.Thread)
+  public static class VerticesOnly {
+    Graph<Integer, ?> graph;
+
+    @Setup(Level.Invocation)
+    public void create(BulkInsertBenchmark benchmark) {
+      graph = benchmark.target == Target.INT_ARRAY_GRAPH
+        ? new IntArrayGraph(DefaultGraphType.simple().asWeighted())
+        : new SimpleWeightedGraph<>(DefaultWeightedEdge.class);
+      GraphKind.addVertices(graph, benchmark.edges);
+    }
+  }
+
+  /**
+   * A graph that already holds every vertex, with its maps sized for every edge.
+   */
+  @State(Scope.Thread)
+  public static class PresizedVerticesOnly {
+    Graph<Integer, ?> graph;
+
+    @Setup(Level.Invocation)
+    public void create(BulkInsertBenchmark benchmark) {
+      graph = benchmark.target == Target.INT_ARRAY_GRAPH
+        ? new IntArrayGraph(DefaultGraphType.simple().asWeighted())
+        : new PresizedGraph<Integer, DefaultWeightedEdge>(DefaultGraphType.simple().asWeighted(), null,
+          DefaultWeightedEdge::new, benchmark.edges.vertexCount(), benchmark.edges.edgeCount());
+      GraphKind.addVertices(graph, benchmark.edges);
+    }
+  }
+
+  @Benchmark
+  public Graph<Integer, ?> oneAtATime(VerticesOnly state, Counters counters) {
+    GraphKind.addEdges(state.graph, edges);
+    counters.edges += edges.edgeCount();
+    return state.graph;
+  }
+
+  @Benchmark
+  public Graph<Integer, ?> bulk(PresizedVerticesOnly state, Counters counters) {
+    BulkGraphs.addAllEdges(state.graph, sources, targets, weights);
+    counters.edges += edges.edgeCount();
+    return state.graph;
+  }
+}
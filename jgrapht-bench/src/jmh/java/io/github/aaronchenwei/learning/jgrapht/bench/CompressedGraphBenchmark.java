@@ -0,0 +1,153 @@
+package io.github.aaronchenwei.learning.jgrapht.bench;
+
+import io.github.aaronchenwei.learning.jgrapht.graph.CompressedIntGraph;
+import io.github.aaronchenwei.learning.jgrapht.graph.IntCsr;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Successor-list reads from a {@link CompressedIntGraph} against an uncompressed {@link IntCsr}, on a graph with the
+ * locality and similarity of a web crawl.
+ *
+ * <p>Each vertex copies most of the successors of one of the few vertices before it and adds some of its own, nearly
+ * all of them close by, as in the copying model of the web graph. {@code scan} sums every successor of every vertex
+ * in order, through the {@link CompressedIntGraph.Cursor cursor} for the compressed layouts; {@code random} decodes
+ * the successors of a pre-shuffled sequence of vertices. {@code COMPRESSED_NO_REFERENCES} turns reference compression
+ * off, which costs space but no list ever waits for another; {@code CSR} ignores {@code sampleInterval}. The setup
+ * prints the bits per edge of each layout.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class CompressedGraphBenchmark {
+
+  private static final int PROBES = 1 << 16;
+
+  public enum Layout {
+    CSR,
+    COMPRESSED,
+    COMPRESSED_NO_REFERENCES
+  }
+
+  @Param
+  public Layout layout;
+
+  @Param({"1000000"})
+  public int vertexCount;
+
+  @Param({"8", "32", "128"})
+  public int sampleInterval;
+
+  private IntCsr csr;
+  private CompressedIntGraph compressed;
+  private int[] probes;
+  private int next;
+
+  @Setup(Level.Trial)
+  public void build() {
+    var edges = webLike(vertexCount, 42L);
+    if (layout == Layout.CSR) {
+      csr = IntCsr.of(vertexCount, edges[0], edges[1], edges[0].length, false);
+      System.out.printf("%n%s: %.1f bits per edge%n", layout, 32.0 * (csr.slotCount() * 2L + vertexCount + 1)
+        / csr.slotCount());
+    } else {
+      compressed = new CompressedIntGraph.Compressor().window(layout == Layout.COMPRESSED ? 7 : 0)
+        .sampleInterval(sampleInterval).transpose(false).compress(vertexCount, edges[0], edges[1]);
+      System.out.printf("%n%s: %.1f bits per edge%n", layout, compressed.bitsPerEdge());
+    }
+    var random = new SplittableRandom(7L);
+    probes = new int[PROBES];
+    for (int i = 0; i < PROBES; i++) {
+      probes[i] = random.nextInt(vertexCount);
+    }
+  }
+
+  @Benchmark
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public long scan() {
+    long sum = 0;
+    if (csr != null) {
+      for (int v = 0; v < vertexCount; v++) {
+        for (int slot = csr.start(v); slot < csr.end(v); slot++) {
+          sum += csr.neighbor(slot);
+        }
+      }
+      return sum;
+    }
+    var cursor = compressed.cursor();
+    while (cursor.next()) {
+      var successors = cursor.successors();
+      for (int i = 0; i < cursor.degree(); i++) {
+        sum += successors[i];
+      }
+    }
+    return sum;
+  }
+
+  @Benchmark
+  public long random() {
+    int v = probes[next++ & (PROBES - 1)];
+    long sum = 0;
+    if (csr != null) {
+      for (int slot = csr.start(v); slot < csr.end(v); slot++) {
+        sum += csr.neighbor(slot);
+      }
+      return sum;
+    }
+    for (int w : compressed.successors(v)) {
+      sum += w;
+    }
+    return sum;
+  }
+
+  /**
+   * Returns the source and target columns of a copying-model graph with about 12 edges per vertex.
+   */
+  static int[][] webLike(int n, long seed) {
+    var random = new SplittableRandom(seed);
+    var offsets = new int[n + 1];
+    var lists = new int[16 * n];
+    var list = new int[64];
+    int m = 0;
+    for (int v = 0; v < n; v++) {
+      int length = 0;
+      if (v > 0) {
+        int prototype = Math.max(0, v - 1 - random.nextInt(4));
+        for (int i = offsets[prototype]; i < offsets[prototype + 1] && length < list.length - 8; i++) {
+          if (random.nextInt(10) < 7) {
+            list[length++] = lists[i];
+          }
+        }
+      }
+      int fresh = 1 + random.nextInt(6);
+      for (int i = 0; i < fresh; i++) {
+        list[length++] = random.nextInt(10) == 0 ? random.nextInt(n) : Math.floorMod(v + random.nextInt(-64, 64), n);
+      }
+      Arrays.sort(list, 0, length);
+      if (m + length > lists.length) {
+        lists = Arrays.copyOf(lists, 2 * lists.length);
+      }
+      System.arraycopy(list, 0, lists, m, length);
+      m += length;
+      offsets[v + 1] = m;
+    }
+    var edges = new int[2][m];
+    for (int v = 0; v < n; v++) {
+      for (int i = offsets[v]; i < offsets[v + 1]; i++) {
+        edges[0][i] = v;
+        edges[1][i] = lists[i];
+      }
+    }
+    return edges;
+  }
+}
@@ -0,0 +1,146 @@
+package io.github.aaronchenwei.learning.jgrapht.bench;
+
+import io.github.aaronchenwei.learning.jgrapht.graph.ConcurrentGraph;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.jgrapht.Graph;
+import org.jgrapht.graph.DefaultEdge;
+import org.jgrapht.graph.DefaultGraphType;
+import org.jgrapht.graph.Pseudograph;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Multi-writer ingestion: {@code threads} writers share the edges of one list, adding them either to a
+ * {@code Pseudograph} behind one external lock or to a {@code ConcurrentGraph}.
+ *
+ * <p>The {@code edges} counter is the write throughput (edges per second); its curve across {@code threads} is the
+ * scaling of each structure.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+public class ConcurrentIngestBenchmark {
+
+  public enum Target {
+    LOCKED_PSEUDOGRAPH,
+    CONCURRENT_GRAPH
+  }
+
+  @Param
+  public Target target;
+
+  @Param({"100000", "1000000"})
+  public int vertexCount;
+
+  @Param({"4"})
+  public int edgesPerVertex;
+
+  @Param({"1", "2", "4", "8", "16"})
+  public int threads;
+
+  private EdgeList edges;
+  private ExecutorService writers;
+
+  @Setup(Level.Trial)
+  public void generate() {
+    edges = EdgeList.random(vertexCount, vertexCount * edgesPerVertex, 42L);
+    writers = Executors.newFixedThreadPool(threads);
+  }
+
+  @TearDown(Level.Trial)
+  public void shutdown() {
+    writers.shutdown();
+  }
+
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.OPERATIONS)
+  public static class Counters {
+    public long edges;
+
+    @Setup(Level.Iteration)
+    public void reset() {
+      edges = 0;
+    }
+  }
+
+  @Benchmark
+  public Graph<Integer, ?> ingest(Counters counters) throws InterruptedException, ExecutionException {
+    Graph<Integer, ?> graph = target == Target.CONCURRENT_GRAPH ? concurrent() : locked();
+    counters.edges += edges.edgeCount();
+    return graph;
+  }
+
+  private Graph<Integer, DefaultEdge> locked() throws InterruptedException, ExecutionException {
+    var graph = new Pseudograph<Integer, DefaultEdge>(DefaultEdge.class);
+    var lock = new Object();
+    runWriters((from, to) -> {
+      for (int v = from; v < to; v++) {
+        synchronized (lock) {
+          graph.addVertex(v);
+        }
+      }
+    }, (from, to) -> {
+      for (int e = from; e < to; e++) {
+        synchronized (lock) {
+          graph.addEdge(edges.source(e), edges.target(e));
+        }
+      }
+    });
+    return graph;
+  }
+
+  private Graph<Integer, Integer> concurrent() throws InterruptedException, ExecutionException {
+    var edgeIds = new AtomicInteger();
+    var graph = new ConcurrentGraph<Integer, Integer>(DefaultGraphType.pseudograph(), null, edgeIds::getAndIncrement);
+    runWriters((from, to) -> {
+      for (int v = from; v < to; v++) {
+        graph.addVertex(v);
+      }
+    }, (from, to) -> {
+      for (int e = from; e < to; e++) {
+        graph.addEdge(edges.source(e), edges.target(e));
+      }
+    });
+    return graph;
+  }
+
+  private interface Range {
+    void run(int from, int to);
+  }
+
+  /**
+   * Adds every vertex, then every edge, each time splitting the range evenly over the writers.
+   */
+  private void runWriters(Range vertexTask, Range edgeTask) throws InterruptedException, ExecutionException {
+    split(edges.vertexCount(), vertexTask);
+    split(edges.edgeCount(), edgeTask);
+  }
+
+  private void split(int size, Range task) throws InterruptedException, ExecutionException {
+    List<Future<?>> futures = new ArrayList<>();
+    for (int t = 0; t < threads; t++) {
+      int from = (int) ((long) size * t / threads);
+      int to = (int) ((long) size * (t + 1) / threads);
+      futures.add(writers.submit(() -> task.run(from, to)));
+    }
+    for (var future : futures) {
+      future.get();
+    }
+  }
+}
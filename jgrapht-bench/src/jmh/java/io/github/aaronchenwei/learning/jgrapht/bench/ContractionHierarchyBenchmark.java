@@ -0,0 +1,131 @@
+package io.github.aaronchenwei.learning.jgrapht.bench;
+
+import io.github.aaronchenwei.learning.jgrapht.shortestpath.ContractionHierarchy;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import org.jgrapht.Graph;
+import org.jgrapht.alg.shortestpath.BidirectionalDijkstraShortestPath;
+import org.jgrapht.alg.shortestpath.ContractionHierarchyBidirectionalDijkstra;
+import org.jgrapht.alg.shortestpath.ContractionHierarchyPrecomputation;
+import org.jgrapht.alg.shortestpath.DijkstraShortestPath;
+import org.jgrapht.graph.DefaultWeightedEdge;
+import org.jgrapht.graph.SimpleDirectedWeightedGraph;
+import org.jgrapht.util.ConcurrencyUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Point-to-point shortest-path latency on a road-like {@code SimpleDirectedWeightedGraph}: plain and bidirectional
+ * Dijkstra, the jgrapht contraction hierarchy, and {@link ContractionHierarchy}. The graph is a square grid of
+ * two-way streets with random weights, in which every 16th row and column is a fast arterial road.
+ *
+ * <p>{@code query} probes random vertex pairs against a hierarchy built once per trial in setup, so that neither
+ * hierarchy's preprocessing is measured; {@code preprocess} measures a single build of {@link ContractionHierarchy}
+ * on the common pool.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class ContractionHierarchyBenchmark {
+
+  private static final int PROBES = 1 << 12;
+
+  public enum Target {
+    DIJKSTRA,
+    BIDIRECTIONAL_DIJKSTRA,
+    JGRAPHT_CONTRACTION_HIERARCHY,
+    CONTRACTION_HIERARCHY
+  }
+
+  @Param
+  public Target target;
+
+  @Param({"100", "300", "1000"})
+  public int side;
+
+  private Graph<Integer, DefaultWeightedEdge> graph;
+  private QueryFunction query;
+  private int[] probes;
+  private int next;
+
+  @FunctionalInterface
+  private interface QueryFunction {
+    double weight(int source, int target);
+  }
+
+  @Setup(Level.Trial)
+  public void build() throws InterruptedException {
+    graph = roadGrid(side, 42L);
+    query = switch (target) {
+      case DIJKSTRA -> new DijkstraShortestPath<>(graph)::getPathWeight;
+      case BIDIRECTIONAL_DIJKSTRA -> new BidirectionalDijkstraShortestPath<>(graph)::getPathWeight;
+      case JGRAPHT_CONTRACTION_HIERARCHY -> new ContractionHierarchyBidirectionalDijkstra<>(
+        jgraphtHierarchy(graph))::getPathWeight;
+      case CONTRACTION_HIERARCHY -> ContractionHierarchy.build(ForkJoinPool.commonPool(), graph).newQuery()::distance;
+    };
+    var random = new SplittableRandom(7L);
+    int n = side * side;
+    probes = new int[2 * PROBES];
+    for (int i = 0; i < probes.length; i++) {
+      probes[i] = random.nextInt(n);
+    }
+  }
+
+  @Benchmark
+  public double query() {
+    int i = next;
+    next = (i + 2) & (probes.length - 1);
+    return query.weight(probes[i], probes[i + 1]);
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.SingleShotTime)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public ContractionHierarchy<Integer> preprocess() {
+    return ContractionHierarchy.build(ForkJoinPool.commonPool(), graph);
+  }
+
+  private static ContractionHierarchyPrecomputation.ContractionHierarchy<Integer, DefaultWeightedEdge> jgraphtHierarchy(
+    Graph<Integer, DefaultWeightedEdge> graph) throws InterruptedException {
+    var executor = ConcurrencyUtil.createThreadPoolExecutor(Runtime.getRuntime().availableProcessors());
+    try {
+      return new ContractionHierarchyPrecomputation<>(graph, executor).computeContractionHierarchy();
+    } finally {
+      ConcurrencyUtil.shutdownExecutionService(executor);
+    }
+  }
+
+  static Graph<Integer, DefaultWeightedEdge> roadGrid(int side, long seed) {
+    var random = new SplittableRandom(seed);
+    var graph = new SimpleDirectedWeightedGraph<Integer, DefaultWeightedEdge>(DefaultWeightedEdge.class);
+    int n = side * side;
+    for (int v = 0; v < n; v++) {
+      graph.addVertex(v);
+    }
+    for (int v = 0; v < n; v++) {
+      int row = v / side;
+      int column = v % side;
+      if (column + 1 < side) {
+        addStreet(graph, v, v + 1, row % 16 == 0, random);
+      }
+      if (row + 1 < side) {
+        addStreet(graph, v, v + side, column % 16 == 0, random);
+      }
+    }
+    return graph;
+  }
+
+  private static void addStreet(Graph<Integer, DefaultWeightedEdge> graph, int u, int v, boolean arterial,
+    SplittableRandom random) {
+    graph.setEdgeWeight(graph.addEdge(u, v), arterial ? 1 + random.nextInt(3) : 5 + random.nextInt(20));
+    graph.setEdgeWeight(graph.addEdge(v, u), arterial ? 1 + random.nextInt(3) : 5 + random.nextInt(20));
+  }
+}
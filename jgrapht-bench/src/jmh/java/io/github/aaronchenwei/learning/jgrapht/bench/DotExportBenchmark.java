@@ -0,0 +1,120 @@
+package io.github.aaronchenwei.learning.jgrapht.bench;
+
+import io.github.aaronchenwei.learning.jgrapht.nio.StreamingDotExporter;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.jgrapht.Graph;
+import org.jgrapht.nio.Attribute;
+import org.jgrapht.nio.DefaultAttribute;
+import org.jgrapht.nio.dot.DOTExporter;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * DOT export with {@code DOTExporter} into a {@code StringWriter}, as {@code renderHrefGraph} does, versus
+ * {@code StreamingDotExporter} into a channel that discards its input.
+ *
+ * <p>The {@code retainedBytes} counter is the size of the output buffer left behind by one export: the capacity of
+ * the {@code StringWriter} (two bytes per char, the worst case), which grows with the graph, against the fixed
+ * buffer of the streaming exporter. The {@code gc.alloc.rate.norm} column of the gc profiler shows the per-element
+ * attribute maps on top of that.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class DotExportBenchmark {
+
+  private static final int BUFFER_SIZE = 64 * 1024;
+
+  @Param({"10000", "100000", "1000000"})
+  public int vertexCount;
+
+  @Param({"4"})
+  public int edgesPerVertex;
+
+  private Graph<Integer, ?> graph;
+
+  @Setup(Level.Trial)
+  public void build() {
+    graph = GraphKind.DEFAULT_DIRECTED_GRAPH.build(EdgeList.random(vertexCount, vertexCount * edgesPerVertex, 42L));
+  }
+
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.EVENTS)
+  public static class Counters {
+    public long retainedBytes;
+
+    @Setup(Level.Iteration)
+    public void reset() {
+      retainedBytes = 0;
+    }
+  }
+
+  @Benchmark
+  public StringWriter dotExporter(Counters counters) {
+    var writer = exportToString(graph);
+    counters.retainedBytes = 2L * writer.getBuffer().capacity();
+    return writer;
+  }
+
+  @Benchmark
+  public long streamingDotExporter(Counters counters) throws IOException {
+    var channel = new DiscardingChannel();
+    exportToChannel(graph, channel);
+    counters.retainedBytes = BUFFER_SIZE;
+    return channel.written;
+  }
+
+  private static <E> StringWriter exportToString(Graph<Integer, E> graph) {
+    var exporter = new DOTExporter<Integer, E>(String::valueOf);
+    exporter.setVertexAttributeProvider(v -> {
+      Map<String, Attribute> map = new LinkedHashMap<>();
+      map.put("label", DefaultAttribute.createAttribute("v" + v));
+      return map;
+    });
+    var writer = new StringWriter();
+    exporter.exportGraph(graph, writer);
+    return writer;
+  }
+
+  private static <E> void exportToChannel(Graph<Integer, E> graph, WritableByteChannel channel) throws IOException {
+    var exporter = new StreamingDotExporter<Integer, E>(String::valueOf);
+    exporter.setVertexAttributeWriter((v, attributes) -> attributes.put("label", "v" + v));
+    exporter.setBufferSize(BUFFER_SIZE);
+    exporter.exportGraph(graph, channel);
+  }
+
+  private static final class DiscardingChannel implements WritableByteChannel {
+    long written;
+
+    @Override
+    public int write(ByteBuffer src) {
+      int n = src.remaining();
+      src.position(src.limit());
+      written += n;
+      return n;
+    }
+
+    @Override
+    public boolean isOpen() {
+      return true;
+    }
+
+    @Override
+    public void close() {
+    }
+  }
+}
@@ -0,0 +1,70 @@
+package io.github.aaronchenwei.learning.jgrapht.bench;
+
+import java.util.SplittableRandom;
+
+/**
+ * A primitive, seeded random edge list used as the common input of every benchmark.
+ *
+ * <p>Endpoints are drawn uniformly from {@code 0..n-1} and self-loops are never generated, so the same list can be
+ * loaded into every graph kind; simple graphs silently drop the rare duplicate pair.
+ */
+public final class EdgeList {
+
+  private final int vertexCount;
+  private final int[] sources;
+  private final int[] targets;
+  private final double[] weights;
+
+  private EdgeList(int vertexCount, int[] sources, int[] targets, double[] weights) {
+    this.vertexCount = vertexCount;
+    this.sources = sources;
+    this.targets = targets;
+    this.weights = weights;
+  }
+
+  /**
+   * Generates a random edge list.
+   *
+   * @param vertexCount the number of vertices, at least 2.
+   * @param edgeCount the number of edges.
+   * @param seed the random seed.
+   * @return the edge list.
+   */
+  public static EdgeList random(int vertexCount, int edgeCount, long seed) {
+    if (vertexCount < 2) {
+      throw new IllegalArgumentException("at least two vertices are required");
+    }
+    var random = new SplittableRandom(seed);
+    var sources = new int[edgeCount];
+    var targets = new int[edgeCount];
+    var weights = new double[edgeCount];
+    for (int i = 0; i < edgeCount; i++) {
+      int u = random.nextInt(vertexCount);
+      int v = random.nextInt(vertexCount - 1);
+      sources[i] = u;
+      targets[i] = v >= u ? v + 1 : v;
+      weights[i] = random.nextDouble();
+    }
+    return new EdgeList(vertexCount, sources, targets, weights);
+  }
+
+  public int vertexCount() {
+    return vertexCount;
+  }
+
+  public int edgeCount() {
+    return sources.length;
+  }
+
+  public int source(int i) {
+    return sources[i];
+  }
+
+  public int target(int i) {
+    return targets[i];
+  }
+
+  public double weight(int i) {
+    return weights[i];
+  }
+}
@@ -0,0 +1,86 @@
+package io.github.aaronchenwei.learning.jgrapht.bench;
+
+import io.github.aaronchenwei.learning.jgrapht.generate.GeneratedGraph;
+import io.github.aaronchenwei.learning.jgrapht.generate.ParallelGenerators;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Edge generation rate of {@link ParallelGenerators} by pool size, for graphs of about
+ * {@code vertexCount * edgesPerVertex} edges.
+ *
+ * <p>The complete graph has {@code sqrt(2 * vertexCount * edgesPerVertex)} vertices so that it reaches the same
+ * edge count. The {@code edges} counter is the generation rate (edges per second).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+public class GeneratorBenchmark {
+
+  public enum Model {
+    COMPLETE,
+    GNP,
+    BARABASI_ALBERT,
+    RMAT
+  }
+
+  @Param
+  public Model model;
+
+  @Param({"1000000", "10000000"})
+  public int vertexCount;
+
+  @Param({"8"})
+  public int edgesPerVertex;
+
+  @Param({"1", "2", "4", "8", "16"})
+  public int threads;
+
+  private ForkJoinPool pool;
+
+  @Setup(Level.Trial)
+  public void createPool() {
+    pool = new ForkJoinPool(threads);
+  }
+
+  @TearDown(Level.Trial)
+  public void shutdown() {
+    pool.shutdown();
+  }
+
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.OPERATIONS)
+  public static class Counters {
+    public long edges;
+
+    @Setup(Level.Iteration)
+    public void reset() {
+      edges = 0;
+    }
+  }
+
+  @Benchmark
+  public GeneratedGraph generate(Counters counters) {
+    long m = (long) vertexCount * edgesPerVertex;
+    var graph = switch (model) {
+      case COMPLETE -> ParallelGenerators.complete(pool, (int) Math.sqrt(2.0 * m));
+      case GNP -> ParallelGenerators.gnp(pool, vertexCount, 2.0 * edgesPerVertex / (vertexCount - 1), 42L);
+      case BARABASI_ALBERT -> ParallelGenerators.barabasiAlbert(pool, vertexCount, edgesPerVertex, 42L);
+      case RMAT -> ParallelGenerators.rmat(pool, 32 - Integer.numberOfLeadingZeros(vertexCount - 1), (int) m,
+        0.57, 0.19, 0.19, 42L);
+    };
+    counters.edges += graph.edgeCount();
+    return graph;
+  }
+}
@@ -0,0 +1,51 @@
+package io.github.aaronchenwei.learning.jgrapht.bench;
+
+import io.github.aaronchenwei.learning.jgrapht.bench.GraphInsertionBenchmark.Counters;
+import java.util.concurrent.TimeUnit;
+import org.jgrapht.Graph;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Construction throughput of every graph kind from a complete edge list, with {@link GraphKind#build}: one
+ * {@code addVertex}/{@code addEdge} call at a time for the mutable kinds, one bulk construction for the others.
+ *
+ * <p>The auxiliary counters report the build as {@code vertices} and {@code edges} rates (per second), as in
+ * {@link GraphInsertionBenchmark}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+public class GraphBuildBenchmark {
+
+  @Param
+  public GraphKind kind;
+
+  @Param({"10000", "100000", "1000000", "10000000"})
+  public int vertexCount;
+
+  @Param({"4"})
+  public int edgesPerVertex;
+
+  private EdgeList edges;
+
+  @Setup(Level.Trial)
+  public void generate() {
+    edges = EdgeList.random(vertexCount, vertexCount * edgesPerVertex, 42L);
+  }
+
+  @Benchmark
+  public Graph<Integer, ?> build(Counters counters) {
+    var graph = kind.build(edges);
+    counters.vertices += edges.vertexCount();
+    counters.edges += edges.edgeCount();
+    return graph;
+  }
+}
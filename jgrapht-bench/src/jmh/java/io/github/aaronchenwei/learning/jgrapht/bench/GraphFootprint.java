@@ -0,0 +1,67 @@
+package io.github.aaronchenwei.learning.jgrapht.bench;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Prints the retained heap per vertex and per edge of every graph kind, and of the {@code URI} vertex graphs of
+ * {@link UriGraphBenchmark} (whose numbers include the {@code URI} objects).
+ *
+ * <p>JMH measures time, not space, so the footprint is taken separately: the used heap after a full collection is
+ * sampled before and after building a graph, while the input edge list is kept alive on both sides of the
+ * measurement. Run it with {@code ./gradlew :jgrapht-bench:footprint -PfootprintArgs=10000,100000}.
+ */
+public final class GraphFootprint {
+
+  private static final int EDGES_PER_VERTEX = 4;
+
+  private GraphFootprint() {
+  }
+
+  public static void main(String[] args) {
+    List<Integer> sizes = new ArrayList<>();
+    if (args.length == 0) {
+      sizes.addAll(Arrays.asList(10_000, 100_000, 1_000_000, 10_000_000));
+    } else {
+      for (var arg : args) {
+        sizes.add(Integer.parseInt(arg.trim()));
+      }
+    }
+
+    System.out.printf("%-38s %10s %12s %14s %14s%n", "kind", "vertices", "edges", "bytes/vertex", "bytes/edge");
+    for (int n : sizes) {
+      var edges = EdgeList.random(n, n * EDGES_PER_VERTEX, 42L);
+      for (var kind : GraphKind.values()) {
+        long before = usedHeap();
+        var graph = kind.build(edges);
+        long retained = usedHeap() - before;
+        System.out.printf("%-38s %10d %12d %14.1f %14.1f%n", kind, n, graph.edgeSet().size(),
+          (double) retained / n, (double) retained / graph.edgeSet().size());
+      }
+      for (var target : UriGraphBenchmark.Target.values()) {
+        long before = usedHeap();
+        var graph = UriGraphBenchmark.build(target, edges);
+        long retained = usedHeap() - before;
+        System.out.printf("%-38s %10d %12d %14.1f %14.1f%n", "URI " + target, n, graph.edgeSet().size(),
+          (double) retained / n, (double) retained / graph.edgeSet().size());
+      }
+    }
+  }
+
+  private static long usedHeap() {
+    var memory = ManagementFactory.getMemoryMXBean();
+    long used = Long.MAX_VALUE;
+    // a single System.gc() is only a hint; keep collecting until the number stops shrinking
+    for (int i = 0; i < 5; i++) {
+      System.gc();
+      long sample = memory.getHeapMemoryUsage().getUsed();
+      if (sample >= used) {
+        break;
+      }
+      used = sample;
+    }
+    return used;
+  }
+}
@@ -0,0 +1,117 @@
+package io.github.aaronchenwei.learning.jgrapht.bench;
+
+import io.github.aaronchenwei.learning.jgrapht.graph.IntCsrGraph;
+import io.github.aaronchenwei.learning.jgrapht.nio.GraphImportPipeline;
+import io.github.aaronchenwei.learning.jgrapht.nio.ImportStatistics;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import org.jgrapht.Graph;
+import org.jgrapht.graph.DefaultEdge;
+import org.jgrapht.graph.Pseudograph;
+import org.jgrapht.nio.csv.CSVFormat;
+import org.jgrapht.nio.csv.CSVImporter;
+import org.jgrapht.nio.dot.DOTImporter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Importing a CSV or DOT file with the single-threaded jgrapht-io importers versus {@code GraphImportPipeline},
+ * either inserted into the same {@code Pseudograph} or built into an {@code IntCsrGraph}.
+ *
+ * <p>The per-stage throughput of the last pipeline run of each iteration is printed as well.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class GraphImportBenchmark {
+
+  @Param({"CSV", "DOT"})
+  public GraphImportPipeline.Format format;
+
+  @Param({"100000", "1000000"})
+  public int vertexCount;
+
+  @Param({"4"})
+  public int edgesPerVertex;
+
+  private Path file;
+  private ImportStatistics statistics;
+
+  @Setup(Level.Trial)
+  public void write() throws IOException {
+    var edges = EdgeList.random(vertexCount, vertexCount * edgesPerVertex, 42L);
+    file = Files.createTempFile("graph-import", format == GraphImportPipeline.Format.CSV ? ".csv" : ".dot");
+    try (BufferedWriter writer = Files.newBufferedWriter(file)) {
+      if (format == GraphImportPipeline.Format.DOT) {
+        writer.write("graph G {\n");
+      }
+      for (int e = 0; e < edges.edgeCount(); e++) {
+        if (format == GraphImportPipeline.Format.CSV) {
+          writer.write(edges.source(e) + "," + edges.target(e) + "\n");
+        } else {
+          writer.write("  " + edges.source(e) + " -- " + edges.target(e) + ";\n");
+        }
+      }
+      if (format == GraphImportPipeline.Format.DOT) {
+        writer.write("}\n");
+      }
+    }
+  }
+
+  @TearDown(Level.Iteration)
+  public void printStatistics() {
+    if (statistics != null) {
+      System.out.print(statistics);
+      statistics = null;
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void delete() throws IOException {
+    Files.deleteIfExists(file);
+  }
+
+  @Benchmark
+  public Graph<String, DefaultEdge> jgraphtImporter() {
+    var graph = new Pseudograph<String, DefaultEdge>(DefaultEdge.class);
+    if (format == GraphImportPipeline.Format.CSV) {
+      var importer = new CSVImporter<String, DefaultEdge>(CSVFormat.EDGE_LIST);
+      importer.setVertexFactory(Function.identity());
+      importer.importGraph(graph, file.toFile());
+    } else {
+      var importer = new DOTImporter<String, DefaultEdge>();
+      importer.setVertexFactory(Function.identity());
+      importer.importGraph(graph, file.toFile());
+    }
+    return graph;
+  }
+
+  @Benchmark
+  public Graph<String, DefaultEdge> pipelineInsert() throws IOException {
+    var imported = new GraphImportPipeline(format).read(file);
+    var graph = new Pseudograph<String, DefaultEdge>(DefaultEdge.class);
+    imported.insertInto(graph, Function.identity());
+    statistics = imported.statistics();
+    return graph;
+  }
+
+  @Benchmark
+  public IntCsrGraph pipelineCsr() throws IOException {
+    var imported = new GraphImportPipeline(format).read(file);
+    var graph = imported.toCsrGraph();
+    statistics = imported.statistics();
+    return graph;
+  }
+}
@@ -0,0 +1,91 @@
+package io.github.aaronchenwei.learning.jgrapht.bench;
+
+import java.util.concurrent.TimeUnit;
+import org.jgrapht.Graph;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Vertex and edge insertion throughput of every {@link GraphKind#isMutable() mutable} graph kind. The kinds that can
+ * only be built in one go have no insertion path to time; {@link GraphBuildBenchmark} covers their construction.
+ *
+ * <p>The auxiliary counters turn one pass over the edge list into {@code vertices} and {@code edges} rates (per
+ * second), which are comparable across graph sizes.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+public class GraphInsertionBenchmark {
+
+  @Param({
+    "SIMPLE_GRAPH", "MULTIGRAPH", "PSEUDOGRAPH", "DEFAULT_UNDIRECTED_GRAPH",
+    "SIMPLE_WEIGHTED_GRAPH", "WEIGHTED_MULTIGRAPH", "WEIGHTED_PSEUDOGRAPH", "DEFAULT_UNDIRECTED_WEIGHTED_GRAPH",
+    "SIMPLE_DIRECTED_GRAPH", "DIRECTED_MULTIGRAPH", "DIRECTED_PSEUDOGRAPH", "DEFAULT_DIRECTED_GRAPH",
+    "SIMPLE_DIRECTED_WEIGHTED_GRAPH", "DIRECTED_WEIGHTED_MULTIGRAPH", "DIRECTED_WEIGHTED_PSEUDOGRAPH",
+    "DEFAULT_DIRECTED_WEIGHTED_GRAPH", "INT_ARRAY_GRAPH"
+  })
+  public GraphKind kind;
+
+  @Param({"10000", "100000", "1000000", "10000000"})
+  public int vertexCount;
+
+  @Param({"4"})
+  public int edgesPerVertex;
+
+  private EdgeList edges;
+
+  @Setup(Level.Trial)
+  public void generate() {
+    edges = EdgeList.random(vertexCount, vertexCount * edgesPerVertex, 42L);
+  }
+
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.OPERATIONS)
+  public static class Counters {
+    public long vertices;
+    public long edges;
+
+    @Setup(Level.Iteration)
+    public void reset() {
+      vertices = 0;
+      edges = 0;
+    }
+  }
+
+  /**
+   * A graph that already holds every vertex, so that {@link #insertEdges} only times edge insertion.
+   */
+  @State(Scope.Thread)
+  public static class VerticesOnly {
+    Graph<Integer, ?> graph;
+
+    @Setup(Level.Invocation)
+    public void create(GraphInsertionBenchmark benchmark) {
+      graph = benchmark.kind.createEmpty();
+      GraphKind.addVertices(graph, benchmark.edges);
+    }
+  }
+
+  @Benchmark
+  public Graph<Integer, ?> insertVertices(Counters counters) {
+    var graph = kind.createEmpty();
+    GraphKind.addVertices(graph, edges);
+    counters.vertices += edges.vertexCount();
+    return graph;
+  }
+
+  @Benchmark
+  public Graph<Integer, ?> insertEdges(VerticesOnly state, Counters counters) {
+    GraphKind.addEdges(state.graph, edges);
+    counters.edges += edges.edgeCount();
+    return state.graph;
+  }
+}
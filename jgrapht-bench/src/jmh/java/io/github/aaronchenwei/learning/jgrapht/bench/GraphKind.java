@@ -0,0 +1,278 @@
+package io.github.aaronchenwei.learning.jgrapht.bench;
+
+import io.github.aaronchenwei.learning.jgrapht.graph.CompressedIntGraph;
+import io.github.aaronchenwei.learning.jgrapht.graph.IntArrayGraph;
+import io.github.aaronchenwei.learning.jgrapht.graph.IntCsrGraph;
+import java.util.ArrayList;
+import java.util.List;
+import org.jgrapht.Graph;
+import org.jgrapht.alg.util.Pair;
+import org.jgrapht.alg.util.Triple;
+import org.jgrapht.graph.DefaultDirectedGraph;
+import org.jgrapht.graph.DefaultDirectedWeightedGraph;
+import org.jgrapht.graph.DefaultEdge;
+import org.jgrapht.graph.DefaultGraphType;
+import org.jgrapht.graph.DefaultUndirectedGraph;
+import org.jgrapht.graph.DefaultUndirectedWeightedGraph;
+import org.jgrapht.graph.DefaultWeightedEdge;
+import org.jgrapht.graph.DirectedMultigraph;
+import org.jgrapht.graph.DirectedPseudograph;
+import org.jgrapht.graph.DirectedWeightedMultigraph;
+import org.jgrapht.graph.DirectedWeightedPseudograph;
+import org.jgrapht.graph.Multigraph;
+import org.jgrapht.graph.Pseudograph;
+import org.jgrapht.graph.SimpleDirectedGraph;
+import org.jgrapht.graph.SimpleDirectedWeightedGraph;
+import org.jgrapht.graph.SimpleGraph;
+import org.jgrapht.graph.SimpleWeightedGraph;
+import org.jgrapht.graph.WeightedMultigraph;
+import org.jgrapht.graph.WeightedPseudograph;
+import org.jgrapht.opt.graph.sparse.SparseIntDirectedGraph;
+import org.jgrapht.opt.graph.sparse.SparseIntDirectedWeightedGraph;
+import org.jgrapht.opt.graph.sparse.SparseIntUndirectedGraph;
+import org.jgrapht.opt.graph.sparse.SparseIntUndirectedWeightedGraph;
+
+/**
+ * The graph structures exercised in {@code GraphStructuresIntegerTests}, in the same order, with the primitive
+ * {@link IntArrayGraph} after the mutable kinds and {@link IntCsrGraph} after the sparse ones.
+ *
+ * <p>Mutable kinds are built one {@code addVertex}/{@code addEdge} call at a time; the jgrapht-opt sparse kinds and
+ * {@link IntCsrGraph} can only be built in one go from a complete edge list.
+ */
+public enum GraphKind {
+  SIMPLE_GRAPH(true) {
+    @Override
+    public Graph<Integer, ?> createEmpty() {
+      return new SimpleGraph<>(DefaultEdge.class);
+    }
+  },
+  MULTIGRAPH(true) {
+    @Override
+    public Graph<Integer, ?> createEmpty() {
+      return new Multigraph<>(DefaultEdge.class);
+    }
+  },
+  PSEUDOGRAPH(true) {
+    @Override
+    public Graph<Integer, ?> createEmpty() {
+      return new Pseudograph<>(DefaultEdge.class);
+    }
+  },
+  DEFAULT_UNDIRECTED_GRAPH(true) {
+    @Override
+    public Graph<Integer, ?> createEmpty() {
+      return new DefaultUndirectedGraph<>(DefaultEdge.class);
+    }
+  },
+  SIMPLE_WEIGHTED_GRAPH(true) {
+    @Override
+    public Graph<Integer, ?> createEmpty() {
+      return new SimpleWeightedGraph<>(DefaultWeightedEdge.class);
+    }
+  },
+  WEIGHTED_MULTIGRAPH(true) {
+    @Override
+    public Graph<Integer, ?> createEmpty() {
+      return new WeightedMultigraph<>(DefaultWeightedEdge.class);
+    }
+  },
+  WEIGHTED_PSEUDOGRAPH(true) {
+    @Override
+    public Graph<Integer, ?> createEmpty() {
+      return new WeightedPseudograph<>(DefaultWeightedEdge.class);
+    }
+  },
+  DEFAULT_UNDIRECTED_WEIGHTED_GRAPH(true) {
+    @Override
+    public Graph<Integer, ?> createEmpty() {
+      return new DefaultUndirectedWeightedGraph<>(DefaultWeightedEdge.class);
+    }
+  },
+  SIMPLE_DIRECTED_GRAPH(true) {
+    @Override
+    public Graph<Integer, ?> createEmpty() {
+      return new SimpleDirectedGraph<>(DefaultEdge.class);
+    }
+  },
+  DIRECTED_MULTIGRAPH(true) {
+    @Override
+    public Graph<Integer, ?> createEmpty() {
+      return new DirectedMultigraph<>(DefaultEdge.class);
+    }
+  },
+  DIRECTED_PSEUDOGRAPH(true) {
+    @Override
+    public Graph<Integer, ?> createEmpty() {
+      return new DirectedPseudograph<>(DefaultEdge.class);
+    }
+  },
+  DEFAULT_DIRECTED_GRAPH(true) {
+    @Override
+    public Graph<Integer, ?> createEmpty() {
+      return new DefaultDirectedGraph<>(DefaultEdge.class);
+    }
+  },
+  SIMPLE_DIRECTED_WEIGHTED_GRAPH(true) {
+    @Override
+    public Graph<Integer, ?> createEmpty() {
+      return new SimpleDirectedWeightedGraph<>(DefaultWeightedEdge.class);
+    }
+  },
+  DIRECTED_WEIGHTED_MULTIGRAPH(true) {
+    @Override
+    public Graph<Integer, ?> createEmpty() {
+      return new DirectedWeightedMultigraph<>(DefaultWeightedEdge.class);
+    }
+  },
+  DIRECTED_WEIGHTED_PSEUDOGRAPH(true) {
+    @Override
+    public Graph<Integer, ?> createEmpty() {
+      return new DirectedWeightedPseudograph<>(DefaultWeightedEdge.class);
+    }
+  },
+  DEFAULT_DIRECTED_WEIGHTED_GRAPH(true) {
+    @Override
+    public Graph<Integer, ?> createEmpty() {
+      return new DefaultDirectedWeightedGraph<>(DefaultWeightedEdge.class);
+    }
+  },
+  INT_ARRAY_GRAPH(true) {
+    @Override
+    public Graph<Integer, ?> createEmpty() {
+      return new IntArrayGraph(DefaultGraphType.simple());
+    }
+  },
+  SPARSE_INT_UNDIRECTED_GRAPH(false) {
+    @Override
+    public Graph<Integer, ?> build(EdgeList edges) {
+      List<Pair<Integer, Integer>> pairs = new ArrayList<>(edges.edgeCount());
+      for (int i = 0; i < edges.edgeCount(); i++) {
+        pairs.add(Pair.of(edges.source(i), edges.target(i)));
+      }
+      return new SparseIntUndirectedGraph(edges.vertexCount(), pairs);
+    }
+  },
+  SPARSE_INT_UNDIRECTED_WEIGHTED_GRAPH(false) {
+    @Override
+    public Graph<Integer, ?> build(EdgeList edges) {
+      List<Triple<Integer, Integer, Double>> triples = new ArrayList<>(edges.edgeCount());
+      for (int i = 0; i < edges.edgeCount(); i++) {
+        triples.add(Triple.of(edges.source(i), edges.target(i), edges.weight(i)));
+      }
+      return new SparseIntUndirectedWeightedGraph(edges.vertexCount(), triples);
+    }
+  },
+  SPARSE_INT_DIRECTED_GRAPH(false) {
+    @Override
+    public Graph<Integer, ?> build(EdgeList edges) {
+      List<Pair<Integer, Integer>> pairs = new ArrayList<>(edges.edgeCount());
+      for (int i = 0; i < edges.edgeCount(); i++) {
+        pairs.add(Pair.of(edges.source(i), edges.target(i)));
+      }
+      return new SparseIntDirectedGraph(edges.vertexCount(), pairs);
+    }
+  },
+  SPARSE_INT_DIRECTED_WEIGHTED_GRAPH(false) {
+    @Override
+    public Graph<Integer, ?> build(EdgeList edges) {
+      List<Triple<Integer, Integer, Double>> triples = new ArrayList<>(edges.edgeCount());
+      for (int i = 0; i < edges.edgeCount(); i++) {
+        triples.add(Triple.of(edges.source(i), edges.target(i), edges.weight(i)));
+      }
+      return new SparseIntDirectedWeightedGraph(edges.vertexCount(), triples);
+    }
+  },
+  INT_CSR_GRAPH(false) {
+    @Override
+    public Graph<Integer, ?> build(EdgeList edges) {
+      return IntCsrGraph.undirected(edges.vertexCount(), sources(edges), targets(edges), null);
+    }
+  },
+  INT_CSR_DIRECTED_GRAPH(false) {
+    @Override
+    public Graph<Integer, ?> build(EdgeList edges) {
+      return IntCsrGraph.directed(edges.vertexCount(), sources(edges), targets(edges), null);
+    }
+  },
+  COMPRESSED_INT_GRAPH(false) {
+    @Override
+    public Graph<Integer, ?> build(EdgeList edges) {
+      return new CompressedIntGraph.Compressor().compress(edges.vertexCount(), sources(edges), targets(edges));
+    }
+  };
+
+  private final boolean mutable;
+
+  GraphKind(boolean mutable) {
+    this.mutable = mutable;
+  }
+
+  /**
+   * Whether graphs of this kind can be grown one vertex and one edge at a time.
+   *
+   * @return true if {@link #createEmpty()} is supported.
+   */
+  public boolean isMutable() {
+    return mutable;
+  }
+
+  /**
+   * Creates an empty graph of this kind.
+   *
+   * @return an empty graph.
+   * @throws UnsupportedOperationException if the kind is not {@link #isMutable() mutable}.
+   */
+  public Graph<Integer, ?> createEmpty() {
+    throw new UnsupportedOperationException(name() + " cannot be built incrementally");
+  }
+
+  /**
+   * Builds a graph of this kind containing the vertices {@code 0..n-1} and every edge of the list.
+   *
+   * @param edges the edge list.
+   * @return the graph.
+   */
+  public Graph<Integer, ?> build(EdgeList edges) {
+    var graph = createEmpty();
+    addVertices(graph, edges);
+    addEdges(graph, edges);
+    return graph;
+  }
+
+  private static int[] sources(EdgeList edges) {
+    var sources = new int[edges.edgeCount()];
+    for (int i = 0; i < sources.length; i++) {
+      sources[i] = edges.source(i);
+    }
+    return sources;
+  }
+
+  private static int[] targets(EdgeList edges) {
+    var targets = new int[edges.edgeCount()];
+    for (int i = 0; i < targets.length; i++) {
+      targets[i] = edges.target(i);
+    }
+    return targets;
+  }
+
+  static void addVertices(Graph<Integer, ?> graph, EdgeList edges) {
+    for (int v = 0; v < edges.vertexCount(); v++) {
+      graph.addVertex(v);
+    }
+  }
+
+  static void addEdges(Graph<Integer, ?> graph, EdgeList edges) {
+    addEdgesTo(graph, edges);
+  }
+
+  private static <E> void addEdgesTo(Graph<Integer, E> graph, EdgeList edges) {
+    boolean weighted = graph.getType().isWeighted();
+    for (int i = 0; i < edges.edgeCount(); i++) {
+      E edge = graph.addEdge(edges.source(i), edges.target(i));
+      // simple graphs reject a duplicate pair and return null
+      if (weighted && edge != null) {
+        graph.setEdgeWeight(edge, edges.weight(i));
+      }
+    }
+  }
+}
@@ -0,0 +1,77 @@
+package io.github.aaronchenwei.learning.jgrapht.bench;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.jgrapht.Graph;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Latency of {@code edgesOf} and {@code getAllEdges} on a fully built graph of every kind.
+ *
+ * <p>Each invocation probes the next vertex (or edge) of a pre-shuffled sequence, so that the numbers include the
+ * cache misses of a random access pattern instead of hitting the same hot entry.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class GraphQueryBenchmark {
+
+  private static final int PROBES = 1 << 16;
+
+  @Param
+  public GraphKind kind;
+
+  @Param({"10000", "100000", "1000000", "10000000"})
+  public int vertexCount;
+
+  @Param({"4"})
+  public int edgesPerVertex;
+
+  private Graph<Integer, ?> graph;
+  private int[] vertexProbes;
+  private int[] sourceProbes;
+  private int[] targetProbes;
+  private int next;
+
+  @Setup(Level.Trial)
+  public void build() {
+    var edges = EdgeList.random(vertexCount, vertexCount * edgesPerVertex, 42L);
+    graph = kind.build(edges);
+
+    var random = new SplittableRandom(7L);
+    vertexProbes = new int[PROBES];
+    sourceProbes = new int[PROBES];
+    targetProbes = new int[PROBES];
+    for (int i = 0; i < PROBES; i++) {
+      vertexProbes[i] = random.nextInt(vertexCount);
+      int e = random.nextInt(edges.edgeCount());
+      sourceProbes[i] = edges.source(e);
+      targetProbes[i] = edges.target(e);
+    }
+  }
+
+  @Benchmark
+  public void edgesOf(Blackhole blackhole) {
+    int i = next++ & (PROBES - 1);
+    for (var edge : graph.edgesOf(vertexProbes[i])) {
+      blackhole.consume(edge);
+    }
+  }
+
+  @Benchmark
+  public void getAllEdges(Blackhole blackhole) {
+    int i = next++ & (PROBES - 1);
+    for (var edge : graph.getAllEdges(sourceProbes[i], targetProbes[i])) {
+      blackhole.consume(edge);
+    }
+  }
+}
@@ -0,0 +1,113 @@
+package io.github.aaronchenwei.learning.jgrapht.bench;
+
+import io.github.aaronchenwei.learning.jgrapht.connectivity.IncrementalConnectivity;
+import io.github.aaronchenwei.learning.jgrapht.connectivity.IncrementalStrongConnectivity;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.jgrapht.alg.connectivity.ConnectivityInspector;
+import org.jgrapht.alg.connectivity.KosarajuStrongConnectivityInspector;
+import org.jgrapht.graph.DefaultEdge;
+import org.jgrapht.graph.DefaultListenableGraph;
+import org.jgrapht.graph.DirectedPseudograph;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Connectivity queries on a directed graph that keeps changing: a {@code writePercent} share of the operations
+ * replaces a random edge with a new random one, and the rest ask whether two random vertices are (weakly or strongly)
+ * connected.
+ *
+ * <p>The jgrapht targets recompute the components from scratch on the first query after a change, with
+ * {@code ConnectivityInspector} and {@code KosarajuStrongConnectivityInspector}; the other two keep them up to date
+ * with {@link IncrementalConnectivity} and {@link IncrementalStrongConnectivity}. The graph has about one edge per
+ * vertex, below and above which the components are respectively tiny or a single giant one.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+public class IncrementalConnectivityBenchmark {
+
+  public enum Target {
+    CONNECTIVITY_INSPECTOR,
+    KOSARAJU,
+    INCREMENTAL_CONNECTIVITY,
+    INCREMENTAL_STRONG_CONNECTIVITY
+  }
+
+  @Param
+  public Target target;
+
+  @Param({"10000", "100000"})
+  public int vertexCount;
+
+  @Param({"1", "10"})
+  public int writePercent;
+
+  private DefaultListenableGraph<Integer, DefaultEdge> graph;
+  private DefaultEdge[] edges;
+  private IncrementalConnectivity<Integer, DefaultEdge> connectivity;
+  private IncrementalStrongConnectivity<Integer, DefaultEdge> strongConnectivity;
+  private Map<Integer, Set<Integer>> components;
+  private SplittableRandom random;
+
+  @Setup(Level.Trial)
+  public void build() {
+    var list = EdgeList.random(vertexCount, vertexCount, 42L);
+    graph = new DefaultListenableGraph<>(new DirectedPseudograph<>(DefaultEdge.class));
+    GraphKind.addVertices(graph, list);
+    edges = new DefaultEdge[list.edgeCount()];
+    for (int i = 0; i < list.edgeCount(); i++) {
+      edges[i] = graph.addEdge(list.source(i), list.target(i));
+    }
+    switch (target) {
+      case INCREMENTAL_CONNECTIVITY -> connectivity = new IncrementalConnectivity<>(graph);
+      case INCREMENTAL_STRONG_CONNECTIVITY -> strongConnectivity = new IncrementalStrongConnectivity<>(graph);
+      default -> {
+      }
+    }
+    random = new SplittableRandom(7L);
+  }
+
+  @Benchmark
+  public boolean operation() {
+    if (random.nextInt(100) < writePercent) {
+      int i = random.nextInt(edges.length);
+      graph.removeEdge(edges[i]);
+      edges[i] = graph.addEdge(random.nextInt(vertexCount), random.nextInt(vertexCount));
+      components = null;
+      return false;
+    }
+    int u = random.nextInt(vertexCount);
+    int v = random.nextInt(vertexCount);
+    return switch (target) {
+      case CONNECTIVITY_INSPECTOR, KOSARAJU -> recomputed().get(u) == recomputed().get(v);
+      case INCREMENTAL_CONNECTIVITY -> connectivity.connected(u, v);
+      case INCREMENTAL_STRONG_CONNECTIVITY -> strongConnectivity.stronglyConnected(u, v);
+    };
+  }
+
+  private Map<Integer, Set<Integer>> recomputed() {
+    if (components == null) {
+      var sets = target == Target.KOSARAJU
+        ? new KosarajuStrongConnectivityInspector<>(graph).stronglyConnectedSets()
+        : new ConnectivityInspector<>(graph).connectedSets();
+      components = new HashMap<>();
+      for (var set : sets) {
+        for (var v : set) {
+          components.put(v, set);
+        }
+      }
+    }
+    return components;
+  }
+}
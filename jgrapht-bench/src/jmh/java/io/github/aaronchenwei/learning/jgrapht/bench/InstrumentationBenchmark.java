@@ -0,0 +1,110 @@
+package io.github.aaronchenwei.learning.jgrapht.bench;
+
+import io.github.aaronchenwei.learning.jgrapht.metrics.InstrumentedGraph;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.jgrapht.Graph;
+import org.jgrapht.graph.DefaultDirectedGraph;
+import org.jgrapht.graph.DefaultEdge;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * The cost of {@link InstrumentedGraph} on the hot-path queries of a random {@code DefaultDirectedGraph}.
+ *
+ * <p>{@code sampleInterval} 0 queries the graph itself, 1 times every call, and larger values time one call in that
+ * many, as in production; the difference to 0 is the overhead. {@code addEdge} adds edges between existing vertices
+ * to an edgeless copy of the graph that is rebuilt every iteration; once the probes wrap around, it measures the
+ * rejection of duplicates.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class InstrumentationBenchmark {
+
+  private static final int PROBES = 1 << 16;
+
+  @Param({"100000"})
+  public int vertexCount;
+
+  @Param({"4"})
+  public int edgesPerVertex;
+
+  @Param({"0", "1", "256"})
+  public int sampleInterval;
+
+  private EdgeList edges;
+  private Graph<Integer, DefaultEdge> graph;
+  private Graph<Integer, DefaultEdge> growing;
+  private int[] vertexProbes;
+  private int[] sourceProbes;
+  private int[] targetProbes;
+  private int next;
+
+  @Setup(Level.Trial)
+  public void build() {
+    edges = EdgeList.random(vertexCount, vertexCount * edgesPerVertex, 42L);
+    graph = instrument(newGraph());
+
+    var random = new SplittableRandom(7L);
+    vertexProbes = new int[PROBES];
+    sourceProbes = new int[PROBES];
+    targetProbes = new int[PROBES];
+    for (int i = 0; i < PROBES; i++) {
+      vertexProbes[i] = random.nextInt(vertexCount);
+      // half of the pairs are edges, half are random misses
+      int e = random.nextInt(edges.edgeCount());
+      sourceProbes[i] = edges.source(e);
+      targetProbes[i] = (i & 1) == 0 ? edges.target(e) : random.nextInt(vertexCount);
+    }
+  }
+
+  @Setup(Level.Iteration)
+  public void rebuildGrowing() {
+    var empty = new DefaultDirectedGraph<Integer, DefaultEdge>(DefaultEdge.class);
+    GraphKind.addVertices(empty, edges);
+    growing = instrument(empty);
+  }
+
+  private Graph<Integer, DefaultEdge> newGraph() {
+    var g = new DefaultDirectedGraph<Integer, DefaultEdge>(DefaultEdge.class);
+    GraphKind.addVertices(g, edges);
+    GraphKind.addEdges(g, edges);
+    return g;
+  }
+
+  private Graph<Integer, DefaultEdge> instrument(Graph<Integer, DefaultEdge> g) {
+    return sampleInterval == 0 ? g : new InstrumentedGraph<>(g, "bench", (name, metrics) -> {
+    }, sampleInterval);
+  }
+
+  @Benchmark
+  public int edgesOf() {
+    return graph.edgesOf(vertexProbes[next++ & (PROBES - 1)]).size();
+  }
+
+  @Benchmark
+  public DefaultEdge getEdge() {
+    int i = next++ & (PROBES - 1);
+    return graph.getEdge(sourceProbes[i], targetProbes[i]);
+  }
+
+  @Benchmark
+  public boolean containsEdge() {
+    int i = next++ & (PROBES - 1);
+    return graph.containsEdge(sourceProbes[i], targetProbes[i]);
+  }
+
+  @Benchmark
+  public DefaultEdge addEdge() {
+    int i = next++ & (PROBES - 1);
+    return growing.addEdge(sourceProbes[i], vertexProbes[i]);
+  }
+}
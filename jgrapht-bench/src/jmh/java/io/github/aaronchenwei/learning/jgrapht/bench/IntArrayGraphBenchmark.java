@@ -0,0 +1,78 @@
+package io.github.aaronchenwei.learning.jgrapht.bench;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.jgrapht.Graph;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Head-to-head comparison of {@code IntArrayGraph} and {@code SimpleGraph<Integer, DefaultEdge>}.
+ *
+ * <p>Run {@code GraphFootprint} for the matching heap numbers; both kinds are included there.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class IntArrayGraphBenchmark {
+
+  private static final int PROBES = 1 << 16;
+
+  @Param({"SIMPLE_GRAPH", "INT_ARRAY_GRAPH"})
+  public GraphKind kind;
+
+  @Param({"100000", "1000000"})
+  public int vertexCount;
+
+  @Param({"4"})
+  public int edgesPerVertex;
+
+  private EdgeList edges;
+  private Graph<Integer, ?> graph;
+  private int[] sourceProbes;
+  private int[] targetProbes;
+  private int next;
+
+  @Setup(Level.Trial)
+  public void build() {
+    edges = EdgeList.random(vertexCount, vertexCount * edgesPerVertex, 42L);
+    graph = kind.build(edges);
+
+    var random = new SplittableRandom(7L);
+    sourceProbes = new int[PROBES];
+    targetProbes = new int[PROBES];
+    for (int i = 0; i < PROBES; i++) {
+      int e = random.nextInt(edges.edgeCount());
+      sourceProbes[i] = edges.source(e);
+      targetProbes[i] = edges.target(e);
+    }
+  }
+
+  @Benchmark
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public Graph<Integer, ?> buildGraph() {
+    return kind.build(edges);
+  }
+
+  @Benchmark
+  public void edgesOf(Blackhole blackhole) {
+    int i = next++ & (PROBES - 1);
+    for (var edge : graph.edgesOf(sourceProbes[i])) {
+      blackhole.consume(edge);
+    }
+  }
+
+  @Benchmark
+  public Object getEdge() {
+    int i = next++ & (PROBES - 1);
+    return graph.getEdge(sourceProbes[i], targetProbes[i]);
+  }
+}
@@ -0,0 +1,86 @@
+package io.github.aaronchenwei.learning.jgrapht.bench;
+
+import io.github.aaronchenwei.learning.jgrapht.graph.IntCsr;
+import io.github.aaronchenwei.learning.jgrapht.traverse.DirectionOptimizingBfs;
+import io.github.aaronchenwei.learning.jgrapht.traverse.IntTraversal;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Single-source BFS on a random undirected graph: sequential {@code IntTraversal} versus
+ * {@code DirectionOptimizingBfs}, top-down only and direction-optimizing, on pools of 1 to 16 workers.
+ *
+ * <p>The scaling curve is the {@code directionOptimizing} score across {@code threads}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class ParallelBfsBenchmark {
+
+  @Param({"1000000", "10000000"})
+  public int vertexCount;
+
+  @Param({"8"})
+  public int edgesPerVertex;
+
+  @Param({"1", "2", "4", "8", "16"})
+  public int threads;
+
+  private ForkJoinPool pool;
+  private IntCsr adjacency;
+  private IntTraversal traversal;
+  private DirectionOptimizingBfs topDown;
+  private DirectionOptimizingBfs directionOptimizing;
+  private int next;
+
+  @Setup(Level.Trial)
+  public void build() {
+    pool = new ForkJoinPool(threads);
+    var edges = EdgeList.random(vertexCount, vertexCount * edgesPerVertex, 42L);
+    var sources = new int[edges.edgeCount()];
+    var targets = new int[edges.edgeCount()];
+    for (int e = 0; e < edges.edgeCount(); e++) {
+      sources[e] = edges.source(e);
+      targets[e] = edges.target(e);
+    }
+    adjacency = IntCsr.of(pool, vertexCount, sources, targets, sources.length, true);
+    traversal = new IntTraversal(vertexCount);
+    topDown = new DirectionOptimizingBfs(adjacency, adjacency).pool(pool).bottomUp(false);
+    directionOptimizing = new DirectionOptimizingBfs(adjacency, adjacency).pool(pool);
+  }
+
+  @TearDown(Level.Trial)
+  public void shutdown() {
+    pool.shutdown();
+  }
+
+  private int nextSource() {
+    next = (next + 7919) % vertexCount;
+    return next;
+  }
+
+  @Benchmark
+  public int sequential() {
+    return traversal.breadthFirst(adjacency, nextSource(), (v, depth) -> true);
+  }
+
+  @Benchmark
+  public int topDown() {
+    return topDown.search(nextSource()).reachedCount();
+  }
+
+  @Benchmark
+  public int directionOptimizing() {
+    return directionOptimizing.search(nextSource()).reachedCount();
+  }
+}
@@ -0,0 +1,262 @@
+package io.github.aaronchenwei.learning.jgrapht.bench;
+
+import io.github.aaronchenwei.learning.jgrapht.generate.ParallelGenerators;
+import io.github.aaronchenwei.learning.jgrapht.metrics.LatencyHistogram;
+import io.github.aaronchenwei.learning.jgrapht.server.GraphQueryServer;
+import io.github.aaronchenwei.learning.jgrapht.server.QueryProtocol;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.StandardSocketOptions;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Drives a {@link GraphQueryServer} at a fixed request rate and prints the latency percentiles (not a JMH benchmark).
+ *
+ * <p>The load is open-loop: every connection has a schedule of send times at {@code qps / connections} per second,
+ * and a sender thread writes all the requests that are due in one write, without waiting for responses. A receiver
+ * thread takes the responses in order and records each latency from the scheduled send time, not from the actual
+ * one, so a stalled server is charged for the requests it held back (no coordinated omission). At most
+ * {@value #WINDOW} requests per connection are in flight; a sender that reaches that limit falls behind its schedule,
+ * and the printed rate shows it.
+ *
+ * <p>Without {@code address} the generator starts a server in the same JVM, on a Barabasi-Albert graph with
+ * {@code vertices} vertices and 4 edges per vertex, over loopback TCP or, with {@code transport=unix}, a Unix domain
+ * socket. Run it with {@code ./gradlew :jgrapht-bench:queryLoad -PqueryLoadArgs=qps=100000,connections=8}; the
+ * arguments, all optional, are:
+ * <ul>
+ *   <li>{@code qps} (100000), {@code connections} (8), {@code seconds} (10) and {@code warmup} (3 seconds, not
+ *       recorded);</li>
+ *   <li>{@code neighbors}, {@code path} and {@code reachable}: the mix of requests in percent (90, 5, 5);</li>
+ *   <li>{@code address}: {@code host:port} or {@code unix:/path} of a running server, whose vertex count must then
+ *       be given as {@code vertices};</li>
+ *   <li>{@code vertices} (1000000) and {@code transport} ({@code tcp}) for the in-process server.</li>
+ * </ul>
+ */
+public final class QueryLoadGenerator {
+
+  private static final int WINDOW = 1 << 14;
+  private static final int SEND_BUFFER = 1 << 16;
+
+  private QueryLoadGenerator() {
+  }
+
+  public static void main(String[] args) throws Exception {
+    Map<String, String> options = new HashMap<>();
+    for (var arg : args) {
+      int eq = arg.indexOf('=');
+      if (eq < 0) {
+        throw new IllegalArgumentException("expected key=value: " + arg);
+      }
+      options.put(arg.substring(0, eq).trim(), arg.substring(eq + 1).trim());
+    }
+    int qps = Integer.parseInt(options.getOrDefault("qps", "100000"));
+    int connections = Integer.parseInt(options.getOrDefault("connections", "8"));
+    int seconds = Integer.parseInt(options.getOrDefault("seconds", "10"));
+    int warmup = Integer.parseInt(options.getOrDefault("warmup", "3"));
+    int vertices = Integer.parseInt(options.getOrDefault("vertices", "1000000"));
+    var mix = new int[] {
+      Integer.parseInt(options.getOrDefault("neighbors", "90")),
+      Integer.parseInt(options.getOrDefault("path", "5")),
+      Integer.parseInt(options.getOrDefault("reachable", "5"))
+    };
+
+    GraphQueryServer server = null;
+    Path socketDirectory = null;
+    SocketAddress address;
+    if (options.containsKey("address")) {
+      address = parseAddress(options.get("address"));
+    } else {
+      var graph = ParallelGenerators.barabasiAlbert(ForkJoinPool.commonPool(), vertices, 4, 42L).toCsrGraph();
+      server = new GraphQueryServer(graph);
+      if (options.getOrDefault("transport", "tcp").equals("unix")) {
+        socketDirectory = Files.createTempDirectory("graph-query");
+        address = server.start(UnixDomainSocketAddress.of(socketDirectory.resolve("graph.sock")));
+      } else {
+        address = server.start(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+      }
+    }
+
+    var histogram = new LatencyHistogram();
+    long start = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(100);
+    long measureFrom = start + TimeUnit.SECONDS.toNanos(warmup);
+    long end = measureFrom + TimeUnit.SECONDS.toNanos(seconds);
+    long interval = Math.max(1, (long) (1e9 * connections / qps));
+    long queriesBefore = server == null ? 0 : server.queryCount();
+    long batchesBefore = server == null ? 0 : server.batchCount();
+    List<Thread> threads = new ArrayList<>();
+    for (int c = 0; c < connections; c++) {
+      var connection = new Connection(open(address), vertices, mix, new SplittableRandom(c),
+        start + c * interval / connections, interval, end, measureFrom, histogram);
+      threads.add(startThread(connection::send, "load-send-" + c));
+      threads.add(startThread(connection::receive, "load-receive-" + c));
+    }
+    for (var thread : threads) {
+      thread.join();
+    }
+
+    var snapshot = histogram.snapshot();
+    System.out.printf("target %d/s over %d connections, achieved %.0f/s%n", qps, connections,
+      snapshot.sampleCount() / (seconds * 1.0));
+    System.out.printf("latency us: p50 %.1f  p90 %.1f  p99 %.1f  p99.9 %.1f  max %.1f%n",
+      snapshot.quantileNanos(0.5) / 1e3, snapshot.quantileNanos(0.9) / 1e3, snapshot.quantileNanos(0.99) / 1e3,
+      snapshot.quantileNanos(0.999) / 1e3, snapshot.maxNanos() / 1e3);
+    if (server != null) {
+      long batches = server.batchCount() - batchesBefore;
+      System.out.printf("server: %s threads, %.1f requests per batch%n",
+        server.usesVirtualThreads() ? "virtual" : "platform",
+        (server.queryCount() - queriesBefore) / (double) Math.max(1, batches));
+      server.close();
+    }
+    if (socketDirectory != null) {
+      Files.deleteIfExists(socketDirectory);
+    }
+  }
+
+  private static Thread startThread(Runnable task, String name) {
+    var thread = new Thread(task, name);
+    thread.start();
+    return thread;
+  }
+
+  private static SocketAddress parseAddress(String address) {
+    if (address.startsWith("unix:")) {
+      return UnixDomainSocketAddress.of(address.substring("unix:".length()));
+    }
+    int colon = address.lastIndexOf(':');
+    return new InetSocketAddress(address.substring(0, colon), Integer.parseInt(address.substring(colon + 1)));
+  }
+
+  private static SocketChannel open(SocketAddress address) throws IOException {
+    var channel = address instanceof UnixDomainSocketAddress
+      ? SocketChannel.open(StandardProtocolFamily.UNIX)
+      : SocketChannel.open();
+    channel.connect(address);
+    if (address instanceof InetSocketAddress) {
+      channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+    }
+    return channel;
+  }
+
+  /**
+   * One connection: the scheduled send times of the requests in flight, shared by its sender and receiver.
+   */
+  private static final class Connection {
+    private final SocketChannel channel;
+    private final int vertices;
+    private final int[] mix;
+    private final SplittableRandom random;
+    private final long start;
+    private final long interval;
+    private final long end;
+    private final long measureFrom;
+    private final LatencyHistogram histogram;
+    private final long[] scheduled = new long[WINDOW];
+    private final AtomicInteger published = new AtomicInteger();
+    private final AtomicInteger received = new AtomicInteger();
+
+    Connection(SocketChannel channel, int vertices, int[] mix, SplittableRandom random, long start, long interval,
+      long end, long measureFrom, LatencyHistogram histogram) {
+      this.channel = channel;
+      this.vertices = vertices;
+      this.mix = mix;
+      this.random = random;
+      this.start = start;
+      this.interval = interval;
+      this.end = end;
+      this.measureFrom = measureFrom;
+      this.histogram = histogram;
+    }
+
+    void send() {
+      var out = ByteBuffer.allocate(SEND_BUFFER);
+      int total = mix[0] + mix[1] + mix[2];
+      int sent = 0;
+      long next = start;
+      try {
+        while (next < end) {
+          long now = System.nanoTime();
+          out.clear();
+          while (next <= now && next < end && sent - received.get() < WINDOW
+            && out.remaining() >= QueryProtocol.MAX_REQUEST_LENGTH) {
+            scheduled[sent & (WINDOW - 1)] = next;
+            int kind = random.nextInt(total);
+            int source = random.nextInt(vertices);
+            if (kind < mix[0]) {
+              QueryProtocol.putNeighbors(out, source);
+            } else if (kind < mix[0] + mix[1]) {
+              QueryProtocol.putPath(out, source, random.nextInt(vertices));
+            } else {
+              QueryProtocol.putReachable(out, source, random.nextInt(vertices));
+            }
+            sent++;
+            next += interval;
+          }
+          // publishes the scheduled times before their responses can arrive
+          published.set(sent);
+          out.flip();
+          while (out.hasRemaining()) {
+            channel.write(out);
+          }
+          long wait = next - System.nanoTime();
+          if (sent - received.get() >= WINDOW) {
+            wait = TimeUnit.MICROSECONDS.toNanos(10);
+          }
+          if (wait > 0) {
+            LockSupport.parkNanos(wait);
+          }
+        }
+        // the server closes the connection once it has answered everything
+        channel.shutdownOutput();
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+
+    void receive() {
+      var in = ByteBuffer.allocate(1 << 20);
+      try (channel) {
+        while (channel.read(in) >= 0) {
+          long now = System.nanoTime();
+          // pairs with the sender's publication, so that the scheduled times are visible
+          published.get();
+          in.flip();
+          int length;
+          while ((length = QueryProtocol.responseLength(in)) >= 0 && in.remaining() >= length) {
+            in.position(in.position() + length);
+            int i = received.get();
+            long sentAt = scheduled[i & (WINDOW - 1)];
+            received.lazySet(i + 1);
+            if (sentAt >= measureFrom) {
+              histogram.countCall();
+              histogram.recordLatency(now - sentAt);
+            }
+          }
+          if (length > in.capacity()) {
+            in = ByteBuffer.allocate(length).put(in);
+          } else {
+            in.compact();
+          }
+        }
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+  }
+}
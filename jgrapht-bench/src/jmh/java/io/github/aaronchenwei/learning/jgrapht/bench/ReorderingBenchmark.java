@@ -0,0 +1,141 @@
+package io.github.aaronchenwei.learning.jgrapht.bench;
+
+import io.github.aaronchenwei.learning.jgrapht.generate.ParallelGenerators;
+import io.github.aaronchenwei.learning.jgrapht.graph.IntCsr;
+import io.github.aaronchenwei.learning.jgrapht.graph.IntCsrGraph;
+import io.github.aaronchenwei.learning.jgrapht.order.GraphPartitioner;
+import io.github.aaronchenwei.learning.jgrapht.order.VertexOrdering;
+import io.github.aaronchenwei.learning.jgrapht.scoring.ParallelPageRank;
+import io.github.aaronchenwei.learning.jgrapht.traverse.IntTraversal;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * BFS and PageRank on the same graph under different vertex orderings.
+ *
+ * <p>The graph is a square grid (like a road network) or a Barabasi-Albert graph (skewed degrees), with its vertices
+ * numbered in random order, as if they had been inserted in no particular order. {@code SHUFFLED} runs on that
+ * numbering; the other orderings relabel it with {@link VertexOrdering} or with the contiguous parts of a
+ * {@link GraphPartitioner} split into {@code threads} parts. {@code pageRank} runs a fixed number of iterations, so
+ * every ordering does the same work.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class ReorderingBenchmark {
+
+  private static final int PAGE_RANK_ITERATIONS = 20;
+
+  public enum Model {
+    GRID,
+    BARABASI_ALBERT
+  }
+
+  public enum Ordering {
+    SHUFFLED,
+    DEGREE_SORTED,
+    REVERSE_CUTHILL_MCKEE,
+    PARTITIONED
+  }
+
+  @Param
+  public Model model;
+
+  @Param
+  public Ordering ordering;
+
+  @Param({"1000000"})
+  public int vertexCount;
+
+  @Param({"1", "4"})
+  public int threads;
+
+  private ForkJoinPool pool;
+  private IntCsr adjacency;
+  private IntTraversal traversal;
+  private ParallelPageRank pageRank;
+
+  @Setup(Level.Trial)
+  public void build() {
+    pool = new ForkJoinPool(threads);
+    var graph = shuffle(model == Model.GRID ? grid(vertexCount) : ParallelGenerators.barabasiAlbert(pool,
+      vertexCount, 4, 42L).toCsrGraph());
+    var permutation = switch (ordering) {
+      case SHUFFLED -> null;
+      case DEGREE_SORTED -> VertexOrdering.degreeSorted(graph);
+      case REVERSE_CUTHILL_MCKEE -> VertexOrdering.reverseCuthillMcKee(graph);
+      case PARTITIONED -> new GraphPartitioner(threads).partition(graph).permutation();
+    };
+    if (permutation != null) {
+      graph = VertexOrdering.relabel(graph, permutation);
+    }
+    adjacency = graph.adjacency();
+    traversal = new IntTraversal(graph.vertexCount());
+    pageRank = new ParallelPageRank(adjacency, adjacency).pool(pool).tolerance(Double.MIN_VALUE)
+      .maxIterations(PAGE_RANK_ITERATIONS);
+  }
+
+  @TearDown(Level.Trial)
+  public void shutdown() {
+    pool.shutdown();
+  }
+
+  @Benchmark
+  public int bfs() {
+    return traversal.breadthFirst(adjacency, (vertex, depth) -> true);
+  }
+
+  @Benchmark
+  public double[] pageRank() {
+    return pageRank.run().scores();
+  }
+
+  private static IntCsrGraph grid(int vertexCount) {
+    int side = (int) Math.sqrt(vertexCount);
+    int m = 2 * side * (side - 1);
+    var sources = new int[m];
+    var targets = new int[m];
+    int e = 0;
+    for (int row = 0; row < side; row++) {
+      for (int col = 0; col < side; col++) {
+        int v = row * side + col;
+        if (col + 1 < side) {
+          sources[e] = v;
+          targets[e++] = v + 1;
+        }
+        if (row + 1 < side) {
+          sources[e] = v;
+          targets[e++] = v + side;
+        }
+      }
+    }
+    return IntCsrGraph.undirected(side * side, sources, targets, null);
+  }
+
+  private static IntCsrGraph shuffle(IntCsrGraph graph) {
+    int n = graph.vertexCount();
+    var permutation = new int[n];
+    for (int v = 0; v < n; v++) {
+      permutation[v] = v;
+    }
+    var random = new SplittableRandom(7L);
+    for (int i = n - 1; i > 0; i--) {
+      int j = random.nextInt(i + 1);
+      int swap = permutation[i];
+      permutation[i] = permutation[j];
+      permutation[j] = swap;
+    }
+    return VertexOrdering.relabel(graph, permutation);
+  }
+}
@@ -0,0 +1,104 @@
+package io.github.aaronchenwei.learning.jgrapht.bench;
+
+import io.github.aaronchenwei.learning.jgrapht.graph.IntArrayGraph;
+import io.github.aaronchenwei.learning.jgrapht.graph.WeightColumn;
+import java.util.concurrent.TimeUnit;
+import org.jgrapht.Graph;
+import org.jgrapht.graph.DefaultGraphType;
+import org.jgrapht.graph.DefaultWeightedEdge;
+import org.jgrapht.graph.DirectedWeightedPseudograph;
+import org.jgrapht.graph.SimpleWeightedGraph;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Reweighting every edge of a built graph: one {@code getEdgeWeight}/{@code setEdgeWeight} pair per edge of
+ * {@code edgeSet()}, vs one {@link IntArrayGraph#scaleEdgeWeights} pass over a heap or off-heap weight column.
+ *
+ * <p>The jgrapht graphs have no bulk path, so their {@code bulk} numbers repeat the per-edge loop. The {@code edges}
+ * counter is the reweighting rate (edges per second).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+public class ReweightBenchmark {
+
+  public enum Target {
+    SIMPLE_WEIGHTED_GRAPH,
+    DIRECTED_WEIGHTED_PSEUDOGRAPH,
+    INT_ARRAY_GRAPH_HEAP,
+    INT_ARRAY_GRAPH_OFF_HEAP
+  }
+
+  @Param
+  public Target target;
+
+  @Param({"1000000", "10000000"})
+  public int vertexCount;
+
+  @Param({"4"})
+  public int edgesPerVertex;
+
+  private Graph<Integer, ?> graph;
+
+  @Setup(Level.Trial)
+  public void build() {
+    var edges = EdgeList.random(vertexCount, vertexCount * edgesPerVertex, 42L);
+    int n = edges.vertexCount();
+    int m = edges.edgeCount();
+    graph = switch (target) {
+      case SIMPLE_WEIGHTED_GRAPH -> new SimpleWeightedGraph<Integer, DefaultWeightedEdge>(DefaultWeightedEdge.class);
+      case DIRECTED_WEIGHTED_PSEUDOGRAPH ->
+        new DirectedWeightedPseudograph<Integer, DefaultWeightedEdge>(DefaultWeightedEdge.class);
+      case INT_ARRAY_GRAPH_HEAP -> new IntArrayGraph(DefaultGraphType.simple().asWeighted(), n, m,
+        WeightColumn.Storage.HEAP);
+      case INT_ARRAY_GRAPH_OFF_HEAP -> new IntArrayGraph(DefaultGraphType.simple().asWeighted(), n, m,
+        WeightColumn.Storage.OFF_HEAP);
+    };
+    GraphKind.addVertices(graph, edges);
+    GraphKind.addEdges(graph, edges);
+  }
+
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.OPERATIONS)
+  public static class Counters {
+    public long edges;
+
+    @Setup(Level.Iteration)
+    public void reset() {
+      edges = 0;
+    }
+  }
+
+  @Benchmark
+  public Graph<Integer, ?> perEdge(Counters counters) {
+    scaleEach(graph);
+    counters.edges += graph.edgeSet().size();
+    return graph;
+  }
+
+  @Benchmark
+  public Graph<Integer, ?> bulk(Counters counters) {
+    if (graph instanceof IntArrayGraph) {
+      ((IntArrayGraph) graph).scaleEdgeWeights(1.0001);
+    } else {
+      scaleEach(graph);
+    }
+    counters.edges += graph.edgeSet().size();
+    return graph;
+  }
+
+  private static <E> void scaleEach(Graph<Integer, E> graph) {
+    for (E e : graph.edgeSet()) {
+      graph.setEdgeWeight(e, graph.getEdgeWeight(e) * 1.0001);
+    }
+  }
+}
@@ -0,0 +1,92 @@
+package io.github.aaronchenwei.learning.jgrapht.bench;
+
+import io.github.aaronchenwei.learning.jgrapht.graph.FrozenGraph;
+import io.github.aaronchenwei.learning.jgrapht.scoring.ParallelBetweenness;
+import io.github.aaronchenwei.learning.jgrapht.scoring.ParallelPageRank;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import org.jgrapht.Graph;
+import org.jgrapht.alg.scoring.PageRank;
+import org.jgrapht.graph.DefaultDirectedGraph;
+import org.jgrapht.graph.DefaultEdge;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Vertex scoring on a random {@code DefaultDirectedGraph}: jgrapht's {@code PageRank} versus
+ * {@link ParallelPageRank}, Jacobi and Gauss-Seidel, on a {@link FrozenGraph} of the same graph, and sampled
+ * {@link ParallelBetweenness}, on pools of 1 to 16 workers.
+ *
+ * <p>All PageRank runs use the jgrapht defaults (damping 0.85, tolerance 0.0001, at most 100 iterations); the
+ * {@code jgraphtPageRank} score does not depend on {@code threads}. Exact betweenness is quadratic, so
+ * {@code betweenness} searches from {@code BETWEENNESS_SAMPLE} sources only.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class ScoringBenchmark {
+
+  private static final int BETWEENNESS_SAMPLE = 256;
+
+  @Param({"100000", "1000000"})
+  public int vertexCount;
+
+  @Param({"8"})
+  public int edgesPerVertex;
+
+  @Param({"1", "4", "16"})
+  public int threads;
+
+  private ForkJoinPool pool;
+  private Graph<Integer, DefaultEdge> graph;
+  private ParallelPageRank jacobi;
+  private ParallelPageRank gaussSeidel;
+  private ParallelBetweenness betweenness;
+
+  @Setup(Level.Trial)
+  public void build() {
+    pool = new ForkJoinPool(threads);
+    var edges = EdgeList.random(vertexCount, vertexCount * edgesPerVertex, 42L);
+    graph = new DefaultDirectedGraph<>(DefaultEdge.class);
+    GraphKind.addVertices(graph, edges);
+    GraphKind.addEdges(graph, edges);
+    var frozen = FrozenGraph.freeze(graph);
+    jacobi = new ParallelPageRank(frozen).pool(pool);
+    gaussSeidel = new ParallelPageRank(frozen).pool(pool).asynchronous(true);
+    betweenness = new ParallelBetweenness(frozen).pool(pool).sample(BETWEENNESS_SAMPLE, 7L);
+  }
+
+  @TearDown(Level.Trial)
+  public void shutdown() {
+    pool.shutdown();
+  }
+
+  @Benchmark
+  public Map<Integer, Double> jgraphtPageRank() {
+    return new PageRank<>(graph).getScores();
+  }
+
+  @Benchmark
+  public double[] pageRank() {
+    return jacobi.run().scores();
+  }
+
+  @Benchmark
+  public double[] pageRankGaussSeidel() {
+    return gaussSeidel.run().scores();
+  }
+
+  @Benchmark
+  public double[] betweenness() {
+    return betweenness.run();
+  }
+}
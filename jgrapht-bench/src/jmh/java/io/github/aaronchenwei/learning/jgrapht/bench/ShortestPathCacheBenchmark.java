@@ -0,0 +1,118 @@
+package io.github.aaronchenwei.learning.jgrapht.bench;
+
+import io.github.aaronchenwei.learning.jgrapht.shortestpath.ShortestPathCache;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.jgrapht.alg.interfaces.ShortestPathAlgorithm;
+import org.jgrapht.alg.shortestpath.DijkstraShortestPath;
+import org.jgrapht.graph.DefaultDirectedWeightedGraph;
+import org.jgrapht.graph.DefaultListenableGraph;
+import org.jgrapht.graph.DefaultWeightedEdge;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Point-to-point shortest-path queries over a weighted directed graph, answered by a fresh
+ * {@code DijkstraShortestPath} search each time, or by a {@link ShortestPathCache} with LRU or LFU eviction.
+ *
+ * <p>Queries are skewed: nine in ten come from a small set of hot sources, the rest from any vertex, and the sinks
+ * are uniform. Dijkstra stops at the sink; the cache answers from the single-source tree of the source, so one search
+ * serves every later sink of a hot source, and cold sources compete with the hot ones for the capacity. A
+ * {@code writePercent} share of the operations changes the weight of a random edge instead, which lets the cache
+ * invalidate what the change can affect. The {@code queries} counter is the query rate, and {@code hits} the number
+ * of queries the cache answered without a search.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+public class ShortestPathCacheBenchmark {
+
+  public enum Target {
+    DIJKSTRA,
+    CACHE_LRU,
+    CACHE_LFU
+  }
+
+  @Param
+  public Target target;
+
+  @Param({"20000"})
+  public int vertexCount;
+
+  @Param({"4"})
+  public int edgesPerVertex;
+
+  @Param({"64"})
+  public int hotSources;
+
+  @Param({"0", "1"})
+  public int writePercent;
+
+  private DefaultListenableGraph<Integer, DefaultWeightedEdge> graph;
+  private DefaultWeightedEdge[] edges;
+  private ShortestPathAlgorithm<Integer, DefaultWeightedEdge> algorithm;
+  private ShortestPathCache<Integer, DefaultWeightedEdge> cache;
+  private SplittableRandom random;
+
+  @Setup(Level.Trial)
+  public void build() {
+    var list = EdgeList.random(vertexCount, vertexCount * edgesPerVertex, 42L);
+    graph = new DefaultListenableGraph<>(new DefaultDirectedWeightedGraph<>(DefaultWeightedEdge.class));
+    GraphKind.addVertices(graph, list);
+    edges = new DefaultWeightedEdge[list.edgeCount()];
+    for (int i = 0; i < list.edgeCount(); i++) {
+      var e = graph.addEdge(list.source(i), list.target(i));
+      if (e == null) {
+        e = graph.getEdge(list.source(i), list.target(i));
+      }
+      graph.setEdgeWeight(e, list.weight(i));
+      edges[i] = e;
+    }
+    // room for every hot source tree
+    long capacity = (long) hotSources * vertexCount;
+    algorithm = switch (target) {
+      case DIJKSTRA -> new DijkstraShortestPath<>(graph);
+      case CACHE_LRU -> cache = new ShortestPathCache<>(graph, ShortestPathCache.Eviction.LRU, capacity);
+      case CACHE_LFU -> cache = new ShortestPathCache<>(graph, ShortestPathCache.Eviction.LFU, capacity);
+    };
+    random = new SplittableRandom(7L);
+  }
+
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.OPERATIONS)
+  public static class Counters {
+    public long queries;
+    public long hits;
+
+    @Setup(Level.Iteration)
+    public void reset() {
+      queries = 0;
+      hits = 0;
+    }
+  }
+
+  @Benchmark
+  public double query(Counters counters) {
+    if (random.nextInt(100) < writePercent) {
+      graph.setEdgeWeight(edges[random.nextInt(edges.length)], random.nextDouble());
+      return 0.0;
+    }
+    int source = random.nextInt(10) == 0 ? random.nextInt(vertexCount) : random.nextInt(hotSources);
+    int sink = random.nextInt(vertexCount);
+    long hits = cache == null ? 0 : cache.statistics().hits();
+    double weight = cache == null ? algorithm.getPathWeight(source, sink) : cache.getPaths(source).getWeight(sink);
+    counters.queries++;
+    if (cache != null) {
+      counters.hits += cache.statistics().hits() - hits;
+    }
+    return weight;
+  }
+}
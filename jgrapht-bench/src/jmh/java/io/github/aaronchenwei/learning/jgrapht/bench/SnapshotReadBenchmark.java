@@ -0,0 +1,136 @@
+package io.github.aaronchenwei.learning.jgrapht.bench;
+
+import io.github.aaronchenwei.learning.jgrapht.graph.VersionedGraph;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import org.jgrapht.Graph;
+import org.jgrapht.graph.DefaultEdge;
+import org.jgrapht.graph.DefaultGraphType;
+import org.jgrapht.graph.SimpleGraph;
+import org.jgrapht.traverse.BreadthFirstIterator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Read latency under sustained write load: three readers run bounded breadth-first traversals while one writer keeps
+ * committing batches of edge toggles, either on a {@code SimpleGraph} behind a read-write lock or on a
+ * {@code VersionedGraph} read through snapshots.
+ *
+ * <p>The {@code read} scores (sample mode, with percentiles) are the latencies to compare; the {@code write} scores
+ * show what each structure costs the writer.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Group)
+public class SnapshotReadBenchmark {
+
+  @Param({"100000", "1000000"})
+  public int vertexCount;
+
+  @Param({"4"})
+  public int edgesPerVertex;
+
+  @Param({"100"})
+  public int batchSize;
+
+  @Param({"1000"})
+  public int verticesPerRead;
+
+  private Graph<Integer, DefaultEdge> locked;
+  private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+  private VersionedGraph<Integer, Integer> versioned;
+
+  @Setup(Level.Trial)
+  public void build() {
+    var edges = EdgeList.random(vertexCount, vertexCount * edgesPerVertex, 42L);
+    locked = new SimpleGraph<>(DefaultEdge.class);
+    var edgeIds = new AtomicInteger();
+    versioned = new VersionedGraph<>(DefaultGraphType.simple(), null, edgeIds::getAndIncrement);
+    versioned.update(g -> {
+      for (int v = 0; v < vertexCount; v++) {
+        locked.addVertex(v);
+        g.addVertex(v);
+      }
+      for (int e = 0; e < edges.edgeCount(); e++) {
+        locked.addEdge(edges.source(e), edges.target(e));
+        g.addEdge(edges.source(e), edges.target(e));
+      }
+    });
+  }
+
+  @State(Scope.Thread)
+  public static class Local {
+    final SplittableRandom random = new SplittableRandom(Thread.currentThread().getId());
+  }
+
+  @Benchmark
+  @Group("locked")
+  @GroupThreads(3)
+  public int lockedRead(Local local) {
+    lock.readLock().lock();
+    try {
+      return traverse(locked, local.random.nextInt(vertexCount));
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  @Benchmark
+  @Group("locked")
+  @GroupThreads(1)
+  public void lockedWrite(Local local) {
+    lock.writeLock().lock();
+    try {
+      for (int i = 0; i < batchSize; i++) {
+        int u = local.random.nextInt(vertexCount);
+        int v = local.random.nextInt(vertexCount);
+        if (u != v && locked.removeEdge(u, v) == null) {
+          locked.addEdge(u, v);
+        }
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  @Benchmark
+  @Group("versioned")
+  @GroupThreads(3)
+  public int versionedRead(Local local) {
+    return traverse(versioned.snapshot(), local.random.nextInt(vertexCount));
+  }
+
+  @Benchmark
+  @Group("versioned")
+  @GroupThreads(1)
+  public long versionedWrite(Local local) {
+    return versioned.update(g -> {
+      for (int i = 0; i < batchSize; i++) {
+        int u = local.random.nextInt(vertexCount);
+        int v = local.random.nextInt(vertexCount);
+        if (u != v && g.removeEdge(u, v) == null) {
+          g.addEdge(u, v);
+        }
+      }
+    }).epoch();
+  }
+
+  private int traverse(Graph<Integer, ?> graph, int start) {
+    int visited = 0;
+    for (var it = new BreadthFirstIterator<>(graph, start); it.hasNext() && visited < verticesPerRead; it.next()) {
+      visited++;
+    }
+    return visited;
+  }
+}
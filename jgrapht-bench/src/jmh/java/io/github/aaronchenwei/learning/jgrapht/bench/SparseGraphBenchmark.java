@@ -0,0 +1,102 @@
+package io.github.aaronchenwei.learning.jgrapht.bench;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import org.jgrapht.Graph;
+import org.jgrapht.Graphs;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Traversal throughput of the compact sparse graphs, directed and undirected, against
+ * {@code DefaultDirectedGraph<Integer, DefaultEdge>}, all through the {@link Graph} interface.
+ *
+ * <p>{@code outgoing} and {@code incoming} visit every edge from each vertex's {@code outgoingEdgesOf} or
+ * {@code incomingEdgesOf}, and {@code bfs} runs a breadth-first search over outgoing edges from vertex 0. On the
+ * undirected kinds both sweeps read the same adjacency and see every edge twice. Run {@code GraphFootprint} for the
+ * matching heap numbers; every kind here is included there.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Thread)
+public class SparseGraphBenchmark {
+
+  @Param({"DEFAULT_DIRECTED_GRAPH", "SPARSE_INT_UNDIRECTED_GRAPH", "SPARSE_INT_DIRECTED_GRAPH", "INT_CSR_GRAPH",
+    "INT_CSR_DIRECTED_GRAPH"})
+  public GraphKind kind;
+
+  @Param({"100000", "1000000"})
+  public int vertexCount;
+
+  @Param({"8"})
+  public int edgesPerVertex;
+
+  private Graph<Integer, ?> graph;
+  private int[] distances;
+  private int[] queue;
+
+  @Setup(Level.Trial)
+  public void build() {
+    graph = kind.build(EdgeList.random(vertexCount, vertexCount * edgesPerVertex, 42L));
+    distances = new int[vertexCount];
+    queue = new int[vertexCount];
+  }
+
+  @Benchmark
+  public long outgoing() {
+    return sweep(graph, false);
+  }
+
+  @Benchmark
+  public long incoming() {
+    return sweep(graph, true);
+  }
+
+  @Benchmark
+  public int bfs() {
+    return bfs(graph, distances, queue);
+  }
+
+  /**
+   * Sums the far endpoints of every edge, so that each edge is resolved and not just counted.
+   */
+  private static <E> long sweep(Graph<Integer, E> graph, boolean incoming) {
+    long sum = 0;
+    int n = graph.vertexSet().size();
+    for (int v = 0; v < n; v++) {
+      for (E e : incoming ? graph.incomingEdgesOf(v) : graph.outgoingEdgesOf(v)) {
+        sum += Graphs.getOppositeVertex(graph, e, v);
+      }
+    }
+    return sum;
+  }
+
+  /**
+   * Returns the number of vertices reached.
+   */
+  private static <E> int bfs(Graph<Integer, E> graph, int[] distances, int[] queue) {
+    Arrays.fill(distances, -1);
+    distances[0] = 0;
+    queue[0] = 0;
+    int head = 0;
+    int tail = 1;
+    while (head < tail) {
+      int u = queue[head++];
+      for (E e : graph.outgoingEdgesOf(u)) {
+        int w = Graphs.getOppositeVertex(graph, e, u);
+        if (distances[w] < 0) {
+          distances[w] = distances[u] + 1;
+          queue[tail++] = w;
+        }
+      }
+    }
+    return tail;
+  }
+}
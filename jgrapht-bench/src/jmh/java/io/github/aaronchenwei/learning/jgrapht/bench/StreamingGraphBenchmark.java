@@ -0,0 +1,160 @@
+package io.github.aaronchenwei.learning.jgrapht.bench;
+
+import io.github.aaronchenwei.learning.jgrapht.graph.SlidingWindowGraph;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.jgrapht.Graph;
+import org.jgrapht.graph.DefaultDirectedGraph;
+import org.jgrapht.graph.DefaultEdge;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Events per second into a graph that keeps a sliding time window of edge events: a {@link SlidingWindowGraph} with
+ * bucketed expiry, against a {@link DefaultDirectedGraph} with a queue of edge timestamps that is drained with one
+ * {@code removeEdge} per expired edge (and {@code removeVertex} for the endpoints left isolated).
+ *
+ * <p>Every invocation replays {@value #EVENTS} pre-generated events, {@code eventsPerMilli} per millisecond of event
+ * time, with the clock carried on from the invocation before, so that after the first the window is full and edges
+ * expire as fast as new ones come in. Sources and targets are skewed towards low vertex numbers, so that there are
+ * hubs and repeated edges; 1 in 1000 events is up to a second out of order. The window is 10 seconds, which holds
+ * about a million distinct edges at the default rate; {@code bucketMillis} only affects the sliding window graph.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Thread)
+public class StreamingGraphBenchmark {
+
+  private static final int EVENTS = 1 << 20;
+  private static final long WINDOW_MILLIS = 10_000;
+
+  public enum Implementation {
+    SLIDING_WINDOW,
+    DEFAULT_DIRECTED
+  }
+
+  @Param
+  public Implementation implementation;
+
+  @Param({"100000", "1000000"})
+  public int vertexCount;
+
+  @Param({"100"})
+  public int eventsPerMilli;
+
+  @Param({"100", "1000"})
+  public long bucketMillis;
+
+  private Integer[] vertices;
+  private int[] sources;
+  private int[] targets;
+  private long[] timestamps;
+  private long span;
+  private long offset;
+
+  private SlidingWindowGraph<Integer> window;
+  private Graph<Integer, DefaultEdge> graph;
+  private Map<DefaultEdge, Long> lastSeen;
+  private ArrayDeque<Object[]> expiry;
+
+  @Setup(Level.Trial)
+  public void generate() {
+    vertices = new Integer[vertexCount];
+    for (int v = 0; v < vertexCount; v++) {
+      vertices[v] = v;
+    }
+    var random = new SplittableRandom(42L);
+    sources = new int[EVENTS];
+    targets = new int[EVENTS];
+    timestamps = new long[EVENTS];
+    for (int i = 0; i < EVENTS; i++) {
+      sources[i] = skewed(random);
+      targets[i] = skewed(random);
+      timestamps[i] = i / eventsPerMilli - (random.nextInt(1000) == 0 ? random.nextInt(1000) : 0);
+    }
+    span = EVENTS / eventsPerMilli;
+    offset = 0;
+    if (implementation == Implementation.SLIDING_WINDOW) {
+      window = new SlidingWindowGraph<>(Duration.ofMillis(WINDOW_MILLIS), Duration.ofMillis(bucketMillis));
+    } else {
+      graph = new DefaultDirectedGraph<>(DefaultEdge.class);
+      lastSeen = new HashMap<>();
+      expiry = new ArrayDeque<>();
+    }
+  }
+
+  private int skewed(SplittableRandom random) {
+    double r = random.nextDouble();
+    return (int) (vertexCount * r * r * r);
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(EVENTS)
+  public long ingest() {
+    long base = offset;
+    offset += span;
+    if (window != null) {
+      long sum = 0;
+      for (int i = 0; i < EVENTS; i++) {
+        sum += window.ingest(vertices[sources[i]], vertices[targets[i]], base + timestamps[i]);
+      }
+      return sum;
+    }
+    long now = Long.MIN_VALUE;
+    for (int i = 0; i < EVENTS; i++) {
+      long timestamp = base + timestamps[i];
+      now = Math.max(now, timestamp);
+      expire(now - WINDOW_MILLIS);
+      var source = vertices[sources[i]];
+      var target = vertices[targets[i]];
+      graph.addVertex(source);
+      graph.addVertex(target);
+      var edge = graph.getEdge(source, target);
+      if (edge == null) {
+        edge = graph.addEdge(source, target);
+      }
+      var previous = lastSeen.get(edge);
+      if (previous == null || previous < timestamp) {
+        lastSeen.put(edge, timestamp);
+        expiry.addLast(new Object[] {edge, timestamp});
+      }
+    }
+    return graph.edgeSet().size();
+  }
+
+  /**
+   * Removes the edges last seen before a time, one by one; queue entries of renewed edges are skipped. The queue is
+   * only roughly ordered, which is good enough for a baseline.
+   */
+  private void expire(long before) {
+    while (!expiry.isEmpty() && (Long) expiry.peekFirst()[1] < before) {
+      var entry = expiry.pollFirst();
+      var edge = (DefaultEdge) entry[0];
+      if (!entry[1].equals(lastSeen.get(edge))) {
+        continue;
+      }
+      lastSeen.remove(edge);
+      var source = graph.getEdgeSource(edge);
+      var target = graph.getEdgeTarget(edge);
+      graph.removeEdge(edge);
+      if (graph.degreeOf(source) == 0) {
+        graph.removeVertex(source);
+      }
+      if (!source.equals(target) && graph.degreeOf(target) == 0) {
+        graph.removeVertex(target);
+      }
+    }
+  }
+}
@@ -0,0 +1,100 @@
+package io.github.aaronchenwei.learning.jgrapht.bench;
+
+import io.github.aaronchenwei.learning.jgrapht.graph.DictionaryGraph;
+import java.net.URI;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.jgrapht.Graph;
+import org.jgrapht.graph.DefaultDirectedGraph;
+import org.jgrapht.graph.DefaultEdge;
+import org.jgrapht.graph.DefaultGraphType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Latency of {@code edgesOf} on a graph of {@code URI} vertices, stored either in a
+ * {@code DefaultDirectedGraph<URI, DefaultEdge>} or in a {@link DictionaryGraph}. The retained heap of both is
+ * printed by {@link GraphFootprint}.
+ *
+ * <p>Probes are {@code URI} objects parsed separately from the vertices, as they would be when read from a request,
+ * so each lookup pays for {@code hashCode} and {@code equals} of a different instance.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class UriGraphBenchmark {
+
+  private static final int PROBES = 1 << 16;
+
+  public enum Target {
+    DEFAULT_DIRECTED_GRAPH,
+    DICTIONARY_GRAPH
+  }
+
+  @Param
+  public Target target;
+
+  @Param({"100000", "1000000"})
+  public int vertexCount;
+
+  @Param({"4"})
+  public int edgesPerVertex;
+
+  private Graph<URI, ?> graph;
+  private URI[] probes;
+  private int next;
+
+  @Setup(Level.Trial)
+  public void build() {
+    var edges = EdgeList.random(vertexCount, vertexCount * edgesPerVertex, 42L);
+    graph = build(target, edges);
+
+    var random = new SplittableRandom(7L);
+    probes = new URI[PROBES];
+    for (int i = 0; i < PROBES; i++) {
+      probes[i] = uri(random.nextInt(vertexCount));
+    }
+  }
+
+  @Benchmark
+  public void edgesOf(Blackhole blackhole) {
+    var probe = probes[next++ & (PROBES - 1)];
+    for (var edge : graph.edgesOf(probe)) {
+      blackhole.consume(edge);
+    }
+  }
+
+  /**
+   * Builds a directed graph whose vertex {@code v} of the edge list is {@code http://example.org/resource/v}.
+   *
+   * @param target the graph structure.
+   * @param edges the edge list.
+   * @return the graph.
+   */
+  static Graph<URI, ?> build(Target target, EdgeList edges) {
+    Graph<URI, ?> graph = target == Target.DICTIONARY_GRAPH
+      ? new DictionaryGraph<>(DefaultGraphType.directedSimple(), null, edges.vertexCount(), edges.edgeCount())
+      : new DefaultDirectedGraph<URI, DefaultEdge>(DefaultEdge.class);
+    var vertices = new URI[edges.vertexCount()];
+    for (int v = 0; v < vertices.length; v++) {
+      vertices[v] = uri(v);
+      graph.addVertex(vertices[v]);
+    }
+    for (int i = 0; i < edges.edgeCount(); i++) {
+      graph.addEdge(vertices[edges.source(i)], vertices[edges.target(i)]);
+    }
+    return graph;
+  }
+
+  private static URI uri(int v) {
+    return URI.create("http://example.org/resource/" + v);
+  }
+}
@@ -2,3 +2,4 @@ rootProject.name = "learning-jgrapht"
 
 include("hello-jgrapht")
 include("jgrapht-basic")
+include("jgrapht-bench")